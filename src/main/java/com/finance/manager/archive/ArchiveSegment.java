@@ -0,0 +1,268 @@
+package com.finance.manager.archive;
+
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.service.Money;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// One user's archived transactions for one year. On disk each field is stored as its own column
+// (ids, days, amounts, ...) and deflated, so similar values sit next to each other and compress well.
+// The month totals per category are stored ahead of the columns, so they are read without rebuilding rows.
+final class ArchiveSegment {
+
+    private static final int MAGIC = 0x46415243;
+    private static final byte VERSION = 1;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final int year;
+    private final List<ArchivedTransaction> transactions;
+    private final List<RollupTotal> totals;
+    // The ids in ascending order, and the transaction with each id at the same index.
+    private final long[] ids;
+    private final ArchivedTransaction[] byId;
+
+    private ArchiveSegment(int year, List<ArchivedTransaction> transactions, List<RollupTotal> totals) {
+        this.year = year;
+        this.transactions = transactions;
+        this.totals = totals;
+        this.byId = transactions.toArray(new ArchivedTransaction[0]);
+        Arrays.sort(byId, Comparator.comparingLong(ArchivedTransaction::id));
+        this.ids = new long[byId.length];
+        for (int i = 0; i < byId.length; i++) {
+            ids[i] = byId[i].id();
+        }
+    }
+
+    static ArchiveSegment of(int year, Collection<ArchivedTransaction> transactions) {
+        List<ArchivedTransaction> sorted = new ArrayList<>(transactions);
+        sorted.sort(ArchivedTransaction.ORDER);
+        for (ArchivedTransaction transaction : sorted) {
+            if (transaction.date().getYear() != year) {
+                throw new IllegalArgumentException("Transaction " + transaction.id() + " is not from " + year);
+            }
+        }
+        return new ArchiveSegment(year, List.copyOf(sorted), monthTotals(year, sorted));
+    }
+
+    int year() {
+        return year;
+    }
+
+    // Oldest first.
+    List<ArchivedTransaction> transactions() {
+        return transactions;
+    }
+
+    List<RollupTotal> totals() {
+        return totals;
+    }
+
+    Optional<ArchivedTransaction> find(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? Optional.of(byId[index]) : Optional.empty();
+    }
+
+    void write(OutputStream out) throws IOException {
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeInt(year);
+        header.writeInt(transactions.size());
+        header.flush();
+
+        Map<Long, Integer> codes = new LinkedHashMap<>();
+        List<ArchivedTransaction> categories = new ArrayList<>();
+        for (ArchivedTransaction transaction : transactions) {
+            if (codes.putIfAbsent(transaction.categoryId(), codes.size()) == null) {
+                categories.add(transaction);
+            }
+        }
+
+        DeflaterOutputStream deflater = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_COMPRESSION));
+        DataOutputStream data = new DataOutputStream(deflater);
+        writeVarLong(data, categories.size());
+        for (ArchivedTransaction category : categories) {
+            data.writeLong(category.categoryId());
+            data.writeUTF(category.category());
+            data.writeBoolean(category.type() == TransactionType.INCOME);
+        }
+
+        writeVarLong(data, totals.size());
+        for (RollupTotal total : totals) {
+            data.writeByte(total.getMonth());
+            writeVarLong(data, codes.get(total.getCategoryId()));
+            writeVarLong(data, zigZag(Money.toCents(total.getTotal())));
+            writeVarLong(data, total.getCount());
+        }
+
+        long previousId = 0L;
+        for (ArchivedTransaction transaction : transactions) {
+            writeVarLong(data, zigZag(transaction.id() - previousId));
+            previousId = transaction.id();
+        }
+        int previousDay = 0;
+        for (ArchivedTransaction transaction : transactions) {
+            writeVarLong(data, transaction.date().getDayOfYear() - previousDay);
+            previousDay = transaction.date().getDayOfYear();
+        }
+        for (ArchivedTransaction transaction : transactions) {
+            writeVarLong(data, zigZag(transaction.cents()));
+        }
+        for (ArchivedTransaction transaction : transactions) {
+            writeVarLong(data, codes.get(transaction.categoryId()));
+        }
+        long previousMicros = 0L;
+        for (ArchivedTransaction transaction : transactions) {
+            long micros = ChronoUnit.MICROS.between(EPOCH, transaction.createdAt());
+            writeVarLong(data, zigZag(micros - previousMicros));
+            previousMicros = micros;
+        }
+        for (ArchivedTransaction transaction : transactions) {
+            data.writeBoolean(transaction.description() != null);
+            if (transaction.description() != null) {
+                data.writeUTF(transaction.description());
+            }
+        }
+        data.flush();
+        deflater.finish();
+    }
+
+    static ArchiveSegment read(InputStream in) throws IOException {
+        DataInputStream header = new DataInputStream(in);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Not an archive segment");
+        }
+        byte version = header.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unknown archive segment version " + version);
+        }
+        int year = header.readInt();
+        int size = header.readInt();
+
+        DataInputStream data = new DataInputStream(new InflaterInputStream(in));
+        int categoryCount = (int) readVarLong(data);
+        long[] categoryIds = new long[categoryCount];
+        String[] categoryNames = new String[categoryCount];
+        TransactionType[] categoryTypes = new TransactionType[categoryCount];
+        for (int c = 0; c < categoryCount; c++) {
+            categoryIds[c] = data.readLong();
+            categoryNames[c] = data.readUTF();
+            categoryTypes[c] = data.readBoolean() ? TransactionType.INCOME : TransactionType.EXPENSE;
+        }
+
+        int totalCount = (int) readVarLong(data);
+        List<RollupTotal> totals = new ArrayList<>(totalCount);
+        for (int t = 0; t < totalCount; t++) {
+            int month = data.readByte();
+            int category = (int) readVarLong(data);
+            long cents = unZigZag(readVarLong(data));
+            long count = readVarLong(data);
+            totals.add(new RollupTotal(year, month, categoryTypes[category], categoryIds[category],
+                    categoryNames[category], Money.toBigDecimal(cents), count));
+        }
+
+        long[] ids = new long[size];
+        int[] days = new int[size];
+        long[] cents = new long[size];
+        int[] categories = new int[size];
+        long[] micros = new long[size];
+        long id = 0L;
+        for (int i = 0; i < size; i++) {
+            id += unZigZag(readVarLong(data));
+            ids[i] = id;
+        }
+        int day = 0;
+        for (int i = 0; i < size; i++) {
+            day += (int) readVarLong(data);
+            days[i] = day;
+        }
+        for (int i = 0; i < size; i++) {
+            cents[i] = unZigZag(readVarLong(data));
+        }
+        for (int i = 0; i < size; i++) {
+            categories[i] = (int) readVarLong(data);
+        }
+        long created = 0L;
+        for (int i = 0; i < size; i++) {
+            created += unZigZag(readVarLong(data));
+            micros[i] = created;
+        }
+
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+        List<ArchivedTransaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String description = data.readBoolean() ? data.readUTF() : null;
+            int category = categories[i];
+            transactions.add(new ArchivedTransaction(ids[i], firstDay.withDayOfYear(days[i]), cents[i],
+                    categoryIds[category], categoryNames[category], categoryTypes[category], description,
+                    EPOCH.plus(micros[i], ChronoUnit.MICROS)));
+        }
+        return new ArchiveSegment(year, List.copyOf(transactions), List.copyOf(totals));
+    }
+
+    static List<RollupTotal> monthTotals(int year, List<ArchivedTransaction> transactions) {
+        Map<List<Object>, ArchivedTransaction> groups = new LinkedHashMap<>();
+        Map<List<Object>, long[]> sums = new HashMap<>();
+        for (ArchivedTransaction transaction : transactions) {
+            List<Object> key = List.of(transaction.date().getMonthValue(), transaction.categoryId());
+            groups.putIfAbsent(key, transaction);
+            long[] sum = sums.computeIfAbsent(key, k -> new long[2]);
+            sum[0] = Money.add(sum[0], transaction.cents());
+            sum[1]++;
+        }
+        List<RollupTotal> totals = new ArrayList<>(groups.size());
+        groups.forEach((key, first) -> {
+            long[] sum = sums.get(key);
+            totals.add(new RollupTotal(year, first.date().getMonthValue(), first.type(), first.categoryId(),
+                    first.category(), Money.toBigDecimal(sum[0]), sum[1]));
+        });
+        return List.copyOf(totals);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed archive segment");
+    }
+}
@@ -0,0 +1,256 @@
+package com.finance.manager.archive;
+
+import com.finance.manager.dto.projection.RollupTotal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Archive segments on disk, one file per user and year (<dir>/<userId>/<year>.seg), with the most
+// recently read segments kept decoded in memory. Users without an archive cost one directory lookup,
+// after which the empty year set is remembered.
+@Component
+@Slf4j
+public class ArchiveStore {
+
+    private static final Pattern SEGMENT = Pattern.compile("(\\d{4})\\.seg");
+
+    private final Path directory;
+    private final int maxSegments;
+    private final ConcurrentHashMap<Long, NavigableSet<Integer>> years = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<SegmentKey, ArchiveSegment> segments = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped on every write; a segment read across a write is not cached.
+    private long generation;
+
+    public ArchiveStore(@Value("${app.archive.dir:./data/archive}") Path directory,
+                        @Value("${app.archive.cache.max-segments:256}") int maxSegments) {
+        this.directory = directory;
+        this.maxSegments = maxSegments;
+    }
+
+    public boolean hasArchive(Long userId) {
+        return !years(userId).isEmpty();
+    }
+
+    // Archived transactions dated from..to (either end may be null), oldest first.
+    public List<ArchivedTransaction> find(Long userId, LocalDate from, LocalDate to) {
+        List<ArchivedTransaction> found = new ArrayList<>();
+        for (int year : years(userId)) {
+            if ((from != null && year < from.getYear()) || (to != null && year > to.getYear())) {
+                continue;
+            }
+            for (ArchivedTransaction transaction : segment(userId, year).transactions()) {
+                if ((from == null || !transaction.date().isBefore(from))
+                        && (to == null || !transaction.date().isAfter(to))) {
+                    found.add(transaction);
+                }
+            }
+        }
+        return found;
+    }
+
+    // A binary search of each segment's id index, newest year first: recent rows are the likelier ones.
+    public Optional<ArchivedTransaction> findById(Long userId, Long id) {
+        for (int year : years(userId).descendingSet()) {
+            Optional<ArchivedTransaction> found = segment(userId, year).find(id);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // The month totals of every archived year, as the rollups would hold them. An interrupted archive run
+    // can leave a row both archived and in the table; those listed in stillLive are counted by the table
+    // only, so a segment holding one has its totals recomputed without it.
+    public List<RollupTotal> totals(Long userId, Set<Long> stillLive) {
+        List<RollupTotal> totals = new ArrayList<>();
+        for (int year : years(userId)) {
+            ArchiveSegment segment = segment(userId, year);
+            List<ArchivedTransaction> archivedOnly = segment.transactions().stream()
+                    .filter(transaction -> !stillLive.contains(transaction.id()))
+                    .toList();
+            totals.addAll(archivedOnly.size() == segment.transactions().size() ? segment.totals()
+                    : ArchiveSegment.monthTotals(year, archivedOnly));
+        }
+        return totals;
+    }
+
+    public boolean usesCategory(Long userId, Long categoryId) {
+        for (int year : years(userId)) {
+            for (RollupTotal total : segment(userId, year).totals()) {
+                if (total.getCategoryId().equals(categoryId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Merges transactions into the user's segment for their year, replacing archived ones with the
+    // same id, and swaps the new file in atomically once it is on disk.
+    void write(Long userId, int year, List<ArchivedTransaction> added) {
+        Map<Long, ArchivedTransaction> merged = archived(userId, year);
+        added.forEach(transaction -> merged.put(transaction.id(), transaction));
+        store(userId, year, merged.values());
+        log.debug("Archived {} transactions of user {} for {} ({} in the segment)", added.size(), userId, year,
+                merged.size());
+    }
+
+    // Undoes a write whose database side did not commit.
+    void remove(Long userId, int year, Collection<Long> ids) {
+        Map<Long, ArchivedTransaction> remaining = archived(userId, year);
+        ids.forEach(remaining::remove);
+        store(userId, year, remaining.values());
+    }
+
+    private Map<Long, ArchivedTransaction> archived(Long userId, int year) {
+        Map<Long, ArchivedTransaction> archived = new LinkedHashMap<>();
+        if (years(userId).contains(year)) {
+            segment(userId, year).transactions().forEach(transaction -> archived.put(transaction.id(), transaction));
+        }
+        return archived;
+    }
+
+    // An empty segment is deleted rather than written.
+    private void store(Long userId, int year, Collection<ArchivedTransaction> transactions) {
+        ArchiveSegment segment = ArchiveSegment.of(year, transactions);
+        Path userDirectory = directory.resolve(String.valueOf(userId));
+        Path target = userDirectory.resolve(year + ".seg");
+        try {
+            if (transactions.isEmpty()) {
+                Files.deleteIfExists(target);
+            } else {
+                Files.createDirectories(userDirectory);
+                Path temporary = Files.createTempFile(userDirectory, year + "-", ".tmp");
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+                    segment.write(out);
+                    out.flush();
+                    channel.force(true);
+                }
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment " + target, e);
+        }
+
+        lock.lock();
+        try {
+            generation++;
+            SegmentKey key = new SegmentKey(userId, year);
+            if (transactions.isEmpty()) {
+                segments.remove(key);
+            } else {
+                segments.put(key, segment);
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        years.compute(userId, (id, known) -> {
+            NavigableSet<Integer> updated = new TreeSet<>(known != null ? known : Collections.emptySet());
+            if (transactions.isEmpty()) {
+                updated.remove(year);
+            } else {
+                updated.add(year);
+            }
+            return Collections.unmodifiableNavigableSet(updated);
+        });
+    }
+
+    // The years with a segment, oldest first.
+    public NavigableSet<Integer> years(Long userId) {
+        return years.computeIfAbsent(userId, this::listYears);
+    }
+
+    private NavigableSet<Integer> listYears(Long userId) {
+        NavigableSet<Integer> found = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory.resolve(String.valueOf(userId)))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    found.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // No archive for this user.
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the archive of user " + userId, e);
+        }
+        return Collections.unmodifiableNavigableSet(found);
+    }
+
+    private ArchiveSegment segment(Long userId, int year) {
+        SegmentKey key = new SegmentKey(userId, year);
+        long observed;
+        lock.lock();
+        try {
+            ArchiveSegment cached = segments.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            observed = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Path file = directory.resolve(String.valueOf(userId)).resolve(year + ".seg");
+        ArchiveSegment loaded;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            loaded = ArchiveSegment.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive segment " + file, e);
+        }
+
+        lock.lock();
+        try {
+            if (generation == observed) {
+                segments.put(key, loaded);
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    private void evictOverflow() {
+        while (segments.size() > maxSegments) {
+            segments.remove(segments.keySet().iterator().next());
+        }
+    }
+
+    private record SegmentKey(long userId, int year) {
+    }
+}
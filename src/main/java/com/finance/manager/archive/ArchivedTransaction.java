@@ -0,0 +1,48 @@
+package com.finance.manager.archive;
+
+import com.finance.manager.dto.projection.LedgerRow;
+import com.finance.manager.dto.projection.TransactionView;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.service.Money;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+// A transaction moved out of the database into an archive segment. Archived transactions are read-only.
+public record ArchivedTransaction(long id, LocalDate date, long cents, long categoryId, String category,
+                                  TransactionType type, String description, LocalDateTime createdAt) {
+
+    // Oldest first; the reverse of the order the transaction list is paged in.
+    public static final Comparator<ArchivedTransaction> ORDER = Comparator.comparing(ArchivedTransaction::date)
+            .thenComparing(ArchivedTransaction::createdAt)
+            .thenComparingLong(ArchivedTransaction::id);
+
+    public static ArchivedTransaction of(Transaction transaction) {
+        return new ArchivedTransaction(transaction.getId(), transaction.getDate(),
+                Money.toCents(transaction.getAmount()), transaction.getCategory().getId(),
+                transaction.getCategory().getName(), transaction.getType(), transaction.getDescription(),
+                transaction.getCreatedAt());
+    }
+
+    public TransactionView toView() {
+        return new TransactionView(id, Money.toBigDecimal(cents), date, category, description, type, createdAt);
+    }
+
+    public LedgerRow toLedgerRow() {
+        return new LedgerRow(id, date, Money.toBigDecimal(cents), categoryId, category, type);
+    }
+
+    public Transaction toTransaction() {
+        return Transaction.builder()
+                .id(id)
+                .amount(Money.toBigDecimal(cents))
+                .date(date)
+                .category(Category.builder().id(categoryId).name(category).type(type).build())
+                .type(type)
+                .description(description)
+                .createdAt(createdAt)
+                .build();
+    }
+}
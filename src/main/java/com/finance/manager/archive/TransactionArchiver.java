@@ -0,0 +1,137 @@
+package com.finance.manager.archive;
+
+import com.finance.manager.dto.response.ArchiveRunResponse;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.shard.ShardContext;
+import com.finance.manager.shard.Shards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Moves transactions from years that lie entirely before the retention horizon out of the database and
+// into archive segments, one (user, year) per database transaction. Their monthly rollups and daily
+// balances stay in the database, so reports and balances read them as before.
+@Component
+@Slf4j
+public class TransactionArchiver {
+
+    static final int DELETE_BATCH = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final ArchiveStore archiveStore;
+    private final Shards shards;
+    private final TransactionTemplate template;
+    private final boolean enabled;
+    private final Period horizon;
+    private final Clock clock;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public TransactionArchiver(TransactionRepository transactionRepository, UserRepository userRepository,
+                               ArchiveStore archiveStore, Shards shards,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.archive.enabled:false}") boolean enabled,
+                               @Value("${app.archive.horizon:P2Y}") Period horizon) {
+        this(transactionRepository, userRepository, archiveStore, shards, transactionManager, enabled, horizon,
+                Clock.systemDefaultZone());
+    }
+
+    TransactionArchiver(TransactionRepository transactionRepository, UserRepository userRepository,
+                        ArchiveStore archiveStore, Shards shards, PlatformTransactionManager transactionManager,
+                        boolean enabled, Period horizon, Clock clock) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.archiveStore = archiveStore;
+        this.shards = shards;
+        this.template = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveOnSchedule() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    public ArchiveRunResponse archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidRequestException("Archiving is already running");
+        }
+        try {
+            LocalDate before = LocalDate.now(clock).minus(horizon).withDayOfYear(1);
+            List<Long> userIds = ShardContext.call(null, userRepository::findAllIds);
+            long archived = 0;
+            int segments = 0;
+            for (Long userId : userIds) {
+                long[] user = ShardContext.call(shards.shardOf(userId), () -> archiveUser(userId, before));
+                archived += user[0];
+                segments += (int) user[1];
+            }
+            log.info("Archived {} transactions before {} into {} segments ({} users checked)", archived, before,
+                    segments, userIds.size());
+            return ArchiveRunResponse.builder()
+                    .archivedBefore(before.toString())
+                    .usersChecked(userIds.size())
+                    .transactionsArchived(archived)
+                    .segmentsWritten(segments)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Transactions archived and segments written.
+    private long[] archiveUser(Long userId, LocalDate before) {
+        long[] archived = new long[2];
+        for (int year : transactionRepository.findYearsBefore(userId, before)) {
+            archived[0] += archiveYear(userId, year);
+            archived[1]++;
+        }
+        return archived;
+    }
+
+    // The segment is written before the rows are deleted; if the delete does not commit, the rows are
+    // taken out of the segment again so nothing is read twice.
+    private int archiveYear(Long userId, int year) {
+        List<Long> written = new ArrayList<>();
+        try {
+            return template.execute(status -> {
+                List<Transaction> transactions = transactionRepository.findForArchive(userId,
+                        LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+                List<Long> ids = transactions.stream().map(Transaction::getId).collect(Collectors.toList());
+                archiveStore.write(userId, year, transactions.stream()
+                        .map(ArchivedTransaction::of)
+                        .collect(Collectors.toList()));
+                written.addAll(ids);
+                for (int from = 0; from < ids.size(); from += DELETE_BATCH) {
+                    transactionRepository.deleteAllByIdInBatch(ids.subList(from, Math.min(from + DELETE_BATCH,
+                            ids.size())));
+                }
+                return ids.size();
+            });
+        } catch (RuntimeException e) {
+            if (!written.isEmpty()) {
+                archiveStore.remove(userId, year, written);
+            }
+            throw e;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.finance.manager.config;
 import com.finance.manager.entity.Category;
 import com.finance.manager.enums.TransactionType;
 import com.finance.manager.repository.CategoryRepository;
+import com.finance.manager.service.CategoryDictionary;
+import com.finance.manager.shard.Shards;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -16,11 +18,15 @@ import java.util.List;
 public class DataInitializer implements CommandLineRunner {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryDictionary categoryDictionary;
+    private final Shards shards;
 
     @Override
     @Transactional
     public void run(String... args) {
         initializeDefaultCategories();
+        shards.replicateDefaultsAfterCommit();
+        categoryDictionary.loadDefaults();
     }
 
     private void initializeDefaultCategories() {
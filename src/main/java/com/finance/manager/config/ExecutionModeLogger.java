@@ -0,0 +1,23 @@
+package com.finance.manager.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionModeLogger {
+
+    private final Environment environment;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode() {
+        log.info("Request execution mode: {}",
+                Threading.VIRTUAL.isActive(environment) ? "virtual threads" : "platform threads");
+    }
+}
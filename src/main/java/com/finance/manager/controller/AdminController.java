@@ -0,0 +1,76 @@
+package com.finance.manager.controller;
+
+import com.finance.manager.archive.TransactionArchiver;
+import com.finance.manager.dto.response.ArchiveRunResponse;
+import com.finance.manager.dto.response.ReportCacheStatsResponse;
+import com.finance.manager.dto.response.RollupVerificationResponse;
+import com.finance.manager.dto.response.SingleFlightStatsResponse;
+import com.finance.manager.exception.ForbiddenException;
+import com.finance.manager.service.ReportCache;
+import com.finance.manager.service.RollupService;
+import com.finance.manager.service.SingleFlight;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final RollupService rollupService;
+    private final ReportCache reportCache;
+    private final SingleFlight singleFlight;
+    private final TransactionArchiver transactionArchiver;
+
+    @Value("${app.admin.token:}")
+    private String adminToken;
+
+    @GetMapping("/rollups/verify")
+    public ResponseEntity<RollupVerificationResponse> verifyRollups(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        requireAdmin(token);
+        return ResponseEntity.ok(rollupService.verify(false));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<RollupVerificationResponse> rebuildRollups(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        requireAdmin(token);
+        return ResponseEntity.ok(rollupService.verify(true));
+    }
+
+    @GetMapping("/cache/reports")
+    public ResponseEntity<ReportCacheStatsResponse> getReportCacheStats(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        requireAdmin(token);
+        return ResponseEntity.ok(reportCache.stats());
+    }
+
+    @GetMapping("/single-flight")
+    public ResponseEntity<SingleFlightStatsResponse> getSingleFlightStats(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        requireAdmin(token);
+        return ResponseEntity.ok(singleFlight.stats());
+    }
+
+    @PostMapping("/archive")
+    public ResponseEntity<ArchiveRunResponse> archiveTransactions(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        requireAdmin(token);
+        return ResponseEntity.ok(transactionArchiver.archive());
+    }
+
+    private void requireAdmin(String token) {
+        if (adminToken == null || adminToken.isBlank() || token == null
+                || !MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8),
+                        token.getBytes(StandardCharsets.UTF_8))) {
+            throw new ForbiddenException("Admin access denied");
+        }
+    }
+}
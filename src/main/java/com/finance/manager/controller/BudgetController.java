@@ -0,0 +1,102 @@
+package com.finance.manager.controller;
+
+import com.finance.manager.dto.request.BudgetRequest;
+import com.finance.manager.dto.request.BudgetUpdateRequest;
+import com.finance.manager.dto.response.BudgetListResponse;
+import com.finance.manager.dto.response.BudgetResponse;
+import com.finance.manager.dto.response.BudgetStatusResponse;
+import com.finance.manager.dto.response.MessageResponse;
+import com.finance.manager.entity.User;
+import com.finance.manager.service.BudgetService;
+import com.finance.manager.service.DataVersions;
+import com.finance.manager.service.UserService;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/api/budgets")
+@RequiredArgsConstructor
+public class BudgetController {
+
+    private final BudgetService budgetService;
+    private final UserService userService;
+    private final DataVersions dataVersions;
+
+    @PostMapping
+    public ResponseEntity<BudgetResponse> createBudget(
+            @Valid @RequestBody BudgetRequest request,
+            HttpSession session) {
+        User user = userService.getAuthenticatedUser(session);
+        BudgetResponse response = budgetService.createBudget(request, user);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    public ResponseEntity<BudgetListResponse> getBudgets(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            HttpSession session,
+            WebRequest webRequest) {
+        User user = userService.getAuthenticatedUser(session);
+        budgetService.validateBudgetQuery(year, month);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
+        BudgetListResponse response = budgetService.getBudgets(year, month, user);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<BudgetStatusResponse> getStatus(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            HttpSession session,
+            WebRequest webRequest) {
+        User user = userService.getAuthenticatedUser(session);
+        // Without a period the status follows the calendar, so last month's tag must stop matching.
+        YearMonth period = budgetService.statusPeriod(year, month);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId(), period))) {
+            return null;
+        }
+        BudgetStatusResponse response = budgetService.getStatus(year, month, user);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BudgetResponse> getBudget(
+            @PathVariable Long id,
+            HttpSession session,
+            WebRequest webRequest) {
+        User user = userService.getAuthenticatedUser(session);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
+        BudgetResponse response = budgetService.getBudget(id, user);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<BudgetResponse> updateBudget(
+            @PathVariable Long id,
+            @Valid @RequestBody BudgetUpdateRequest request,
+            HttpSession session) {
+        User user = userService.getAuthenticatedUser(session);
+        BudgetResponse response = budgetService.updateBudget(id, request, user);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<MessageResponse> deleteBudget(
+            @PathVariable Long id,
+            HttpSession session) {
+        User user = userService.getAuthenticatedUser(session);
+        MessageResponse response = budgetService.deleteBudget(id, user);
+        return ResponseEntity.ok(response);
+    }
+}
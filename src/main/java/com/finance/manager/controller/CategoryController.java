@@ -6,6 +6,7 @@ import com.finance.manager.dto.response.CategoryResponse;
 import com.finance.manager.dto.response.MessageResponse;
 import com.finance.manager.entity.User;
 import com.finance.manager.service.CategoryService;
+import com.finance.manager.service.DataVersions;
 import com.finance.manager.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
@@ -13,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -21,12 +23,16 @@ public class CategoryController {
 
     private final CategoryService categoryService;
     private final UserService userService;
+    private final DataVersions dataVersions;
 
     @GetMapping
-    public ResponseEntity<CategoryListResponse> getAllCategories(HttpSession session) {
+    public ResponseEntity<CategoryListResponse> getAllCategories(HttpSession session, WebRequest webRequest) {
         User user = userService.getAuthenticatedUser(session);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
         CategoryListResponse response = categoryService.getAllCategories(user);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
     }
 
     @PostMapping
@@ -6,7 +6,9 @@ import com.finance.manager.dto.response.GoalListResponse;
 import com.finance.manager.dto.response.GoalResponse;
 import com.finance.manager.dto.response.MessageResponse;
 import com.finance.manager.entity.User;
+import com.finance.manager.service.DataVersions;
 import com.finance.manager.service.GoalService;
+import com.finance.manager.service.IdempotencyStore;
 import com.finance.manager.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
@@ -14,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/goals")
@@ -22,30 +25,41 @@ public class GoalController {
 
     private final GoalService goalService;
     private final UserService userService;
+    private final IdempotencyStore idempotencyStore;
+    private final DataVersions dataVersions;
 
     @PostMapping
     public ResponseEntity<GoalResponse> createGoal(
             @Valid @RequestBody GoalRequest request,
+            @RequestHeader(value = TransactionController.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             HttpSession session) {
         User user = userService.getAuthenticatedUser(session);
-        GoalResponse response = goalService.createGoal(request, user);
+        GoalResponse response = idempotencyStore.execute(user.getId(), "goals", idempotencyKey, request,
+                () -> goalService.createGoal(request, user));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping
-    public ResponseEntity<GoalListResponse> getAllGoals(HttpSession session) {
+    public ResponseEntity<GoalListResponse> getAllGoals(HttpSession session, WebRequest webRequest) {
         User user = userService.getAuthenticatedUser(session);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
         GoalListResponse response = goalService.getAllGoals(user);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<GoalResponse> getGoal(
             @PathVariable Long id,
-            HttpSession session) {
+            HttpSession session,
+            WebRequest webRequest) {
         User user = userService.getAuthenticatedUser(session);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
         GoalResponse response = goalService.getGoal(id, user);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
     }
 
     @PutMapping("/{id}")
@@ -1,14 +1,20 @@
 package com.finance.manager.controller;
 
+import com.finance.manager.dto.response.AggregateResponse;
+import com.finance.manager.dto.response.BalanceSeriesResponse;
 import com.finance.manager.dto.response.MonthlyReportResponse;
 import com.finance.manager.dto.response.YearlyReportResponse;
 import com.finance.manager.entity.User;
+import com.finance.manager.service.BalanceService;
+import com.finance.manager.service.DataVersions;
 import com.finance.manager.service.ReportService;
 import com.finance.manager.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -16,25 +22,68 @@ import org.springframework.web.bind.annotation.*;
 public class ReportController {
 
     private final ReportService reportService;
+    private final BalanceService balanceService;
     private final UserService userService;
+    private final DataVersions dataVersions;
 
     @GetMapping("/monthly/{year}/{month}")
     public ResponseEntity<MonthlyReportResponse> getMonthlyReport(
             @PathVariable int year,
             @PathVariable int month,
-            HttpSession session) {
+            HttpSession session,
+            WebRequest webRequest) {
         User user = userService.getAuthenticatedUser(session);
+        reportService.validateMonthlyReport(year, month);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
         MonthlyReportResponse response = reportService.getMonthlyReport(year, month, user);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
     }
 
     @GetMapping("/yearly/{year}")
     public ResponseEntity<YearlyReportResponse> getYearlyReport(
             @PathVariable int year,
-            HttpSession session) {
+            HttpSession session,
+            WebRequest webRequest) {
         User user = userService.getAuthenticatedUser(session);
+        reportService.validateYearlyReport(year);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
         YearlyReportResponse response = reportService.getYearlyReport(year, user);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
+    }
+
+    @GetMapping("/balance")
+    public ResponseEntity<BalanceSeriesResponse> getBalanceSeries(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "day") String granularity,
+            HttpSession session,
+            WebRequest webRequest) {
+        User user = userService.getAuthenticatedUser(session);
+        balanceService.validateBalanceSeries(from, to, granularity);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
+        BalanceSeriesResponse response = balanceService.getBalanceSeries(user, from, to, granularity);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
     }
-}
 
+    @GetMapping("/aggregate")
+    public ResponseEntity<AggregateResponse> getAggregate(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) List<String> groupBy,
+            HttpSession session,
+            WebRequest webRequest) {
+        User user = userService.getAuthenticatedUser(session);
+        reportService.validateAggregate(from, to, groupBy);
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
+        AggregateResponse response = reportService.getAggregate(from, to, groupBy, user);
+        return ResponseEntity.ok().cacheControl(TransactionController.REVALIDATE).body(response);
+    }
+}
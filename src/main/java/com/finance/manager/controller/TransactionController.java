@@ -1,55 +1,119 @@
 package com.finance.manager.controller;
 
+import com.finance.manager.dto.request.TransactionBatchRequest;
 import com.finance.manager.dto.request.TransactionRequest;
 import com.finance.manager.dto.request.TransactionUpdateRequest;
 import com.finance.manager.dto.response.MessageResponse;
+import com.finance.manager.dto.response.TransactionBatchResponse;
 import com.finance.manager.dto.response.TransactionListResponse;
 import com.finance.manager.dto.response.TransactionResponse;
 import com.finance.manager.entity.User;
+import com.finance.manager.enums.ExportFormat;
+import com.finance.manager.service.DataVersions;
+import com.finance.manager.service.IdempotencyStore;
+import com.finance.manager.service.TransactionExportService;
 import com.finance.manager.service.TransactionService;
 import com.finance.manager.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    // Clients may store responses but must revalidate them with If-None-Match before reuse.
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TransactionService transactionService;
     private final UserService userService;
+    private final TransactionExportService transactionExportService;
+    private final IdempotencyStore idempotencyStore;
+    private final DataVersions dataVersions;
 
     @PostMapping
     public ResponseEntity<TransactionResponse> createTransaction(
             @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             HttpSession session) {
         User user = userService.getAuthenticatedUser(session);
-        TransactionResponse response = transactionService.createTransaction(request, user);
+        // Outside the service transaction, so a stored response is always a committed one.
+        TransactionResponse response = idempotencyStore.execute(user.getId(), "transactions", idempotencyKey, request,
+                () -> transactionService.createTransaction(request, user));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResponse> createTransactions(
+            @Valid @RequestBody TransactionBatchRequest request,
+            HttpSession session) {
+        User user = userService.getAuthenticatedUser(session);
+        TransactionBatchResponse response = transactionService.createTransactions(request.getTransactions(), user);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     public ResponseEntity<TransactionListResponse> getAllTransactions(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            HttpSession session,
+            WebRequest webRequest) {
+        User user = userService.getAuthenticatedUser(session);
+        transactionService.validateListQuery(startDate, endDate, limit, cursor);
+        transactionService.awaitJournaledCreates();
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
+        TransactionListResponse response = transactionService.getAllTransactions(
+                user, startDate, endDate, category, limit, cursor);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "csv") String format,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String category,
             HttpSession session) {
         User user = userService.getAuthenticatedUser(session);
-        TransactionListResponse response = transactionService.getAllTransactions(user, startDate, endDate, category);
-        return ResponseEntity.ok(response);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        transactionService.awaitJournaledCreates();
+        StreamingResponseBody body = transactionExportService.exportTransactions(
+                user, startDate, endDate, category, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TransactionResponse> getTransaction(
             @PathVariable Long id,
-            HttpSession session) {
+            HttpSession session,
+            WebRequest webRequest) {
         User user = userService.getAuthenticatedUser(session);
+        transactionService.awaitJournaledCreates();
+        if (webRequest.checkNotModified(dataVersions.etag(user.getId()))) {
+            return null;
+        }
         TransactionResponse response = transactionService.getTransaction(id, user);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,13 @@
+package com.finance.manager.dto.projection;
+
+import lombok.*;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetPeriod {
+
+    private Long categoryId;
+    private int year;
+    private int month;
+}
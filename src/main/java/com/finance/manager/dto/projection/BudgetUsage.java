@@ -0,0 +1,17 @@
+package com.finance.manager.dto.projection;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetUsage {
+
+    private Long id;
+    private String category;
+    private int year;
+    private int month;
+    private BigDecimal amount;
+    private BigDecimal spent;
+}
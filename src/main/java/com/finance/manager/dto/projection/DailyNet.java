@@ -0,0 +1,14 @@
+package com.finance.manager.dto.projection;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyNet {
+
+    private LocalDate date;
+    private BigDecimal net;
+}
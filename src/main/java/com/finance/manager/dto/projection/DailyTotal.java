@@ -0,0 +1,15 @@
+package com.finance.manager.dto.projection;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyTotal {
+
+    private LocalDate date;
+    private BigDecimal income;
+    private BigDecimal expenses;
+}
@@ -0,0 +1,18 @@
+package com.finance.manager.dto.projection;
+
+import com.finance.manager.enums.TransactionType;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatedTotal {
+
+    private LocalDate date;
+    private TransactionType type;
+    private String category;
+    private BigDecimal total;
+    private Long count;
+}
@@ -0,0 +1,17 @@
+package com.finance.manager.dto.projection;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalView {
+
+    private Long id;
+    private String goalName;
+    private BigDecimal targetAmount;
+    private LocalDate targetDate;
+    private LocalDate startDate;
+}
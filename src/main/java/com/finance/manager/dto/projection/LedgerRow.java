@@ -0,0 +1,19 @@
+package com.finance.manager.dto.projection;
+
+import com.finance.manager.enums.TransactionType;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerRow {
+
+    private Long id;
+    private LocalDate date;
+    private BigDecimal amount;
+    private Long categoryId;
+    private String category;
+    private TransactionType type;
+}
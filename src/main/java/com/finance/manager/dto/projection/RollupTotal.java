@@ -0,0 +1,19 @@
+package com.finance.manager.dto.projection;
+
+import com.finance.manager.enums.TransactionType;
+import lombok.*;
+import java.math.BigDecimal;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupTotal {
+
+    private Integer year;
+    private Integer month;
+    private TransactionType type;
+    private Long categoryId;
+    private String category;
+    private BigDecimal total;
+    private Long count;
+}
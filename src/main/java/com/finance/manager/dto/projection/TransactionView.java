@@ -0,0 +1,21 @@
+package com.finance.manager.dto.projection;
+
+import com.finance.manager.enums.TransactionType;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionView {
+
+    private Long id;
+    private BigDecimal amount;
+    private LocalDate date;
+    private String category;
+    private String description;
+    private TransactionType type;
+    private LocalDateTime createdAt;
+}
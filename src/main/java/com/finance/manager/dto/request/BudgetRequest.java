@@ -0,0 +1,30 @@
+package com.finance.manager.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetRequest {
+
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    @NotNull(message = "Year is required")
+    @Min(value = 1900, message = "Year must be between 1900 and 9999")
+    @Max(value = 9999, message = "Year must be between 1900 and 9999")
+    private Integer year;
+
+    @NotNull(message = "Month is required")
+    @Min(value = 1, message = "Month must be between 1 and 12")
+    @Max(value = 12, message = "Month must be between 1 and 12")
+    private Integer month;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+}
@@ -0,0 +1,17 @@
+package com.finance.manager.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionBatchRequest {
+
+    // Items are validated one by one in the service so a bad row is reported instead of failing the batch.
+    @NotEmpty(message = "Transactions are required")
+    private List<TransactionRequest> transactions;
+}
@@ -22,6 +22,7 @@ public class TransactionRequest {
     @NotBlank(message = "Category is required")
     private String category;
 
+    @Size(max = 255, message = "Description must be at most 255 characters")
     private String description;
 }
 
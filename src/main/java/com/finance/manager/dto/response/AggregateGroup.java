@@ -0,0 +1,19 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AggregateGroup {
+
+    private Map<String, Object> key;
+    private BigDecimal income;
+    private BigDecimal expenses;
+    private BigDecimal net;
+    private long count;
+}
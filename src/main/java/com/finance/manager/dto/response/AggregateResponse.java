@@ -0,0 +1,66 @@
+package com.finance.manager.dto.response;
+
+import com.finance.manager.enums.AggregateDimension;
+import com.finance.manager.service.Aggregation;
+import com.finance.manager.service.Money;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AggregateResponse {
+
+    private String from;
+    private String to;
+    private List<String> groupBy;
+    private String source;
+    private BigDecimal totalIncome;
+    private BigDecimal totalExpenses;
+    private BigDecimal net;
+    private long count;
+    private List<AggregateGroup> groups;
+
+    public static AggregateResponse of(LocalDate from, LocalDate to, Aggregation aggregation) {
+        long income = 0L;
+        long expenses = 0L;
+        long count = 0L;
+        List<AggregateGroup> groups = new ArrayList<>(aggregation.getGroups().size());
+        for (Aggregation.Group group : aggregation.getGroups()) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            group.key().forEach((dimension, value) -> key.put(dimension.getValue(), value));
+            groups.add(AggregateGroup.builder()
+                    .key(key)
+                    .income(Money.toBigDecimal(group.income()))
+                    .expenses(Money.toBigDecimal(group.expenses()))
+                    .net(Money.toBigDecimal(group.net()))
+                    .count(group.count())
+                    .build());
+            income = Money.add(income, group.income());
+            expenses = Money.add(expenses, group.expenses());
+            count = Money.add(count, group.count());
+        }
+
+        return AggregateResponse.builder()
+                .from(from.toString())
+                .to(to.toString())
+                .groupBy(aggregation.getDimensions().stream()
+                        .map(AggregateDimension::getValue)
+                        .collect(Collectors.toList()))
+                .source(aggregation.getSource().getValue())
+                .totalIncome(Money.toBigDecimal(income))
+                .totalExpenses(Money.toBigDecimal(expenses))
+                .net(Money.toBigDecimal(Money.subtract(income, expenses)))
+                .count(count)
+                .groups(groups)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchiveRunResponse {
+
+    private String archivedBefore;
+    private int usersChecked;
+    private long transactionsArchived;
+    private int segmentsWritten;
+}
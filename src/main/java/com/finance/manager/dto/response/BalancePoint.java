@@ -0,0 +1,19 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalancePoint {
+
+    private String start;
+    private String end;
+    private BigDecimal income;
+    private BigDecimal expenses;
+    private BigDecimal net;
+    private BigDecimal balance;
+}
@@ -0,0 +1,20 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSeriesResponse {
+
+    private String from;
+    private String to;
+    private String granularity;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private List<BalancePoint> points;
+}
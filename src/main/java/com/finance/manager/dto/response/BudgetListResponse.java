@@ -0,0 +1,18 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetListResponse {
+
+    private List<BudgetResponse> budgets;
+
+    public static BudgetListResponse of(List<BudgetResponse> budgets) {
+        return new BudgetListResponse(budgets);
+    }
+}
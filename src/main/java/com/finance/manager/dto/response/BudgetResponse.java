@@ -0,0 +1,40 @@
+package com.finance.manager.dto.response;
+
+import com.finance.manager.dto.projection.BudgetUsage;
+import com.finance.manager.service.Money;
+import lombok.*;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetResponse {
+
+    private Long id;
+    private String category;
+    private int year;
+    private int month;
+    private BigDecimal amount;
+    private BigDecimal spent;
+    // Negative once the budget is exceeded.
+    private BigDecimal remaining;
+    private boolean overBudget;
+
+    public static BudgetResponse fromUsage(BudgetUsage usage) {
+        long amount = Money.toCents(usage.getAmount());
+        long spent = Money.toCents(usage.getSpent());
+
+        return BudgetResponse.builder()
+                .id(usage.getId())
+                .category(usage.getCategory())
+                .year(usage.getYear())
+                .month(usage.getMonth())
+                .amount(Money.toBigDecimal(amount))
+                .spent(Money.toBigDecimal(spent))
+                .remaining(Money.toBigDecimal(Money.subtract(amount, spent)))
+                .overBudget(spent > amount)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.finance.manager.dto.response;
+
+import com.finance.manager.service.Money;
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BudgetStatusResponse {
+
+    private int year;
+    private int month;
+    private BigDecimal totalBudgeted;
+    private BigDecimal totalSpent;
+    private BigDecimal totalRemaining;
+    private int overBudgetCount;
+    private List<BudgetResponse> budgets;
+
+    public static BudgetStatusResponse of(int year, int month, List<BudgetResponse> budgets) {
+        long budgeted = 0L;
+        long spent = 0L;
+        int overBudget = 0;
+        for (BudgetResponse budget : budgets) {
+            budgeted = Money.add(budgeted, Money.toCents(budget.getAmount()));
+            spent = Money.add(spent, Money.toCents(budget.getSpent()));
+            if (budget.isOverBudget()) {
+                overBudget++;
+            }
+        }
+
+        return BudgetStatusResponse.builder()
+                .year(year)
+                .month(month)
+                .totalBudgeted(Money.toBigDecimal(budgeted))
+                .totalSpent(Money.toBigDecimal(spent))
+                .totalRemaining(Money.toBigDecimal(Money.subtract(budgeted, spent)))
+                .overBudgetCount(overBudget)
+                .budgets(budgets)
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyBalanceDrift {
+
+    private Long userId;
+    private String date;
+    private BigDecimal expectedIncome;
+    private BigDecimal actualIncome;
+    private BigDecimal expectedExpenses;
+    private BigDecimal actualExpenses;
+    private long expectedCount;
+    private long actualCount;
+}
@@ -1,9 +1,10 @@
 package com.finance.manager.dto.response;
 
+import com.finance.manager.dto.projection.GoalView;
 import com.finance.manager.entity.Goal;
+import com.finance.manager.service.Money;
 import lombok.*;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 @Getter
 @Setter
@@ -21,38 +22,38 @@ public class GoalResponse {
     private BigDecimal progressPercentage;
     private BigDecimal remainingAmount;
 
-    public static GoalResponse fromEntity(Goal goal, BigDecimal currentProgress) {
-        BigDecimal targetAmount = goal.getTargetAmount().setScale(2, RoundingMode.HALF_UP);
-        BigDecimal progress = currentProgress.setScale(2, RoundingMode.HALF_UP);
+    public static GoalResponse fromEntity(Goal goal, long currentProgressCents) {
+        return fromView(new GoalView(goal.getId(), goal.getGoalName(), goal.getTargetAmount(),
+                goal.getTargetDate(), goal.getStartDate()), currentProgressCents);
+    }
 
-        BigDecimal progressPercentage = BigDecimal.ZERO;
-        if (targetAmount.compareTo(BigDecimal.ZERO) > 0) {
-            progressPercentage = progress.multiply(BigDecimal.valueOf(100))
-                    .divide(targetAmount, 2, RoundingMode.HALF_UP);
-        }
+    public static GoalResponse fromView(GoalView goal, long currentProgressCents) {
+        long target = Money.toCents(goal.getTargetAmount());
 
-        BigDecimal remaining = targetAmount.subtract(progress);
-        if (remaining.compareTo(BigDecimal.ZERO) < 0) {
-            remaining = BigDecimal.ZERO;
+        long percentage = 0L;
+        if (target > 0) {
+            percentage = Money.percentageBasisPoints(currentProgressCents, target);
         }
 
+        long remaining = Math.max(0L, Money.subtract(target, currentProgressCents));
+
         return GoalResponse.builder()
                 .id(goal.getId())
                 .goalName(goal.getGoalName())
-                .targetAmount(targetAmount)
+                .targetAmount(Money.toBigDecimal(target))
                 .targetDate(goal.getTargetDate().toString())
                 .startDate(goal.getStartDate().toString())
-                .currentProgress(formatProgress(progress))
-                .progressPercentage(formatPercentage(progressPercentage))
-                .remainingAmount(remaining.setScale(2, RoundingMode.HALF_UP))
+                .currentProgress(formatProgress(currentProgressCents))
+                .progressPercentage(formatPercentage(Money.toBigDecimal(percentage)))
+                .remainingAmount(Money.toBigDecimal(remaining))
                 .build();
     }
 
-    private static BigDecimal formatProgress(BigDecimal value) {
-        if (value.compareTo(BigDecimal.ZERO) == 0) {
+    private static BigDecimal formatProgress(long cents) {
+        if (cents == 0) {
             return BigDecimal.ZERO;
         }
-        return value.setScale(2, RoundingMode.HALF_UP);
+        return Money.toBigDecimal(cents);
     }
 
     private static BigDecimal formatPercentage(BigDecimal value) {
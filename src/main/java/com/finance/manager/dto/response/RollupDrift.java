@@ -0,0 +1,23 @@
+package com.finance.manager.dto.response;
+
+import com.finance.manager.enums.TransactionType;
+import lombok.*;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupDrift {
+
+    private Long userId;
+    private int year;
+    private int month;
+    private TransactionType type;
+    private String category;
+    private BigDecimal expectedTotal;
+    private BigDecimal actualTotal;
+    private long expectedCount;
+    private long actualCount;
+}
@@ -0,0 +1,18 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupVerificationResponse {
+
+    private int usersChecked;
+    private int usersWithDrift;
+    private boolean repaired;
+    private List<RollupDrift> drift;
+    private List<DailyBalanceDrift> dailyDrift;
+}
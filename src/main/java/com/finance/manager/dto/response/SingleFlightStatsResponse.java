@@ -0,0 +1,15 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SingleFlightStatsResponse {
+
+    private int inFlight;
+    private long executions;
+    private long coalesced;
+}
@@ -0,0 +1,37 @@
+package com.finance.manager.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionBatchItemResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private TransactionResponse transaction;
+    private String error;
+
+    public static TransactionBatchItemResult created(int index, TransactionResponse transaction) {
+        return TransactionBatchItemResult.builder()
+                .index(index)
+                .status(CREATED)
+                .transaction(transaction)
+                .build();
+    }
+
+    public static TransactionBatchItemResult rejected(int index, String error) {
+        return TransactionBatchItemResult.builder()
+                .index(index)
+                .status(REJECTED)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.finance.manager.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionBatchResponse {
+
+    private int created;
+    private int rejected;
+    private List<TransactionBatchItemResult> results;
+}
@@ -11,9 +11,14 @@ import java.util.List;
 public class TransactionListResponse {
 
     private List<TransactionResponse> transactions;
+    private String nextCursor;
 
     public static TransactionListResponse of(List<TransactionResponse> transactions) {
-        return new TransactionListResponse(transactions);
+        return new TransactionListResponse(transactions, null);
+    }
+
+    public static TransactionListResponse of(List<TransactionResponse> transactions, String nextCursor) {
+        return new TransactionListResponse(transactions, nextCursor);
     }
 }
 
@@ -1,5 +1,7 @@
 package com.finance.manager.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.finance.manager.dto.projection.TransactionView;
 import com.finance.manager.entity.Transaction;
 import com.finance.manager.enums.TransactionType;
 import lombok.*;
@@ -20,7 +22,22 @@ public class TransactionResponse {
     private String description;
     private TransactionType type;
 
+    // Set only on create, when the transaction's category has a budget for its month.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BudgetResponse budget;
+
     public static TransactionResponse fromEntity(Transaction transaction) {
+        return TransactionResponse.builder()
+                .id(transaction.getId())
+                .amount(transaction.getAmount().setScale(2, RoundingMode.HALF_UP))
+                .date(transaction.getDate().toString())
+                .category(transaction.getCategory().getName())
+                .description(transaction.getDescription())
+                .type(transaction.getType())
+                .build();
+    }
+
+    public static TransactionResponse fromView(TransactionView transaction) {
         return TransactionResponse.builder()
                 .id(transaction.getId())
                 .amount(transaction.getAmount().setScale(2, RoundingMode.HALF_UP))
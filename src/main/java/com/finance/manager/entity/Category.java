@@ -16,7 +16,8 @@ import lombok.*;
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_id")
+    @SequenceGenerator(name = "categories_id", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,39 @@
+package com.finance.manager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_balances", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "balance_date"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_balances_id")
+    @SequenceGenerator(name = "daily_balances_id", sequenceName = "daily_balances_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "balance_date", nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal income;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal expenses;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long count;
+}
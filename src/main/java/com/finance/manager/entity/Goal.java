@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class Goal {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "goals_id")
+    @SequenceGenerator(name = "goals_id", sequenceName = "goals_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,42 @@
+package com.finance.manager.enums;
+
+import com.finance.manager.exception.InvalidRequestException;
+
+public enum AggregateDimension {
+    CATEGORY("category"),
+    TYPE("type"),
+    YEAR("year"),
+    MONTH("month"),
+    WEEK("week"),
+    DAY_OF_WEEK("dayOfWeek");
+
+    private final String value;
+
+    AggregateDimension(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    // Answerable from per-month totals; week and day of week need the individual days.
+    public boolean isMonthly() {
+        return this != WEEK && this != DAY_OF_WEEK;
+    }
+
+    // Needs totals split by category, which the per-day balances do not keep.
+    public boolean isPerCategory() {
+        return this == CATEGORY || this == TYPE;
+    }
+
+    public static AggregateDimension from(String value) {
+        for (AggregateDimension dimension : values()) {
+            if (dimension.value.equalsIgnoreCase(value)) {
+                return dimension;
+            }
+        }
+        throw new InvalidRequestException("Unknown dimension '" + value
+                + "'; use category, type, year, month, week or dayOfWeek");
+    }
+}
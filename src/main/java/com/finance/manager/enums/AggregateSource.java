@@ -0,0 +1,18 @@
+package com.finance.manager.enums;
+
+public enum AggregateSource {
+    MONTHLY_ROLLUPS("monthlyRollups"),
+    DAILY_BALANCES("dailyBalances"),
+    TRANSACTIONS_BY_MONTH("transactionsByMonth"),
+    TRANSACTIONS_BY_DAY("transactionsByDay");
+
+    private final String value;
+
+    AggregateSource(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
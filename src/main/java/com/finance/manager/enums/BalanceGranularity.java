@@ -0,0 +1,51 @@
+package com.finance.manager.enums;
+
+import com.finance.manager.exception.InvalidRequestException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum BalanceGranularity {
+    DAY("day", ChronoUnit.DAYS),
+    WEEK("week", ChronoUnit.WEEKS),
+    MONTH("month", ChronoUnit.MONTHS);
+
+    private final String value;
+    private final ChronoUnit unit;
+
+    BalanceGranularity(String value, ChronoUnit unit) {
+        this.value = value;
+        this.unit = unit;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    // First day of the period containing date; weeks start on Monday.
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate nextPeriodStart(LocalDate periodStart) {
+        return periodStart.plus(1, unit);
+    }
+
+    public long periodsBetween(LocalDate start, LocalDate end) {
+        return periodStart(start).until(periodStart(end), unit) + 1;
+    }
+
+    public static BalanceGranularity from(String value) {
+        for (BalanceGranularity granularity : values()) {
+            if (granularity.value.equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new InvalidRequestException("Granularity must be day, week or month");
+    }
+}
@@ -58,6 +58,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(UnprocessableRequestException.class)
+    public ResponseEntity<ErrorResponse> handleUnprocessableRequest(
+            UnprocessableRequestException ex, HttpServletRequest request) {
+        log.warn("Unprocessable request: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.of(
+            HttpStatus.UNPROCESSABLE_ENTITY.value(),
+            "Unprocessable Entity",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<ErrorResponse> handleUnauthorized(
             UnauthorizedException ex, HttpServletRequest request) {
@@ -0,0 +1,8 @@
+package com.finance.manager.exception;
+
+public class UnprocessableRequestException extends RuntimeException {
+
+    public UnprocessableRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,246 @@
+package com.finance.manager.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// An append-only log of checksummed records in memory-mapped segment files. A position (LSN) holds
+// the segment number in its high 32 bits and the offset in its low 32, so positions only grow.
+// Appends only copy into the mapping; sync() makes them durable, and appenders that call it while a
+// force is running wait for the next one, which covers all of them (group commit).
+@Slf4j
+public final class Journal implements Closeable {
+
+    private static final Pattern SEGMENT = Pattern.compile("segment-(\\d{10})\\.log");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private final TreeMap<Integer, JournalSegment> segments = new TreeMap<>();
+
+    private JournalSegment current;
+    private int offset;
+    private long appended;
+    private long durable;
+    private boolean syncing;
+    private boolean closed;
+    private long forces;
+
+    private Journal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    // Recovery: segments before the last were forced whole before the next one was started, so only
+    // the last is scanned. Its data ends at the first record that is missing, torn or fails its
+    // checksum; everything after that point was never acknowledged and is cleared.
+    public static Journal open(Path directory, int segmentSize) throws IOException {
+        Journal journal = new Journal(directory, segmentSize);
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    int number = Integer.parseInt(matcher.group(1));
+                    journal.segments.put(number, JournalSegment.open(directory, number, segmentSize));
+                }
+            }
+        }
+        if (journal.segments.isEmpty()) {
+            journal.segments.put(0, JournalSegment.open(directory, 0, segmentSize));
+        }
+
+        journal.current = journal.segments.lastEntry().getValue();
+        int end = 0;
+        int records = 0;
+        try {
+            for (byte[] payload = journal.current.read(end); payload != null; payload = journal.current.read(end)) {
+                end += JournalSegment.HEADER + payload.length;
+                records++;
+            }
+        } catch (IllegalStateException e) {
+            log.warn("Dropping the tail of the journal after a crash: {}", e.getMessage());
+        }
+        journal.current.zeroFrom(end);
+        journal.offset = end;
+        journal.appended = lsn(journal.current.number(), end);
+        journal.durable = journal.appended;
+        log.info("Opened journal {} with {} segments, {} records in the last", directory, journal.segments.size(),
+                records);
+        return journal;
+    }
+
+    public long append(byte[] payload) {
+        int length = JournalSegment.HEADER + payload.length;
+        if (length > segmentSize) {
+            throw new IllegalArgumentException("A record of " + payload.length + " bytes does not fit a segment");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (offset + length > current.capacity()) {
+                roll();
+            }
+            current.write(offset, payload);
+            offset += length;
+            appended = lsn(current.number(), offset);
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns once every record up to lsn is on disk.
+    public void sync(long lsn) {
+        lock.lock();
+        try {
+            while (durable < lsn) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = appended;
+                JournalSegment segment = current;
+                int from = segment(durable) == segment.number() ? offset(durable) : 0;
+                lock.unlock();
+                try {
+                    segment.force(from, offset(target));
+                } finally {
+                    lock.lock();
+                    syncing = false;
+                    synced.signalAll();
+                }
+                durable = Math.max(durable, target);
+                forces++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Durable records from position on, at most max of them.
+    public List<Record> read(long position, int max) {
+        lock.lock();
+        try {
+            List<Record> records = new ArrayList<>();
+            while (records.size() < max && position < durable) {
+                JournalSegment segment = segments.get(segment(position));
+                if (segment == null) {
+                    throw new IllegalStateException("Journal segment " + segment(position) + " is missing");
+                }
+                byte[] payload = segment.read(offset(position));
+                if (payload == null) {
+                    Integer next = segments.higherKey(segment.number());
+                    if (next == null) {
+                        break;
+                    }
+                    position = lsn(next, 0);
+                    continue;
+                }
+                long next = lsn(segment.number(), offset(position) + JournalSegment.HEADER + payload.length);
+                records.add(new Record(position, next, payload));
+                position = next;
+            }
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Deletes the segments that hold only records before position.
+    public void deleteBefore(long position) {
+        lock.lock();
+        try {
+            while (segments.firstKey() < segment(position)) {
+                segments.pollFirstEntry().getValue().delete();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long start() {
+        lock.lock();
+        try {
+            return lsn(segments.firstKey(), 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long end() {
+        lock.lock();
+        try {
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long forces() {
+        lock.lock();
+        try {
+            return forces;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                current.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The full segment is forced before the next one takes appends, so only the last segment ever
+    // holds records that are not yet durable.
+    private void roll() {
+        current.force();
+        durable = Math.max(durable, appended);
+        synced.signalAll();
+        try {
+            current = JournalSegment.open(directory, current.number() + 1, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start journal segment " + (current.number() + 1), e);
+        }
+        segments.put(current.number(), current);
+        offset = 0;
+    }
+
+    static long lsn(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    static int segment(long lsn) {
+        return (int) (lsn >>> 32);
+    }
+
+    static int offset(long lsn) {
+        return (int) lsn;
+    }
+
+    public record Record(long lsn, long next, byte[] payload) {
+    }
+}
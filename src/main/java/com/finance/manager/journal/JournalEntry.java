@@ -0,0 +1,90 @@
+package com.finance.manager.journal;
+
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.service.Money;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// One created transaction as written to the journal. It carries everything projecting it needs (the
+// category name and type included), so the projector reads nothing else.
+public record JournalEntry(long id, long userId, long categoryId, String category, TransactionType type,
+                           LocalDate date, long cents, String description, LocalDateTime createdAt) {
+
+    private static final byte VERSION = 1;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public Transaction toTransaction() {
+        return Transaction.builder()
+                .id(id)
+                .amount(Money.toBigDecimal(cents))
+                .date(date)
+                .category(Category.builder().id(categoryId).name(category).type(type).build())
+                .type(type)
+                .description(description)
+                .user(User.builder().id(userId).build())
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    byte[] encode() {
+        byte[] categoryBytes = category.getBytes(StandardCharsets.UTF_8);
+        byte[] descriptionBytes = description != null ? description.getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 3 * Long.BYTES + 1 + Integer.BYTES + 2 * Long.BYTES
+                + Integer.BYTES + categoryBytes.length
+                + Integer.BYTES + (descriptionBytes != null ? descriptionBytes.length : 0));
+        buffer.put(VERSION)
+                .putLong(id)
+                .putLong(userId)
+                .putLong(categoryId)
+                .put(type == TransactionType.INCOME ? (byte) 1 : (byte) 0)
+                .putInt((int) date.toEpochDay())
+                .putLong(cents)
+                .putLong(ChronoUnit.MICROS.between(EPOCH, createdAt));
+        putBytes(buffer, categoryBytes);
+        putBytes(buffer, descriptionBytes);
+        return buffer.array();
+    }
+
+    static JournalEntry decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unknown journal entry version " + version);
+        }
+        long id = buffer.getLong();
+        long userId = buffer.getLong();
+        long categoryId = buffer.getLong();
+        TransactionType type = buffer.get() == 1 ? TransactionType.INCOME : TransactionType.EXPENSE;
+        LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+        long cents = buffer.getLong();
+        LocalDateTime createdAt = EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS);
+        String category = getString(buffer);
+        String description = getString(buffer);
+        return new JournalEntry(id, userId, categoryId, category, type, date, cents, description, createdAt);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,74 @@
+package com.finance.manager.journal;
+
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.service.DataVersions;
+import com.finance.manager.service.LedgerStore;
+import com.finance.manager.service.Money;
+import com.finance.manager.service.RollupService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Applies journal entries to the relational store: the rows, their rollups and daily balances, and
+// the checkpoint, all in one database transaction, so after a crash each entry is either fully
+// projected and behind the checkpoint or not projected at all.
+@Component
+@RequiredArgsConstructor
+public class JournalProjector {
+
+    private static final String INSERT = "INSERT INTO transactions (id, amount, date, category_id, type, " +
+            "description, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final RollupService rollupService;
+    private final LedgerStore ledgerStore;
+    private final DataVersions dataVersions;
+
+    @Transactional
+    public void project(List<JournalEntry> entries, long checkpoint) {
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.id());
+            statement.setBigDecimal(2, Money.toBigDecimal(entry.cents()));
+            statement.setDate(3, Date.valueOf(entry.date()));
+            statement.setLong(4, entry.categoryId());
+            statement.setString(5, entry.type().name());
+            statement.setString(6, entry.description());
+            statement.setLong(7, entry.userId());
+            statement.setTimestamp(8, Timestamp.valueOf(entry.createdAt()));
+            statement.setTimestamp(9, Timestamp.valueOf(entry.createdAt()));
+        });
+
+        Map<Long, List<Transaction>> byUser = entries.stream()
+                .map(JournalEntry::toTransaction)
+                .collect(Collectors.groupingBy(transaction -> transaction.getUser().getId(), LinkedHashMap::new,
+                        Collectors.toList()));
+        byUser.forEach((userId, transactions) -> {
+            rollupService.recordCreatedAll(transactions);
+            // Each rollup query flushes the persistence context first; without this, every user's
+            // rollup rows would be dirty-checked again for all the users after them.
+            entityManager.flush();
+            entityManager.clear();
+            ledgerStore.addedAfterCommit(userId, transactions);
+            dataVersions.bumpAfterCommit(userId);
+        });
+        advance(checkpoint);
+    }
+
+    @Transactional
+    public void advance(long checkpoint) {
+        jdbcTemplate.update("UPDATE journal_checkpoint SET lsn = ? WHERE id = 1", checkpoint);
+    }
+
+    public long checkpoint() {
+        return jdbcTemplate.queryForObject("SELECT lsn FROM journal_checkpoint WHERE id = 1", Long.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.finance.manager.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// One memory-mapped segment file of the journal. Records are [length][CRC32][payload]; a zero length
+// marks the end of the segment's data, since a new file reads as zeros.
+final class JournalSegment {
+
+    static final int HEADER = 2 * Integer.BYTES;
+
+    private static final byte[] ZEROS = new byte[64 * 1024];
+
+    private final int number;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+
+    private JournalSegment(int number, Path path, MappedByteBuffer buffer) {
+        this.number = number;
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    // An existing segment keeps its own size, so changing app.transactions.journal.segment-size only
+    // affects segments created afterwards.
+    static JournalSegment open(Path directory, int number, int size) throws IOException {
+        Path path = directory.resolve(fileName(number));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long length = channel.size() > 0 ? channel.size() : size;
+            return new JournalSegment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+        }
+    }
+
+    static String fileName(int number) {
+        return String.format("segment-%010d.log", number);
+    }
+
+    int number() {
+        return number;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    // The length goes in last, so a record cut short before it is written reads as the end of the data.
+    void write(int position, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.put(position + HEADER, payload);
+        buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+    }
+
+    // The payload of the record at position, or null at the end of the data.
+    byte[] read(int position) {
+        if (position + HEADER > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0 || length > buffer.capacity() - position - HEADER) {
+            throw new IllegalStateException("Journal " + fileName(number) + " has a torn record at " + position);
+        }
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+            throw new IllegalStateException("Journal " + fileName(number) + " has a corrupt record at " + position);
+        }
+        return payload;
+    }
+
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    // Clears whatever a crash left behind the last complete record, so later appends are read back cleanly.
+    void zeroFrom(int position) {
+        for (int at = position; at < buffer.capacity(); at += ZEROS.length) {
+            buffer.put(at, ZEROS, 0, Math.min(ZEROS.length, buffer.capacity() - at));
+        }
+        buffer.force();
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete journal " + path, e);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.finance.manager.journal;
+
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.User;
+import com.finance.manager.service.Money;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Opt-in write path for created transactions (app.transactions.journal.enabled): a create is
+// acknowledged once its entry is on disk in the journal, and a background thread projects entries into
+// the transactions table, rollups and daily balances afterwards. Transaction reads wait for projection
+// (awaitProjected); reports see a created transaction once it is projected, usually within milliseconds.
+@Component
+@Slf4j
+public class TransactionJournal {
+
+    static final int ID_BLOCK = 50;
+    static final int PROJECT_BATCH = 500;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RETRY_MILLIS = 1000;
+
+    private final JournalProjector projector;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration projectionTimeout;
+
+    private final ReentrantLock idLock = new ReentrantLock();
+    private long nextId;
+    private long idLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition advanced = lock.newCondition();
+    private long projected;
+
+    private volatile Journal journal;
+    private volatile Thread projectorThread;
+    private volatile boolean running;
+
+    public TransactionJournal(JournalProjector projector, JdbcTemplate jdbcTemplate,
+                              @Value("${app.transactions.journal.enabled:false}") boolean enabled,
+                              @Value("${app.transactions.journal.dir:./data/journal}") Path directory,
+                              @Value("${app.transactions.journal.segment-size:64MB}") DataSize segmentSize,
+                              @Value("${app.transactions.journal.projection-timeout:PT10S}") Duration projectionTimeout) {
+        this.projector = projector;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.projectionTimeout = projectionTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        open();
+        running = true;
+        Thread thread = new Thread(this::runProjector, "journal-projector");
+        thread.setDaemon(true);
+        projectorThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = projectorThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // The entry is durable when this returns; its id is final, but the row appears in queries only
+    // once the projector has caught up.
+    public JournalEntry append(User user, Category category, BigDecimal amount, LocalDate date, String description) {
+        Journal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("Transaction journal is not open");
+        }
+        JournalEntry entry = new JournalEntry(nextId(), user.getId(), category.getId(), category.getName(),
+                category.getType(), date, Money.toCents(amount), description,
+                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        long lsn = current.append(entry.encode());
+        current.sync(lsn);
+        Thread thread = projectorThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        return entry;
+    }
+
+    // Waits until everything appended so far is in the database, for reads and checks that must see every
+    // acknowledged transaction (listing transactions, deleting a category that might still be in use).
+    public void awaitProjected() {
+        Journal current = journal;
+        if (current == null) {
+            return;
+        }
+        long target = current.end();
+        long remaining = projectionTimeout.toNanos();
+        lock.lock();
+        try {
+            while (projected < target) {
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Transaction journal projection is behind");
+                }
+                remaining = advanced.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the transaction journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Resumes from the database checkpoint. Segments behind it are deleted once projected, so a
+    // checkpoint outside the journal means one of the two was replaced; projecting restarts from the
+    // oldest entry still on disk.
+    void open() throws IOException {
+        journal = Journal.open(directory, segmentSize);
+        long checkpoint = projector.checkpoint();
+        if (checkpoint < journal.start() || checkpoint > journal.end()) {
+            log.warn("Journal checkpoint {} is outside the journal [{}, {}]; projecting from its start",
+                    checkpoint, journal.start(), journal.end());
+            checkpoint = journal.start();
+        }
+        setProjected(checkpoint);
+        log.info("Transaction journal open at {}, {} bytes behind the checkpoint", directory,
+                journal.end() - checkpoint);
+    }
+
+    // One round of projection; returns the number of entries applied or skipped.
+    int projectPending() {
+        List<Journal.Record> records = journal.read(projected(), PROJECT_BATCH);
+        if (records.isEmpty()) {
+            return 0;
+        }
+        long next = records.get(records.size() - 1).next();
+        List<JournalEntry> entries = new ArrayList<>(records.size());
+        for (Journal.Record record : records) {
+            entries.add(JournalEntry.decode(record.payload()));
+        }
+        try {
+            projector.project(entries, next);
+        } catch (DataIntegrityViolationException e) {
+            projectOneByOne(records, entries);
+        }
+        setProjected(next);
+        journal.deleteBefore(next);
+        return records.size();
+    }
+
+    // An entry the database rejects (its category deleted in the meantime, say) would otherwise stop
+    // projection for good; it is logged and stepped over, and the rest still go in.
+    private void projectOneByOne(List<Journal.Record> records, List<JournalEntry> entries) {
+        for (int i = 0; i < records.size(); i++) {
+            JournalEntry entry = entries.get(i);
+            try {
+                projector.project(List.of(entry), records.get(i).next());
+            } catch (DataIntegrityViolationException e) {
+                log.error("Skipping journal entry {} for transaction {} of user {}: {}", records.get(i).lsn(),
+                        entry.id(), entry.userId(), e.getMostSpecificCause().getMessage());
+                projector.advance(records.get(i).next());
+            }
+        }
+    }
+
+    private void runProjector() {
+        while (running) {
+            try {
+                if (projectPending() == 0) {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                }
+            } catch (RuntimeException e) {
+                log.error("Projecting the transaction journal failed; retrying", e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_MILLIS));
+            }
+        }
+    }
+
+    // Ids come in blocks from the same pooled-lo sequence Hibernate uses, so journaled and directly
+    // inserted transactions never collide.
+    private long nextId() {
+        idLock.lock();
+        try {
+            if (nextId == idLimit) {
+                nextId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR transactions_seq", Long.class);
+                idLimit = nextId + ID_BLOCK;
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private long projected() {
+        lock.lock();
+        try {
+            return projected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setProjected(long position) {
+        lock.lock();
+        try {
+            projected = position;
+            advanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
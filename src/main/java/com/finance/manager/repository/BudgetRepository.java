@@ -0,0 +1,53 @@
+package com.finance.manager.repository;
+
+import com.finance.manager.dto.projection.BudgetPeriod;
+import com.finance.manager.dto.projection.BudgetUsage;
+import com.finance.manager.entity.Budget;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    // Spent is the expense rollup total for the budget's month: one row found by its unique key.
+    String USAGE = "SELECT new com.finance.manager.dto.projection.BudgetUsage(" +
+                   "b.id, b.category.name, b.year, b.month, b.amount, COALESCE(r.total, 0)) " +
+                   "FROM Budget b LEFT JOIN MonthlyRollup r ON r.user = b.user AND r.year = b.year " +
+                   "AND r.month = b.month AND r.type = com.finance.manager.enums.TransactionType.EXPENSE " +
+                   "AND r.category = b.category ";
+
+    Optional<Budget> findByIdAndUser(Long id, User user);
+
+    boolean existsByUserAndCategoryAndYearAndMonth(User user, Category category, int year, int month);
+
+    @Query("SELECT new com.finance.manager.dto.projection.BudgetPeriod(b.category.id, b.year, b.month) " +
+           "FROM Budget b WHERE b.user = :user")
+    List<BudgetPeriod> findPeriodsByUser(@Param("user") User user);
+
+    @Query(USAGE + "WHERE b.user = :user ORDER BY b.year DESC, b.month DESC, b.category.name")
+    List<BudgetUsage> findUsageByUser(@Param("user") User user);
+
+    @Query(USAGE + "WHERE b.user = :user AND b.year = :year AND b.month = :month ORDER BY b.category.name")
+    List<BudgetUsage> findUsageForMonth(@Param("user") User user, @Param("year") int year, @Param("month") int month);
+
+    @Query(USAGE + "WHERE b.id = :id AND b.user = :user")
+    Optional<BudgetUsage> findUsageByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    @Query(USAGE + "WHERE b.user = :user AND b.category = :category AND b.year = :year AND b.month = :month")
+    Optional<BudgetUsage> findUsage(
+            @Param("user") User user,
+            @Param("category") Category category,
+            @Param("year") int year,
+            @Param("month") int month);
+
+    @Modifying
+    @Query("DELETE FROM Budget b WHERE b.category = :category")
+    int deleteByCategory(@Param("category") Category category);
+}
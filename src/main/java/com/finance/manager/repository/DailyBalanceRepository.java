@@ -0,0 +1,48 @@
+package com.finance.manager.repository;
+
+import com.finance.manager.dto.projection.DailyTotal;
+import com.finance.manager.entity.DailyBalance;
+import com.finance.manager.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, Long> {
+
+    @Modifying
+    @Query("UPDATE DailyBalance d SET d.income = d.income + :income, d.expenses = d.expenses + :expenses, " +
+           "d.count = d.count + :count WHERE d.user = :user AND d.date = :date")
+    int applyDelta(
+            @Param("user") User user,
+            @Param("date") LocalDate date,
+            @Param("income") BigDecimal income,
+            @Param("expenses") BigDecimal expenses,
+            @Param("count") long count);
+
+    // Date ranges are half-open: from is included, to is not.
+    @Query("SELECT new com.finance.manager.dto.projection.DailyTotal(d.date, d.income, d.expenses) " +
+           "FROM DailyBalance d WHERE d.user = :user AND d.date >= :from AND d.date < :to AND d.count > 0 " +
+           "ORDER BY d.date")
+    List<DailyTotal> findTotalsBetween(@Param("user") User user, @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    @Query("SELECT d FROM DailyBalance d WHERE d.user = :user AND d.date >= :from AND d.date < :to")
+    List<DailyBalance> findBetween(@Param("user") User user, @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    List<DailyBalance> findByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM DailyBalance d WHERE d.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(d.income - d.expenses), 0) FROM DailyBalance d " +
+           "WHERE d.user = :user AND d.date >= :from AND d.date < :to")
+    BigDecimal sumNetBetween(@Param("user") User user, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
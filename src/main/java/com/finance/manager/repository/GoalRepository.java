@@ -1,8 +1,11 @@
 package com.finance.manager.repository;
 
+import com.finance.manager.dto.projection.GoalView;
 import com.finance.manager.entity.Goal;
 import com.finance.manager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -10,10 +13,18 @@ import java.util.Optional;
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, Long> {
 
-    List<Goal> findByUserOrderByCreatedAtDesc(User user);
-
     Optional<Goal> findByIdAndUser(Long id, User user);
 
+    @Query("SELECT new com.finance.manager.dto.projection.GoalView(" +
+           "g.id, g.goalName, g.targetAmount, g.targetDate, g.startDate) " +
+           "FROM Goal g WHERE g.user = :user ORDER BY g.createdAt DESC")
+    List<GoalView> findViewsByUser(@Param("user") User user);
+
+    @Query("SELECT new com.finance.manager.dto.projection.GoalView(" +
+           "g.id, g.goalName, g.targetAmount, g.targetDate, g.startDate) " +
+           "FROM Goal g WHERE g.id = :id AND g.user = :user")
+    Optional<GoalView> findViewByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
     boolean existsByIdAndUser(Long id, User user);
 }
 
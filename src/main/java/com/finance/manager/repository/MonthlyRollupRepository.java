@@ -0,0 +1,61 @@
+package com.finance.manager.repository;
+
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.MonthlyRollup;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE MonthlyRollup r SET r.total = r.total + :amount, r.count = r.count + :count " +
+           "WHERE r.user = :user AND r.year = :year AND r.month = :month " +
+           "AND r.type = :type AND r.category = :category")
+    int applyDelta(
+            @Param("user") User user,
+            @Param("year") int year,
+            @Param("month") int month,
+            @Param("type") TransactionType type,
+            @Param("category") Category category,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count);
+
+    @Query("SELECT new com.finance.manager.dto.projection.RollupTotal(" +
+           "r.year, r.month, r.type, r.category.id, r.category.name, r.total, r.count) " +
+           "FROM MonthlyRollup r WHERE r.user = :user AND r.count > 0 " +
+           "AND (r.year > :fromYear OR (r.year = :fromYear AND r.month >= :fromMonth)) " +
+           "AND (r.year < :toYear OR (r.year = :toYear AND r.month <= :toMonth))")
+    List<RollupTotal> findTotalsBetween(
+            @Param("user") User user,
+            @Param("fromYear") int fromYear,
+            @Param("fromMonth") int fromMonth,
+            @Param("toYear") int toYear,
+            @Param("toMonth") int toMonth);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN r.type = com.finance.manager.enums.TransactionType.INCOME " +
+           "THEN r.total ELSE -r.total END), 0) FROM MonthlyRollup r " +
+           "WHERE r.user = :user AND (r.year < :year OR (r.year = :year AND r.month < :month))")
+    BigDecimal sumNetBefore(@Param("user") User user, @Param("year") int year, @Param("month") int month);
+
+    @Query("SELECT new com.finance.manager.dto.projection.RollupTotal(" +
+           "r.year, r.month, r.type, r.category.id, r.category.name, r.total, r.count) " +
+           "FROM MonthlyRollup r WHERE r.user.id = :userId")
+    List<RollupTotal> findAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.category = :category")
+    int deleteByCategory(@Param("category") Category category);
+}
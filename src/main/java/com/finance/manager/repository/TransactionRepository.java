@@ -1,16 +1,28 @@
 package com.finance.manager.repository;
 
+import com.finance.manager.dto.projection.DailyNet;
+import com.finance.manager.dto.projection.DatedTotal;
+import com.finance.manager.dto.projection.LedgerRow;
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.dto.projection.TransactionView;
+import com.finance.manager.entity.Category;
 import com.finance.manager.entity.Transaction;
 import com.finance.manager.entity.User;
-import com.finance.manager.enums.TransactionType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -19,34 +31,110 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     Optional<Transaction> findByIdAndUser(Long id, User user);
 
-    @Query("SELECT t FROM Transaction t WHERE t.user = :user " +
+    @Query("SELECT new com.finance.manager.dto.projection.TransactionView(" +
+           "t.id, t.amount, t.date, t.category.name, t.description, t.type, t.createdAt) " +
+           "FROM Transaction t WHERE t.id = :id AND t.user = :user")
+    Optional<TransactionView> findViewByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    // Ordering by the (constant) user id first matches idx_transactions_user_date_created, so H2
+    // reads pages straight off the index instead of sorting the user's whole history.
+    @Query("SELECT new com.finance.manager.dto.projection.TransactionView(" +
+           "t.id, t.amount, t.date, t.category.name, t.description, t.type, t.createdAt) " +
+           "FROM Transaction t WHERE t.user = :user " +
+           "AND (:startDate IS NULL OR t.date >= :startDate) " +
+           "AND (:endDate IS NULL OR t.date <= :endDate) " +
+           "AND (:categoryId IS NULL OR t.category.id = :categoryId) " +
+           "ORDER BY t.user.id DESC, t.date DESC, t.createdAt DESC, t.id DESC")
+    List<TransactionView> findByUserWithFilters(
+            @Param("user") User user,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId,
+            Pageable pageable);
+
+    @Query("SELECT new com.finance.manager.dto.projection.TransactionView(" +
+           "t.id, t.amount, t.date, t.category.name, t.description, t.type, t.createdAt) " +
+           "FROM Transaction t WHERE t.user = :user " +
+           "AND (:startDate IS NULL OR t.date >= :startDate) " +
+           "AND (:endDate IS NULL OR t.date <= :endDate) " +
+           "AND (:categoryId IS NULL OR t.category.id = :categoryId) " +
+           "AND t.date <= :cursorDate AND (t.date < :cursorDate " +
+           "OR (t.date = :cursorDate AND t.createdAt < :cursorCreatedAt) " +
+           "OR (t.date = :cursorDate AND t.createdAt = :cursorCreatedAt AND t.id < :cursorId)) " +
+           "ORDER BY t.user.id DESC, t.date DESC, t.createdAt DESC, t.id DESC")
+    List<TransactionView> findByUserWithFiltersAfter(
+            @Param("user") User user,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("categoryId") Long categoryId,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.category WHERE t.user = :user " +
            "AND (:startDate IS NULL OR t.date >= :startDate) " +
            "AND (:endDate IS NULL OR t.date <= :endDate) " +
-           "AND (:category IS NULL OR t.category = :category) " +
-           "ORDER BY t.date DESC, t.createdAt DESC")
-    List<Transaction> findByUserWithFilters(
+           "AND (:categoryId IS NULL OR t.category.id = :categoryId) " +
+           "ORDER BY t.user.id DESC, t.date DESC, t.createdAt DESC, t.id DESC")
+    Stream<Transaction> streamByUserWithFilters(
             @Param("user") User user,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate,
-            @Param("category") String category);
+            @Param("categoryId") Long categoryId);
 
     @Query("SELECT t FROM Transaction t WHERE t.user = :user AND t.date >= :startDate")
     List<Transaction> findByUserAndDateAfter(@Param("user") User user, @Param("startDate") LocalDate startDate);
 
-    @Query("SELECT t FROM Transaction t WHERE t.user = :user " +
-           "AND YEAR(t.date) = :year AND MONTH(t.date) = :month")
-    List<Transaction> findByUserAndMonth(@Param("user") User user, @Param("year") int year, @Param("month") int month);
+    @Query("SELECT new com.finance.manager.dto.projection.RollupTotal(" +
+           "YEAR(t.date), MONTH(t.date), t.type, t.category.id, t.category.name, SUM(t.amount), COUNT(t)) " +
+           "FROM Transaction t WHERE t.user.id = :userId " +
+           "GROUP BY YEAR(t.date), MONTH(t.date), t.type, t.category.id, t.category.name")
+    List<RollupTotal> sumByMonthForUser(@Param("userId") Long userId);
 
-    @Query("SELECT t FROM Transaction t WHERE t.user = :user AND YEAR(t.date) = :year")
-    List<Transaction> findByUserAndYear(@Param("user") User user, @Param("year") int year);
+    // Date ranges are half-open: from is included, to is not.
+    @Query("SELECT new com.finance.manager.dto.projection.RollupTotal(" +
+           "YEAR(t.date), MONTH(t.date), t.type, t.category.id, t.category.name, SUM(t.amount), COUNT(t)) " +
+           "FROM Transaction t WHERE t.user = :user AND t.date >= :from AND t.date < :to " +
+           "GROUP BY YEAR(t.date), MONTH(t.date), t.type, t.category.id, t.category.name")
+    List<RollupTotal> sumByMonthBetween(@Param("user") User user, @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
 
-    boolean existsByUserAndCategory(User user, String category);
+    @Query("SELECT new com.finance.manager.dto.projection.DatedTotal(" +
+           "t.date, t.type, t.category.name, SUM(t.amount), COUNT(t)) " +
+           "FROM Transaction t WHERE t.user = :user AND t.date >= :from AND t.date < :to " +
+           "GROUP BY t.date, t.type, t.category.id, t.category.name")
+    List<DatedTotal> sumByDayBetween(@Param("user") User user, @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
 
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
-           "WHERE t.user = :user AND t.type = :type AND t.date >= :startDate")
-    BigDecimal sumAmountByUserAndTypeAndDateAfter(
-            @Param("user") User user,
-            @Param("type") TransactionType type,
-            @Param("startDate") LocalDate startDate);
-}
+    boolean existsByUserAndCategory(User user, Category category);
 
+    @Query("SELECT new com.finance.manager.dto.projection.DailyNet(t.date, SUM(CASE " +
+           "WHEN t.type = com.finance.manager.enums.TransactionType.INCOME THEN t.amount " +
+           "ELSE -t.amount END)) " +
+           "FROM Transaction t WHERE t.user = :user AND t.date >= :startDate " +
+           "GROUP BY t.date ORDER BY t.date")
+    List<DailyNet> sumNetByDaySince(@Param("user") User user, @Param("startDate") LocalDate startDate);
+
+    @Query("SELECT new com.finance.manager.dto.projection.LedgerRow(" +
+           "t.id, t.date, t.amount, t.category.id, t.category.name, t.type) " +
+           "FROM Transaction t WHERE t.user = :user ORDER BY t.date, t.id")
+    List<LedgerRow> findLedgerRowsByUser(@Param("user") User user);
+
+    @Query("SELECT DISTINCT YEAR(t.date) FROM Transaction t WHERE t.user.id = :userId AND t.date < :before")
+    List<Integer> findYearsBefore(@Param("userId") Long userId, @Param("before") LocalDate before);
+
+    @Query("SELECT t.id FROM Transaction t WHERE t.user.id = :userId AND t.date < :before")
+    List<Long> findIdsBefore(@Param("userId") Long userId, @Param("before") LocalDate before);
+
+    // Locked so an update cannot slip in between copying a row to the archive and deleting it.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.category " +
+           "WHERE t.user.id = :userId AND t.date >= :from AND t.date < :to")
+    List<Transaction> findForArchive(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+}
@@ -0,0 +1,120 @@
+package com.finance.manager.service;
+
+import com.finance.manager.enums.AggregateDimension;
+import com.finance.manager.enums.AggregateSource;
+import com.finance.manager.enums.TransactionType;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Income, expenses and transaction count per combination of dimension values, regrouped from
+// pre-aggregated facts (one per month, day or category the source already summed).
+public final class Aggregation {
+
+    private final List<AggregateDimension> dimensions;
+    private final AggregateSource source;
+    private final List<Group> groups;
+
+    private Aggregation(List<AggregateDimension> dimensions, AggregateSource source, List<Group> groups) {
+        this.dimensions = dimensions;
+        this.source = source;
+        this.groups = groups;
+    }
+
+    // Above parallelThreshold facts the grouping runs as a parallel stream: fork/join subtasks each build
+    // a partial map over their slice of the facts, and the partial maps are merged pairwise.
+    public static Aggregation of(List<AggregateDimension> dimensions, AggregateSource source, List<Fact> facts,
+                                 int parallelThreshold) {
+        Stream<Fact> stream = facts.size() >= parallelThreshold ? facts.parallelStream() : facts.stream();
+        Map<List<Object>, long[]> totals = stream.collect(HashMap::new,
+                (partial, fact) -> add(partial, key(fact, dimensions), fact.income(), fact.expenses(), fact.count()),
+                Aggregation::merge);
+
+        List<Map.Entry<List<Object>, long[]>> sorted = new ArrayList<>(totals.entrySet());
+        sorted.sort(Map.Entry.comparingByKey(Aggregation::compareKeys));
+
+        List<Group> groups = new ArrayList<>(sorted.size());
+        for (Map.Entry<List<Object>, long[]> entry : sorted) {
+            Map<AggregateDimension, Object> key = new LinkedHashMap<>();
+            for (int i = 0; i < dimensions.size(); i++) {
+                key.put(dimensions.get(i), entry.getKey().get(i));
+            }
+            long[] sums = entry.getValue();
+            groups.add(new Group(Collections.unmodifiableMap(key), sums[0], sums[1], sums[2]));
+        }
+        return new Aggregation(List.copyOf(dimensions), source, Collections.unmodifiableList(groups));
+    }
+
+    public List<AggregateDimension> getDimensions() {
+        return dimensions;
+    }
+
+    public AggregateSource getSource() {
+        return source;
+    }
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    private static List<Object> key(Fact fact, List<AggregateDimension> dimensions) {
+        List<Object> key = new ArrayList<>(dimensions.size());
+        for (AggregateDimension dimension : dimensions) {
+            key.add(switch (dimension) {
+                case CATEGORY -> fact.category();
+                case TYPE -> fact.type();
+                case YEAR -> fact.year();
+                case MONTH -> fact.month();
+                case WEEK -> isoWeek(fact.date());
+                case DAY_OF_WEEK -> fact.date().getDayOfWeek();
+            });
+        }
+        return key;
+    }
+
+    // The week-based year can differ from the calendar year around New Year, so it is part of the value.
+    private static String isoWeek(LocalDate date) {
+        return String.format("%d-W%02d", date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    private static void add(Map<List<Object>, long[]> totals, List<Object> key, long income, long expenses,
+                            long count) {
+        long[] sums = totals.computeIfAbsent(key, k -> new long[3]);
+        sums[0] = Money.add(sums[0], income);
+        sums[1] = Money.add(sums[1], expenses);
+        sums[2] = Money.add(sums[2], count);
+    }
+
+    private static void merge(Map<List<Object>, long[]> into, Map<List<Object>, long[]> from) {
+        from.forEach((key, sums) -> add(into, key, sums[0], sums[1], sums[2]));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(List<Object> left, List<Object> right) {
+        for (int i = 0; i < left.size(); i++) {
+            int result = ((Comparable) left.get(i)).compareTo(right.get(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    // date is null for facts summed per month; type and category are null for facts summed per day.
+    public record Fact(int year, int month, LocalDate date, TransactionType type, String category,
+                       long income, long expenses, long count) {
+    }
+
+    public record Group(Map<AggregateDimension, Object> key, long income, long expenses, long count) {
+
+        public long net() {
+            return Money.subtract(income, expenses);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.finance.manager.service;
+
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.finance.manager.dto.projection.DatedTotal;
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.entity.DailyBalance;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.AggregateDimension;
+import com.finance.manager.enums.AggregateSource;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.repository.DailyBalanceRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
+import com.finance.manager.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AggregationService {
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerStore ledgerStore;
+    private final ArchiveStore archiveStore;
+
+    @Value("${app.reports.aggregate.parallel-threshold:50000}")
+    private int parallelThreshold;
+
+    // Not @Transactional: every source is read with a single query, already grouped as far as the
+    // database can (per month, or per day when week or day of week is asked for). The transaction
+    // sources are grouped from the user's ledger instead when there is one.
+    public Aggregation aggregate(User user, LocalDate from, LocalDate to, List<AggregateDimension> dimensions) {
+        AggregateSource source = chooseSource(from, to, dimensions);
+        List<Aggregation.Fact> facts = switch (source) {
+            case MONTHLY_ROLLUPS -> fromMonths(monthlyRollupRepository.findTotalsBetween(
+                    user, from.getYear(), from.getMonthValue(), to.getYear(), to.getMonthValue()));
+            case DAILY_BALANCES -> fromDailyBalances(dailyBalanceRepository.findBetween(user, from, to.plusDays(1)));
+            case TRANSACTIONS_BY_MONTH, TRANSACTIONS_BY_DAY -> fromTransactions(user, from, to,
+                    source == AggregateSource.TRANSACTIONS_BY_MONTH);
+        };
+        log.debug("Aggregating {} facts from {} for user {}", facts.size(), source, user.getId());
+        return Aggregation.of(dimensions, source, facts, parallelThreshold);
+    }
+
+    static AggregateSource chooseSource(LocalDate from, LocalDate to, List<AggregateDimension> dimensions) {
+        boolean monthly = dimensions.stream().allMatch(AggregateDimension::isMonthly);
+        boolean perCategory = dimensions.stream().anyMatch(AggregateDimension::isPerCategory);
+        boolean wholeMonths = from.getDayOfMonth() == 1 && to.equals(YearMonth.from(to).atEndOfMonth());
+
+        if (monthly && wholeMonths) {
+            return AggregateSource.MONTHLY_ROLLUPS;
+        }
+        if (!perCategory) {
+            return AggregateSource.DAILY_BALANCES;
+        }
+        return monthly ? AggregateSource.TRANSACTIONS_BY_MONTH : AggregateSource.TRANSACTIONS_BY_DAY;
+    }
+
+    private List<Aggregation.Fact> fromTransactions(User user, LocalDate from, LocalDate to, boolean monthly) {
+        Ledger ledger = ledgerStore.get(user);
+        if (ledger != null) {
+            return ledger.facts(from, to, monthly);
+        }
+        List<Aggregation.Fact> facts = monthly
+                ? fromMonths(transactionRepository.sumByMonthBetween(user, from, to.plusDays(1)))
+                : fromDays(transactionRepository.sumByDayBetween(user, from, to.plusDays(1)));
+        if (archiveStore.hasArchive(user.getId())) {
+            facts.addAll(new Ledger(archiveStore.find(user.getId(), from, to).stream()
+                    .map(ArchivedTransaction::toLedgerRow)
+                    .toList()).facts(from, to, monthly));
+        }
+        return facts;
+    }
+
+    private static List<Aggregation.Fact> fromMonths(List<RollupTotal> totals) {
+        List<Aggregation.Fact> facts = new ArrayList<>(totals.size());
+        for (RollupTotal total : totals) {
+            long amount = Money.toCents(total.getTotal());
+            boolean income = total.getType() == TransactionType.INCOME;
+            facts.add(new Aggregation.Fact(total.getYear(), total.getMonth(), null, total.getType(),
+                    total.getCategory(), income ? amount : 0L, income ? 0L : amount, total.getCount()));
+        }
+        return facts;
+    }
+
+    private static List<Aggregation.Fact> fromDays(List<DatedTotal> totals) {
+        List<Aggregation.Fact> facts = new ArrayList<>(totals.size());
+        for (DatedTotal total : totals) {
+            long amount = Money.toCents(total.getTotal());
+            boolean income = total.getType() == TransactionType.INCOME;
+            LocalDate date = total.getDate();
+            facts.add(new Aggregation.Fact(date.getYear(), date.getMonthValue(), date, total.getType(),
+                    total.getCategory(), income ? amount : 0L, income ? 0L : amount, total.getCount()));
+        }
+        return facts;
+    }
+
+    private static List<Aggregation.Fact> fromDailyBalances(List<DailyBalance> days) {
+        List<Aggregation.Fact> facts = new ArrayList<>(days.size());
+        for (DailyBalance day : days) {
+            if (day.getCount() == 0) {
+                continue;
+            }
+            LocalDate date = day.getDate();
+            facts.add(new Aggregation.Fact(date.getYear(), date.getMonthValue(), date, null, null,
+                    Money.toCents(day.getIncome()), Money.toCents(day.getExpenses()), day.getCount()));
+        }
+        return facts;
+    }
+}
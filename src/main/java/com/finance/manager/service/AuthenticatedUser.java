@@ -0,0 +1,24 @@
+package com.finance.manager.service;
+
+import com.finance.manager.entity.User;
+import lombok.Value;
+
+@Value
+public class AuthenticatedUser {
+
+    Long id;
+    String username;
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername());
+    }
+
+    // Services only use the user as a foreign-key reference and for logging, so a detached
+    // instance carrying the id is enough; a fresh one per request keeps the cached value immutable.
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .build();
+    }
+}
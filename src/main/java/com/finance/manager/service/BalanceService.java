@@ -0,0 +1,120 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.projection.DailyTotal;
+import com.finance.manager.dto.response.BalancePoint;
+import com.finance.manager.dto.response.BalanceSeriesResponse;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.BalanceGranularity;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.repository.DailyBalanceRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceService {
+
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+
+    @Value("${app.reports.balance.max-points:1000}")
+    private int maxPoints;
+
+    // Reads only summary rows: monthly rollups and daily rows up to the start of the range for the opening
+    // balance, then one daily row per active day in the range, accumulated into running balances.
+    @Transactional(readOnly = true)
+    public BalanceSeriesResponse getBalanceSeries(User user, String from, String to, String granularity) {
+        validateBalanceSeries(from, to, granularity);
+        LocalDate start = parseDate(from);
+        LocalDate end = parseDate(to);
+        BalanceGranularity unit = BalanceGranularity.from(granularity);
+
+        long balance = openingBalance(user, start);
+        long opening = balance;
+        List<DailyTotal> days = dailyBalanceRepository.findTotalsBetween(user, start, end.plusDays(1));
+
+        List<BalancePoint> points = new ArrayList<>();
+        int day = 0;
+        for (LocalDate periodStart = unit.periodStart(start); !periodStart.isAfter(end);
+             periodStart = unit.nextPeriodStart(periodStart)) {
+            LocalDate bucketStart = periodStart.isBefore(start) ? start : periodStart;
+            LocalDate next = unit.nextPeriodStart(periodStart);
+            LocalDate bucketEnd = next.isAfter(end) ? end : next.minusDays(1);
+
+            long income = 0L;
+            long expenses = 0L;
+            while (day < days.size() && !days.get(day).getDate().isAfter(bucketEnd)) {
+                income = Money.add(income, Money.toCents(days.get(day).getIncome()));
+                expenses = Money.add(expenses, Money.toCents(days.get(day).getExpenses()));
+                day++;
+            }
+            long net = Money.subtract(income, expenses);
+            balance = Money.add(balance, net);
+
+            points.add(BalancePoint.builder()
+                    .start(bucketStart.toString())
+                    .end(bucketEnd.toString())
+                    .income(Money.toBigDecimal(income))
+                    .expenses(Money.toBigDecimal(expenses))
+                    .net(Money.toBigDecimal(net))
+                    .balance(Money.toBigDecimal(balance))
+                    .build());
+        }
+
+        return BalanceSeriesResponse.builder()
+                .from(start.toString())
+                .to(end.toString())
+                .granularity(unit.getValue())
+                .openingBalance(Money.toBigDecimal(opening))
+                .closingBalance(Money.toBigDecimal(balance))
+                .points(points)
+                .build();
+    }
+
+    // Lets the controller reject bad parameters before answering a conditional GET.
+    public void validateBalanceSeries(String from, String to, String granularity) {
+        if (from == null || to == null) {
+            throw new InvalidRequestException("Both from and to dates are required");
+        }
+        LocalDate start = parseDate(from);
+        LocalDate end = parseDate(to);
+        if (start.isAfter(end)) {
+            throw new InvalidRequestException("From date cannot be after to date");
+        }
+        BalanceGranularity unit = BalanceGranularity.from(granularity);
+        if (unit.periodsBetween(start, end) > maxPoints) {
+            throw new InvalidRequestException("Range has more than " + maxPoints + " " + unit.getValue()
+                    + " points; use a shorter range or a coarser granularity");
+        }
+    }
+
+    // Net of every month before the range's first month from the rollups, plus the days of that month
+    // before the range from the daily rows.
+    private long openingBalance(User user, LocalDate start) {
+        long beforeMonth = Money.toCents(monthlyRollupRepository.sumNetBefore(
+                user, start.getYear(), start.getMonthValue()));
+        LocalDate monthStart = start.withDayOfMonth(1);
+        if (!monthStart.isBefore(start)) {
+            return beforeMonth;
+        }
+        long monthToDate = Money.toCents(dailyBalanceRepository.sumNetBetween(user, monthStart, start));
+        return Money.add(beforeMonth, monthToDate);
+    }
+
+    private LocalDate parseDate(String dateStr) {
+        try {
+            return LocalDate.parse(dateStr);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid date format. Use YYYY-MM-DD");
+        }
+    }
+}
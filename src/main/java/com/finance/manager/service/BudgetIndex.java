@@ -0,0 +1,106 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.projection.BudgetPeriod;
+import com.finance.manager.entity.User;
+import com.finance.manager.repository.BudgetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Which (category, month) pairs each user has a budget for, so creating a transaction outside any budget
+// costs no query. A key left behind by a deleted category only costs one lookup that finds nothing.
+@Component
+public class BudgetIndex {
+
+    private final BudgetRepository budgetRepository;
+    private final int maxUsers;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Set<Key>> periods = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped on every change; a set loaded across a change is not stored.
+    private long generation;
+
+    public BudgetIndex(BudgetRepository budgetRepository,
+                       @Value("${app.budgets.cache.max-users:10000}") int maxUsers) {
+        this.budgetRepository = budgetRepository;
+        this.maxUsers = maxUsers;
+    }
+
+    public boolean contains(User user, Long categoryId, int year, int month) {
+        return periods(user).contains(new Key(categoryId, year, month));
+    }
+
+    public void addedAfterCommit(Long userId, Long categoryId, int year, int month) {
+        Key key = new Key(categoryId, year, month);
+        AfterCommit.run(() -> update(userId, keys -> keys.add(key)));
+    }
+
+    public void removedAfterCommit(Long userId, Long categoryId, int year, int month) {
+        Key key = new Key(categoryId, year, month);
+        AfterCommit.run(() -> update(userId, keys -> keys.remove(key)));
+    }
+
+    private Set<Key> periods(User user) {
+        long observed;
+        lock.lock();
+        try {
+            Set<Key> cached = periods.get(user.getId());
+            if (cached != null) {
+                return cached;
+            }
+            observed = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Set<Key> loaded = new HashSet<>();
+        for (BudgetPeriod period : budgetRepository.findPeriodsByUser(user)) {
+            loaded.add(new Key(period.getCategoryId(), period.getYear(), period.getMonth()));
+        }
+        loaded = Collections.unmodifiableSet(loaded);
+
+        lock.lock();
+        try {
+            if (generation == observed && maxUsers > 0) {
+                periods.put(user.getId(), loaded);
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    // Sets are replaced, never mutated, so readers can use one after releasing the lock.
+    private void update(Long userId, Consumer<Set<Key>> change) {
+        lock.lock();
+        try {
+            generation++;
+            Set<Key> current = periods.get(userId);
+            if (current != null) {
+                Set<Key> copy = new HashSet<>(current);
+                change.accept(copy);
+                periods.put(userId, Collections.unmodifiableSet(copy));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Long> eldest = periods.keySet().iterator();
+        while (periods.size() > maxUsers && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private record Key(Long categoryId, int year, int month) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.projection.BudgetUsage;
+import com.finance.manager.dto.request.BudgetRequest;
+import com.finance.manager.dto.request.BudgetUpdateRequest;
+import com.finance.manager.dto.response.BudgetListResponse;
+import com.finance.manager.dto.response.BudgetResponse;
+import com.finance.manager.dto.response.BudgetStatusResponse;
+import com.finance.manager.dto.response.MessageResponse;
+import com.finance.manager.entity.Budget;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.exception.DuplicateResourceException;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.exception.ResourceNotFoundException;
+import com.finance.manager.repository.BudgetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetService {
+
+    private final BudgetRepository budgetRepository;
+    private final CategoryService categoryService;
+    private final BudgetIndex budgetIndex;
+    private final DataVersions dataVersions;
+
+    @Transactional
+    public BudgetResponse createBudget(BudgetRequest request, User user) {
+        Category category = categoryService.findCategoryByName(request.getCategory(), user);
+        if (category.getType() != TransactionType.EXPENSE) {
+            throw new InvalidRequestException("Budgets can only be set for expense categories");
+        }
+
+        YearMonth period = YearMonth.of(request.getYear(), request.getMonth());
+        if (budgetRepository.existsByUserAndCategoryAndYearAndMonth(
+                user, category, period.getYear(), period.getMonthValue())) {
+            throw new DuplicateResourceException("Budget already exists for category '" + category.getName()
+                    + "' in " + period);
+        }
+
+        Budget budget = Budget.builder()
+                .user(user)
+                .category(category)
+                .year(period.getYear())
+                .month(period.getMonthValue())
+                .amount(request.getAmount())
+                .build();
+
+        Budget saved = budgetRepository.save(budget);
+        budgetIndex.addedAfterCommit(user.getId(), category.getId(), saved.getYear(), saved.getMonth());
+        dataVersions.bumpAfterCommit(user.getId());
+        log.info("Budget created: {} for user: {}", saved.getId(), user.getUsername());
+
+        return usageOf(saved.getId(), user);
+    }
+
+    @Transactional(readOnly = true)
+    public BudgetListResponse getBudgets(Integer year, Integer month, User user) {
+        List<BudgetUsage> usages;
+        if (year == null && month == null) {
+            usages = budgetRepository.findUsageByUser(user);
+        } else {
+            YearMonth period = parsePeriod(year, month);
+            usages = budgetRepository.findUsageForMonth(user, period.getYear(), period.getMonthValue());
+        }
+        return BudgetListResponse.of(toResponses(usages));
+    }
+
+    @Transactional(readOnly = true)
+    public BudgetResponse getBudget(Long id, User user) {
+        return usageOf(id, user);
+    }
+
+    @Transactional(readOnly = true)
+    public BudgetStatusResponse getStatus(Integer year, Integer month, User user) {
+        YearMonth period = statusPeriod(year, month);
+        List<BudgetUsage> usages = budgetRepository.findUsageForMonth(user, period.getYear(), period.getMonthValue());
+        return BudgetStatusResponse.of(period.getYear(), period.getMonthValue(), toResponses(usages));
+    }
+
+    @Transactional
+    public BudgetResponse updateBudget(Long id, BudgetUpdateRequest request, User user) {
+        Budget budget = budgetRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("Budget", "id", id));
+
+        budget.setAmount(request.getAmount());
+        budgetRepository.save(budget);
+        dataVersions.bumpAfterCommit(user.getId());
+        log.info("Budget updated: {} for user: {}", id, user.getUsername());
+
+        return usageOf(id, user);
+    }
+
+    @Transactional
+    public MessageResponse deleteBudget(Long id, User user) {
+        Budget budget = budgetRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("Budget", "id", id));
+
+        budgetRepository.delete(budget);
+        budgetIndex.removedAfterCommit(user.getId(), budget.getCategory().getId(), budget.getYear(), budget.getMonth());
+        dataVersions.bumpAfterCommit(user.getId());
+        log.info("Budget deleted: {} for user: {}", id, user.getUsername());
+
+        return MessageResponse.of("Budget deleted successfully");
+    }
+
+    // Called on the transaction create path after the rollups are updated, so spent already includes
+    // the new transaction. Without a budget for the category and month this costs no query at all.
+    public BudgetResponse statusAfterCreate(User user, Category category, LocalDate date) {
+        if (category.getType() != TransactionType.EXPENSE
+                || !budgetIndex.contains(user, category.getId(), date.getYear(), date.getMonthValue())) {
+            return null;
+        }
+        return budgetRepository.findUsage(user, category, date.getYear(), date.getMonthValue())
+                .map(BudgetResponse::fromUsage)
+                .orElse(null);
+    }
+
+    private BudgetResponse usageOf(Long id, User user) {
+        return budgetRepository.findUsageByIdAndUser(id, user)
+                .map(BudgetResponse::fromUsage)
+                .orElseThrow(() -> new ResourceNotFoundException("Budget", "id", id));
+    }
+
+    private List<BudgetResponse> toResponses(List<BudgetUsage> usages) {
+        return usages.stream().map(BudgetResponse::fromUsage).collect(Collectors.toList());
+    }
+
+    // The month a status request covers: the given one, or the current month when none is given.
+    // Lets the controller reject a bad period before answering a conditional GET.
+    public void validateBudgetQuery(Integer year, Integer month) {
+        if (year != null || month != null) {
+            parsePeriod(year, month);
+        }
+    }
+
+    public YearMonth statusPeriod(Integer year, Integer month) {
+        return year == null && month == null ? YearMonth.now() : parsePeriod(year, month);
+    }
+
+    private YearMonth parsePeriod(Integer year, Integer month) {
+        if (year == null || month == null) {
+            throw new InvalidRequestException("Year and month must be given together");
+        }
+        // The same bounds as BudgetRequest, so any budget that can be created can be listed.
+        if (year < 1900 || year > 9999) {
+            throw new InvalidRequestException("Year must be between 1900 and 9999");
+        }
+        if (month < 1 || month > 12) {
+            throw new InvalidRequestException("Month must be between 1 and 12");
+        }
+        return YearMonth.of(year, month);
+    }
+}
@@ -0,0 +1,165 @@
+package com.finance.manager.service;
+
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+@Component
+public class CategoryDictionary {
+
+    private final CategoryRepository categoryRepository;
+    private final int maxUsers;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Map<String, Entry>> overlays = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Defaults never change at runtime, so they are loaded once (after DataInitializer seeds them).
+    private volatile Map<String, Entry> defaults;
+
+    // Bumped on every overlay change; an overlay loaded across a change is not stored.
+    private long generation;
+
+    public CategoryDictionary(CategoryRepository categoryRepository,
+                              @Value("${app.categories.cache.max-users:10000}") int maxUsers) {
+        this.categoryRepository = categoryRepository;
+        this.maxUsers = maxUsers;
+    }
+
+    public void loadDefaults() {
+        defaults = index(categoryRepository.findByUserIsNull());
+    }
+
+    public List<Entry> getAll(User user) {
+        List<Entry> all = new ArrayList<>(defaults().values());
+        all.addAll(overlay(user).values());
+        return all;
+    }
+
+    public Entry find(String name, User user) {
+        Entry entry = defaults().get(name);
+        return entry != null ? entry : overlay(user).get(name);
+    }
+
+    public boolean isDefault(String name) {
+        return defaults().containsKey(name);
+    }
+
+    public void addedAfterCommit(Long userId, Category category) {
+        Entry entry = Entry.of(category);
+        AfterCommit.run(() -> update(userId, overlay -> overlay.put(entry.getName(), entry)));
+    }
+
+    public void removedAfterCommit(Long userId, String name) {
+        AfterCommit.run(() -> update(userId, overlay -> overlay.remove(name)));
+    }
+
+    public void invalidate(Long userId) {
+        lock.lock();
+        try {
+            generation++;
+            overlays.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Entry> defaults() {
+        Map<String, Entry> loaded = defaults;
+        if (loaded == null) {
+            loadDefaults();
+            loaded = defaults;
+        }
+        return loaded;
+    }
+
+    private Map<String, Entry> overlay(User user) {
+        long observed;
+        lock.lock();
+        try {
+            Map<String, Entry> cached = overlays.get(user.getId());
+            if (cached != null) {
+                return cached;
+            }
+            observed = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Map<String, Entry> loaded = index(categoryRepository.findByUser(user));
+
+        lock.lock();
+        try {
+            if (generation == observed && maxUsers > 0) {
+                overlays.put(user.getId(), loaded);
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    // Overlays are replaced, never mutated, so readers can use a map after releasing the lock.
+    private void update(Long userId, Consumer<Map<String, Entry>> change) {
+        lock.lock();
+        try {
+            generation++;
+            Map<String, Entry> current = overlays.get(userId);
+            if (current != null) {
+                Map<String, Entry> copy = new LinkedHashMap<>(current);
+                change.accept(copy);
+                overlays.put(userId, Collections.unmodifiableMap(copy));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Long> eldest = overlays.keySet().iterator();
+        while (overlays.size() > maxUsers && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static Map<String, Entry> index(List<Category> categories) {
+        Map<String, Entry> indexed = new LinkedHashMap<>();
+        for (Category category : categories) {
+            indexed.put(category.getName(), Entry.of(category));
+        }
+        return Collections.unmodifiableMap(indexed);
+    }
+
+    @lombok.Value
+    public static class Entry {
+
+        Long id;
+        String name;
+        TransactionType type;
+        boolean custom;
+
+        static Entry of(Category category) {
+            return new Entry(category.getId(), category.getName(), category.getType(), category.isCustom());
+        }
+
+        public Category toCategory() {
+            return Category.builder()
+                    .id(id)
+                    .name(name)
+                    .type(type)
+                    .custom(custom)
+                    .build();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.finance.manager.service;
 
+import com.finance.manager.archive.ArchiveStore;
 import com.finance.manager.dto.request.CategoryRequest;
 import com.finance.manager.dto.response.CategoryListResponse;
 import com.finance.manager.dto.response.CategoryResponse;
@@ -11,14 +12,17 @@ import com.finance.manager.exception.DuplicateResourceException;
 import com.finance.manager.exception.ForbiddenException;
 import com.finance.manager.exception.InvalidRequestException;
 import com.finance.manager.exception.ResourceNotFoundException;
+import com.finance.manager.journal.TransactionJournal;
+import com.finance.manager.repository.BudgetRepository;
 import com.finance.manager.repository.CategoryRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
 import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,20 +32,19 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final TransactionRepository transactionRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+    private final CategoryDictionary categoryDictionary;
+    private final ArchiveStore archiveStore;
+    private final TransactionJournal transactionJournal;
+    private final DataVersions dataVersions;
 
-    @Transactional(readOnly = true)
     public CategoryListResponse getAllCategories(User user) {
-        List<Category> defaultCategories = categoryRepository.findByUserIsNull();
-        List<Category> userCategories = categoryRepository.findByUser(user);
-
-        List<CategoryResponse> responses = defaultCategories.stream()
-                .map(CategoryResponse::fromEntity)
+        List<CategoryResponse> responses = categoryDictionary.getAll(user).stream()
+                .map(entry -> CategoryResponse.fromEntity(entry.toCategory()))
                 .collect(Collectors.toList());
 
-        responses.addAll(userCategories.stream()
-                .map(CategoryResponse::fromEntity)
-                .collect(Collectors.toList()));
-
         return CategoryListResponse.of(responses);
     }
 
@@ -49,7 +52,7 @@ public class CategoryService {
     public CategoryResponse createCategory(CategoryRequest request, User user) {
         TransactionType type = TransactionType.valueOf(request.getType());
 
-        if (categoryRepository.existsByNameForUser(request.getName(), user)) {
+        if (categoryDictionary.find(request.getName(), user) != null) {
             throw new DuplicateResourceException("Category", "name", request.getName());
         }
 
@@ -61,6 +64,8 @@ public class CategoryService {
                 .build();
 
         Category saved = categoryRepository.save(category);
+        categoryDictionary.addedAfterCommit(user.getId(), saved);
+        dataVersions.bumpAfterCommit(user.getId());
         log.info("Category created: {} for user: {}", saved.getName(), user.getUsername());
 
         return CategoryResponse.fromEntity(saved);
@@ -68,8 +73,7 @@ public class CategoryService {
 
     @Transactional
     public MessageResponse deleteCategory(String name, User user) {
-        Optional<Category> defaultCategory = categoryRepository.findByNameAndUserIsNull(name);
-        if (defaultCategory.isPresent()) {
+        if (categoryDictionary.isDefault(name)) {
             throw new ForbiddenException("Cannot delete default category");
         }
 
@@ -84,25 +88,37 @@ public class CategoryService {
             throw new ForbiddenException("Cannot delete category belonging to another user");
         }
 
-        if (transactionRepository.existsByUserAndCategory(user, name)) {
+        // Journaled transactions are only in the table once projected. The projection takes the user's write
+        // lock, so it is awaited before the lock; holding it keeps a create from adding a rollup row for the
+        // category between the check and the delete.
+        transactionJournal.awaitProjected();
+        userRepository.lockById(user.getId());
+        if (transactionRepository.existsByUserAndCategory(user, category)
+                || archiveStore.usesCategory(user.getId(), category.getId())) {
             throw new InvalidRequestException("Cannot delete category that is in use by transactions");
         }
 
+        // Rollup rows outlive their last transaction with a zero count and would block the delete.
+        monthlyRollupRepository.deleteByCategory(category);
+        budgetRepository.deleteByCategory(category);
         categoryRepository.delete(category);
+        categoryDictionary.removedAfterCommit(user.getId(), name);
+        dataVersions.bumpAfterCommit(user.getId());
         log.info("Category deleted: {} for user: {}", name, user.getUsername());
 
         return MessageResponse.of("Category deleted successfully");
     }
 
-    @Transactional(readOnly = true)
     public Category findCategoryByName(String name, User user) {
-        return categoryRepository.findByNameAndUser(name, user)
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "name", name));
+        CategoryDictionary.Entry entry = categoryDictionary.find(name, user);
+        if (entry == null) {
+            throw new ResourceNotFoundException("Category", "name", name);
+        }
+        return entry.toCategory();
     }
 
-    @Transactional(readOnly = true)
     public boolean categoryExistsForUser(String name, User user) {
-        return categoryRepository.existsByNameForUser(name, user);
+        return categoryDictionary.find(name, user) != null;
     }
 }
 
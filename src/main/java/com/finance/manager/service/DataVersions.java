@@ -0,0 +1,39 @@
+package com.finance.manager.service;
+
+import org.springframework.stereotype.Component;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Monotonic per-user version of everything the API returns for that user, bumped once a write commits.
+// ETags combine it with a random per-process epoch, so tags issued before a restart never match again.
+@Component
+public class DataVersions {
+
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+
+    // Entries are never removed: dropping one would restart the user at version 0 and revive old tags.
+    private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public long current(Long userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    // Read before running the query: a write committing in between then only makes the tag older
+    // than the body, never newer.
+    public String etag(Long userId) {
+        return "\"" + epoch + "-" + userId + "-" + current(userId) + "\"";
+    }
+
+    // For responses that also depend on something other than the user's data, such as the current month.
+    public String etag(Long userId, Object scope) {
+        return "\"" + epoch + "-" + userId + "-" + current(userId) + "-" + scope + "\"";
+    }
+
+    public void bumpAfterCommit(Long userId) {
+        AfterCommit.run(() -> bump(userId));
+    }
+
+    public void bump(Long userId) {
+        versions.merge(userId, 1L, Long::sum);
+    }
+}
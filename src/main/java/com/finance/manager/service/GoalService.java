@@ -1,5 +1,9 @@
 package com.finance.manager.service;
 
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.finance.manager.dto.projection.DailyNet;
+import com.finance.manager.dto.projection.GoalView;
 import com.finance.manager.dto.request.GoalRequest;
 import com.finance.manager.dto.request.GoalUpdateRequest;
 import com.finance.manager.dto.response.GoalListResponse;
@@ -7,7 +11,6 @@ import com.finance.manager.dto.response.GoalResponse;
 import com.finance.manager.dto.response.MessageResponse;
 import com.finance.manager.entity.Goal;
 import com.finance.manager.entity.User;
-import com.finance.manager.enums.TransactionType;
 import com.finance.manager.exception.InvalidRequestException;
 import com.finance.manager.exception.ResourceNotFoundException;
 import com.finance.manager.repository.GoalRepository;
@@ -16,10 +19,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +35,10 @@ public class GoalService {
 
     private final GoalRepository goalRepository;
     private final TransactionRepository transactionRepository;
+    private final LedgerStore ledgerStore;
+    private final ArchiveStore archiveStore;
+    private final SingleFlight singleFlight;
+    private final DataVersions dataVersions;
 
     @Transactional
     public GoalResponse createGoal(GoalRequest request, User user) {
@@ -54,21 +64,22 @@ public class GoalService {
                 .build();
 
         Goal saved = goalRepository.save(goal);
+        dataVersions.bumpAfterCommit(user.getId());
         log.info("Goal created: {} for user: {}", saved.getId(), user.getUsername());
 
-        BigDecimal progress = calculateProgress(user, startDate);
+        long progress = calculateProgress(user, startDate);
         return GoalResponse.fromEntity(saved, progress);
     }
 
     @Transactional(readOnly = true)
     public GoalListResponse getAllGoals(User user) {
-        List<Goal> goals = goalRepository.findByUserOrderByCreatedAtDesc(user);
+        List<GoalView> goals = goalRepository.findViewsByUser(user);
+
+        Map<LocalDate, Long> progressByStartDate = sharedProgress(user,
+                goals.stream().map(GoalView::getStartDate).collect(Collectors.toSet()));
 
         List<GoalResponse> responses = goals.stream()
-                .map(goal -> {
-                    BigDecimal progress = calculateProgress(user, goal.getStartDate());
-                    return GoalResponse.fromEntity(goal, progress);
-                })
+                .map(goal -> GoalResponse.fromView(goal, progressByStartDate.get(goal.getStartDate())))
                 .collect(Collectors.toList());
 
         return GoalListResponse.of(responses);
@@ -76,11 +87,11 @@ public class GoalService {
 
     @Transactional(readOnly = true)
     public GoalResponse getGoal(Long id, User user) {
-        Goal goal = goalRepository.findByIdAndUser(id, user)
+        GoalView goal = goalRepository.findViewByIdAndUser(id, user)
                 .orElseThrow(() -> new ResourceNotFoundException("Goal", "id", id));
 
-        BigDecimal progress = calculateProgress(user, goal.getStartDate());
-        return GoalResponse.fromEntity(goal, progress);
+        long progress = sharedProgress(user, Set.of(goal.getStartDate())).get(goal.getStartDate());
+        return GoalResponse.fromView(goal, progress);
     }
 
     @Transactional
@@ -101,9 +112,10 @@ public class GoalService {
         }
 
         Goal saved = goalRepository.save(goal);
+        dataVersions.bumpAfterCommit(user.getId());
         log.info("Goal updated: {} for user: {}", saved.getId(), user.getUsername());
 
-        BigDecimal progress = calculateProgress(user, goal.getStartDate());
+        long progress = calculateProgress(user, goal.getStartDate());
         return GoalResponse.fromEntity(saved, progress);
     }
 
@@ -113,22 +125,71 @@ public class GoalService {
                 .orElseThrow(() -> new ResourceNotFoundException("Goal", "id", id));
 
         goalRepository.delete(goal);
+        dataVersions.bumpAfterCommit(user.getId());
         log.info("Goal deleted: {} for user: {}", id, user.getUsername());
 
         return MessageResponse.of("Goal deleted successfully");
     }
 
-    private BigDecimal calculateProgress(User user, LocalDate startDate) {
-        BigDecimal totalIncome = transactionRepository.sumAmountByUserAndTypeAndDateAfter(
-                user, TransactionType.INCOME, startDate);
-        BigDecimal totalExpenses = transactionRepository.sumAmountByUserAndTypeAndDateAfter(
-                user, TransactionType.EXPENSE, startDate);
+    // Read paths only: writes compute progress in their own transaction so they see their own changes.
+    private Map<LocalDate, Long> sharedProgress(User user, Set<LocalDate> startDates) {
+        return singleFlight.execute(user.getId(), new ProgressKey(startDates),
+                () -> calculateProgress(user, startDates));
+    }
+
+    private long calculateProgress(User user, LocalDate startDate) {
+        return calculateProgress(user, Set.of(startDate)).get(startDate);
+    }
+
+    /**
+     * Computes progress for several goal start dates in one pass over the user's ledger, or without one
+     * with a single query: one net amount per day since the earliest start date, turned into suffix sums
+     * so each start date is a binary search.
+     */
+    private Map<LocalDate, Long> calculateProgress(User user, Set<LocalDate> startDates) {
+        Map<LocalDate, Long> progress = new HashMap<>();
+        if (startDates.isEmpty()) {
+            return progress;
+        }
+
+        Ledger ledger = ledgerStore.get(user);
+        if (ledger != null) {
+            ledger.netSince(startDates).forEach((startDate, net) -> progress.put(startDate, Math.max(0L, net)));
+            return progress;
+        }
+
+        LocalDate earliest = Collections.min(startDates);
+        List<DailyNet> days = transactionRepository.sumNetByDaySince(user, earliest);
+        Map<LocalDate, Long> archived = archiveStore.hasArchive(user.getId())
+                ? new Ledger(archiveStore.find(user.getId(), earliest, null).stream()
+                        .map(ArchivedTransaction::toLedgerRow)
+                        .toList()).netSince(startDates)
+                : Map.of();
+
+        long[] netFrom = new long[days.size() + 1];
+        for (int i = days.size() - 1; i >= 0; i--) {
+            netFrom[i] = Money.add(netFrom[i + 1], Money.toCents(days.get(i).getNet()));
+        }
 
-        if (totalIncome == null) totalIncome = BigDecimal.ZERO;
-        if (totalExpenses == null) totalExpenses = BigDecimal.ZERO;
+        for (LocalDate startDate : startDates) {
+            long net = Money.add(netFrom[firstDayOnOrAfter(days, startDate)], archived.getOrDefault(startDate, 0L));
+            progress.put(startDate, Math.max(0L, net));
+        }
+        return progress;
+    }
 
-        BigDecimal progress = totalIncome.subtract(totalExpenses);
-        return progress.compareTo(BigDecimal.ZERO) < 0 ? BigDecimal.ZERO : progress;
+    private int firstDayOnOrAfter(List<DailyNet> days, LocalDate date) {
+        int low = 0;
+        int high = days.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days.get(mid).getDate().isBefore(date)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     private LocalDate parseDate(String dateStr) {
@@ -138,5 +199,7 @@ public class GoalService {
             throw new InvalidRequestException("Invalid date format. Use YYYY-MM-DD");
         }
     }
-}
 
+    private record ProgressKey(Set<LocalDate> startDates) {
+    }
+}
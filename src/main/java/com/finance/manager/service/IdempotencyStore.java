@@ -0,0 +1,189 @@
+package com.finance.manager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.exception.UnprocessableRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Remembers the response of a create request by (user, scope, Idempotency-Key) so client retries
+// replay it instead of creating a duplicate. Failed attempts are forgotten and may be retried. A key
+// reused with a different request body is rejected rather than answered with the other request's response.
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    // Only fingerprints request bodies, so it is independent of how responses are written. Amounts are
+    // written without trailing zeros: a retry sending 10.0 for 10.00 is the same request.
+    private static final ObjectMapper BODY_MAPPER = new ObjectMapper().registerModule(new SimpleModule()
+            .addSerializer(BigDecimal.class, new JsonSerializer<>() {
+                @Override
+                public void serialize(BigDecimal value, JsonGenerator generator, SerializerProvider provider)
+                        throws IOException {
+                    generator.writeNumber(value.stripTrailingZeros().toPlainString());
+                }
+            }));
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public IdempotencyStore(@Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.idempotency.ttl:PT24H}") Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    IdempotencyStore(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Long userId, String scope, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        if (maxEntries <= 0) {
+            return action.get();
+        }
+
+        Key key = new Key(userId, scope, idempotencyKey);
+        byte[] bodyHash = hash(request);
+        Entry entry;
+        Entry existing;
+        lock.lock();
+        try {
+            Instant now = clock.instant();
+            existing = entries.get(key);
+            if (existing != null && existing.expiresAt.isBefore(now)) {
+                entries.remove(key);
+                existing = null;
+            }
+            if (existing == null) {
+                entry = new Entry(new CompletableFuture<>(), bodyHash, now.plus(ttl));
+                entries.put(key, entry);
+                evictOverflow(now);
+            } else {
+                entry = existing;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.bodyHash, bodyHash)) {
+                throw new UnprocessableRequestException(
+                        "Idempotency-Key was already used for a request with a different body");
+            }
+            // Either a replay of a stored response or a duplicate of a request still in flight.
+            log.debug("Idempotency-Key replay for user {} on {}", userId, scope);
+            return (T) await(existing.result);
+        }
+
+        try {
+            T result = action.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            forget(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void forget(Key key, Entry entry) {
+        lock.lock();
+        try {
+            entries.remove(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(BODY_MAPPER.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request body", e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Original request was cancelled", e);
+        }
+    }
+
+    // Entries are in access order, so expired ones are dropped only as they surface at the head;
+    // the rest expire on lookup. Requests still in flight are kept, or a duplicate arriving meanwhile
+    // would run the action a second time; the store may briefly hold more than maxEntries.
+    private void evictOverflow(Instant now) {
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (eldest.hasNext()) {
+            Entry candidate = eldest.next().getValue();
+            if (entries.size() <= maxEntries && !candidate.expiresAt.isBefore(now)) {
+                break;
+            }
+            if (candidate.result.isDone()) {
+                eldest.remove();
+            }
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Key(Long userId, String scope, String idempotencyKey) {
+    }
+
+    private record Entry(CompletableFuture<Object> result, byte[] bodyHash, Instant expiresAt) {
+    }
+}
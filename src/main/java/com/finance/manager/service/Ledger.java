@@ -0,0 +1,302 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.projection.LedgerRow;
+import com.finance.manager.enums.TransactionType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// One user's transactions as parallel primitive columns sorted by date, so analytics scan a whole
+// history in a tight loop instead of hydrating entities. Category ids come from a pooled sequence and
+// can outgrow a short, so each row holds a code into the ledger's own category table instead.
+public final class Ledger {
+
+    static final int MAX_CATEGORIES = Short.MAX_VALUE + 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private int[] days;
+    private long[] cents;
+    private short[] categories;
+    private final BitSet income = new BitSet();
+    private int size;
+
+    private final Map<Long, Short> codes = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final List<TransactionType> categoryTypes = new ArrayList<>();
+
+    // Rows must be in date order, as TransactionRepository.findLedgerRowsByUser returns them.
+    Ledger(List<LedgerRow> rows) {
+        ids = new long[rows.size()];
+        days = new int[rows.size()];
+        cents = new long[rows.size()];
+        categories = new short[rows.size()];
+        for (LedgerRow row : rows) {
+            set(size++, row, code(row));
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Income minus expenses in cents from each start date on, in one pass over the rows since the earliest.
+    public Map<LocalDate, Long> netSince(Collection<LocalDate> startDates) {
+        List<LocalDate> latestFirst = new ArrayList<>(startDates);
+        latestFirst.sort(Comparator.reverseOrder());
+        Map<LocalDate, Long> net = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            long running = 0L;
+            int end = size;
+            for (LocalDate startDate : latestFirst) {
+                int start = lowerBound(startDate.toEpochDay());
+                running = Money.add(running, net(start, end));
+                end = start;
+                net.put(startDate, running);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return net;
+    }
+
+    // Per-category totals for each day (or month) between from and to, inclusive: the same facts the
+    // database returns for sumByDayBetween and sumByMonthBetween up to the day after to.
+    public List<Aggregation.Fact> facts(LocalDate from, LocalDate to, boolean monthly) {
+        lock.readLock().lock();
+        try {
+            long[] totals = new long[categoryNames.size()];
+            long[] counts = new long[categoryNames.size()];
+            List<Aggregation.Fact> facts = new ArrayList<>();
+            LocalDate bucket = null;
+            long bucketEnd = Long.MIN_VALUE;
+
+            int end = upperBound(to.toEpochDay());
+            for (int i = lowerBound(from.toEpochDay()); i < end; i++) {
+                if (days[i] >= bucketEnd) {
+                    flush(bucket, monthly, totals, counts, facts);
+                    bucket = LocalDate.ofEpochDay(days[i]);
+                    if (monthly) {
+                        bucket = bucket.withDayOfMonth(1);
+                    }
+                    bucketEnd = (monthly ? bucket.plusMonths(1) : bucket.plusDays(1)).toEpochDay();
+                }
+                int category = categories[i];
+                totals[category] = Money.add(totals[category], cents[i]);
+                counts[category]++;
+            }
+            flush(bucket, monthly, totals, counts, facts);
+            return facts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rows already present are skipped, so replaying an insert the initial load already saw is harmless.
+    void addAll(List<LedgerRow> rows) {
+        lock.writeLock().lock();
+        try {
+            List<LedgerRow> added = new ArrayList<>(rows.size());
+            for (LedgerRow row : rows) {
+                if (indexOf(row.getId(), row.getDate().toEpochDay()) < 0) {
+                    added.add(row);
+                }
+            }
+            if (added.isEmpty()) {
+                return;
+            }
+            added.sort(Comparator.comparing(LedgerRow::getDate));
+            // Coded before anything moves, so running out of codes leaves the columns untouched.
+            short[] addedCodes = new short[added.size()];
+            for (int j = 0; j < added.size(); j++) {
+                addedCodes[j] = code(added.get(j));
+            }
+
+            // Merge from the back: rows dated after every new row move once, earlier rows stay put.
+            ensureCapacity(size + added.size());
+            int source = size - 1;
+            int target = size + added.size() - 1;
+            for (int j = added.size() - 1; j >= 0; j--) {
+                long day = added.get(j).getDate().toEpochDay();
+                while (source >= 0 && days[source] > day) {
+                    move(source--, target--);
+                }
+                set(target--, added.get(j), addedCodes[j]);
+            }
+            size += added.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The date of a transaction never changes, only its amount and category.
+    boolean update(LedgerRow row) {
+        lock.writeLock().lock();
+        try {
+            int index = indexOf(row.getId(), row.getDate().toEpochDay());
+            if (index < 0) {
+                return false;
+            }
+            set(index, row, code(row));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(long id, LocalDate date) {
+        lock.writeLock().lock();
+        try {
+            int index = indexOf(id, date.toEpochDay());
+            if (index < 0) {
+                return false;
+            }
+            int tail = size - index - 1;
+            System.arraycopy(ids, index + 1, ids, index, tail);
+            System.arraycopy(days, index + 1, days, index, tail);
+            System.arraycopy(cents, index + 1, cents, index, tail);
+            System.arraycopy(categories, index + 1, categories, index, tail);
+            for (int i = index; i < size - 1; i++) {
+                income.set(i, income.get(i + 1));
+            }
+            size--;
+            income.clear(size);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Approximate heap footprint, counting spare capacity.
+    long bytes() {
+        return (long) ids.length * (Long.BYTES + Integer.BYTES + Long.BYTES + Short.BYTES)
+                + income.size() / Byte.SIZE + categoryNames.size() * 64L;
+    }
+
+    // Sums every row, then only the income rows, instead of branching on the type of each row.
+    private long net(int start, int end) {
+        long total = 0L;
+        for (int i = start; i < end; i++) {
+            total = Money.add(total, cents[i]);
+        }
+        long incomeTotal = 0L;
+        for (int i = income.nextSetBit(start); i >= 0 && i < end; i = income.nextSetBit(i + 1)) {
+            incomeTotal = Money.add(incomeTotal, cents[i]);
+        }
+        return Money.subtract(incomeTotal, Money.subtract(total, incomeTotal));
+    }
+
+    private void flush(LocalDate bucket, boolean monthly, long[] totals, long[] counts,
+                       List<Aggregation.Fact> facts) {
+        if (bucket == null) {
+            return;
+        }
+        for (int category = 0; category < counts.length; category++) {
+            if (counts[category] == 0) {
+                continue;
+            }
+            TransactionType type = categoryTypes.get(category);
+            boolean isIncome = type == TransactionType.INCOME;
+            facts.add(new Aggregation.Fact(bucket.getYear(), bucket.getMonthValue(), monthly ? null : bucket, type,
+                    categoryNames.get(category), isIncome ? totals[category] : 0L,
+                    isIncome ? 0L : totals[category], counts[category]));
+            totals[category] = 0L;
+            counts[category] = 0L;
+        }
+    }
+
+    private short code(LedgerRow row) {
+        Short code = codes.get(row.getCategoryId());
+        if (code == null) {
+            if (categoryNames.size() == MAX_CATEGORIES) {
+                throw new IllegalStateException("A ledger holds at most " + MAX_CATEGORIES + " categories");
+            }
+            code = (short) categoryNames.size();
+            codes.put(row.getCategoryId(), code);
+            categoryNames.add(row.getCategory());
+            categoryTypes.add(row.getType());
+        }
+        return code;
+    }
+
+    private void set(int index, LedgerRow row, short code) {
+        ids[index] = row.getId();
+        days[index] = (int) row.getDate().toEpochDay();
+        cents[index] = Money.toCents(row.getAmount());
+        categories[index] = code;
+        income.set(index, row.getType() == TransactionType.INCOME);
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        days[to] = days[from];
+        cents[to] = cents[from];
+        categories[to] = categories[from];
+        income.set(to, income.get(from));
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(needed, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        days = Arrays.copyOf(days, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+    }
+
+    private int indexOf(long id, long day) {
+        for (int i = lowerBound(day); i < size && days[i] == day; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // First row dated on or after day.
+    private int lowerBound(long day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First row dated after day.
+    private int upperBound(long day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,176 @@
+package com.finance.manager.service;
+
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.finance.manager.dto.projection.LedgerRow;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// The ledgers of recently active users, loaded on first use and kept within a byte budget by evicting
+// the least recently used. Writes are applied after they commit; a change that does not find its row
+// drops the ledger so the next read reloads it.
+@Component
+@Slf4j
+public class LedgerStore {
+
+    private final TransactionRepository transactionRepository;
+    private final ArchiveStore archiveStore;
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Ledger> ledgers = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    // Bumped on every change; a ledger loaded across a change is not stored.
+    private long generation;
+
+    public LedgerStore(TransactionRepository transactionRepository, ArchiveStore archiveStore,
+                       @Value("${app.ledger.cache.max-size:64MB}") DataSize maxSize) {
+        this.transactionRepository = transactionRepository;
+        this.archiveStore = archiveStore;
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    // Null when the store is disabled or the user's categories do not fit a ledger; callers then
+    // query the database.
+    public Ledger get(User user) {
+        if (maxBytes <= 0) {
+            return null;
+        }
+        long observed;
+        lock.lock();
+        try {
+            Ledger cached = ledgers.get(user.getId());
+            if (cached != null) {
+                return cached;
+            }
+            observed = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Ledger loaded;
+        try {
+            loaded = new Ledger(rows(user));
+        } catch (IllegalStateException e) {
+            log.warn("No ledger for user {}: {}", user.getId(), e.getMessage());
+            return null;
+        }
+        log.debug("Loaded ledger of {} transactions ({} bytes) for user {}", loaded.size(), loaded.bytes(),
+                user.getId());
+
+        lock.lock();
+        try {
+            // A ledger larger than the whole budget still answers the request that loaded it.
+            if (generation == observed && loaded.bytes() <= maxBytes) {
+                Ledger previous = ledgers.put(user.getId(), loaded);
+                bytes += loaded.bytes() - (previous != null ? previous.bytes() : 0L);
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    public void addedAfterCommit(Long userId, List<Transaction> transactions) {
+        List<LedgerRow> rows = transactions.stream().map(LedgerStore::row).toList();
+        AfterCommit.run(() -> update(userId, ledger -> {
+            ledger.addAll(rows);
+            return true;
+        }));
+    }
+
+    public void updatedAfterCommit(Long userId, Transaction transaction) {
+        LedgerRow row = row(transaction);
+        AfterCommit.run(() -> update(userId, ledger -> ledger.update(row)));
+    }
+
+    public void removedAfterCommit(Long userId, Transaction transaction) {
+        long id = transaction.getId();
+        LocalDate date = transaction.getDate();
+        AfterCommit.run(() -> update(userId, ledger -> ledger.remove(id, date)));
+    }
+
+    long bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Ledgers are changed in place under their own write lock; holding the store lock as well keeps
+    // the byte count in step with them.
+    private void update(Long userId, Predicate<Ledger> change) {
+        lock.lock();
+        try {
+            generation++;
+            Ledger ledger = ledgers.get(userId);
+            if (ledger == null) {
+                return;
+            }
+            long before = ledger.bytes();
+            boolean applied;
+            try {
+                applied = change.test(ledger);
+            } catch (IllegalStateException e) {
+                applied = false;
+            }
+            if (applied) {
+                bytes += ledger.bytes() - before;
+                evictOverflow();
+            } else {
+                ledgers.remove(userId);
+                bytes -= before;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Ledger> eldest = ledgers.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+        }
+    }
+
+    // A row being archived can briefly be in both places; the database copy wins.
+    private List<LedgerRow> rows(User user) {
+        List<LedgerRow> rows = transactionRepository.findLedgerRowsByUser(user);
+        if (!archiveStore.hasArchive(user.getId())) {
+            return rows;
+        }
+        Set<Long> live = rows.stream().map(LedgerRow::getId).collect(Collectors.toSet());
+        List<LedgerRow> merged = new ArrayList<>(rows);
+        for (ArchivedTransaction transaction : archiveStore.find(user.getId(), null, null)) {
+            if (!live.contains(transaction.id())) {
+                merged.add(transaction.toLedgerRow());
+            }
+        }
+        merged.sort(Comparator.comparing(LedgerRow::getDate).thenComparing(LedgerRow::getId));
+        return merged;
+    }
+
+    private static LedgerRow row(Transaction transaction) {
+        return new LedgerRow(transaction.getId(), transaction.getDate(), transaction.getAmount(),
+                transaction.getCategory().getId(), transaction.getCategory().getName(), transaction.getType());
+    }
+}
@@ -0,0 +1,57 @@
+package com.finance.manager.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amounts as a long count of cents; BigDecimal only at the JSON/DB boundary.
+// Every arithmetic helper throws ArithmeticException on overflow instead of wrapping.
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private static final long MAX_SCALABLE = Long.MAX_VALUE / 10_000L;
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        // scaleByPowerOfTen keeps the compact long representation, unlike unscaledValue()
+        BigDecimal scaled = amount.scale() == SCALE ? amount : amount.setScale(SCALE, RoundingMode.HALF_UP);
+        return scaled.scaleByPowerOfTen(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    // part / whole as a percentage in hundredths (basis points), rounded half-up. A part too large to scale
+    // in a long (above about 9.2e14 cents) is divided in BigDecimal; only a result beyond a long throws.
+    public static long percentageBasisPoints(long part, long whole) {
+        if (part <= MAX_SCALABLE && part >= -MAX_SCALABLE) {
+            return divideHalfUp(part * 10_000L, whole);
+        }
+        return BigDecimal.valueOf(part).scaleByPowerOfTen(4)
+                .divide(BigDecimal.valueOf(whole), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder >= Math.abs(divisor) - remainder) {
+            quotient += Long.signum(dividend) * Long.signum(divisor);
+        }
+        return quotient;
+    }
+}
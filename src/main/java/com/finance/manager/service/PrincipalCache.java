@@ -0,0 +1,54 @@
+package com.finance.manager.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class PrincipalCache {
+
+    private final int maxEntries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, AuthenticatedUser> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, AuthenticatedUser> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public PrincipalCache(@Value("${app.principal.cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public AuthenticatedUser get(Long userId) {
+        lock.lock();
+        try {
+            return entries.get(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(AuthenticatedUser principal) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            entries.put(principal.getId(), principal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(Long userId) {
+        lock.lock();
+        try {
+            entries.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
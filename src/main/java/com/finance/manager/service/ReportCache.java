@@ -0,0 +1,150 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.response.ReportCacheStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class ReportCache {
+
+    // Yearly reports share the key space with monthly ones using month 0.
+    static final int YEARLY = 0;
+
+    private final int maxEntries;
+    private final SingleFlight singleFlight;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Bumped on every invalidation; a load that overlapped one is not stored, since it may have read
+    // the rows the invalidating write replaced.
+    private long generation;
+
+    public ReportCache(@Value("${app.reports.cache.max-entries:10000}") int maxEntries, SingleFlight singleFlight) {
+        this.maxEntries = maxEntries;
+        this.singleFlight = singleFlight;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, int year, int month, Supplier<T> loader) {
+        if (userId == null) {
+            return loader.get();
+        }
+        if (maxEntries <= 0) {
+            return singleFlight.execute(userId, new Key(userId, year, month), loader);
+        }
+        Key key = new Key(userId, year, month);
+        long observed;
+        lock.lock();
+        try {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return (T) cached;
+            }
+            observed = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        misses.incrementAndGet();
+        // Identical misses that arrive together (a dashboard opened on several devices) share one query.
+        T value = singleFlight.execute(userId, key, loader);
+
+        lock.lock();
+        try {
+            if (generation == observed) {
+                entries.put(key, value);
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return value;
+    }
+
+    public void invalidateAfterCommit(Long userId, int year, int month) {
+        AfterCommit.run(() -> invalidate(userId, year, month));
+    }
+
+    public void invalidateUserAfterCommit(Long userId) {
+        AfterCommit.run(() -> invalidateUser(userId));
+    }
+
+    public void invalidate(Long userId, int year, int month) {
+        lock.lock();
+        try {
+            generation++;
+            remove(new Key(userId, year, month));
+            remove(new Key(userId, year, YEARLY));
+        } finally {
+            lock.unlock();
+        }
+        singleFlight.forgetUser(userId);
+    }
+
+    public void invalidateUser(Long userId) {
+        lock.lock();
+        try {
+            generation++;
+            Iterator<Key> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().userId.equals(userId)) {
+                    keys.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        singleFlight.forgetUser(userId);
+    }
+
+    public ReportCacheStatsResponse stats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return ReportCacheStatsResponse.builder()
+                .size(size)
+                .maxEntries(maxEntries)
+                .hits(hits.get())
+                .misses(misses.get())
+                .evictions(evictions.get())
+                .invalidations(invalidations.get())
+                .build();
+    }
+
+    private void remove(Key key) {
+        if (entries.remove(key) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Object>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private record Key(Long userId, int year, int month) {
+    }
+}
@@ -1,103 +1,175 @@
 package com.finance.manager.service;
 
+import com.finance.manager.dto.response.AggregateResponse;
 import com.finance.manager.dto.response.MonthlyReportResponse;
 import com.finance.manager.dto.response.YearlyReportResponse;
-import com.finance.manager.entity.Transaction;
 import com.finance.manager.entity.User;
+import com.finance.manager.enums.AggregateDimension;
 import com.finance.manager.enums.TransactionType;
 import com.finance.manager.exception.InvalidRequestException;
-import com.finance.manager.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReportService {
 
-    private final TransactionRepository transactionRepository;
+    private static final List<AggregateDimension> BREAKDOWN = List.of(AggregateDimension.TYPE, AggregateDimension.CATEGORY);
 
-    @Transactional(readOnly = true)
+    private final AggregationService aggregationService;
+    private final ReportCache reportCache;
+
+    // Not @Transactional: a cache hit should not open a transaction, and a miss runs a single query.
     public MonthlyReportResponse getMonthlyReport(int year, int month, User user) {
+        validateMonthlyReport(year, month);
+
+        return reportCache.get(user.getId(), year, month, () -> buildMonthlyReport(year, month, user));
+    }
+
+    public YearlyReportResponse getYearlyReport(int year, User user) {
+        validateYearlyReport(year);
+
+        return reportCache.get(user.getId(), year, ReportCache.YEARLY, () -> buildYearlyReport(year, user));
+    }
+
+    public AggregateResponse getAggregate(String from, String to, List<String> groupBy, User user) {
+        validateAggregate(from, to, groupBy);
+        LocalDate start = parseDate(from);
+        LocalDate end = parseDate(to);
+
+        return AggregateResponse.of(start, end, aggregationService.aggregate(user, start, end, dimensions(groupBy)));
+    }
+
+    // The validate methods let controllers reject bad parameters before answering a conditional GET.
+    public void validateMonthlyReport(int year, int month) {
+        validateYear(year);
         if (month < 1 || month > 12) {
             throw new InvalidRequestException("Month must be between 1 and 12");
         }
+    }
 
-        List<Transaction> transactions = transactionRepository.findByUserAndMonth(user, year, month);
-
-        Map<String, BigDecimal> totalIncome = new HashMap<>();
-        Map<String, BigDecimal> totalExpenses = new HashMap<>();
-        BigDecimal netIncome = BigDecimal.ZERO;
-        BigDecimal netExpenses = BigDecimal.ZERO;
+    public void validateYearlyReport(int year) {
+        validateYear(year);
+    }
 
-        for (Transaction transaction : transactions) {
-            BigDecimal amount = transaction.getAmount().setScale(2, RoundingMode.HALF_UP);
-            String category = transaction.getCategory();
+    public void validateAggregate(String from, String to, List<String> groupBy) {
+        if (from == null || to == null) {
+            throw new InvalidRequestException("Both from and to dates are required");
+        }
+        if (parseDate(from).isAfter(parseDate(to))) {
+            throw new InvalidRequestException("From date cannot be after to date");
+        }
+        dimensions(groupBy);
+    }
 
-            if (transaction.getType() == TransactionType.INCOME) {
-                totalIncome.merge(category, amount, BigDecimal::add);
-                netIncome = netIncome.add(amount);
-            } else {
-                totalExpenses.merge(category, amount, BigDecimal::add);
-                netExpenses = netExpenses.add(amount);
+    private static List<AggregateDimension> dimensions(List<String> groupBy) {
+        Set<AggregateDimension> dimensions = new LinkedHashSet<>();
+        if (groupBy != null) {
+            for (String value : groupBy) {
+                dimensions.add(AggregateDimension.from(value.trim()));
             }
         }
+        return new ArrayList<>(dimensions);
+    }
 
-        BigDecimal netSavings = formatAmount(netIncome.subtract(netExpenses));
+    private MonthlyReportResponse buildMonthlyReport(int year, int month, User user) {
+        YearMonth period = YearMonth.of(year, month);
+        Breakdown breakdown = Breakdown.of(
+                aggregationService.aggregate(user, period.atDay(1), period.atEndOfMonth(), BREAKDOWN));
 
         return MonthlyReportResponse.builder()
                 .month(month)
                 .year(year)
-                .totalIncome(totalIncome)
-                .totalExpenses(totalExpenses)
-                .netSavings(netSavings)
+                .totalIncome(breakdown.income())
+                .totalExpenses(breakdown.expenses())
+                .netSavings(breakdown.netSavings())
                 .build();
     }
 
-    @Transactional(readOnly = true)
-    public YearlyReportResponse getYearlyReport(int year, User user) {
-        List<Transaction> transactions = transactionRepository.findByUserAndYear(user, year);
-
-        Map<String, BigDecimal> totalIncome = new HashMap<>();
-        Map<String, BigDecimal> totalExpenses = new HashMap<>();
-        BigDecimal netIncome = BigDecimal.ZERO;
-        BigDecimal netExpenses = BigDecimal.ZERO;
-
-        for (Transaction transaction : transactions) {
-            BigDecimal amount = transaction.getAmount().setScale(2, RoundingMode.HALF_UP);
-            String category = transaction.getCategory();
-
-            if (transaction.getType() == TransactionType.INCOME) {
-                totalIncome.merge(category, amount, BigDecimal::add);
-                netIncome = netIncome.add(amount);
-            } else {
-                totalExpenses.merge(category, amount, BigDecimal::add);
-                netExpenses = netExpenses.add(amount);
-            }
-        }
-
-        BigDecimal netSavings = formatAmount(netIncome.subtract(netExpenses));
+    private YearlyReportResponse buildYearlyReport(int year, User user) {
+        Breakdown breakdown = Breakdown.of(aggregationService.aggregate(
+                user, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), BREAKDOWN));
 
         return YearlyReportResponse.builder()
                 .year(year)
-                .totalIncome(totalIncome)
-                .totalExpenses(totalExpenses)
-                .netSavings(netSavings)
+                .totalIncome(breakdown.income())
+                .totalExpenses(breakdown.expenses())
+                .netSavings(breakdown.netSavings())
                 .build();
     }
 
-    private BigDecimal formatAmount(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) == 0) {
+    private static void validateYear(int year) {
+        if (year < Year.MIN_VALUE || year > Year.MAX_VALUE) {
+            throw new InvalidRequestException("Year is out of range");
+        }
+    }
+
+    private LocalDate parseDate(String dateStr) {
+        try {
+            return LocalDate.parse(dateStr);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid date format. Use YYYY-MM-DD");
+        }
+    }
+
+    private static BigDecimal formatAmount(long cents) {
+        if (cents == 0) {
             return BigDecimal.ZERO;
         }
-        return amount.setScale(2, RoundingMode.HALF_UP);
+        return Money.toBigDecimal(cents);
+    }
+
+    private static Map<String, BigDecimal> toAmounts(Map<String, Long> centsByCategory) {
+        Map<String, BigDecimal> amounts = new HashMap<>(centsByCategory.size() * 2);
+        centsByCategory.forEach((category, cents) -> amounts.put(category, Money.toBigDecimal(cents)));
+        return amounts;
     }
-}
 
+    private static final class Breakdown {
+
+        private final Map<String, Long> income = new HashMap<>();
+        private final Map<String, Long> expenses = new HashMap<>();
+        private long netIncome;
+        private long netExpenses;
+
+        static Breakdown of(Aggregation aggregation) {
+            Breakdown breakdown = new Breakdown();
+            for (Aggregation.Group group : aggregation.getGroups()) {
+                String category = (String) group.key().get(AggregateDimension.CATEGORY);
+                if (group.key().get(AggregateDimension.TYPE) == TransactionType.INCOME) {
+                    breakdown.income.merge(category, group.income(), Money::add);
+                    breakdown.netIncome = Money.add(breakdown.netIncome, group.income());
+                } else {
+                    breakdown.expenses.merge(category, group.expenses(), Money::add);
+                    breakdown.netExpenses = Money.add(breakdown.netExpenses, group.expenses());
+                }
+            }
+            return breakdown;
+        }
+
+        Map<String, BigDecimal> income() {
+            return toAmounts(income);
+        }
+
+        Map<String, BigDecimal> expenses() {
+            return toAmounts(expenses);
+        }
+
+        BigDecimal netSavings() {
+            return formatAmount(Money.subtract(netIncome, netExpenses));
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.finance.manager.service;
+
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.finance.manager.dto.projection.DatedTotal;
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.dto.response.DailyBalanceDrift;
+import com.finance.manager.dto.response.RollupDrift;
+import com.finance.manager.dto.response.RollupVerificationResponse;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.DailyBalance;
+import com.finance.manager.entity.MonthlyRollup;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.repository.CategoryRepository;
+import com.finance.manager.repository.DailyBalanceRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.shard.ShardContext;
+import com.finance.manager.shard.Shards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollupService {
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final ArchiveStore archiveStore;
+    private final Shards shards;
+    private final PlatformTransactionManager transactionManager;
+    private final ReportCache reportCache;
+    private final DataVersions dataVersions;
+
+    @Value("${app.rollups.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    @Transactional
+    public void recordCreated(Transaction transaction) {
+        lockUser(transaction.getUser());
+        apply(transaction.getUser(), transaction.getDate(), transaction.getType(), transaction.getCategory(),
+                transaction.getAmount(), 1);
+        applyDaily(transaction.getUser(), transaction.getDate(), transaction.getType(),
+                Money.toCents(transaction.getAmount()), 1);
+    }
+
+    // One rollup update per (month, type, category) instead of one per row, and the batch's daily rows
+    // read in one locked query and written back as batched statements.
+    @Transactional
+    public void recordCreatedAll(List<Transaction> transactions) {
+        Map<List<Object>, Transaction> groups = new LinkedHashMap<>();
+        Map<List<Object>, Long> amounts = new HashMap<>();
+        Map<List<Object>, Long> counts = new HashMap<>();
+        Map<LocalDate, long[]> days = new LinkedHashMap<>();
+        if (!transactions.isEmpty()) {
+            lockUser(transactions.get(0).getUser());
+        }
+        for (Transaction transaction : transactions) {
+            List<Object> key = List.of(transaction.getDate().getYear(), transaction.getDate().getMonthValue(),
+                    transaction.getType(), transaction.getCategory().getId());
+            long cents = Money.toCents(transaction.getAmount());
+            groups.putIfAbsent(key, transaction);
+            amounts.merge(key, cents, Money::add);
+            counts.merge(key, 1L, Long::sum);
+
+            // income cents, expense cents, count
+            long[] day = days.computeIfAbsent(transaction.getDate(), date -> new long[3]);
+            int side = transaction.getType() == TransactionType.INCOME ? 0 : 1;
+            day[side] = Money.add(day[side], cents);
+            day[2]++;
+        }
+        groups.forEach((key, first) -> apply(first.getUser(), first.getDate(), first.getType(),
+                first.getCategory(), Money.toBigDecimal(amounts.get(key)), counts.get(key)));
+        if (!transactions.isEmpty()) {
+            applyDailyAll(transactions.get(0).getUser(), days);
+        }
+    }
+
+    @Transactional
+    public void recordDeleted(Transaction transaction) {
+        lockUser(transaction.getUser());
+        apply(transaction.getUser(), transaction.getDate(), transaction.getType(), transaction.getCategory(),
+                transaction.getAmount().negate(), -1);
+        applyDaily(transaction.getUser(), transaction.getDate(), transaction.getType(),
+                -Money.toCents(transaction.getAmount()), -1);
+    }
+
+    @Transactional
+    public void recordUpdated(Transaction before, Transaction after) {
+        lockUser(after.getUser());
+        boolean samePeriod = before.getDate().getYear() == after.getDate().getYear()
+                && before.getDate().getMonthValue() == after.getDate().getMonthValue();
+        if (samePeriod && before.getType() == after.getType()
+                && before.getCategory().getId().equals(after.getCategory().getId())) {
+            BigDecimal delta = after.getAmount().subtract(before.getAmount());
+            if (delta.signum() != 0) {
+                apply(after.getUser(), after.getDate(), after.getType(), after.getCategory(), delta, 0);
+            }
+            if (!before.getDate().equals(after.getDate())) {
+                applyDaily(before.getUser(), before.getDate(), before.getType(),
+                        -Money.toCents(before.getAmount()), -1);
+                applyDaily(after.getUser(), after.getDate(), after.getType(), Money.toCents(after.getAmount()), 1);
+            } else if (delta.signum() != 0) {
+                applyDaily(after.getUser(), after.getDate(), after.getType(), Money.toCents(delta), 0);
+            }
+            return;
+        }
+        recordDeleted(before);
+        recordCreated(after);
+    }
+
+    public RollupVerificationResponse verify(boolean repair) {
+        List<Long> userIds = ShardContext.call(null, userRepository::findAllIds);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildParallelism));
+        try {
+            List<Future<UserDrift>> results = new ArrayList<>();
+            for (Long userId : userIds) {
+                results.add(executor.submit(() -> ShardContext.call(shards.shardOf(userId),
+                        () -> template.execute(status -> verifyUser(userId, repair)))));
+            }
+
+            List<RollupDrift> drift = new ArrayList<>();
+            List<DailyBalanceDrift> dailyDrift = new ArrayList<>();
+            int usersWithDrift = 0;
+            for (Future<UserDrift> result : results) {
+                UserDrift userDrift = result.get();
+                if (!userDrift.months().isEmpty() || !userDrift.days().isEmpty()) {
+                    usersWithDrift++;
+                    drift.addAll(userDrift.months());
+                    dailyDrift.addAll(userDrift.days());
+                }
+            }
+
+            log.info("Rollup verification checked {} users, {} with drift, repair={}",
+                    userIds.size(), usersWithDrift, repair);
+            return RollupVerificationResponse.builder()
+                    .usersChecked(userIds.size())
+                    .usersWithDrift(usersWithDrift)
+                    .repaired(repair && usersWithDrift > 0)
+                    .drift(drift)
+                    .dailyDrift(dailyDrift)
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rollup verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rollup verification failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private UserDrift verifyUser(Long userId, boolean repair) {
+        // A rebuild holds the user's write lock from before reading until it commits: a write in flight is
+        // committed before the totals are read, and later ones apply their delta to the rebuilt rows.
+        if (repair) {
+            userRepository.lockById(userId);
+        }
+        // Archived transactions are no longer rows, but their months still count towards the rollups.
+        List<RollupTotal> totals = new ArrayList<>(transactionRepository.sumByMonthForUser(userId));
+        Set<Long> stillLive = liveInArchivedYears(userId);
+        totals.addAll(archiveStore.totals(userId, stillLive));
+        Map<List<Object>, RollupTotal> expected = index(totals);
+        Map<List<Object>, RollupTotal> actual = index(monthlyRollupRepository.findAllByUserId(userId));
+
+        Set<List<Object>> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+
+        List<RollupDrift> drift = new ArrayList<>();
+        for (List<Object> key : keys) {
+            RollupTotal want = expected.get(key);
+            RollupTotal have = actual.get(key);
+            BigDecimal expectedTotal = want != null ? want.getTotal() : BigDecimal.ZERO;
+            BigDecimal actualTotal = have != null ? have.getTotal() : BigDecimal.ZERO;
+            long expectedCount = want != null ? want.getCount() : 0;
+            long actualCount = have != null ? have.getCount() : 0;
+
+            if (expectedTotal.compareTo(actualTotal) != 0 || expectedCount != actualCount) {
+                RollupTotal source = want != null ? want : have;
+                drift.add(RollupDrift.builder()
+                        .userId(userId)
+                        .year(source.getYear())
+                        .month(source.getMonth())
+                        .type(source.getType())
+                        .category(source.getCategory())
+                        .expectedTotal(expectedTotal)
+                        .actualTotal(actualTotal)
+                        .expectedCount(expectedCount)
+                        .actualCount(actualCount)
+                        .build());
+            }
+        }
+
+        if (repair && !drift.isEmpty()) {
+            User user = userRepository.getReferenceById(userId);
+            monthlyRollupRepository.deleteByUserId(userId);
+            monthlyRollupRepository.saveAll(expected.values().stream()
+                    .map(total -> MonthlyRollup.builder()
+                            .user(user)
+                            .year(total.getYear())
+                            .month(total.getMonth())
+                            .type(total.getType())
+                            .category(categoryRepository.getReferenceById(total.getCategoryId()))
+                            .total(total.getTotal())
+                            .count(total.getCount())
+                            .build())
+                    .collect(Collectors.toList()));
+            log.warn("Rebuilt monthly rollups for user {} ({} drifted entries)", userId, drift.size());
+        }
+
+        // Every day with a transaction lies in one of the expected months.
+        List<YearMonth> months = expected.values().stream()
+                .map(total -> YearMonth.of(total.getYear(), total.getMonth()))
+                .sorted()
+                .toList();
+        List<DailyBalanceDrift> dailyDrift = months.isEmpty()
+                ? verifyDays(userId, null, null, stillLive, repair)
+                : verifyDays(userId, months.get(0).atDay(1), months.get(months.size() - 1).plusMonths(1).atDay(1),
+                        stillLive, repair);
+
+        if (repair && (!drift.isEmpty() || !dailyDrift.isEmpty())) {
+            reportCache.invalidateUserAfterCommit(userId);
+            dataVersions.bumpAfterCommit(userId);
+        }
+        return new UserDrift(drift, dailyDrift);
+    }
+
+    // Daily balances recomputed from the transactions dated from (inclusive) to to (exclusive) plus the
+    // archive, compared with the stored rows. A stored day whose transactions were all deleted holds zeros,
+    // which matches no row.
+    private List<DailyBalanceDrift> verifyDays(Long userId, LocalDate from, LocalDate to, Set<Long> stillLive,
+                                               boolean repair) {
+        User user = userRepository.getReferenceById(userId);
+        // income cents, expense cents, count
+        Map<LocalDate, long[]> expected = new HashMap<>();
+        if (from != null) {
+            for (DatedTotal total : transactionRepository.sumByDayBetween(user, from, to)) {
+                addDay(expected, total.getDate(), total.getType(), Money.toCents(total.getTotal()), total.getCount());
+            }
+        }
+        for (ArchivedTransaction archived : archiveStore.find(userId, null, null)) {
+            if (!stillLive.contains(archived.id())) {
+                addDay(expected, archived.date(), archived.type(), archived.cents(), 1);
+            }
+        }
+        Map<LocalDate, long[]> actual = new HashMap<>();
+        for (DailyBalance row : dailyBalanceRepository.findByUserId(userId)) {
+            actual.put(row.getDate(), new long[]{Money.toCents(row.getIncome()), Money.toCents(row.getExpenses()),
+                    row.getCount()});
+        }
+
+        Set<LocalDate> dates = new TreeSet<>(expected.keySet());
+        dates.addAll(actual.keySet());
+        long[] none = new long[3];
+        List<DailyBalanceDrift> drift = new ArrayList<>();
+        for (LocalDate date : dates) {
+            long[] want = expected.getOrDefault(date, none);
+            long[] have = actual.getOrDefault(date, none);
+            if (!Arrays.equals(want, have)) {
+                drift.add(DailyBalanceDrift.builder()
+                        .userId(userId)
+                        .date(date.toString())
+                        .expectedIncome(Money.toBigDecimal(want[0]))
+                        .actualIncome(Money.toBigDecimal(have[0]))
+                        .expectedExpenses(Money.toBigDecimal(want[1]))
+                        .actualExpenses(Money.toBigDecimal(have[1]))
+                        .expectedCount(want[2])
+                        .actualCount(have[2])
+                        .build());
+            }
+        }
+
+        if (repair && !drift.isEmpty()) {
+            dailyBalanceRepository.deleteByUserId(userId);
+            List<DailyBalance> rows = new ArrayList<>();
+            expected.forEach((date, day) -> rows.add(DailyBalance.builder()
+                    .user(user)
+                    .date(date)
+                    .income(Money.toBigDecimal(day[0]))
+                    .expenses(Money.toBigDecimal(day[1]))
+                    .count(day[2])
+                    .build()));
+            dailyBalanceRepository.saveAll(rows);
+            log.warn("Rebuilt daily balances for user {} ({} drifted days)", userId, drift.size());
+        }
+        return drift;
+    }
+
+    private static void addDay(Map<LocalDate, long[]> days, LocalDate date, TransactionType type, long cents,
+                               long count) {
+        long[] day = days.computeIfAbsent(date, d -> new long[3]);
+        int side = type == TransactionType.INCOME ? 0 : 1;
+        day[side] = Money.add(day[side], cents);
+        day[2] += count;
+    }
+
+    // Rows dated in an archived year that are still in the table: backdated ones, and ones an interrupted
+    // archive run left in both places.
+    private Set<Long> liveInArchivedYears(Long userId) {
+        NavigableSet<Integer> years = archiveStore.years(userId);
+        if (years.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(transactionRepository.findIdsBefore(userId, LocalDate.of(years.last() + 1, 1, 1)));
+    }
+
+    // A user's rollup and daily balance writes run one after another: two writers could otherwise both
+    // find no row for a new month or day and both insert it. Taken before any rollup row is touched, so
+    // writers never deadlock.
+    private void lockUser(User user) {
+        userRepository.lockById(user.getId());
+    }
+
+    private void apply(User user, LocalDate date, TransactionType type, Category category,
+                       BigDecimal amount, long count) {
+        int updated = monthlyRollupRepository.applyDelta(
+                user, date.getYear(), date.getMonthValue(), type, category, amount, count);
+        if (updated == 0) {
+            monthlyRollupRepository.save(MonthlyRollup.builder()
+                    .user(user)
+                    .year(date.getYear())
+                    .month(date.getMonthValue())
+                    .type(type)
+                    .category(category)
+                    .total(amount)
+                    .count(count)
+                    .build());
+        }
+        reportCache.invalidateAfterCommit(user.getId(), date.getYear(), date.getMonthValue());
+    }
+
+    private void applyDaily(User user, LocalDate date, TransactionType type, long cents, long count) {
+        if (type == TransactionType.INCOME) {
+            applyDaily(user, date, cents, 0L, count);
+        } else {
+            applyDaily(user, date, 0L, cents, count);
+        }
+    }
+
+    private void applyDaily(User user, LocalDate date, long incomeCents, long expenseCents, long count) {
+        BigDecimal income = Money.toBigDecimal(incomeCents);
+        BigDecimal expenses = Money.toBigDecimal(expenseCents);
+        int updated = dailyBalanceRepository.applyDelta(user, date, income, expenses, count);
+        if (updated == 0) {
+            dailyBalanceRepository.save(DailyBalance.builder()
+                    .user(user)
+                    .date(date)
+                    .income(income)
+                    .expenses(expenses)
+                    .count(count)
+                    .build());
+        }
+    }
+
+    // A date range rather than an IN list: one statement shape whatever the batch. The user lock taken by
+    // every rollup write keeps another writer from adding or changing these days until this one commits.
+    private void applyDailyAll(User user, Map<LocalDate, long[]> days) {
+        Map<LocalDate, DailyBalance> existing = new HashMap<>();
+        LocalDate first = Collections.min(days.keySet());
+        LocalDate last = Collections.max(days.keySet());
+        for (DailyBalance row : dailyBalanceRepository.findBetween(user, first, last.plusDays(1))) {
+            existing.put(row.getDate(), row);
+        }
+
+        List<DailyBalance> created = new ArrayList<>();
+        days.forEach((date, day) -> {
+            DailyBalance row = existing.get(date);
+            if (row == null) {
+                created.add(DailyBalance.builder()
+                        .user(user)
+                        .date(date)
+                        .income(Money.toBigDecimal(day[0]))
+                        .expenses(Money.toBigDecimal(day[1]))
+                        .count(day[2])
+                        .build());
+            } else {
+                row.setIncome(Money.toBigDecimal(Money.add(Money.toCents(row.getIncome()), day[0])));
+                row.setExpenses(Money.toBigDecimal(Money.add(Money.toCents(row.getExpenses()), day[1])));
+                row.setCount(row.getCount() + day[2]);
+            }
+        });
+        dailyBalanceRepository.saveAll(created);
+    }
+
+    private record UserDrift(List<RollupDrift> months, List<DailyBalanceDrift> days) {
+    }
+
+    private static Map<List<Object>, RollupTotal> index(List<RollupTotal> totals) {
+        Map<List<Object>, RollupTotal> indexed = new HashMap<>();
+        for (RollupTotal total : totals) {
+            indexed.merge(List.of(total.getYear(), total.getMonth(), total.getType(), total.getCategoryId()), total,
+                    (a, b) -> new RollupTotal(a.getYear(), a.getMonth(), a.getType(), a.getCategoryId(),
+                            a.getCategory(), a.getTotal().add(b.getTotal()), a.getCount() + b.getCount()));
+        }
+        return indexed;
+    }
+}
@@ -0,0 +1,73 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.response.SingleFlightStatsResponse;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Concurrent callers with the same key share one in-flight computation; nothing is kept once it finishes.
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Long userId, Object key, Supplier<T> computation) {
+        Key flightKey = new Key(userId, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return (T) await(existing);
+        }
+
+        executions.incrementAndGet();
+        try {
+            T result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    // After a user's data changes, later callers start a fresh computation instead of joining one
+    // that may have read the old rows; callers already waiting still get the running result.
+    public void forgetUser(Long userId) {
+        flights.keySet().removeIf(key -> key.userId.equals(userId));
+    }
+
+    public SingleFlightStatsResponse stats() {
+        return SingleFlightStatsResponse.builder()
+                .inFlight(flights.size())
+                .executions(executions.get())
+                .coalesced(coalesced.get())
+                .build();
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(Long userId, Object key) {
+    }
+}
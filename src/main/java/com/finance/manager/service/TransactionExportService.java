@@ -0,0 +1,203 @@
+package com.finance.manager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.finance.manager.dto.response.TransactionResponse;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.ExportFormat;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.shard.ShardContext;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportService {
+
+    static final String CSV_HEADER = "id,date,type,category,amount,description";
+    private static final int FLUSH_EVERY = 500;
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getDate)
+            .thenComparing(Transaction::getCreatedAt)
+            .thenComparing(Transaction::getId)
+            .reversed();
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryDictionary categoryDictionary;
+    private final ArchiveStore archiveStore;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    // Filters are parsed here so a bad request fails before the response is committed; rows are read
+    // later, on the thread that writes the body, inside their own read-only transaction.
+    public StreamingResponseBody exportTransactions(User user, String startDate, String endDate, String category,
+                                                    ExportFormat format) {
+        LocalDate start = startDate != null ? parseDate(startDate) : null;
+        LocalDate end = endDate != null ? parseDate(endDate) : null;
+        CategoryDictionary.Entry filter = category != null ? categoryDictionary.find(category, user) : null;
+        boolean unknownCategory = category != null && filter == null;
+        Long categoryId = filter != null ? filter.getId() : null;
+        // The body is written on another thread, which has to read from the same shard.
+        Integer shard = ShardContext.current();
+
+        return out -> {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                long rows = ShardContext.call(shard, () -> template.execute(status -> {
+                    try (Stream<Transaction> transactions = unknownCategory ? Stream.empty()
+                            : withArchived(transactionRepository.streamByUserWithFilters(user, start, end,
+                            categoryId), user, start, end, categoryId)) {
+                        return write(transactions, format, writer);
+                    }
+                }));
+                log.info("Exported {} transactions as {} for user: {}", rows, format, user.getUsername());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private long write(Stream<Transaction> transactions, ExportFormat format, Writer writer) {
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            // Send the first bytes right away instead of waiting for the buffer to fill.
+            writer.flush();
+
+            long rows = 0;
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(transaction, writer);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(TransactionResponse.fromEntity(transaction)));
+                    writer.write('\n');
+                }
+                entityManager.detach(transaction);
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Archived rows are merged into the database stream, which is already newest first. A row can be in
+    // both while an archive run is interrupted; its copy keeps the date, creation time and id, so it sorts
+    // right after the live row and is dropped there, the live row winning as in the transaction list.
+    private Stream<Transaction> withArchived(Stream<Transaction> live, User user, LocalDate start, LocalDate end,
+                                             Long categoryId) {
+        if (!archiveStore.hasArchive(user.getId())) {
+            return live;
+        }
+        List<Transaction> archived = archiveStore.find(user.getId(), start, end).stream()
+                .filter(transaction -> categoryId == null || transaction.categoryId() == categoryId)
+                .map(ArchivedTransaction::toTransaction)
+                .sorted(NEWEST_FIRST)
+                .toList();
+        Set<Long> archivedIds = archived.stream().map(Transaction::getId).collect(Collectors.toSet());
+        Set<Long> liveIds = new HashSet<>();
+        Iterator<Transaction> rows = live.iterator();
+        Iterator<Transaction> merged = new Iterator<>() {
+            private Transaction next = rows.hasNext() ? rows.next() : null;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while (index < archived.size() && liveIds.contains(archived.get(index).getId())) {
+                    index++;
+                }
+                return next != null || index < archived.size();
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (next != null && (index == archived.size()
+                        || NEWEST_FIRST.compare(next, archived.get(index)) <= 0)) {
+                    Transaction current = next;
+                    if (archivedIds.contains(current.getId())) {
+                        liveIds.add(current.getId());
+                    }
+                    next = rows.hasNext() ? rows.next() : null;
+                    return current;
+                }
+                return archived.get(index++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(live::close);
+    }
+
+    private static void writeCsv(Transaction transaction, Writer writer) throws IOException {
+        writer.write(String.valueOf(transaction.getId()));
+        writer.write(',');
+        writer.write(transaction.getDate().toString());
+        writer.write(',');
+        writer.write(transaction.getType().name());
+        writer.write(',');
+        writer.write(csvField(transaction.getCategory().getName()));
+        writer.write(',');
+        writer.write(transaction.getAmount().setScale(2, RoundingMode.HALF_UP).toPlainString());
+        writer.write(',');
+        writer.write(csvField(transaction.getDescription()));
+        writer.write('\n');
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private LocalDate parseDate(String dateStr) {
+        try {
+            return LocalDate.parse(dateStr);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid date format. Use YYYY-MM-DD");
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.finance.manager.service;
 
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.finance.manager.dto.projection.TransactionView;
 import com.finance.manager.dto.request.TransactionRequest;
 import com.finance.manager.dto.request.TransactionUpdateRequest;
 import com.finance.manager.dto.response.MessageResponse;
+import com.finance.manager.dto.response.TransactionBatchItemResult;
+import com.finance.manager.dto.response.TransactionBatchResponse;
 import com.finance.manager.dto.response.TransactionListResponse;
 import com.finance.manager.dto.response.TransactionResponse;
 import com.finance.manager.entity.Category;
@@ -10,14 +15,28 @@ import com.finance.manager.entity.Transaction;
 import com.finance.manager.entity.User;
 import com.finance.manager.exception.InvalidRequestException;
 import com.finance.manager.exception.ResourceNotFoundException;
+import com.finance.manager.journal.JournalEntry;
+import com.finance.manager.journal.TransactionJournal;
 import com.finance.manager.repository.TransactionRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,8 +44,28 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TransactionService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    // The order the list is paged in: newest first.
+    private static final Comparator<TransactionView> NEWEST_FIRST = Comparator
+            .comparing(TransactionView::getDate)
+            .thenComparing(TransactionView::getCreatedAt)
+            .thenComparing(TransactionView::getId)
+            .reversed();
+
     private final TransactionRepository transactionRepository;
     private final CategoryService categoryService;
+    private final RollupService rollupService;
+    private final BudgetService budgetService;
+    private final LedgerStore ledgerStore;
+    private final ArchiveStore archiveStore;
+    private final TransactionJournal transactionJournal;
+    private final DataVersions dataVersions;
+    private final Validator validator;
+
+    @Value("${app.transactions.batch.max-size:1000}")
+    private int maxBatchSize;
 
     @Transactional
     public TransactionResponse createTransaction(TransactionRequest request, User user) {
@@ -38,47 +77,172 @@ public class TransactionService {
 
         Category category = categoryService.findCategoryByName(request.getCategory(), user);
 
+        // Acknowledged from the journal; budget status is left out because the rollups it reads have
+        // not seen this transaction yet.
+        if (transactionJournal.isEnabled()) {
+            JournalEntry entry = transactionJournal.append(user, category, request.getAmount(), date,
+                    request.getDescription());
+            log.info("Transaction journaled: {} for user: {}", entry.id(), user.getUsername());
+            return TransactionResponse.fromEntity(entry.toTransaction());
+        }
+
         Transaction transaction = Transaction.builder()
                 .amount(request.getAmount())
                 .date(date)
-                .category(category.getName())
+                .category(category)
                 .type(category.getType())
                 .description(request.getDescription())
                 .user(user)
                 .build();
 
         Transaction saved = transactionRepository.save(transaction);
+        rollupService.recordCreated(saved);
+        ledgerStore.addedAfterCommit(user.getId(), List.of(saved));
+        dataVersions.bumpAfterCommit(user.getId());
         log.info("Transaction created: {} for user: {}", saved.getId(), user.getUsername());
 
-        return TransactionResponse.fromEntity(saved);
+        TransactionResponse response = TransactionResponse.fromEntity(saved);
+        response.setBudget(budgetService.statusAfterCreate(user, category, date));
+        return response;
+    }
+
+    @Transactional
+    public TransactionBatchResponse createTransactions(List<TransactionRequest> requests, User user) {
+        if (requests.size() > maxBatchSize) {
+            throw new InvalidRequestException("Batch cannot contain more than " + maxBatchSize + " transactions");
+        }
+
+        TransactionBatchItemResult[] results = new TransactionBatchItemResult[requests.size()];
+        Map<String, Optional<Category>> categories = new HashMap<>();
+        List<Transaction> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            String error = validateBatchItem(request, today);
+            if (error != null) {
+                results[i] = TransactionBatchItemResult.rejected(i, error);
+                continue;
+            }
+
+            Optional<Category> category = categories.computeIfAbsent(request.getCategory(),
+                    name -> resolveCategory(name, user));
+            if (category.isEmpty()) {
+                results[i] = TransactionBatchItemResult.rejected(i,
+                        "Category not found with name: '" + request.getCategory() + "'");
+                continue;
+            }
+
+            accepted.add(Transaction.builder()
+                    .amount(request.getAmount())
+                    .date(LocalDate.parse(request.getDate()))
+                    .category(category.get())
+                    .type(category.get().getType())
+                    .description(request.getDescription())
+                    .user(user)
+                    .build());
+            acceptedIndexes.add(i);
+        }
+
+        if (!accepted.isEmpty()) {
+            // Rollups first: their UPDATE queries auto-flush the persistence context, which would otherwise
+            // dirty-check every pending transaction once per rollup group.
+            rollupService.recordCreatedAll(accepted);
+            transactionRepository.saveAll(accepted);
+            ledgerStore.addedAfterCommit(user.getId(), accepted);
+            dataVersions.bumpAfterCommit(user.getId());
+        }
+        for (int j = 0; j < accepted.size(); j++) {
+            int index = acceptedIndexes.get(j);
+            results[index] = TransactionBatchItemResult.created(index, TransactionResponse.fromEntity(accepted.get(j)));
+        }
+        log.info("Batch of {} transactions for user: {} ({} created)", requests.size(), user.getUsername(),
+                accepted.size());
+
+        return TransactionBatchResponse.builder()
+                .created(accepted.size())
+                .rejected(requests.size() - accepted.size())
+                .results(Arrays.asList(results))
+                .build();
     }
 
     @Transactional(readOnly = true)
-    public TransactionListResponse getAllTransactions(User user, String startDate, String endDate, String category) {
+    public TransactionListResponse getAllTransactions(User user, String startDate, String endDate, String category,
+                                                      Integer limit, String cursor) {
         LocalDate start = startDate != null ? parseDate(startDate) : null;
         LocalDate end = endDate != null ? parseDate(endDate) : null;
+        int pageSize = resolvePageSize(limit);
+
+        Long categoryId = null;
+        if (category != null) {
+            Optional<Category> filter = resolveCategory(category, user);
+            if (filter.isEmpty()) {
+                return TransactionListResponse.of(List.of(), null);
+            }
+            categoryId = filter.get().getId();
+        }
+
+        // Fetch one extra row to find out whether another page exists without a COUNT query.
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<TransactionView> transactions;
+        TransactionCursor after = cursor != null ? TransactionCursor.decode(cursor) : null;
+        if (after != null) {
+            transactions = transactionRepository.findByUserWithFiltersAfter(user, start, end, categoryId,
+                    after.getDate(), after.getCreatedAt(), after.getId(), page);
+        } else {
+            transactions = transactionRepository.findByUserWithFilters(user, start, end, categoryId, page);
+        }
+        if (archiveStore.hasArchive(user.getId())) {
+            transactions = withArchived(transactions, user, start, end, categoryId, after, pageSize + 1);
+        }
 
-        List<Transaction> transactions = transactionRepository.findByUserWithFilters(user, start, end, category);
+        String nextCursor = null;
+        if (transactions.size() > pageSize) {
+            transactions = transactions.subList(0, pageSize);
+            nextCursor = TransactionCursor.of(transactions.get(pageSize - 1)).encode();
+        }
 
         List<TransactionResponse> responses = transactions.stream()
-                .map(TransactionResponse::fromEntity)
+                .map(TransactionResponse::fromView)
                 .collect(Collectors.toList());
 
-        return TransactionListResponse.of(responses);
+        return TransactionListResponse.of(responses, nextCursor);
+    }
+
+    // With the journal on, a create is answered before its row is in the table. Reads of transactions call
+    // this first, ahead of any ETag check, so a GET right after a 201 sees the new transaction.
+    public void awaitJournaledCreates() {
+        transactionJournal.awaitProjected();
+    }
+
+    // Lets the controller reject bad list parameters before answering a conditional GET.
+    public void validateListQuery(String startDate, String endDate, Integer limit, String cursor) {
+        if (startDate != null) {
+            parseDate(startDate);
+        }
+        if (endDate != null) {
+            parseDate(endDate);
+        }
+        resolvePageSize(limit);
+        if (cursor != null) {
+            TransactionCursor.decode(cursor);
+        }
     }
 
     @Transactional(readOnly = true)
     public TransactionResponse getTransaction(Long id, User user) {
-        Transaction transaction = transactionRepository.findByIdAndUser(id, user)
+        TransactionView transaction = transactionRepository.findViewByIdAndUser(id, user)
+                .or(() -> archiveStore.findById(user.getId(), id).map(ArchivedTransaction::toView))
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction", "id", id));
 
-        return TransactionResponse.fromEntity(transaction);
+        return TransactionResponse.fromView(transaction);
     }
 
     @Transactional
     public TransactionResponse updateTransaction(Long id, TransactionUpdateRequest request, User user) {
-        Transaction transaction = transactionRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new ResourceNotFoundException("Transaction", "id", id));
+        Transaction transaction = findChangeable(id, user);
+        Transaction previous = snapshot(transaction);
 
         if (request.getAmount() != null) {
             transaction.setAmount(request.getAmount());
@@ -86,7 +250,7 @@ public class TransactionService {
 
         if (request.getCategory() != null) {
             Category category = categoryService.findCategoryByName(request.getCategory(), user);
-            transaction.setCategory(category.getName());
+            transaction.setCategory(category);
             transaction.setType(category.getType());
         }
 
@@ -95,6 +259,9 @@ public class TransactionService {
         }
 
         Transaction saved = transactionRepository.save(transaction);
+        rollupService.recordUpdated(previous, saved);
+        ledgerStore.updatedAfterCommit(user.getId(), saved);
+        dataVersions.bumpAfterCommit(user.getId());
         log.info("Transaction updated: {} for user: {}", saved.getId(), user.getUsername());
 
         return TransactionResponse.fromEntity(saved);
@@ -102,15 +269,111 @@ public class TransactionService {
 
     @Transactional
     public MessageResponse deleteTransaction(Long id, User user) {
-        Transaction transaction = transactionRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new ResourceNotFoundException("Transaction", "id", id));
+        Transaction transaction = findChangeable(id, user);
 
         transactionRepository.delete(transaction);
+        rollupService.recordDeleted(transaction);
+        ledgerStore.removedAfterCommit(user.getId(), transaction);
+        dataVersions.bumpAfterCommit(user.getId());
         log.info("Transaction deleted: {} for user: {}", id, user.getUsername());
 
         return MessageResponse.of("Transaction deleted successfully");
     }
 
+    // The database rows of a page merged with the archived ones that belong on it. When the database
+    // filled the page, only archived rows dated on or after its last row can displace one of them.
+    private List<TransactionView> withArchived(List<TransactionView> live, User user, LocalDate start,
+                                               LocalDate end, Long categoryId, TransactionCursor after,
+                                               int size) {
+        LocalDate from = start;
+        if (live.size() == size) {
+            LocalDate last = live.get(size - 1).getDate();
+            from = from == null || last.isAfter(from) ? last : from;
+        }
+        LocalDate to = end;
+        if (after != null) {
+            to = to == null || after.getDate().isBefore(to) ? after.getDate() : to;
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return live;
+        }
+
+        Set<Long> liveIds = live.stream().map(TransactionView::getId).collect(Collectors.toSet());
+        List<TransactionView> merged = new ArrayList<>(live);
+        for (ArchivedTransaction archived : archiveStore.find(user.getId(), from, to)) {
+            if ((categoryId == null || archived.categoryId() == categoryId) && !liveIds.contains(archived.id())) {
+                TransactionView view = archived.toView();
+                if (after == null || NEWEST_FIRST.compare(view, asView(after)) > 0) {
+                    merged.add(view);
+                }
+            }
+        }
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > size ? merged.subList(0, size) : merged;
+    }
+
+    private static TransactionView asView(TransactionCursor cursor) {
+        return new TransactionView(cursor.getId(), null, cursor.getDate(), null, null, null, cursor.getCreatedAt());
+    }
+
+    private Transaction findChangeable(Long id, User user) {
+        Optional<Transaction> transaction = transactionRepository.findByIdAndUser(id, user);
+        if (transaction.isEmpty() && archiveStore.findById(user.getId(), id).isPresent()) {
+            throw new InvalidRequestException("Archived transactions cannot be changed");
+        }
+        return transaction.orElseThrow(() -> new ResourceNotFoundException("Transaction", "id", id));
+    }
+
+    private String validateBatchItem(TransactionRequest request, LocalDate today) {
+        if (request == null) {
+            return "Transaction is required";
+        }
+        Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            if (LocalDate.parse(request.getDate()).isAfter(today)) {
+                return "Transaction date cannot be in the future";
+            }
+        } catch (DateTimeParseException e) {
+            return "Invalid date format. Use YYYY-MM-DD";
+        }
+        return null;
+    }
+
+    private Optional<Category> resolveCategory(String name, User user) {
+        try {
+            return Optional.of(categoryService.findCategoryByName(name, user));
+        } catch (ResourceNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Transaction snapshot(Transaction transaction) {
+        return Transaction.builder()
+                .id(transaction.getId())
+                .amount(transaction.getAmount())
+                .date(transaction.getDate())
+                .category(transaction.getCategory())
+                .type(transaction.getType())
+                .user(transaction.getUser())
+                .build();
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
     private LocalDate parseAndValidateDate(String dateStr) {
         try {
             return LocalDate.parse(dateStr);
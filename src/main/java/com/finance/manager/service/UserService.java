@@ -8,6 +8,8 @@ import com.finance.manager.entity.User;
 import com.finance.manager.exception.DuplicateResourceException;
 import com.finance.manager.exception.UnauthorizedException;
 import com.finance.manager.repository.UserRepository;
+import com.finance.manager.shard.ShardContext;
+import com.finance.manager.shard.Shards;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +24,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final Shards shards;
     private static final String USER_SESSION_KEY = "authenticatedUser";
 
     @Transactional
@@ -38,6 +42,7 @@ public class UserService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        shards.replicateUserAfterCommit(savedUser.getId());
         log.info("User registered successfully: {}", savedUser.getUsername());
 
         return RegisterResponse.success(savedUser.getId());
@@ -52,7 +57,9 @@ public class UserService {
             throw new UnauthorizedException("Invalid credentials");
         }
 
+        shards.ensureUser(user.getId());
         session.setAttribute(USER_SESSION_KEY, user.getId());
+        principalCache.put(AuthenticatedUser.of(user));
         log.info("User logged in successfully: {}", user.getUsername());
 
         return MessageResponse.of("Login successful");
@@ -63,15 +70,28 @@ public class UserService {
         return MessageResponse.of("Logout successful");
     }
 
-    @Transactional(readOnly = true)
     public User getAuthenticatedUser(HttpSession session) {
         Long userId = (Long) session.getAttribute(USER_SESSION_KEY);
         if (userId == null) {
             throw new UnauthorizedException("Not authenticated");
         }
 
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
+        AuthenticatedUser principal = principalCache.get(userId);
+        if (principal == null) {
+            User user = ShardContext.call(null, () -> userRepository.findById(userId))
+                    .orElseThrow(() -> new UnauthorizedException("User not found"));
+            shards.ensureUser(userId);
+            principal = AuthenticatedUser.of(user);
+            principalCache.put(principal);
+        }
+        // Everything else the request touches belongs to this user, so it runs on the user's shard.
+        ShardContext.bind(shards.shardOf(userId));
+        return principal.toUser();
+    }
+
+    // Must be called whenever a user's username changes or the user is removed.
+    public void invalidatePrincipal(Long userId) {
+        principalCache.invalidate(userId);
     }
 
     public boolean isAuthenticated(HttpSession session) {
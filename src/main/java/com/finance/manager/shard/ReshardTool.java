@@ -0,0 +1,153 @@
+package com.finance.manager.shard;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves users onto the shards they belong on after app.shards.count changes. Run it while the
+// application is stopped, then start the application with the new count:
+//
+//   java -cp target/personal-finance-manager-1.0.0.jar -Dloader.main=com.finance.manager.shard.ReshardTool \
+//       org.springframework.boot.loader.launch.PropertiesLauncher \
+//       --url=jdbc:h2:file:./data/financedb --url-template=jdbc:h2:file:./data/financedb-shard%d \
+//       --from=2 --to=4 [--batch-size=500] [--username=sa] [--password=]
+//
+// Each batch of users is committed on its new shard before it is deleted from the old one, and copies
+// overwrite rows with the same id, so an interrupted run is finished by starting it again unchanged.
+@Slf4j
+public class ReshardTool {
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final List<DataSource> dataSources;
+    private final int from;
+    private final int to;
+    private final int batchSize;
+
+    // One data source per shard, as many as the larger of the two counts.
+    public ReshardTool(List<DataSource> dataSources, int from, int to, int batchSize) {
+        if (from < 1 || to < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Shard counts and batch size must be at least 1");
+        }
+        if (dataSources.size() < Math.max(from, to)) {
+            throw new IllegalArgumentException("Need a data source for each of the " + Math.max(from, to) +
+                    " shards");
+        }
+        this.dataSources = List.copyOf(dataSources);
+        this.from = from;
+        this.to = to;
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        int from = Integer.parseInt(required(options, "from"));
+        int to = Integer.parseInt(required(options, "to"));
+        String username = options.getOrDefault("username", "sa");
+        String password = options.getOrDefault("password", "");
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < Math.max(from, to); shard++) {
+            String url = shard == 0 ? required(options, "url")
+                    : String.format(required(options, "url-template"), shard);
+            dataSources.add(new DriverManagerDataSource(url, username, password));
+        }
+        int batchSize = Integer.parseInt(options.getOrDefault("batch-size", String.valueOf(DEFAULT_BATCH_SIZE)));
+
+        long moved = new ReshardTool(dataSources, from, to, batchSize).run();
+        log.info("Moved {} users from {} to {} shards; start the application with app.shards.count={}",
+                moved, from, to, to);
+    }
+
+    public long run() {
+        for (int shard = from; shard < to; shard++) {
+            prepare(shard);
+        }
+
+        // Group the users that change shard by their old and new shard, in id order.
+        Map<List<Integer>, List<Long>> moves = new LinkedHashMap<>();
+        for (Long userId : jdbc(0).queryForList("SELECT id FROM users ORDER BY id", Long.class)) {
+            int source = Shards.shardOf(userId, from);
+            int target = Shards.shardOf(userId, to);
+            if (source != target) {
+                moves.computeIfAbsent(List.of(source, target), key -> new ArrayList<>()).add(userId);
+            }
+        }
+
+        long moved = 0;
+        for (Map.Entry<List<Integer>, List<Long>> move : moves.entrySet()) {
+            List<Long> userIds = move.getValue();
+            for (int start = 0; start < userIds.size(); start += batchSize) {
+                List<Long> batch = userIds.subList(start, Math.min(start + batchSize, userIds.size()));
+                move(move.getKey().get(0), move.getKey().get(1), batch);
+                moved += batch.size();
+            }
+            log.info("Moved {} users from shard {} to shard {}", userIds.size(), move.getKey().get(0),
+                    move.getKey().get(1));
+        }
+        return moved;
+    }
+
+    // New shards get the schema, their own id range and the default categories before any user arrives.
+    private void prepare(int shard) {
+        Flyway.configure()
+                .dataSource(dataSources.get(shard))
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        ShardSchema.reserveIds(jdbc(shard), shard);
+        ShardSchema.copy(jdbc(0), jdbc(shard), "categories", "user_id IS NULL");
+    }
+
+    // Shard 0 keeps the users row of everyone, since it is the directory.
+    private void move(int source, int target, List<Long> userIds) {
+        String in = ShardSchema.in(userIds.size());
+        Object[] ids = userIds.toArray();
+        transaction(target).executeWithoutResult(status -> {
+            for (String[] table : ShardSchema.USER_TABLES) {
+                ShardSchema.copy(jdbc(source), jdbc(target), table[0], table[1] + " IN " + in, ids);
+            }
+        });
+        transaction(source).executeWithoutResult(status -> {
+            for (int t = ShardSchema.USER_TABLES.size() - 1; t >= (source == 0 ? 1 : 0); t--) {
+                String[] table = ShardSchema.USER_TABLES.get(t);
+                jdbc(source).update("DELETE FROM " + table[0] + " WHERE " + table[1] + " IN " + in, ids);
+            }
+        });
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(dataSources.get(shard));
+    }
+
+    private TransactionTemplate transaction(int shard) {
+        return new TransactionTemplate(new DataSourceTransactionManager(dataSources.get(shard)));
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,83 @@
+package com.finance.manager.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Shard 0 is spring.datasource.url; shards 1..count-1 use app.shards.url-template with the shard number.
+// With the default single shard every connection goes to spring.datasource.url as before.
+@Configuration
+@Slf4j
+public class ShardConfig {
+
+    @Bean
+    public Shards shards(DataSourceProperties properties,
+                         @Value("${app.shards.count:1}") int count,
+                         @Value("${app.shards.url-template:jdbc:h2:mem:financedb_shard%d;DB_CLOSE_DELAY=-1}")
+                         String urlTemplate,
+                         @Value("${app.transactions.journal.enabled:false}") boolean journal) {
+        if (count < 1) {
+            throw new IllegalStateException("app.shards.count must be at least 1");
+        }
+        // The journal projects many users' transactions under one checkpoint in a single database.
+        if (count > 1 && journal) {
+            throw new IllegalStateException("The transaction journal cannot be combined with sharding");
+        }
+        List<DataSource> dataSources = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(shard == 0 ? properties.determineUrl() : String.format(urlTemplate, shard))
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            dataSources.add(dataSource);
+        }
+        if (count > 1) {
+            log.info("Routing per-user data across {} shards", count);
+        }
+        return new Shards(dataSources);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(Shards shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            targets.put(shard, shards.dataSource(shard));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shards.dataSource(0));
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    // Spring Boot migrates shard 0 through the routing DataSource; the other shards get the same
+    // migrations and then move their sequences into their own id range.
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(Shards shards) {
+        return flyway -> {
+            flyway.migrate();
+            for (int shard = 1; shard < shards.count(); shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shards.dataSource(shard))
+                        .load()
+                        .migrate();
+                ShardSchema.reserveIds(new JdbcTemplate(shards.dataSource(shard)), shard);
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.finance.manager.shard;
+
+import java.util.function.Supplier;
+
+// The shard the current thread's database work is routed to. Unbound threads use shard 0, which also
+// holds the user directory, so sign-up, login and admin work run there. A binding only routes
+// transactions that start after it; one already open keeps its connection.
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Runs the action on the given shard (null for the directory) and restores the previous binding.
+    public static <T> T call(Integer shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        set(shard);
+        try {
+            return action.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static void run(Integer shard, Runnable action) {
+        call(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.finance.manager.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// The application's DataSource: each connection comes from the shard bound to the thread when it is
+// acquired, which for JPA is when a transaction begins.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : 0;
+    }
+}
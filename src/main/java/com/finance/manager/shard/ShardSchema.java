@@ -0,0 +1,86 @@
+package com.finance.manager.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Row-level helpers shared by the running application and the offline resharding tool. Rows keep
+// their ids when copied: every shard hands out ids from its own range, so they never collide.
+final class ShardSchema {
+
+    // Bits of id space per shard; shard k allocates ids from k << ID_RANGE_BITS on.
+    static final int ID_RANGE_BITS = 40;
+
+    // Tables holding a user's data with the condition selecting it, parents before children.
+    static final List<String[]> USER_TABLES = List.of(
+            new String[] {"users", "id"},
+            new String[] {"categories", "user_id"},
+            new String[] {"goals", "user_id"},
+            new String[] {"budgets", "user_id"},
+            new String[] {"transactions", "user_id"},
+            new String[] {"monthly_rollups", "user_id"},
+            new String[] {"daily_balances", "user_id"});
+
+    private static final int COPY_BATCH = 1000;
+
+    private ShardSchema() {
+    }
+
+    // Moves every sequence of a freshly migrated shard to the start of the shard's id range.
+    static void reserveIds(JdbcTemplate jdbcTemplate, int shard) {
+        long base = (long) shard << ID_RANGE_BITS;
+        if (base == 0) {
+            return;
+        }
+        List<Map<String, Object>> sequences = jdbcTemplate.queryForList("SELECT SEQUENCE_NAME, BASE_VALUE " +
+                "FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = 'PUBLIC'");
+        for (Map<String, Object> sequence : sequences) {
+            if (((Number) sequence.get("BASE_VALUE")).longValue() <= base) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence.get("SEQUENCE_NAME") + " RESTART WITH " + (base + 1));
+            }
+        }
+    }
+
+    // Copies the matching rows, overwriting rows with the same id, so an interrupted copy can be repeated.
+    static int copy(JdbcTemplate from, JdbcTemplate to, String table, String condition, Object... args) {
+        List<String> columns = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        int[] copied = new int[1];
+        from.query("SELECT * FROM " + table + " WHERE " + condition, resultSet -> {
+            if (columns.isEmpty()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                for (int c = 1; c <= metaData.getColumnCount(); c++) {
+                    columns.add(metaData.getColumnName(c));
+                }
+            }
+            Object[] row = new Object[columns.size()];
+            for (int c = 0; c < row.length; c++) {
+                row[c] = resultSet.getObject(c + 1);
+            }
+            batch.add(row);
+            if (batch.size() == COPY_BATCH) {
+                copied[0] += merge(to, table, columns, batch);
+            }
+        }, args);
+        return copied[0] + merge(to, table, columns, batch);
+    }
+
+    static String in(int size) {
+        return "(" + String.join(", ", Collections.nCopies(size, "?")) + ")";
+    }
+
+    private static int merge(JdbcTemplate to, String table, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        String sql = "MERGE INTO " + table + " (" + String.join(", ", columns) + ") KEY (ID) VALUES " +
+                in(columns.size());
+        to.batchUpdate(sql, rows);
+        int merged = rows.size();
+        rows.clear();
+        return merged;
+    }
+}
@@ -0,0 +1,93 @@
+package com.finance.manager.shard;
+
+import com.finance.manager.service.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.util.List;
+
+// The shard databases and which one each user lives on. Shard 0 doubles as the user directory: every
+// user is registered there, and users placed on another shard get a copy of their row on it for the
+// foreign keys. Default categories are copied to every shard with the same ids.
+@Slf4j
+public class Shards implements AutoCloseable {
+
+    private final List<DataSource> dataSources;
+
+    public Shards(List<DataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public int shardOf(Long userId) {
+        return shardOf(userId, count());
+    }
+
+    // Jump consistent hash (Lamping and Veach): going from n to n + 1 shards moves only the users that
+    // land on the new shard, about 1 in n + 1, so resharding copies as little as possible.
+    public static int shardOf(long userId, int count) {
+        long key = userId;
+        long bucket = -1;
+        long next = 0;
+        while (next < count) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    // A failed copy leaves the account usable: ensureUser repeats it when the user next logs in.
+    public void replicateUserAfterCommit(Long userId) {
+        int shard = shardOf(userId);
+        if (shard != 0) {
+            AfterCommit.run(() -> {
+                try {
+                    ShardSchema.copy(jdbc(0), jdbc(shard), "users", "id = ?", userId);
+                } catch (DataAccessException e) {
+                    log.warn("Could not copy user {} to shard {}, copying at next login", userId, shard, e);
+                }
+            });
+        }
+    }
+
+    // Copies the user's row to the user's shard if it is not there yet.
+    public void ensureUser(Long userId) {
+        int shard = shardOf(userId);
+        if (shard != 0 && jdbc(shard).queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class,
+                userId) == 0) {
+            ShardSchema.copy(jdbc(0), jdbc(shard), "users", "id = ?", userId);
+            log.info("Copied missing user {} to shard {}", userId, shard);
+        }
+    }
+
+    public void replicateDefaultsAfterCommit() {
+        AfterCommit.run(() -> {
+            for (int shard = 1; shard < count(); shard++) {
+                int copied = ShardSchema.copy(jdbc(0), jdbc(shard), "categories", "user_id IS NULL");
+                log.debug("Replicated {} default categories to shard {}", copied, shard);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(dataSource(shard));
+    }
+}
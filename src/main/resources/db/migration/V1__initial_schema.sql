@@ -0,0 +1,48 @@
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    custom BOOLEAN NOT NULL,
+    user_id BIGINT,
+    CONSTRAINT pk_categories PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name_user UNIQUE (name, user_id),
+    CONSTRAINT fk_categories_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE goals (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    goal_name VARCHAR(255) NOT NULL,
+    target_amount NUMERIC(19, 2) NOT NULL,
+    target_date DATE NOT NULL,
+    start_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_goals PRIMARY KEY (id),
+    CONSTRAINT fk_goals_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE transactions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    amount NUMERIC(19, 2) NOT NULL,
+    date DATE NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    description VARCHAR(255),
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_transactions PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,9 @@
+-- Keyset pagination and date-range filters: GET /api/transactions, reports.
+-- Descending so H2 can return pages in index order without sorting.
+CREATE INDEX idx_transactions_user_date_created ON transactions (user_id DESC, date DESC, created_at DESC, id DESC);
+
+-- Income/expense sums since a date: goal progress.
+CREATE INDEX idx_transactions_user_type_date ON transactions (user_id, type, date);
+
+-- Category filter and the in-use check when deleting a category.
+CREATE INDEX idx_transactions_user_category ON transactions (user_id, category);
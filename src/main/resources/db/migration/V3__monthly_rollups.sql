@@ -0,0 +1,18 @@
+CREATE TABLE monthly_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    period_year INTEGER NOT NULL,
+    period_month INTEGER NOT NULL,
+    type VARCHAR(255) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    category VARCHAR(255) NOT NULL,
+    total NUMERIC(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    CONSTRAINT pk_monthly_rollups PRIMARY KEY (id),
+    CONSTRAINT uk_monthly_rollups_period UNIQUE (user_id, period_year, period_month, type, category),
+    CONSTRAINT fk_monthly_rollups_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+INSERT INTO monthly_rollups (user_id, period_year, period_month, type, category, total, transaction_count)
+SELECT user_id, EXTRACT(YEAR FROM date), EXTRACT(MONTH FROM date), type, category, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY user_id, EXTRACT(YEAR FROM date), EXTRACT(MONTH FROM date), type, category;
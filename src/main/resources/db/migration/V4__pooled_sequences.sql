@@ -0,0 +1,22 @@
+-- Switch primary keys from IDENTITY columns to pooled sequences so Hibernate can batch inserts.
+-- Each sequence hands out blocks of 50 ids (pooled-lo) and restarts after the highest existing id,
+-- which also migrates file databases that already hold data.
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE categories_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE goals_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE monthly_rollups_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM users);
+ALTER SEQUENCE categories_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM categories);
+ALTER SEQUENCE goals_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM goals);
+ALTER SEQUENCE transactions_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM transactions);
+ALTER SEQUENCE monthly_rollups_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM monthly_rollups);
+
+-- Ids now always come from the sequences; dropping the column defaults makes any insert that bypasses them fail.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE goals ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE monthly_rollups ALTER COLUMN id DROP IDENTITY;
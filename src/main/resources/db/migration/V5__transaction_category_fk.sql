@@ -0,0 +1,44 @@
+-- Replace the free-text category on transactions and monthly rollups with a category_id foreign key.
+-- A transaction's name resolves to the user's own category first, then to the default of that name.
+
+ALTER TABLE transactions ADD COLUMN category_id BIGINT;
+ALTER TABLE monthly_rollups ADD COLUMN category_id BIGINT;
+
+-- Names with no matching category (left behind by older versions) become custom categories of their user,
+-- typed after their first transaction, so no row loses its category.
+INSERT INTO categories (id, name, type, custom, user_id)
+SELECT NEXT VALUE FOR categories_seq, orphan.category, orphan.type, TRUE, orphan.user_id
+FROM (
+    SELECT t.user_id, t.category, MIN(t.type) AS type
+    FROM transactions t
+    WHERE NOT EXISTS (
+        SELECT 1 FROM categories c
+        WHERE c.name = t.category AND (c.user_id = t.user_id OR c.user_id IS NULL))
+    GROUP BY t.user_id, t.category
+) orphan;
+
+UPDATE transactions t SET category_id = COALESCE(
+    (SELECT c.id FROM categories c WHERE c.name = t.category AND c.user_id = t.user_id),
+    (SELECT c.id FROM categories c WHERE c.name = t.category AND c.user_id IS NULL));
+
+UPDATE monthly_rollups r SET category_id = COALESCE(
+    (SELECT c.id FROM categories c WHERE c.name = r.category AND c.user_id = r.user_id),
+    (SELECT c.id FROM categories c WHERE c.name = r.category AND c.user_id IS NULL));
+
+-- Rollup rows of categories that no longer exist can only be empty leftovers of deleted transactions.
+DELETE FROM monthly_rollups WHERE category_id IS NULL;
+
+DROP INDEX idx_transactions_user_category;
+ALTER TABLE transactions DROP COLUMN category;
+ALTER TABLE transactions ALTER COLUMN category_id SET NOT NULL;
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id);
+
+ALTER TABLE monthly_rollups DROP CONSTRAINT uk_monthly_rollups_period;
+ALTER TABLE monthly_rollups DROP COLUMN category;
+ALTER TABLE monthly_rollups ALTER COLUMN category_id SET NOT NULL;
+ALTER TABLE monthly_rollups ADD CONSTRAINT fk_monthly_rollups_category FOREIGN KEY (category_id) REFERENCES categories (id);
+ALTER TABLE monthly_rollups ADD CONSTRAINT uk_monthly_rollups_period
+    UNIQUE (user_id, period_year, period_month, type, category_id);
+
+-- Category filter and the in-use check when deleting a category, now on an integer key.
+CREATE INDEX idx_transactions_user_category ON transactions (user_id, category_id);
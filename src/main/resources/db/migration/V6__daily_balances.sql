@@ -0,0 +1,27 @@
+-- Income and expenses per user and day, kept up to date on every transaction write alongside the
+-- monthly rollups, so balance-over-time queries read one row per active day instead of every transaction.
+
+CREATE SEQUENCE daily_balances_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE daily_balances (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    balance_date DATE NOT NULL,
+    income NUMERIC(19, 2) NOT NULL,
+    expenses NUMERIC(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    CONSTRAINT pk_daily_balances PRIMARY KEY (id),
+    CONSTRAINT uk_daily_balances_date UNIQUE (user_id, balance_date),
+    CONSTRAINT fk_daily_balances_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+INSERT INTO daily_balances (id, user_id, balance_date, income, expenses, transaction_count)
+SELECT NEXT VALUE FOR daily_balances_seq, d.user_id, d.date, d.income, d.expenses, d.transaction_count
+FROM (
+    SELECT user_id, date,
+           SUM(CASE WHEN type = 'INCOME' THEN amount ELSE 0 END) AS income,
+           SUM(CASE WHEN type = 'EXPENSE' THEN amount ELSE 0 END) AS expenses,
+           COUNT(*) AS transaction_count
+    FROM transactions
+    GROUP BY user_id, date
+) d;
@@ -0,0 +1,19 @@
+-- Spending limits per user, expense category and month. Spent-so-far is not stored here: it is read from
+-- the matching monthly_rollups row, which every transaction write already keeps up to date.
+
+CREATE SEQUENCE budgets_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE budgets (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    period_year INT NOT NULL,
+    period_month INT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_budgets PRIMARY KEY (id),
+    CONSTRAINT uk_budgets_period UNIQUE (user_id, category_id, period_year, period_month),
+    CONSTRAINT fk_budgets_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_budgets_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
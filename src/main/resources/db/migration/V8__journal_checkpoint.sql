@@ -0,0 +1,11 @@
+-- How far the transaction journal (app.transactions.journal.enabled) has been projected into the
+-- transactions table. Advanced in the same database transaction as the rows it covers, so a restart
+-- replays the journal from exactly the first entry that is not in the table yet.
+
+CREATE TABLE journal_checkpoint (
+    id INT NOT NULL,
+    lsn BIGINT NOT NULL,
+    CONSTRAINT pk_journal_checkpoint PRIMARY KEY (id)
+);
+
+INSERT INTO journal_checkpoint (id, lsn) VALUES (1, 0);
@@ -0,0 +1,177 @@
+package com.finance.manager.archive;
+
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveStoreTest {
+
+    private static final long USER = 1L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_ReadsBackEveryFieldFromANewStore() {
+        ArchiveStore store = new ArchiveStore(directory, 16);
+        List<ArchivedTransaction> transactions = List.of(
+                food(1L, LocalDate.of(2021, 12, 31), 4250L, "Dinner, \"downtown\""),
+                salary(7L, LocalDate.of(2021, 1, 31), 500000L),
+                food(3L, LocalDate.of(2021, 1, 31), 999L, null));
+        store.write(USER, 2021, transactions);
+
+        ArchiveStore reopened = new ArchiveStore(directory, 16);
+        assertTrue(reopened.hasArchive(USER));
+        assertFalse(reopened.hasArchive(2L));
+        List<ArchivedTransaction> found = reopened.find(USER, null, null);
+        assertEquals(List.of(transactions.get(2), transactions.get(1), transactions.get(0)), found);
+    }
+
+    @Test
+    void write_ManyRows_CompressesWellBelowTheirRawSize() throws Exception {
+        ArchiveStore store = new ArchiveStore(directory, 16);
+        List<ArchivedTransaction> transactions = new ArrayList<>();
+        LocalDate day = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 10_000; i++) {
+            transactions.add(food(1000L + i, day.plusDays(i % 366), 100L + i % 5000, "Groceries"));
+        }
+        store.write(USER, 2020, transactions);
+
+        long size = Files.size(directory.resolve("1").resolve("2020.seg"));
+        assertTrue(size < 10_000 * 8, "segment is " + size + " bytes");
+        assertEquals(10_000, new ArchiveStore(directory, 16).find(USER, null, null).size());
+    }
+
+    @Test
+    void write_SameIdAgain_ReplacesTheArchivedCopy() {
+        ArchiveStore store = new ArchiveStore(directory, 16);
+        store.write(USER, 2021, List.of(food(1L, LocalDate.of(2021, 3, 1), 100L, null)));
+        store.write(USER, 2021, List.of(food(1L, LocalDate.of(2021, 3, 1), 250L, null),
+                food(2L, LocalDate.of(2021, 3, 2), 50L, null)));
+
+        List<ArchivedTransaction> found = new ArchiveStore(directory, 16).find(USER, null, null);
+        assertEquals(List.of(1L, 2L), found.stream().map(ArchivedTransaction::id).toList());
+        assertEquals(250L, found.get(0).cents());
+    }
+
+    @Test
+    void find_FiltersByDateAcrossYears() {
+        ArchiveStore store = new ArchiveStore(directory, 1);
+        store.write(USER, 2020, List.of(food(1L, LocalDate.of(2020, 6, 1), 100L, null),
+                food(2L, LocalDate.of(2020, 12, 31), 100L, null)));
+        store.write(USER, 2021, List.of(food(3L, LocalDate.of(2021, 1, 1), 100L, null),
+                food(4L, LocalDate.of(2021, 7, 1), 100L, null)));
+
+        List<ArchivedTransaction> found = store.find(USER, LocalDate.of(2020, 12, 31), LocalDate.of(2021, 1, 1));
+
+        assertEquals(List.of(2L, 3L), found.stream().map(ArchivedTransaction::id).toList());
+        assertEquals(Optional.of(4L), store.findById(USER, 4L).map(ArchivedTransaction::id));
+        assertEquals(Optional.empty(), store.findById(USER, 5L));
+    }
+
+    @Test
+    void findById_IdsNotInDateOrder_FoundInTheirYear() {
+        ArchiveStore store = new ArchiveStore(directory, 16);
+        // Backdated rows get ids above those of later dates.
+        store.write(USER, 2020, List.of(food(9L, LocalDate.of(2020, 1, 5), 100L, null),
+                food(2L, LocalDate.of(2020, 6, 1), 200L, null),
+                food(7L, LocalDate.of(2020, 12, 31), 300L, null)));
+        store.write(USER, 2021, List.of(food(3L, LocalDate.of(2021, 2, 1), 400L, null),
+                food(8L, LocalDate.of(2021, 1, 1), 500L, null)));
+        ArchiveStore reopened = new ArchiveStore(directory, 16);
+
+        for (ArchiveStore current : List.of(store, reopened)) {
+            assertEquals(Optional.of(100L), current.findById(USER, 9L).map(ArchivedTransaction::cents));
+            assertEquals(Optional.of(200L), current.findById(USER, 2L).map(ArchivedTransaction::cents));
+            assertEquals(Optional.of(300L), current.findById(USER, 7L).map(ArchivedTransaction::cents));
+            assertEquals(Optional.of(400L), current.findById(USER, 3L).map(ArchivedTransaction::cents));
+            assertEquals(Optional.of(500L), current.findById(USER, 8L).map(ArchivedTransaction::cents));
+            assertEquals(Optional.empty(), current.findById(USER, 1L));
+            assertEquals(Optional.empty(), current.findById(USER, 5L));
+            assertEquals(Optional.empty(), current.findById(USER, 10L));
+        }
+    }
+
+    @Test
+    void totals_SumPerMonthAndCategoryLikeTheRollups() {
+        ArchiveStore store = new ArchiveStore(directory, 16);
+        store.write(USER, 2021, List.of(food(1L, LocalDate.of(2021, 3, 1), 1050L, null),
+                food(2L, LocalDate.of(2021, 3, 20), 25L, null),
+                salary(3L, LocalDate.of(2021, 3, 31), 500000L),
+                food(4L, LocalDate.of(2021, 4, 1), 10L, null)));
+
+        List<RollupTotal> totals = new ArchiveStore(directory, 16).totals(USER, Set.of());
+
+        assertEquals(3, totals.size());
+        RollupTotal march = totals.stream()
+                .filter(total -> total.getMonth() == 3 && total.getType() == TransactionType.EXPENSE)
+                .findFirst().orElseThrow();
+        assertEquals(2021, march.getYear());
+        assertEquals(10L, march.getCategoryId());
+        assertEquals(0, new BigDecimal("10.75").compareTo(march.getTotal()));
+        assertEquals(2L, march.getCount());
+        assertTrue(store.usesCategory(USER, 20L));
+        assertFalse(store.usesCategory(USER, 30L));
+    }
+
+    @Test
+    void totals_RowStillLive_IsLeftOut() {
+        ArchiveStore store = new ArchiveStore(directory, 16);
+        store.write(USER, 2020, List.of(food(1L, LocalDate.of(2020, 3, 1), 100L, null)));
+        store.write(USER, 2021, List.of(food(2L, LocalDate.of(2021, 3, 1), 1050L, null),
+                food(3L, LocalDate.of(2021, 3, 20), 25L, null)));
+
+        List<RollupTotal> totals = store.totals(USER, Set.of(3L));
+
+        assertEquals(2, totals.size());
+        RollupTotal march = totals.stream().filter(total -> total.getYear() == 2021).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("10.50").compareTo(march.getTotal()));
+        assertEquals(1L, march.getCount());
+    }
+
+    @Test
+    void remove_TakesRowsOutAndDeletesAnEmptySegment() {
+        ArchiveStore store = new ArchiveStore(directory, 16);
+        store.write(USER, 2020, List.of(food(1L, LocalDate.of(2020, 1, 1), 100L, null)));
+        store.write(USER, 2021, List.of(food(2L, LocalDate.of(2021, 1, 1), 100L, null),
+                food(3L, LocalDate.of(2021, 1, 2), 100L, null)));
+
+        store.remove(USER, 2021, List.of(3L));
+        store.remove(USER, 2020, List.of(1L));
+
+        assertFalse(Files.exists(directory.resolve("1").resolve("2020.seg")));
+        assertEquals(List.of(2L), store.find(USER, null, null).stream().map(ArchivedTransaction::id).toList());
+        assertEquals(List.of(2L), new ArchiveStore(directory, 16).find(USER, null, null).stream()
+                .map(ArchivedTransaction::id).toList());
+    }
+
+    @Test
+    void write_TransactionFromAnotherYear_Rejected() {
+        ArchiveStore store = new ArchiveStore(directory, 16);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> store.write(USER, 2021, List.of(food(1L, LocalDate.of(2020, 1, 1), 100L, null))));
+        assertFalse(store.hasArchive(USER));
+    }
+
+    private static ArchivedTransaction food(long id, LocalDate date, long cents, String description) {
+        return new ArchivedTransaction(id, date, cents, 10L, "Food", TransactionType.EXPENSE, description,
+                date.atTime(12, 0).plusNanos(id * 1000));
+    }
+
+    private static ArchivedTransaction salary(long id, LocalDate date, long cents) {
+        return new ArchivedTransaction(id, date, cents, 20L, "Salary", TransactionType.INCOME, null,
+                LocalDateTime.of(date.getYear(), 2, 1, 9, 30));
+    }
+}
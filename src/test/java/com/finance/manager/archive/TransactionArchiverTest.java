@@ -0,0 +1,137 @@
+package com.finance.manager.archive;
+
+import com.finance.manager.dto.response.ArchiveRunResponse;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.shard.Shards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiverTest {
+
+    // Two years before mid-2024 rounds down to the start of 2022.
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-06-15T10:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate BEFORE = LocalDate.of(2022, 1, 1);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Mock
+    private Shards shards;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<ArchivedTransaction>> written;
+
+    private TransactionArchiver archiver;
+    private User user;
+    private Category food;
+
+    @BeforeEach
+    void setUp() {
+        archiver = new TransactionArchiver(transactionRepository, userRepository, archiveStore, shards,
+                transactionManager, true, Period.ofYears(2), CLOCK);
+        user = User.builder().id(1L).username("test@example.com").build();
+        food = Category.builder().id(10L).name("Food").type(TransactionType.EXPENSE).build();
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    }
+
+    @Test
+    void archive_WritesEachOldYearBeforeDeletingItsRows() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(transactionRepository.findYearsBefore(1L, BEFORE)).thenReturn(List.of(2020, 2021));
+        when(transactionRepository.findYearsBefore(2L, BEFORE)).thenReturn(List.of());
+        when(transactionRepository.findForArchive(1L, LocalDate.of(2020, 1, 1), LocalDate.of(2021, 1, 1)))
+                .thenReturn(List.of(transaction(1L, LocalDate.of(2020, 5, 1))));
+        when(transactionRepository.findForArchive(1L, LocalDate.of(2021, 1, 1), LocalDate.of(2022, 1, 1)))
+                .thenReturn(List.of(transaction(2L, LocalDate.of(2021, 2, 1)),
+                        transaction(3L, LocalDate.of(2021, 3, 1))));
+
+        ArchiveRunResponse response = archiver.archive();
+
+        assertEquals("2022-01-01", response.getArchivedBefore());
+        assertEquals(2, response.getUsersChecked());
+        assertEquals(3L, response.getTransactionsArchived());
+        assertEquals(2, response.getSegmentsWritten());
+        InOrder inOrder = inOrder(archiveStore, transactionRepository, transactionManager);
+        inOrder.verify(archiveStore).write(eq(1L), eq(2020), anyList());
+        inOrder.verify(transactionRepository).deleteAllByIdInBatch(List.of(1L));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(archiveStore).write(eq(1L), eq(2021), written.capture());
+        inOrder.verify(transactionRepository).deleteAllByIdInBatch(List.of(2L, 3L));
+        assertEquals(List.of(2L, 3L), written.getValue().stream().map(ArchivedTransaction::id).toList());
+        assertEquals(1250L, written.getValue().get(0).cents());
+        verify(archiveStore, never()).remove(any(), anyInt(), any());
+    }
+
+    @Test
+    void archive_DeleteFails_TakesTheRowsOutOfTheSegmentAgain() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(transactionRepository.findYearsBefore(1L, BEFORE)).thenReturn(List.of(2021));
+        when(transactionRepository.findForArchive(1L, LocalDate.of(2021, 1, 1), LocalDate.of(2022, 1, 1)))
+                .thenReturn(List.of(transaction(2L, LocalDate.of(2021, 2, 1))));
+        doThrow(new CannotAcquireLockException("locked")).when(transactionRepository).deleteAllByIdInBatch(any());
+
+        assertThrows(CannotAcquireLockException.class, () -> archiver.archive());
+
+        verify(archiveStore).remove(1L, 2021, List.of(2L));
+        verify(transactionManager).rollback(any());
+        // The guard is released, so the next run is not refused.
+        when(transactionRepository.findYearsBefore(1L, BEFORE)).thenReturn(List.of());
+        assertEquals(0L, archiver.archive().getTransactionsArchived());
+    }
+
+    @Test
+    void archiveOnSchedule_Disabled_DoesNothing() {
+        reset(transactionManager);
+        new TransactionArchiver(transactionRepository, userRepository, archiveStore, shards, transactionManager,
+                false, Period.ofYears(2), CLOCK).archiveOnSchedule();
+
+        verifyNoInteractions(userRepository, transactionRepository, archiveStore);
+    }
+
+    private Transaction transaction(Long id, LocalDate date) {
+        return Transaction.builder()
+                .id(id)
+                .amount(new BigDecimal("12.50"))
+                .date(date)
+                .category(food)
+                .type(TransactionType.EXPENSE)
+                .user(user)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.finance.manager.benchmark;
+
+import com.finance.manager.enums.AggregateDimension;
+import com.finance.manager.enums.AggregateSource;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.service.Aggregation;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of sequential and parallel (fork/join) grouping of per-day, per-category facts, the
+ * in-memory step of GET /api/reports/aggregate; used to pick app.reports.aggregate.parallel-threshold.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=AggregationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AggregationBenchmark {
+
+    private static final List<AggregateDimension> DIMENSIONS =
+            List.of(AggregateDimension.YEAR, AggregateDimension.CATEGORY, AggregateDimension.DAY_OF_WEEK);
+
+    @Param({"10000", "50000", "250000"})
+    public int facts;
+
+    private List<Aggregation.Fact> rows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] categories = {"Salary", "Food", "Rent", "Transportation", "Entertainment", "Healthcare"};
+        rows = new ArrayList<>(facts);
+        for (int i = 0; i < facts; i++) {
+            LocalDate date = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3650));
+            int category = random.nextInt(categories.length);
+            long amount = 1 + random.nextInt(1_000_000);
+            TransactionType type = category == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            rows.add(new Aggregation.Fact(date.getYear(), date.getMonthValue(), date, type, categories[category],
+                    category == 0 ? amount : 0L, category == 0 ? 0L : amount, 1L));
+        }
+    }
+
+    @Benchmark
+    public Aggregation sequential() {
+        return Aggregation.of(DIMENSIONS, AggregateSource.TRANSACTIONS_BY_DAY, rows, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Aggregation parallel() {
+        return Aggregation.of(DIMENSIONS, AggregateSource.TRANSACTIONS_BY_DAY, rows, 0);
+    }
+
+    @Test
+    void run() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AggregationBenchmark.class.getName() + "\\.")
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,162 @@
+package com.finance.manager.benchmark;
+
+import com.finance.manager.FinanceManagerApplication;
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.dto.projection.DailyNet;
+import com.finance.manager.dto.projection.DatedTotal;
+import com.finance.manager.entity.User;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.service.Aggregation;
+import com.finance.manager.service.Ledger;
+import com.finance.manager.service.LedgerStore;
+import com.finance.manager.service.Money;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of answering goal progress and a per-day aggregate for one user with 100k transactions
+ * from the database (the GROUP BY queries GoalService and AggregationService fall back to) and from the
+ * user's in-memory ledger, plus the one-off cost of loading that ledger.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=LedgerBenchmark [-Dbenchmark.rows=100000]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LedgerBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int DAYS = 5 * 365;
+    private static final String[] CATEGORIES = {"Salary", "Food", "Rent", "Transportation", "Entertainment"};
+
+    private static final Set<LocalDate> GOAL_STARTS =
+            Set.of(FIRST_DAY, FIRST_DAY.plusYears(2), FIRST_DAY.plusYears(4));
+    private static final LocalDate FROM = FIRST_DAY.plusYears(1);
+    private static final LocalDate TO = FIRST_DAY.plusYears(2).minusDays(1);
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private LedgerStore uncached;
+    private User user;
+    private Ledger ledger;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(FinanceManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:ledger_benchmark;DB_CLOSE_DELAY=-1",
+                        "--logging.level.com.finance.manager=INFO");
+        transactionRepository = context.getBean(TransactionRepository.class);
+        user = seed(context.getBean(UserRepository.class), context.getBean(JdbcTemplate.class));
+        ledger = context.getBean(LedgerStore.class).get(user);
+        // A budget smaller than any ledger: every get() loads one and hands it back without keeping it.
+        uncached = new LedgerStore(transactionRepository, context.getBean(ArchiveStore.class),
+                DataSize.ofBytes(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).execute("DROP ALL OBJECTS");
+        context.close();
+    }
+
+    @Benchmark
+    public long[] goalProgressJpa() {
+        List<DailyNet> days = transactionRepository.sumNetByDaySince(user, FIRST_DAY);
+        long[] netFrom = new long[days.size() + 1];
+        for (int i = days.size() - 1; i >= 0; i--) {
+            netFrom[i] = Money.add(netFrom[i + 1], Money.toCents(days.get(i).getNet()));
+        }
+        return netFrom;
+    }
+
+    @Benchmark
+    public Map<LocalDate, Long> goalProgressLedger() {
+        return ledger.netSince(GOAL_STARTS);
+    }
+
+    @Benchmark
+    public List<DatedTotal> dailyFactsJpa() {
+        return transactionRepository.sumByDayBetween(user, FROM, TO.plusDays(1));
+    }
+
+    @Benchmark
+    public List<Aggregation.Fact> dailyFactsLedger() {
+        return ledger.facts(FROM, TO, false);
+    }
+
+    @Benchmark
+    public Ledger loadLedger() {
+        return uncached.get(user);
+    }
+
+    @Test
+    void run() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(LedgerBenchmark.class.getName() + "\\.")
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+
+    private static User seed(UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        User user = userRepository.save(User.builder()
+                .username("ledger@example.com")
+                .password("x")
+                .fullName("Benchmark")
+                .phoneNumber("+10000000000")
+                .build());
+
+        Long[] categoryIds = new Long[CATEGORIES.length];
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            categoryIds[c] = jdbcTemplate.queryForObject(
+                    "SELECT id FROM categories WHERE name = ? AND user_id IS NULL", Long.class, CATEGORIES[c]);
+        }
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            int category = random.nextInt(CATEGORIES.length);
+            rows.add(new Object[] {1_000_000L + i, BigDecimal.valueOf(100 + random.nextInt(100_000), 2),
+                    Date.valueOf(FIRST_DAY.plusDays(random.nextInt(DAYS))), categoryIds[category],
+                    category == 0 ? "INCOME" : "EXPENSE", "Row " + i, user.getId(),
+                    Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, amount, date, category_id, type, description, " +
+                "user_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return user;
+    }
+}
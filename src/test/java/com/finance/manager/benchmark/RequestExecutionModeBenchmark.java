@@ -0,0 +1,169 @@
+package com.finance.manager.benchmark;
+
+import com.finance.manager.FinanceManagerApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Load test of GET /api/transactions with 2k concurrent clients against the app started on platform threads
+ * and again on virtual threads (spring.threads.virtual.enabled), each on its own file database.
+ * Needs a Java 21 runtime.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=RequestExecutionModeBenchmark
+ *           [-Dbenchmark.clients=2000] [-Dbenchmark.requests=10]
+ * Add -DargLine=-Djdk.tracePinnedThreads=short to print stack traces of pinned virtual threads.
+ */
+class RequestExecutionModeBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 2_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.requests", 10);
+    private static final int TRANSACTIONS = 500;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+
+        System.out.printf("%nGET /api/transactions, %,d clients x %,d requests%n", CLIENTS, REQUESTS_PER_CLIENT);
+        for (boolean virtual : new boolean[] {false, true}) {
+            Result result = run(virtual);
+            System.out.printf("  %-8s %,7.0f req/s, p50 %,6.0f ms, p99 %,6.0f ms, max %,6.0f ms, errors %d%n",
+                    virtual ? "virtual" : "platform", result.throughput(), result.p50Millis(), result.p99Millis(),
+                    result.maxMillis(), result.errors());
+            assertEquals(0, result.errors());
+        }
+    }
+
+    private Result run(boolean virtual) throws Exception {
+        String name = "execution_mode_" + (virtual ? "virtual" : "platform");
+        Path database = Path.of(System.getProperty("java.io.tmpdir"), name);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FinanceManagerApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.url=jdbc:h2:file:" + database + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--logging.level.com.finance.manager=INFO",
+                        "--server.tomcat.accept-count=" + CLIENTS)) {
+            try {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                ExecutorService clientThreads = Executors.newFixedThreadPool(8);
+                try {
+                    HttpClient client = HttpClient.newBuilder().executor(clientThreads)
+                            .connectTimeout(Duration.ofSeconds(30)).build();
+                    String cookie = seed(client, baseUrl);
+                    load(client, baseUrl, cookie, 200);
+                    return load(client, baseUrl, cookie, CLIENTS);
+                } finally {
+                    clientThreads.shutdownNow();
+                }
+            } finally {
+                context.getBean(JdbcTemplate.class).execute("DROP ALL OBJECTS DELETE FILES");
+            }
+        }
+    }
+
+    private String seed(HttpClient client, String baseUrl) throws Exception {
+        String credentials = "{\"username\":\"load@example.com\",\"password\":\"password123\"}";
+        send(client, post(baseUrl + "/api/auth/register", "{\"username\":\"load@example.com\"," +
+                "\"password\":\"password123\",\"fullName\":\"Load Test\",\"phoneNumber\":\"+12345678901\"}", null));
+        HttpResponse<String> login = send(client, post(baseUrl + "/api/auth/login", credentials, null));
+        String cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+
+        StringBuilder batch = new StringBuilder("{\"transactions\":[");
+        LocalDate firstDay = LocalDate.now().minusDays(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            batch.append(i == 0 ? "" : ",").append(String.format(
+                    "{\"amount\":%d.50,\"date\":\"%s\",\"category\":\"%s\",\"description\":\"Row %d\"}",
+                    10 + i % 90, firstDay.plusDays(i), i % 2 == 0 ? "Food" : "Salary", i));
+        }
+        send(client, post(baseUrl + "/api/transactions/batch", batch.append("]}").toString(), cookie));
+        return cookie;
+    }
+
+    private Result load(HttpClient client, String baseUrl, String cookie, int clients) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions?limit=20"))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+        long[] latencies = new long[clients * REQUESTS_PER_CLIENT];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> running = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            running.add(issue(client, request, 0, latencies, completed, errors));
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.nanoTime() - start;
+
+        long[] recorded = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(recorded);
+        return new Result(recorded.length * 1e9 / elapsed, percentile(recorded, 0.50), percentile(recorded, 0.99),
+                recorded.length == 0 ? 0 : recorded[recorded.length - 1] / 1e6, errors.get());
+    }
+
+    // Each client sends its next request only after the previous response arrives.
+    private CompletableFuture<Void> issue(HttpClient client, HttpRequest request, int sent, long[] latencies,
+                                          AtomicInteger completed, AtomicInteger errors) {
+        if (sent == REQUESTS_PER_CLIENT) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long started = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else {
+                        latencies[completed.getAndIncrement()] = System.nanoTime() - started;
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> issue(client, request, sent + 1, latencies, completed, errors));
+    }
+
+    private static HttpRequest post(String url, String json, String cookie) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return builder.build();
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e6;
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, double maxMillis, int errors) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.finance.manager.benchmark;
+
+import com.finance.manager.FinanceManagerApplication;
+import com.finance.manager.dto.request.RegisterRequest;
+import com.finance.manager.dto.request.TransactionRequest;
+import com.finance.manager.entity.User;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.service.RollupService;
+import com.finance.manager.service.TransactionService;
+import com.finance.manager.service.UserService;
+import com.finance.manager.shard.ShardContext;
+import com.finance.manager.shard.Shards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures concurrent createTransaction throughput with every user in one file-backed H2 database
+ * against the same users spread over app.shards.count databases. Each thread acts for its own user
+ * and binds that user's shard the way a request does after authentication.
+ *
+ * File databases are used because they serialise commits per database, which is the contention sharding
+ * spreads; on a machine with few cores the gain is bounded by the CPU rather than by the databases.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=ShardingBenchmark [-Dbenchmark.rows=20000] [-Dbenchmark.threads=8] [-Dbenchmark.shards=4]
+ */
+class ShardingBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final int SHARDS = Integer.getInteger("benchmark.shards", 4);
+    private static final String[] CATEGORIES = {"Salary", "Food", "Rent", "Transportation", "Entertainment"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compareOneAndManyShards() throws Exception {
+        List<TransactionRequest> requests = requests();
+
+        double single;
+        try (ConfigurableApplicationContext context = start("single", 1)) {
+            single = measure(context, requests);
+        }
+        double sharded;
+        int[] placement;
+        try (ConfigurableApplicationContext context = start("sharded", SHARDS)) {
+            sharded = measure(context, requests);
+            placement = placement(context);
+        }
+
+        System.out.printf("%n%,d transactions from %d threads, one user per thread (creates per second)%n",
+                ROWS, THREADS);
+        System.out.printf("  %-34s %,12.0f%n", "1 database", single);
+        System.out.printf("  %-34s %,12.0f%n", SHARDS + " shards", sharded);
+        System.out.printf("  users per shard: %s%n", Arrays.toString(placement));
+    }
+
+    private ConfigurableApplicationContext start(String name, int shards) {
+        Path databases = directory.resolve(name);
+        return new SpringApplicationBuilder(FinanceManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:file:" + databases.resolve("db0") + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--app.shards.url-template=jdbc:h2:file:" + databases.resolve("db") +
+                                "%d;DB_CLOSE_ON_EXIT=FALSE",
+                        "--app.shards.count=" + shards,
+                        "--logging.level.com.finance.manager=WARN");
+    }
+
+    private static double measure(ConfigurableApplicationContext context, List<TransactionRequest> requests)
+            throws Exception {
+        TransactionService transactionService = context.getBean(TransactionService.class);
+        UserService userService = context.getBean(UserService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        Shards shards = context.getBean(Shards.class);
+
+        List<User> users = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Long userId = userService.register(RegisterRequest.builder()
+                    .username("user" + t + "@example.com")
+                    .password("password123")
+                    .fullName("Benchmark")
+                    .phoneNumber("+10000000000")
+                    .build()).getUserId();
+            users.add(userRepository.findById(userId).orElseThrow());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                User user = users.get(t);
+                List<TransactionRequest> share = requests.subList(t * requests.size() / THREADS,
+                        (t + 1) * requests.size() / THREADS);
+                results.add(executor.submit(() -> ShardContext.run(shards.shardOf(user.getId()), () ->
+                        share.forEach(request -> transactionService.createTransaction(request, user)))));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        TransactionRepository transactionRepository = context.getBean(TransactionRepository.class);
+        long created = 0;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            created += ShardContext.call(shard, transactionRepository::count);
+        }
+        assertEquals(ROWS, created);
+        assertTrue(context.getBean(RollupService.class).verify(false).getDrift().isEmpty());
+        return ROWS / (elapsed / 1e9);
+    }
+
+    private static int[] placement(ConfigurableApplicationContext context) {
+        Shards shards = context.getBean(Shards.class);
+        int[] users = new int[shards.count()];
+        for (Long userId : context.getBean(UserRepository.class).findAllIds()) {
+            users[shards.shardOf(userId)]++;
+        }
+        return users;
+    }
+
+    private static List<TransactionRequest> requests() {
+        Random random = new Random(42);
+        LocalDate firstDay = LocalDate.of(2022, 1, 1);
+        List<TransactionRequest> requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(TransactionRequest.builder()
+                    .amount(BigDecimal.valueOf(100 + random.nextInt(100_000), 2))
+                    .date(firstDay.plusDays(random.nextInt(730)).toString())
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .description("Imported row " + i)
+                    .build());
+        }
+        return requests;
+    }
+}
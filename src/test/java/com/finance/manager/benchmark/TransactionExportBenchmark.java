@@ -0,0 +1,149 @@
+package com.finance.manager.benchmark;
+
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.ExportFormat;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.service.TransactionExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Streams a large CSV export and samples the live heap halfway through, for a small and a large user, to
+ * show that memory held during an export does not grow with the number of rows. It uses a file database
+ * like production; an in-memory H2 database keeps large query results on the heap itself.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionExportBenchmark [-Dbenchmark.rows=1000000]
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:file:${java.io.tmpdir}/export_benchmark/financedb;DB_CLOSE_DELAY=-1")
+class TransactionExportBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final String[] CATEGORIES = {"Salary", "Food", "Rent", "Transportation", "Entertainment"};
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS DELETE FILES");
+    }
+
+    @Test
+    void exportHeapDoesNotGrowWithRows() throws Exception {
+        User small = seed("small@example.com", ROWS / 10, 1_000_000_000L);
+        User large = seed("large@example.com", ROWS, 2_000_000_000L);
+
+        Result smallRun = export(small, ROWS / 10);
+        Result largeRun = export(large, ROWS);
+
+        System.out.printf("%nCSV export (live heap growth sampled mid-export, after GC)%n");
+        print(ROWS / 10, smallRun);
+        print(ROWS, largeRun);
+    }
+
+    private Result export(User user, int rows) throws Exception {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+
+        SamplingStream out = new SamplingStream(rows / 2 + 1);
+        long start = System.nanoTime();
+        out.start = start;
+        transactionExportService.exportTransactions(user, null, null, null, ExportFormat.CSV).writeTo(out);
+        long nanos = System.nanoTime() - start;
+
+        assertEquals(rows + 1, out.lines);
+        return new Result(out.firstByteNanos, nanos, out.sampledHeap - baseline, out.bytes);
+    }
+
+    private User seed(String username, int rows, long firstId) {
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .password("x")
+                .fullName("Benchmark")
+                .phoneNumber("+10000000000")
+                .build());
+
+        LocalDate firstDay = LocalDate.of(2015, 1, 1);
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+        Long[] categoryIds = new Long[CATEGORIES.length];
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            categoryIds[c] = jdbcTemplate.queryForObject(
+                    "SELECT id FROM categories WHERE name = ? AND user_id IS NULL", Long.class, CATEGORIES[c]);
+        }
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] {firstId + i, BigDecimal.valueOf(100 + i % 100_000, 2),
+                    Date.valueOf(firstDay.plusDays(i % 3650)), categoryIds[i % CATEGORIES.length],
+                    i % CATEGORIES.length == 0 ? "INCOME" : "EXPENSE", "Row " + i, user.getId(), createdAt});
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions (id, amount, date, category_id, type, description, " +
+                        "user_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return user;
+    }
+
+    private static void print(int rows, Result result) {
+        System.out.printf("  %,9d rows: first byte %,7.1f ms, total %,8.0f ms, %,6.1f MB written, live heap +%,.1f MB%n",
+                rows, result.firstByteNanos / 1e6, result.totalNanos / 1e6, result.bytes / 1e6,
+                result.heapGrowth / 1e6);
+    }
+
+    private record Result(long firstByteNanos, long totalNanos, long heapGrowth, long bytes) {
+    }
+
+    private static final class SamplingStream extends OutputStream {
+
+        private final long sampleAtLine;
+        private long start;
+        private long firstByteNanos = -1;
+        private long lines;
+        private long bytes;
+        private long sampledHeap;
+
+        SamplingStream(long sampleAtLine) {
+            this.sampleAtLine = sampleAtLine;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            if (firstByteNanos < 0) {
+                firstByteNanos = System.nanoTime() - start;
+            }
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n' && ++lines == sampleAtLine) {
+                    Runtime runtime = Runtime.getRuntime();
+                    System.gc();
+                    sampledHeap = runtime.totalMemory() - runtime.freeMemory();
+                }
+            }
+        }
+    }
+}
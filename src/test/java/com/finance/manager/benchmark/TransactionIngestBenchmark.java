@@ -0,0 +1,99 @@
+package com.finance.manager.benchmark;
+
+import com.finance.manager.dto.request.TransactionRequest;
+import com.finance.manager.dto.response.TransactionBatchResponse;
+import com.finance.manager.entity.User;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.service.RollupService;
+import com.finance.manager.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares ingesting transactions one request at a time with POST /api/transactions/batch, measured at the
+ * service layer (HTTP overhead, which favours the batch path further, is excluded).
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionIngestBenchmark [-Dbenchmark.rows=20000]
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ingest_benchmark;DB_CLOSE_DELAY=-1")
+class TransactionIngestBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int BATCH = 1000;
+    private static final String[] CATEGORIES = {"Salary", "Food", "Rent", "Transportation", "Entertainment"};
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void compareSingleRowAndBatchIngestion() {
+        List<TransactionRequest> requests = requests();
+
+        User single = user("single@example.com");
+        long singleStart = System.nanoTime();
+        for (TransactionRequest request : requests) {
+            transactionService.createTransaction(request, single);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+
+        User batched = user("batch@example.com");
+        long batchStart = System.nanoTime();
+        int created = 0;
+        for (int from = 0; from < requests.size(); from += BATCH) {
+            TransactionBatchResponse response = transactionService.createTransactions(
+                    requests.subList(from, Math.min(from + BATCH, requests.size())), batched);
+            created += response.getCreated();
+        }
+        long batchNanos = System.nanoTime() - batchStart;
+
+        assertEquals(ROWS, created);
+        assertEquals(ROWS, transactionRepository.findByUserOrderByDateDescCreatedAtDesc(batched).size());
+        assertTrue(rollupService.verify(false).getDrift().isEmpty());
+
+        System.out.printf("%n%,d transactions (rows per second)%n", ROWS);
+        System.out.printf("  single-row createTransaction : %,12.0f%n", ROWS / (singleNanos / 1e9));
+        System.out.printf("  batch of %,d               : %,12.0f%n", BATCH, ROWS / (batchNanos / 1e9));
+    }
+
+    private User user(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("x")
+                .fullName("Benchmark")
+                .phoneNumber("+10000000000")
+                .build());
+    }
+
+    private static List<TransactionRequest> requests() {
+        Random random = new Random(42);
+        LocalDate firstDay = LocalDate.of(2022, 1, 1);
+        List<TransactionRequest> requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(TransactionRequest.builder()
+                    .amount(BigDecimal.valueOf(100 + random.nextInt(100_000), 2))
+                    .date(firstDay.plusDays(random.nextInt(730)).toString())
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .description("Imported row " + i)
+                    .build());
+        }
+        return requests;
+    }
+}
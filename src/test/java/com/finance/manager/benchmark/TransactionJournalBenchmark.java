@@ -0,0 +1,152 @@
+package com.finance.manager.benchmark;
+
+import com.finance.manager.FinanceManagerApplication;
+import com.finance.manager.dto.request.TransactionRequest;
+import com.finance.manager.entity.User;
+import com.finance.manager.journal.TransactionJournal;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.service.RollupService;
+import com.finance.manager.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares single-row createTransaction through JPA with the journaled path
+ * (app.transactions.journal.enabled), from one thread and from several at once, where concurrent
+ * appenders share fsyncs. The journal path is also timed until the projector has caught up.
+ *
+ * In-memory H2 never syncs a commit to disk, so the JPA figures are a best case the journal, which
+ * fsyncs every acknowledged create, does not get.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionJournalBenchmark [-Dbenchmark.rows=20000] [-Dbenchmark.threads=8]
+ */
+class TransactionJournalBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final String[] CATEGORIES = {"Salary", "Food", "Rent", "Transportation", "Entertainment"};
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    void compareJpaAndJournalCreates() throws Exception {
+        List<TransactionRequest> requests = requests();
+
+        double[] jpa;
+        try (ConfigurableApplicationContext context = start("jpa", false)) {
+            jpa = measure(context, requests);
+        }
+        double[] journal;
+        try (ConfigurableApplicationContext context = start("journal", true)) {
+            journal = measure(context, requests);
+        }
+
+        System.out.printf("%n%,d transactions (creates per second)%n", ROWS);
+        System.out.printf("  %-34s %12s %12s%n", "", "1 thread", THREADS + " threads");
+        System.out.printf("  %-34s %,12.0f %,12.0f%n", "JPA insert", jpa[0], jpa[1]);
+        System.out.printf("  %-34s %,12.0f %,12.0f%n", "journal append + fsync", journal[0], journal[1]);
+        System.out.printf("  %-34s %,12.0f %,12.0f%n", "journal, until projected", journal[2], journal[3]);
+    }
+
+    private ConfigurableApplicationContext start(String name, boolean journal) {
+        return new SpringApplicationBuilder(FinanceManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:journal_benchmark_" + name + ";DB_CLOSE_DELAY=-1",
+                        "--logging.level.com.finance.manager=WARN",
+                        "--app.transactions.journal.enabled=" + journal,
+                        "--app.transactions.journal.dir=" + journalDirectory.resolve(name),
+                        "--app.transactions.journal.projection-timeout=PT5M");
+    }
+
+    // Creates per second: acknowledged from one thread, then from THREADS, each followed by the rate
+    // until everything acknowledged is in the database.
+    private static double[] measure(ConfigurableApplicationContext context, List<TransactionRequest> requests)
+            throws Exception {
+        TransactionService transactionService = context.getBean(TransactionService.class);
+        TransactionJournal transactionJournal = context.getBean(TransactionJournal.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        User single = user(userRepository, "single@example.com");
+        long start = System.nanoTime();
+        for (TransactionRequest request : requests) {
+            transactionService.createTransaction(request, single);
+        }
+        long acknowledged = System.nanoTime() - start;
+        transactionJournal.awaitProjected();
+        long projected = System.nanoTime() - start;
+
+        List<User> users = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            users.add(user(userRepository, "concurrent" + t + "@example.com"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long concurrentStart = System.nanoTime();
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                User user = users.get(t);
+                List<TransactionRequest> share = requests.subList(t * requests.size() / THREADS,
+                        (t + 1) * requests.size() / THREADS);
+                results.add(executor.submit(() -> share.forEach(request ->
+                        transactionService.createTransaction(request, user))));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long concurrentAcknowledged = System.nanoTime() - concurrentStart;
+        transactionJournal.awaitProjected();
+        long concurrentProjected = System.nanoTime() - concurrentStart;
+
+        assertEquals(2L * ROWS, context.getBean(TransactionRepository.class).count());
+        assertTrue(context.getBean(RollupService.class).verify(false).getDrift().isEmpty());
+        return new double[] {rate(acknowledged), rate(concurrentAcknowledged), rate(projected),
+                rate(concurrentProjected)};
+    }
+
+    private static double rate(long nanos) {
+        return ROWS / (nanos / 1e9);
+    }
+
+    private static User user(UserRepository userRepository, String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("x")
+                .fullName("Benchmark")
+                .phoneNumber("+10000000000")
+                .build());
+    }
+
+    private static List<TransactionRequest> requests() {
+        Random random = new Random(42);
+        LocalDate firstDay = LocalDate.of(2022, 1, 1);
+        List<TransactionRequest> requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(TransactionRequest.builder()
+                    .amount(BigDecimal.valueOf(100 + random.nextInt(100_000), 2))
+                    .date(firstDay.plusDays(random.nextInt(730)).toString())
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .description("Imported row " + i)
+                    .build());
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,139 @@
+package com.finance.manager.benchmark;
+
+import com.finance.manager.dto.response.TransactionResponse;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares building a 10k-row transaction list from managed entities with building it from the
+ * TransactionView constructor projection, both inside a read-only transaction like the service.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionProjectionBenchmark [-Dbenchmark.rows=10000]
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:projection_benchmark;DB_CLOSE_DELAY=-1")
+class TransactionProjectionBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int WARMUP = 30;
+    private static final int ITERATIONS = 100;
+
+    private static final String ENTITY_QUERY = "SELECT t FROM Transaction t WHERE t.user = :user " +
+            "ORDER BY t.user.id DESC, t.date DESC, t.createdAt DESC, t.id DESC";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void compareEntityAndProjectionLists() {
+        User user = seed();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<List<TransactionResponse>> entities = () -> readOnly.execute(status -> entityManager
+                .createQuery(ENTITY_QUERY, Transaction.class)
+                .setParameter("user", user)
+                .setMaxResults(ROWS)
+                .getResultList().stream()
+                .map(TransactionResponse::fromEntity)
+                .collect(Collectors.toList()));
+
+        Supplier<List<TransactionResponse>> projections = () -> readOnly.execute(status -> transactionRepository
+                .findByUserWithFilters(user, null, null, null, PageRequest.of(0, ROWS)).stream()
+                .map(TransactionResponse::fromView)
+                .collect(Collectors.toList()));
+
+        assertEquals(ROWS, entities.get().size());
+        assertEquals(ROWS, projections.get().size());
+
+        long[] entityRun = measure(entities);
+        long[] projectionRun = measure(projections);
+
+        System.out.printf("%n%,d-row list, %d iterations (per list)%n", ROWS, ITERATIONS);
+        System.out.printf("  managed entities + fromEntity : %,8.0f us  %,7.1f MB allocated%n",
+                entityRun[0] / 1e3, entityRun[1] / 1e6);
+        System.out.printf("  TransactionView + fromView    : %,8.0f us  %,7.1f MB allocated%n",
+                projectionRun[0] / 1e3, projectionRun[1] / 1e6);
+    }
+
+    private static long[] measure(Supplier<List<TransactionResponse>> list) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            list.get();
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            list.get();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new long[] {nanos / ITERATIONS, allocated / ITERATIONS};
+    }
+
+    private User seed() {
+        User user = userRepository.save(User.builder()
+                .username("projection@example.com")
+                .password("x")
+                .fullName("Benchmark")
+                .phoneNumber("+10000000000")
+                .build());
+
+        LocalDate firstDay = LocalDate.of(2020, 1, 1);
+        Long food = categoryId("Food");
+        Long salary = categoryId("Salary");
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[] {1_000_000L + i, BigDecimal.valueOf(100 + i, 2), Date.valueOf(firstDay.plusDays(i % 1500)),
+                    i % 2 == 0 ? food : salary, i % 2 == 0 ? "EXPENSE" : "INCOME", "Row " + i, user.getId(),
+                    Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, amount, date, category_id, type, description, " +
+                "user_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return user;
+    }
+
+    private Long categoryId(String name) {
+        return jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = ? AND user_id IS NULL",
+                Long.class, name);
+    }
+}
@@ -0,0 +1,187 @@
+package com.finance.manager.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the report and list queries before and after the V2 indexes and the switch from
+ * YEAR()/MONTH() predicates to half-open date ranges.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=TransactionQueryBenchmark [-Dbenchmark.rows=1000000]
+ */
+class TransactionQueryBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:query_benchmark;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int USERS = 100;
+    private static final int ITERATIONS = 200;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int DAYS = 5 * 365;
+    private static final String[] CATEGORIES = {"Salary", "Food", "Rent", "Transportation", "Entertainment"};
+
+    private static final String MONTH_BY_FUNCTION =
+            "SELECT type, category, SUM(amount) FROM transactions " +
+            "WHERE user_id = ? AND YEAR(date) = ? AND MONTH(date) = ? GROUP BY type, category";
+
+    private static final String MONTH_BY_RANGE =
+            "SELECT type, category, SUM(amount) FROM transactions " +
+            "WHERE user_id = ? AND date >= ? AND date < ? GROUP BY type, category";
+
+    private static final String FIRST_PAGE =
+            "SELECT id, amount, date, category, type FROM transactions WHERE user_id = ? " +
+            "ORDER BY user_id DESC, date DESC, created_at DESC, id DESC LIMIT 51";
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL, "sa", "");
+        flyway("1").migrate();
+        seed();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void compareReportAndListQueries() throws SQLException {
+        long functionNoIndex = time(MONTH_BY_FUNCTION, true);
+        long rangeNoIndex = time(MONTH_BY_RANGE, false);
+        long pageNoIndex = timePage();
+
+        flyway("2").migrate();
+
+        long functionIndexed = time(MONTH_BY_FUNCTION, true);
+        long rangeIndexed = time(MONTH_BY_RANGE, false);
+        long pageIndexed = timePage();
+
+        assertEquals(checksum(MONTH_BY_FUNCTION, true), checksum(MONTH_BY_RANGE, false));
+
+        System.out.printf("%n%,d rows, %d users, %d iterations (avg microseconds per query)%n", ROWS, USERS, ITERATIONS);
+        System.out.printf("%-34s %12s %12s%n", "query", "no indexes", "V2 indexes");
+        System.out.printf("%-34s %12d %12d%n", "monthly report, YEAR()/MONTH()", functionNoIndex, functionIndexed);
+        System.out.printf("%-34s %12d %12d%n", "monthly report, date range", rangeNoIndex, rangeIndexed);
+        System.out.printf("%-34s %12d %12d%n", "first transaction page", pageNoIndex, pageIndexed);
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .locations("classpath:db/migration")
+                .target(target)
+                .load();
+    }
+
+    private void seed() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement users = connection.prepareStatement(
+                "INSERT INTO users (id, username, password, full_name, phone_number, created_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int u = 1; u <= USERS; u++) {
+                users.setLong(1, u);
+                users.setString(2, "user" + u + "@example.com");
+                users.setString(3, "x");
+                users.setString(4, "User " + u);
+                users.setString(5, "+10000000000");
+                users.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+                users.addBatch();
+            }
+            users.executeBatch();
+        }
+
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO transactions (amount, date, category, type, user_id, created_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                int category = random.nextInt(CATEGORIES.length);
+                LocalDate date = FIRST_DAY.plusDays(random.nextInt(DAYS));
+                insert.setBigDecimal(1, BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+                insert.setDate(2, Date.valueOf(date));
+                insert.setString(3, CATEGORIES[category]);
+                insert.setString(4, category == 0 ? "INCOME" : "EXPENSE");
+                insert.setLong(5, 1 + random.nextInt(USERS));
+                insert.setTimestamp(6, Timestamp.valueOf(date.atTime(12, 0).plusNanos(i * 1000L)));
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+    }
+
+    private long time(String sql, boolean byFunction) throws SQLException {
+        runMonthly(sql, byFunction, 20, new Random(7));
+        long start = System.nanoTime();
+        runMonthly(sql, byFunction, ITERATIONS, new Random(7));
+        return (System.nanoTime() - start) / ITERATIONS / 1_000;
+    }
+
+    private BigDecimal checksum(String sql, boolean byFunction) throws SQLException {
+        return runMonthly(sql, byFunction, ITERATIONS, new Random(7));
+    }
+
+    private BigDecimal runMonthly(String sql, boolean byFunction, int iterations, Random random) throws SQLException {
+        BigDecimal checksum = BigDecimal.ZERO;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < iterations; i++) {
+                LocalDate month = FIRST_DAY.plusMonths(random.nextInt(60));
+                statement.setLong(1, 1 + random.nextInt(USERS));
+                if (byFunction) {
+                    statement.setInt(2, month.getYear());
+                    statement.setInt(3, month.getMonthValue());
+                } else {
+                    statement.setDate(2, Date.valueOf(month));
+                    statement.setDate(3, Date.valueOf(month.plusMonths(1)));
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        checksum = checksum.add(rows.getBigDecimal(3));
+                    }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private long timePage() throws SQLException {
+        Random random = new Random(11);
+        try (PreparedStatement statement = connection.prepareStatement(FIRST_PAGE)) {
+            long start = 0;
+            for (int i = 0; i < ITERATIONS + 20; i++) {
+                if (i == 20) {
+                    start = System.nanoTime();
+                }
+                statement.setLong(1, 1 + random.nextInt(USERS));
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        rows.getLong(1);
+                    }
+                }
+            }
+            return (System.nanoTime() - start) / ITERATIONS / 1_000;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.finance.manager.controller;
+
+import com.finance.manager.archive.TransactionArchiver;
+import com.finance.manager.dto.response.ArchiveRunResponse;
+import com.finance.manager.dto.response.ReportCacheStatsResponse;
+import com.finance.manager.dto.response.RollupVerificationResponse;
+import com.finance.manager.dto.response.SingleFlightStatsResponse;
+import com.finance.manager.exception.GlobalExceptionHandler;
+import com.finance.manager.service.ReportCache;
+import com.finance.manager.service.RollupService;
+import com.finance.manager.service.SingleFlight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.util.List;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private ReportCache reportCache;
+
+    @Mock
+    private SingleFlight singleFlight;
+
+    @Mock
+    private TransactionArchiver transactionArchiver;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(adminController, "adminToken", "secret");
+        mockMvc = MockMvcBuilders.standaloneSetup(adminController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void verifyRollups_Success() throws Exception {
+        when(rollupService.verify(false)).thenReturn(RollupVerificationResponse.builder()
+                .usersChecked(3)
+                .drift(List.of())
+                .build());
+
+        mockMvc.perform(get("/api/admin/rollups/verify").header("X-Admin-Token", "secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usersChecked").value(3));
+    }
+
+    @Test
+    void rebuildRollups_Success() throws Exception {
+        when(rollupService.verify(true)).thenReturn(RollupVerificationResponse.builder()
+                .usersChecked(1)
+                .usersWithDrift(1)
+                .repaired(true)
+                .drift(List.of())
+                .build());
+
+        mockMvc.perform(post("/api/admin/rollups/rebuild").header("X-Admin-Token", "secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.repaired").value(true));
+    }
+
+    @Test
+    void getReportCacheStats_Success() throws Exception {
+        when(reportCache.stats()).thenReturn(ReportCacheStatsResponse.builder()
+                .size(2)
+                .hits(10)
+                .misses(2)
+                .build());
+
+        mockMvc.perform(get("/api/admin/cache/reports").header("X-Admin-Token", "secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(10))
+                .andExpect(jsonPath("$.size").value(2));
+    }
+
+    @Test
+    void verifyRollups_WrongToken_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/admin/rollups/verify").header("X-Admin-Token", "wrong"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(rollupService);
+    }
+
+    @Test
+    void verifyRollups_AdminDisabled_Forbidden() throws Exception {
+        ReflectionTestUtils.setField(adminController, "adminToken", "");
+
+        mockMvc.perform(get("/api/admin/rollups/verify").header("X-Admin-Token", ""))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getSingleFlightStats_Success() throws Exception {
+        when(singleFlight.stats()).thenReturn(SingleFlightStatsResponse.builder()
+                .inFlight(1)
+                .executions(10)
+                .coalesced(4)
+                .build());
+
+        mockMvc.perform(get("/api/admin/single-flight").header("X-Admin-Token", "secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.executions").value(10))
+                .andExpect(jsonPath("$.coalesced").value(4));
+    }
+
+    @Test
+    void archiveTransactions_Success() throws Exception {
+        when(transactionArchiver.archive()).thenReturn(ArchiveRunResponse.builder()
+                .archivedBefore("2024-01-01")
+                .usersChecked(2)
+                .transactionsArchived(1200)
+                .segmentsWritten(3)
+                .build());
+
+        mockMvc.perform(post("/api/admin/archive").header("X-Admin-Token", "secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archivedBefore").value("2024-01-01"))
+                .andExpect(jsonPath("$.transactionsArchived").value(1200));
+    }
+
+    @Test
+    void archiveTransactions_WrongToken_Forbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/archive").header("X-Admin-Token", "wrong"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(transactionArchiver);
+    }
+}
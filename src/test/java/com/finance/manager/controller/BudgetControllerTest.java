@@ -0,0 +1,218 @@
+package com.finance.manager.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.manager.dto.request.BudgetRequest;
+import com.finance.manager.dto.request.BudgetUpdateRequest;
+import com.finance.manager.dto.response.BudgetListResponse;
+import com.finance.manager.dto.response.BudgetResponse;
+import com.finance.manager.dto.response.BudgetStatusResponse;
+import com.finance.manager.dto.response.MessageResponse;
+import com.finance.manager.entity.User;
+import com.finance.manager.exception.*;
+import com.finance.manager.service.BudgetService;
+import com.finance.manager.service.DataVersions;
+import com.finance.manager.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private DataVersions dataVersions = new DataVersions();
+
+    @InjectMocks
+    private BudgetController budgetController;
+
+    private ObjectMapper objectMapper;
+    private User testUser;
+    private BudgetResponse food;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(budgetController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        objectMapper = new ObjectMapper();
+        testUser = User.builder().id(1L).username("test@example.com").build();
+        food = BudgetResponse.builder()
+                .id(1L)
+                .category("Food")
+                .year(2024)
+                .month(3)
+                .amount(new BigDecimal("400.00"))
+                .spent(new BigDecimal("450.00"))
+                .remaining(new BigDecimal("-50.00"))
+                .overBudget(true)
+                .build();
+    }
+
+    @Test
+    void createBudget_Success() throws Exception {
+        BudgetRequest request = BudgetRequest.builder()
+                .category("Food").year(2024).month(3).amount(new BigDecimal("400.00")).build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.createBudget(any(BudgetRequest.class), any(User.class))).thenReturn(food);
+
+        mockMvc.perform(post("/api/budgets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.remaining").value(-50.00))
+                .andExpect(jsonPath("$.overBudget").value(true));
+    }
+
+    @Test
+    void createBudget_InvalidMonth_ReturnsBadRequest() throws Exception {
+        BudgetRequest request = BudgetRequest.builder()
+                .category("Food").year(2024).month(13).amount(new BigDecimal("400.00")).build();
+
+        mockMvc.perform(post("/api/budgets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(budgetService, never()).createBudget(any(), any());
+    }
+
+    @Test
+    void createBudget_Duplicate_ReturnsConflict() throws Exception {
+        BudgetRequest request = BudgetRequest.builder()
+                .category("Food").year(2024).month(3).amount(new BigDecimal("400.00")).build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.createBudget(any(BudgetRequest.class), any(User.class)))
+                .thenThrow(new DuplicateResourceException("Budget already exists for category 'Food' in 2024-03"));
+
+        mockMvc.perform(post("/api/budgets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void getBudgets_Success() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.getBudgets(2024, 3, testUser)).thenReturn(BudgetListResponse.of(List.of(food)));
+
+        mockMvc.perform(get("/api/budgets").param("year", "2024").param("month", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.budgets[0].category").value("Food"));
+    }
+
+    @Test
+    void getBudgets_InvalidMonthWithMatchingETag_ReturnsBadRequest() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        doThrow(new InvalidRequestException("Month must be between 1 and 12"))
+                .when(budgetService).validateBudgetQuery(2024, 13);
+
+        mockMvc.perform(get("/api/budgets")
+                        .param("year", "2024")
+                        .param("month", "13")
+                        .header("If-None-Match", dataVersions.etag(testUser.getId())))
+                .andExpect(status().isBadRequest());
+
+        verify(budgetService, never()).getBudgets(any(), any(), any());
+    }
+
+    @Test
+    void getStatus_Success() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.statusPeriod(null, null)).thenReturn(YearMonth.of(2024, 3));
+        when(budgetService.getStatus(null, null, testUser))
+                .thenReturn(BudgetStatusResponse.of(2024, 3, List.of(food)));
+
+        mockMvc.perform(get("/api/budgets/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBudgeted").value(400.00))
+                .andExpect(jsonPath("$.totalRemaining").value(-50.00))
+                .andExpect(jsonPath("$.overBudgetCount").value(1));
+    }
+
+    @Test
+    void getStatus_MatchingETag_ReturnsNotModified() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.statusPeriod(null, null)).thenReturn(YearMonth.of(2024, 3));
+
+        mockMvc.perform(get("/api/budgets/status")
+                        .header("If-None-Match", dataVersions.etag(testUser.getId(), YearMonth.of(2024, 3))))
+                .andExpect(status().isNotModified());
+
+        verify(budgetService, never()).getStatus(any(), any(), any());
+    }
+
+    @Test
+    void getStatus_TagFromAnotherMonth_ReturnsStatus() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.statusPeriod(null, null)).thenReturn(YearMonth.of(2024, 4));
+        when(budgetService.getStatus(null, null, testUser))
+                .thenReturn(BudgetStatusResponse.of(2024, 4, List.of()));
+
+        mockMvc.perform(get("/api/budgets/status")
+                        .header("If-None-Match", dataVersions.etag(testUser.getId(), YearMonth.of(2024, 3))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value(4));
+    }
+
+    @Test
+    void getBudget_NotFound() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.getBudget(eq(999L), any(User.class)))
+                .thenThrow(new ResourceNotFoundException("Budget", "id", 999L));
+
+        mockMvc.perform(get("/api/budgets/999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateBudget_Success() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.updateBudget(eq(1L), any(BudgetUpdateRequest.class), any(User.class))).thenReturn(food);
+
+        mockMvc.perform(put("/api/budgets/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BudgetUpdateRequest(new BigDecimal("400.00")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(400.00));
+    }
+
+    @Test
+    void deleteBudget_Success() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(budgetService.deleteBudget(eq(1L), any(User.class)))
+                .thenReturn(MessageResponse.of("Budget deleted successfully"));
+
+        mockMvc.perform(delete("/api/budgets/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Budget deleted successfully"));
+    }
+}
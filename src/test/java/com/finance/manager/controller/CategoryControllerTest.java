@@ -9,18 +9,22 @@ import com.finance.manager.entity.User;
 import com.finance.manager.enums.TransactionType;
 import com.finance.manager.exception.*;
 import com.finance.manager.service.CategoryService;
+import com.finance.manager.service.DataVersions;
 import com.finance.manager.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +40,9 @@ class CategoryControllerTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private DataVersions dataVersions = new DataVersions();
+
     @InjectMocks
     private CategoryController categoryController;
 
@@ -182,4 +189,14 @@ class CategoryControllerTest {
         mockMvc.perform(delete("/api/categories/Food"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void getAllCategories_MatchingETag_ReturnsNotModified() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/categories").header("If-None-Match", dataVersions.etag(1L)))
+                .andExpect(status().isNotModified());
+
+        verify(categoryService, never()).getAllCategories(any());
+    }
 }
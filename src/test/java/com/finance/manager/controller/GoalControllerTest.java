@@ -8,20 +8,27 @@ import com.finance.manager.dto.response.GoalResponse;
 import com.finance.manager.dto.response.MessageResponse;
 import com.finance.manager.entity.User;
 import com.finance.manager.exception.*;
+import com.finance.manager.service.DataVersions;
 import com.finance.manager.service.GoalService;
+import com.finance.manager.service.IdempotencyStore;
 import com.finance.manager.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +44,12 @@ class GoalControllerTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, Duration.ofHours(1));
+
+    @Spy
+    private DataVersions dataVersions = new DataVersions();
+
     @InjectMocks
     private GoalController goalController;
 
@@ -83,6 +96,30 @@ class GoalControllerTest {
                 .andExpect(jsonPath("$.goalName").value("Emergency Fund"));
     }
 
+    @Test
+    void createGoal_RetriedWithIdempotencyKey_ReplaysFirstResponse() throws Exception {
+        GoalRequest request = GoalRequest.builder()
+                .goalName("Emergency Fund")
+                .targetAmount(new BigDecimal("10000.00"))
+                .targetDate("2026-01-01")
+                .build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(goalService.createGoal(any(GoalRequest.class), any(User.class)))
+                .thenReturn(GoalResponse.builder().id(3L).goalName("Emergency Fund").build());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/goals")
+                            .header("Idempotency-Key", "goal-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(3));
+        }
+
+        verify(goalService, times(1)).createGoal(any(GoalRequest.class), any(User.class));
+    }
+
     @Test
     void createGoal_Unauthorized() throws Exception {
         GoalRequest request = GoalRequest.builder()
@@ -238,4 +275,14 @@ class GoalControllerTest {
         mockMvc.perform(delete("/api/goals/2"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    void getAllGoals_MatchingETag_ReturnsNotModified() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/goals").header("If-None-Match", dataVersions.etag(testUser.getId())))
+                .andExpect(status().isNotModified());
+
+        verify(goalService, never()).getAllGoals(any());
+    }
 }
@@ -1,10 +1,17 @@
 package com.finance.manager.controller;
 
+import com.finance.manager.dto.response.AggregateGroup;
+import com.finance.manager.dto.response.AggregateResponse;
+import com.finance.manager.dto.response.BalancePoint;
+import com.finance.manager.dto.response.BalanceSeriesResponse;
 import com.finance.manager.dto.response.MonthlyReportResponse;
 import com.finance.manager.dto.response.YearlyReportResponse;
 import com.finance.manager.entity.User;
 import com.finance.manager.exception.GlobalExceptionHandler;
+import com.finance.manager.exception.InvalidRequestException;
 import com.finance.manager.exception.UnauthorizedException;
+import com.finance.manager.service.BalanceService;
+import com.finance.manager.service.DataVersions;
 import com.finance.manager.service.ReportService;
 import com.finance.manager.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,12 +19,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,9 +42,15 @@ class ReportControllerTest {
     @Mock
     private ReportService reportService;
 
+    @Mock
+    private BalanceService balanceService;
+
     @Mock
     private UserService userService;
 
+    @Spy
+    private DataVersions dataVersions = new DataVersions();
+
     @InjectMocks
     private ReportController reportController;
 
@@ -137,5 +155,140 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$.year").value(2020))
                 .andExpect(jsonPath("$.netSavings").value(0));
     }
-}
 
+    @Test
+    void getYearlyReport_MatchingETag_ReturnsNotModified() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/reports/yearly/2024").header("If-None-Match", dataVersions.etag(testUser.getId())))
+                .andExpect(status().isNotModified());
+
+        verify(reportService, never()).getYearlyReport(anyInt(), any());
+    }
+
+    @Test
+    void getMonthlyReport_InvalidMonthWithMatchingETag_ReturnsBadRequest() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        doThrow(new InvalidRequestException("Month must be between 1 and 12"))
+                .when(reportService).validateMonthlyReport(2024, 13);
+
+        mockMvc.perform(get("/api/reports/monthly/2024/13")
+                        .header("If-None-Match", dataVersions.etag(testUser.getId())))
+                .andExpect(status().isBadRequest());
+
+        verify(reportService, never()).getMonthlyReport(anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void getBalanceSeries_Success() throws Exception {
+        BalanceSeriesResponse response = BalanceSeriesResponse.builder()
+                .from("2024-03-01")
+                .to("2024-03-01")
+                .granularity("day")
+                .openingBalance(new BigDecimal("100.00"))
+                .closingBalance(new BigDecimal("150.00"))
+                .points(List.of(BalancePoint.builder()
+                        .start("2024-03-01")
+                        .end("2024-03-01")
+                        .income(new BigDecimal("50.00"))
+                        .expenses(new BigDecimal("0.00"))
+                        .net(new BigDecimal("50.00"))
+                        .balance(new BigDecimal("150.00"))
+                        .build()))
+                .build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(balanceService.getBalanceSeries(any(User.class), eq("2024-03-01"), eq("2024-03-01"), eq("day")))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/reports/balance")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openingBalance").value(100.00))
+                .andExpect(jsonPath("$.points[0].balance").value(150.00));
+    }
+
+    @Test
+    void getBalanceSeries_InvalidGranularity() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(balanceService.getBalanceSeries(any(User.class), any(), any(), eq("year")))
+                .thenThrow(new InvalidRequestException("Granularity must be day, week or month"));
+
+        mockMvc.perform(get("/api/reports/balance")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-31")
+                        .param("granularity", "year"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getBalanceSeries_InvalidDateWithMatchingETag_ReturnsBadRequest() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        doThrow(new InvalidRequestException("Invalid date format. Use YYYY-MM-DD"))
+                .when(balanceService).validateBalanceSeries("03-01-2024", "2024-03-31", "day");
+
+        mockMvc.perform(get("/api/reports/balance")
+                        .param("from", "03-01-2024")
+                        .param("to", "2024-03-31")
+                        .header("If-None-Match", dataVersions.etag(testUser.getId())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAggregate_SplitsGroupByList() throws Exception {
+        AggregateResponse response = AggregateResponse.builder()
+                .from("2024-01-01")
+                .to("2024-03-31")
+                .groupBy(List.of("category", "month"))
+                .source("monthlyRollups")
+                .groups(List.of(AggregateGroup.builder()
+                        .key(Map.of("category", "Food", "month", 1))
+                        .income(new BigDecimal("0.00"))
+                        .expenses(new BigDecimal("120.00"))
+                        .net(new BigDecimal("-120.00"))
+                        .count(3)
+                        .build()))
+                .build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(reportService.getAggregate("2024-01-01", "2024-03-31", List.of("category", "month"), testUser))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/reports/aggregate")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-03-31")
+                        .param("groupBy", "category,month"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.groups[0].key.category").value("Food"))
+                .andExpect(jsonPath("$.groups[0].expenses").value(120.00));
+    }
+
+    @Test
+    void getAggregate_UnknownDimension() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(reportService.getAggregate(any(), any(), eq(List.of("quarter")), any(User.class)))
+                .thenThrow(new InvalidRequestException("Unknown dimension 'quarter'"));
+
+        mockMvc.perform(get("/api/reports/aggregate")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-03-31")
+                        .param("groupBy", "quarter"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAggregate_UnknownDimensionWithMatchingETag_ReturnsBadRequest() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        doThrow(new InvalidRequestException("Unknown dimension 'quarter'"))
+                .when(reportService).validateAggregate("2024-01-01", "2024-03-31", List.of("quarter"));
+
+        mockMvc.perform(get("/api/reports/aggregate")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-03-31")
+                        .param("groupBy", "quarter")
+                        .header("If-None-Match", dataVersions.etag(testUser.getId())))
+                .andExpect(status().isBadRequest());
+    }
+}
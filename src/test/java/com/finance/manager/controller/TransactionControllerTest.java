@@ -1,30 +1,50 @@
 package com.finance.manager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.manager.dto.request.TransactionBatchRequest;
 import com.finance.manager.dto.request.TransactionRequest;
 import com.finance.manager.dto.request.TransactionUpdateRequest;
 import com.finance.manager.dto.response.MessageResponse;
+import com.finance.manager.dto.response.TransactionBatchItemResult;
+import com.finance.manager.dto.response.TransactionBatchResponse;
 import com.finance.manager.dto.response.TransactionListResponse;
 import com.finance.manager.dto.response.TransactionResponse;
 import com.finance.manager.entity.User;
 import com.finance.manager.enums.TransactionType;
 import com.finance.manager.exception.GlobalExceptionHandler;
+import com.finance.manager.exception.InvalidRequestException;
 import com.finance.manager.exception.ResourceNotFoundException;
 import com.finance.manager.exception.UnauthorizedException;
+import com.finance.manager.enums.ExportFormat;
+import com.finance.manager.service.DataVersions;
+import com.finance.manager.service.IdempotencyStore;
+import com.finance.manager.service.TransactionExportService;
 import com.finance.manager.service.TransactionService;
 import com.finance.manager.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,6 +60,15 @@ class TransactionControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TransactionExportService transactionExportService;
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, Duration.ofHours(1));
+
+    @Spy
+    private DataVersions dataVersions = new DataVersions();
+
     @InjectMocks
     private TransactionController transactionController;
 
@@ -55,6 +84,72 @@ class TransactionControllerTest {
         testUser = User.builder().id(1L).username("test@example.com").build();
     }
 
+    @Test
+    void createTransactions_Batch_ReturnsPerItemResults() throws Exception {
+        TransactionBatchRequest request = TransactionBatchRequest.builder()
+                .transactions(List.of(TransactionRequest.builder()
+                        .amount(new BigDecimal("10.00"))
+                        .date("2024-01-15")
+                        .category("Food")
+                        .build()))
+                .build();
+        TransactionBatchResponse response = TransactionBatchResponse.builder()
+                .created(0)
+                .rejected(1)
+                .results(List.of(TransactionBatchItemResult.rejected(0, "Category not found with name: 'Food'")))
+                .build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(transactionService.createTransactions(anyList(), any(User.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[0].transaction").doesNotExist());
+    }
+
+    @Test
+    void createTransactions_EmptyBatch_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactions\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportTransactions_Csv_StreamsBody() throws Exception {
+        StreamingResponseBody body = out -> out.write("id,date\n".getBytes(StandardCharsets.UTF_8));
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(transactionExportService.exportTransactions(testUser, "2024-01-01", null, null, ExportFormat.CSV))
+                .thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/api/transactions/export")
+                        .param("format", "csv")
+                        .param("startDate", "2024-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().string("id,date\n"));
+        InOrder order = inOrder(transactionService, transactionExportService);
+        order.verify(transactionService).awaitJournaledCreates();
+        order.verify(transactionExportService).exportTransactions(testUser, "2024-01-01", null, null, ExportFormat.CSV);
+    }
+
+    @Test
+    void exportTransactions_UnknownFormat_BadRequest() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/transactions/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createTransaction_Success() throws Exception {
         TransactionRequest request = TransactionRequest.builder()
@@ -85,6 +180,85 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.category").value("Salary"));
     }
 
+    @Test
+    void createTransaction_RetriedWithIdempotencyKey_ReplaysFirstResponse() throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+                .amount(new BigDecimal("42.50"))
+                .date("2024-01-15")
+                .category("Food")
+                .build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(transactionService.createTransaction(any(TransactionRequest.class), any(User.class)))
+                .thenReturn(TransactionResponse.builder().id(7L).category("Food").build())
+                .thenReturn(TransactionResponse.builder().id(8L).category("Food").build());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/transactions")
+                            .header("Idempotency-Key", "retry-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(7));
+        }
+        mockMvc.perform(post("/api/transactions")
+                        .header("Idempotency-Key", "retry-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(8));
+
+        verify(transactionService, times(2)).createTransaction(any(TransactionRequest.class), any(User.class));
+    }
+
+    @Test
+    void createTransaction_IdempotencyKeyReusedWithOtherBody_ReturnsUnprocessable() throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+                .amount(new BigDecimal("42.50"))
+                .date("2024-01-15")
+                .category("Food")
+                .build();
+        TransactionRequest changed = TransactionRequest.builder()
+                .amount(new BigDecimal("24.50"))
+                .date("2024-01-15")
+                .category("Food")
+                .build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(transactionService.createTransaction(any(TransactionRequest.class), any(User.class)))
+                .thenReturn(TransactionResponse.builder().id(7L).category("Food").build());
+
+        mockMvc.perform(post("/api/transactions")
+                        .header("Idempotency-Key", "reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/transactions")
+                        .header("Idempotency-Key", "reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(changed)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(transactionService, times(1)).createTransaction(any(TransactionRequest.class), any(User.class));
+    }
+
+    @Test
+    void createTransaction_BlankIdempotencyKey_ReturnsBadRequest() throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+                .amount(new BigDecimal("42.50"))
+                .date("2024-01-15")
+                .category("Food")
+                .build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+
+        mockMvc.perform(post("/api/transactions")
+                        .header("Idempotency-Key", " ")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createTransaction_Unauthorized() throws Exception {
         TransactionRequest request = TransactionRequest.builder()
@@ -117,7 +291,7 @@ class TransactionControllerTest {
                 .build();
 
         when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
-        when(transactionService.getAllTransactions(any(User.class), any(), any(), any()))
+        when(transactionService.getAllTransactions(any(User.class), any(), any(), any(), any(), any()))
                 .thenReturn(response);
 
         mockMvc.perform(get("/api/transactions"))
@@ -133,7 +307,8 @@ class TransactionControllerTest {
                 .build();
 
         when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
-        when(transactionService.getAllTransactions(any(User.class), eq("2024-01-01"), eq("2024-12-31"), eq("Salary")))
+        when(transactionService.getAllTransactions(any(User.class), eq("2024-01-01"), eq("2024-12-31"), eq("Salary"),
+                isNull(), isNull()))
                 .thenReturn(response);
 
         mockMvc.perform(get("/api/transactions")
@@ -143,6 +318,24 @@ class TransactionControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllTransactions_WithCursor() throws Exception {
+        TransactionListResponse response = TransactionListResponse.builder()
+                .transactions(List.of())
+                .nextCursor("next")
+                .build();
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(transactionService.getAllTransactions(any(User.class), isNull(), isNull(), isNull(), eq(20), eq("abc")))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/transactions")
+                        .param("limit", "20")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
     @Test
     void getTransaction_Success() throws Exception {
         TransactionResponse response = TransactionResponse.builder()
@@ -218,4 +411,99 @@ class TransactionControllerTest {
         mockMvc.perform(delete("/api/transactions/999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void getAllTransactions_SendsETagAndRevalidationHeaders() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(transactionService.getAllTransactions(any(User.class), any(), any(), any(), any(), any()))
+                .thenReturn(TransactionListResponse.builder().transactions(List.of()).build());
+
+        mockMvc.perform(get("/api/transactions"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", dataVersions.etag(1L)))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @Test
+    void getAllTransactions_MatchingETag_ReturnsNotModifiedWithoutQuery() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/transactions").header("If-None-Match", dataVersions.etag(1L)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(transactionService, never()).getAllTransactions(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getAllTransactions_InvalidDateWithMatchingETag_ReturnsBadRequest() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        doThrow(new InvalidRequestException("Invalid date format. Use YYYY-MM-DD"))
+                .when(transactionService).validateListQuery("2024-13-01", null, null, null);
+
+        mockMvc.perform(get("/api/transactions")
+                        .param("startDate", "2024-13-01")
+                        .header("If-None-Match", dataVersions.etag(1L)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllTransactions_StaleETagAfterWrite_ReturnsBody() throws Exception {
+        String before = dataVersions.etag(1L);
+        dataVersions.bump(1L);
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        when(transactionService.getAllTransactions(any(User.class), any(), any(), any(), any(), any()))
+                .thenReturn(TransactionListResponse.builder().transactions(List.of()).build());
+
+        mockMvc.perform(get("/api/transactions").header("If-None-Match", before))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", dataVersions.etag(1L)));
+    }
+
+    @Test
+    void getAllTransactions_JournaledCreatePending_WaitsForItBeforeTheETagCheck() throws Exception {
+        String beforeCreate = dataVersions.etag(1L);
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        // The projection of the acknowledged create commits while the read waits.
+        doAnswer(invocation -> {
+            dataVersions.bump(1L);
+            return null;
+        }).when(transactionService).awaitJournaledCreates();
+        when(transactionService.getAllTransactions(any(User.class), any(), any(), any(), any(), any()))
+                .thenReturn(TransactionListResponse.builder().transactions(List.of()).build());
+
+        mockMvc.perform(get("/api/transactions").header("If-None-Match", beforeCreate))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", dataVersions.etag(1L)));
+    }
+
+    @Test
+    void getTransaction_JournaledCreatePending_WaitsForItBeforeReading() throws Exception {
+        String beforeCreate = dataVersions.etag(1L);
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+        doAnswer(invocation -> {
+            dataVersions.bump(1L);
+            return null;
+        }).when(transactionService).awaitJournaledCreates();
+        when(transactionService.getTransaction(5L, testUser))
+                .thenReturn(TransactionResponse.builder().id(5L).build());
+
+        mockMvc.perform(get("/api/transactions/5").header("If-None-Match", beforeCreate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(5));
+
+        InOrder order = inOrder(transactionService);
+        order.verify(transactionService).awaitJournaledCreates();
+        order.verify(transactionService).getTransaction(5L, testUser);
+    }
+
+    @Test
+    void getTransaction_MatchingETag_ReturnsNotModified() throws Exception {
+        when(userService.getAuthenticatedUser(any())).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/transactions/1").header("If-None-Match", dataVersions.etag(1L)))
+                .andExpect(status().isNotModified());
+
+        verify(transactionService, never()).getTransaction(any(), any());
+    }
 }
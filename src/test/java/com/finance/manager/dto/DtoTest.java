@@ -2,10 +2,12 @@ package com.finance.manager.dto;
 
 import com.finance.manager.dto.request.*;
 import com.finance.manager.dto.response.*;
+import com.finance.manager.entity.Goal;
 import com.finance.manager.enums.TransactionType;
 import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
@@ -182,6 +184,22 @@ class DtoTest {
         assertEquals("Emergency Fund", res.getGoalName());
     }
 
+    @Test
+    void goalResponse_ProgressTooLargeToScaleInCents_ComputesPercentage() {
+        Goal goal = Goal.builder()
+                .id(1L)
+                .goalName("Endowment")
+                .targetAmount(new BigDecimal("10000000000000.00"))
+                .targetDate(LocalDate.of(2030, 1, 1))
+                .startDate(LocalDate.of(2024, 1, 1))
+                .build();
+
+        GoalResponse res = GoalResponse.fromEntity(goal, 2_000_000_000_000_000L);
+
+        assertEquals(0, new BigDecimal("200").compareTo(res.getProgressPercentage()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(res.getRemainingAmount()));
+    }
+
     @Test
     void goalListResponse_Builder() {
         GoalResponse goal = GoalResponse.builder().id(1L).build();
@@ -76,13 +76,14 @@ class EntityTest {
     @Test
     void transaction_Builder() {
         User user = User.builder().id(1L).build();
+        Category category = Category.builder().id(2L).name("Salary").type(TransactionType.INCOME).build();
         
         Transaction transaction = Transaction.builder()
                 .id(1L)
                 .amount(new BigDecimal("5000.00"))
                 .date(LocalDate.of(2024, 1, 15))
                 .description("Monthly salary")
-                .category("Salary")
+                .category(category)
                 .type(TransactionType.INCOME)
                 .user(user)
                 .build();
@@ -91,7 +92,7 @@ class EntityTest {
         assertEquals(new BigDecimal("5000.00"), transaction.getAmount());
         assertEquals(LocalDate.of(2024, 1, 15), transaction.getDate());
         assertEquals("Monthly salary", transaction.getDescription());
-        assertEquals("Salary", transaction.getCategory());
+        assertEquals(category, transaction.getCategory());
         assertEquals(user, transaction.getUser());
     }
 
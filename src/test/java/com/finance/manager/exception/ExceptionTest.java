@@ -41,6 +41,12 @@ class ExceptionTest {
         assertEquals("Not authenticated", ex.getMessage());
     }
 
+    @Test
+    void unprocessableRequestException() {
+        UnprocessableRequestException ex = new UnprocessableRequestException("Body does not match");
+        assertEquals("Body does not match", ex.getMessage());
+    }
+
     @Test
     void allExceptions_ExtendRuntimeException() {
         assertTrue(RuntimeException.class.isAssignableFrom(ResourceNotFoundException.class));
@@ -48,6 +54,7 @@ class ExceptionTest {
         assertTrue(RuntimeException.class.isAssignableFrom(InvalidRequestException.class));
         assertTrue(RuntimeException.class.isAssignableFrom(ForbiddenException.class));
         assertTrue(RuntimeException.class.isAssignableFrom(UnauthorizedException.class));
+        assertTrue(RuntimeException.class.isAssignableFrom(UnprocessableRequestException.class));
     }
 }
 
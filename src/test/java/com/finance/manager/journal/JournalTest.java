@@ -0,0 +1,213 @@
+package com.finance.manager.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_RollsSegmentsAndReadsBackInOrderAfterReopen() throws Exception {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 40; i++) {
+                journal.sync(journal.append(payload(i)));
+            }
+            assertEquals(List.of(payloads(0, 40)), List.of(read(journal)));
+        }
+        assertTrue(segmentFiles() > 1);
+
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE)) {
+            journal.sync(journal.append(payload(40)));
+            assertEquals(List.of(payloads(0, 41)), List.of(read(journal)));
+        }
+    }
+
+    @Test
+    void read_ReturnsOnlyDurableRecords() throws Exception {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE)) {
+            long first = journal.append(payload(0));
+            journal.sync(first);
+            journal.append(payload(1));
+
+            assertEquals(List.of("record-0"), List.of(read(journal)));
+        }
+    }
+
+    @Test
+    void open_AfterTornWrite_DropsTheTailAndAppendsBehindIt() throws Exception {
+        Journal crashed = Journal.open(directory, 4096);
+        for (int i = 0; i < 3; i++) {
+            crashed.sync(crashed.append(payload(i)));
+        }
+        // A record whose length made it to disk but whose payload did not.
+        int end = Journal.offset(crashed.end());
+        try (FileChannel channel = FileChannel.open(directory.resolve(JournalSegment.fileName(0)),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(JournalSegment.HEADER + 2).putInt(100).putInt(12345).put((byte) 7)
+                    .flip(), end);
+        }
+
+        try (Journal journal = Journal.open(directory, 4096)) {
+            assertEquals(List.of(payloads(0, 3)), List.of(read(journal)));
+            journal.sync(journal.append(payload(3)));
+            assertEquals(List.of(payloads(0, 4)), List.of(read(journal)));
+        }
+    }
+
+    @Test
+    void read_CorruptRecordInFullSegment_Fails() throws Exception {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 20; i++) {
+                journal.sync(journal.append(payload(i)));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(JournalSegment.fileName(0)),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), JournalSegment.HEADER + 1);
+        }
+
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE)) {
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> journal.read(journal.start(), 100));
+            assertTrue(error.getMessage().contains("corrupt"));
+        }
+    }
+
+    @Test
+    void deleteBefore_RemovesOnlyFullyReadSegments() throws Exception {
+        try (Journal journal = Journal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 40; i++) {
+                journal.sync(journal.append(payload(i)));
+            }
+            List<Journal.Record> records = journal.read(journal.start(), 25);
+            long position = records.get(records.size() - 1).next();
+
+            journal.deleteBefore(position);
+
+            assertEquals(Journal.segment(position), Journal.segment(journal.start()));
+            assertEquals(List.of(payloads(25, 40)), List.of(strings(journal.read(position, 100))));
+        }
+    }
+
+    @Test
+    void sync_ConcurrentAppenders_AllRecordsDurable() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (Journal journal = Journal.open(directory, 64 * 1024)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        journal.sync(journal.append(payload(thread * perThread + i)));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            String[] read = read(journal);
+            assertEquals(threads * perThread, read.length);
+            assertEquals(threads * perThread, Stream.of(read).distinct().count());
+            assertTrue(journal.forces() <= threads * perThread);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Kills a process that is appending and syncing as fast as it can; every record it reported as
+    // synced must be there after recovery, in order and without gaps.
+    @Test
+    void open_AfterProcessKilledMidAppend_KeepsEverySyncedRecord() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                Writer.class.getName(), directory.toString())
+                .redirectErrorStream(true)
+                .start();
+        int synced = -1;
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (synced < 500 && (line = output.readLine()) != null) {
+                if (line.startsWith(Writer.SYNCED)) {
+                    synced = Integer.parseInt(line.substring(Writer.SYNCED.length()));
+                }
+            }
+            process.destroyForcibly().waitFor();
+        }
+        assertTrue(synced >= 500, "writer stopped early at " + synced);
+
+        try (Journal journal = Journal.open(directory, Writer.SEGMENT_SIZE)) {
+            String[] read = read(journal);
+            assertTrue(read.length > synced);
+            for (int i = 0; i < read.length; i++) {
+                assertEquals("record-" + i, read[i]);
+            }
+        }
+    }
+
+    static class Writer {
+
+        static final int SEGMENT_SIZE = 16 * 1024;
+        static final String SYNCED = "synced ";
+
+        public static void main(String[] args) throws Exception {
+            Journal journal = Journal.open(Path.of(args[0]), SEGMENT_SIZE);
+            for (int i = 0; ; i++) {
+                journal.sync(journal.append(payload(i)));
+                System.out.println(SYNCED + i);
+                System.out.flush();
+            }
+        }
+    }
+
+    private static byte[] payload(int i) {
+        return ("record-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String[] payloads(int from, int to) {
+        String[] payloads = new String[to - from];
+        for (int i = from; i < to; i++) {
+            payloads[i - from] = "record-" + i;
+        }
+        return payloads;
+    }
+
+    private static String[] read(Journal journal) {
+        return strings(journal.read(journal.start(), Integer.MAX_VALUE));
+    }
+
+    private static String[] strings(List<Journal.Record> records) {
+        return records.stream()
+                .map(record -> new String(record.payload(), StandardCharsets.UTF_8))
+                .toArray(String[]::new);
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.finance.manager.journal;
+
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionJournalTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private JournalProjector projector;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Category food;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("test@example.com").build();
+        food = Category.builder().id(700L).name("Food").type(TransactionType.EXPENSE).build();
+        lenient().when(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR transactions_seq", Long.class))
+                .thenReturn(1L, 51L);
+    }
+
+    @Test
+    void append_AllocatesIdsFromSequenceBlocks() throws Exception {
+        TransactionJournal journal = open(0L);
+
+        long[] ids = new long[TransactionJournal.ID_BLOCK + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = append(journal, "1.00").id();
+        }
+
+        assertEquals(1L, ids[0]);
+        assertEquals(50L, ids[TransactionJournal.ID_BLOCK - 1]);
+        assertEquals(51L, ids[TransactionJournal.ID_BLOCK]);
+        verify(jdbcTemplate, times(2)).queryForObject("SELECT NEXT VALUE FOR transactions_seq", Long.class);
+    }
+
+    // The first process projects two entries, then dies with two more in the journal; the next one
+    // must project exactly those two, starting from the checkpoint the database holds.
+    @Test
+    void open_AfterKill_ReplaysOnlyEntriesBehindTheCheckpoint() throws Exception {
+        TransactionJournal first = open(0L);
+        JournalEntry a = append(first, "10.00");
+        JournalEntry b = append(first, "20.50");
+        assertEquals(2, first.projectPending());
+        ArgumentCaptor<Long> checkpoint = ArgumentCaptor.forClass(Long.class);
+        verify(projector).project(eq(List.of(a, b)), checkpoint.capture());
+        JournalEntry c = append(first, "3.00");
+        JournalEntry d = first.append(user, food, new BigDecimal("4.00"), DAY, null);
+
+        TransactionJournal restarted = open(checkpoint.getValue());
+        assertEquals(2, restarted.projectPending());
+        verify(projector).project(eq(List.of(c, d)), anyLong());
+        assertNull(d.description());
+        assertEquals(0, restarted.projectPending());
+    }
+
+    @Test
+    void projectPending_RejectedEntry_IsSkippedAndTheRestProjected() throws Exception {
+        TransactionJournal journal = open(0L);
+        JournalEntry good = append(journal, "10.00");
+        JournalEntry bad = append(journal, "20.00");
+        JournalEntry later = append(journal, "30.00");
+        lenient().doThrow(new DataIntegrityViolationException("fk")).when(projector)
+                .project(eq(List.of(good, bad, later)), anyLong());
+        lenient().doThrow(new DataIntegrityViolationException("fk")).when(projector)
+                .project(eq(List.of(bad)), anyLong());
+
+        assertEquals(3, journal.projectPending());
+
+        verify(projector).project(eq(List.of(good)), anyLong());
+        verify(projector).project(eq(List.of(later)), anyLong());
+        verify(projector).advance(anyLong());
+        journal.awaitProjected();
+    }
+
+    @Test
+    void awaitProjected_ProjectorBehind_TimesOut() throws Exception {
+        TransactionJournal journal = open(0L);
+        append(journal, "10.00");
+
+        assertThrows(IllegalStateException.class, journal::awaitProjected);
+
+        journal.projectPending();
+        journal.awaitProjected();
+    }
+
+    private TransactionJournal open(long checkpoint) throws Exception {
+        when(projector.checkpoint()).thenReturn(checkpoint);
+        TransactionJournal journal = new TransactionJournal(projector, jdbcTemplate, true, directory,
+                DataSize.ofKilobytes(4), Duration.ofMillis(50));
+        journal.open();
+        return journal;
+    }
+
+    private JournalEntry append(TransactionJournal journal, String amount) {
+        return journal.append(user, food, new BigDecimal(amount), DAY, "Lunch");
+    }
+}
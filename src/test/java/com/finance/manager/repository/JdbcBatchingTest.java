@@ -0,0 +1,80 @@
+package com.finance.manager.repository;
+
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.Goal;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JdbcBatchingTest {
+
+    private static final int TRANSACTIONS = 120;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void multiEntityWrite_IsBatched() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        User user = User.builder()
+                .username("batch@example.com")
+                .password("encoded")
+                .fullName("Batch User")
+                .phoneNumber("+1234567890")
+                .build();
+        entityManager.persist(user);
+
+        entityManager.persist(Goal.builder()
+                .goalName("Emergency Fund")
+                .targetAmount(new BigDecimal("1000.00"))
+                .targetDate(LocalDate.now().plusYears(1))
+                .startDate(LocalDate.now())
+                .user(user)
+                .build());
+
+        Category food = Category.builder().name("Food").type(TransactionType.EXPENSE).user(user).build();
+        Category salary = Category.builder().name("Salary").type(TransactionType.INCOME).user(user).build();
+        entityManager.persist(food);
+        entityManager.persist(salary);
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions.add(Transaction.builder()
+                    .amount(new BigDecimal("10.00"))
+                    .date(LocalDate.of(2024, 1, 1).plusDays(i % 28))
+                    .category(i % 2 == 0 ? food : salary)
+                    .type(i % 2 == 0 ? TransactionType.EXPENSE : TransactionType.INCOME)
+                    .user(user)
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+        entityManager.flush();
+
+        assertEquals(TRANSACTIONS + 4, statistics.getEntityInsertCount());
+        // One sequence call per 50-id block (1 user + 1 goal + 1 category + 3 transactions) and one batched
+        // insert statement per entity type. Row-by-row IDENTITY inserts needed a statement for each of the 124 rows.
+        assertEquals(10, statistics.getPrepareStatementCount());
+        assertTrue(transactions.stream().allMatch(transaction -> transaction.getId() != null));
+    }
+}
@@ -0,0 +1,215 @@
+package com.finance.manager.service;
+
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.dto.projection.DatedTotal;
+import com.finance.manager.dto.projection.LedgerRow;
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.entity.DailyBalance;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.AggregateDimension;
+import com.finance.manager.enums.AggregateSource;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.repository.DailyBalanceRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
+import com.finance.manager.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static com.finance.manager.enums.AggregateDimension.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AggregationServiceTest {
+
+    @Mock
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private LedgerStore ledgerStore;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @InjectMocks
+    private AggregationService aggregationService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("test@example.com").build();
+        ReflectionTestUtils.setField(aggregationService, "parallelThreshold", 50_000);
+    }
+
+    @Test
+    void chooseSource_PicksCheapestSourceForDimensionsAndRange() {
+        LocalDate jan1 = LocalDate.of(2024, 1, 1);
+        LocalDate feb29 = LocalDate.of(2024, 2, 29);
+        LocalDate feb28 = LocalDate.of(2024, 2, 28);
+
+        assertEquals(AggregateSource.MONTHLY_ROLLUPS,
+                AggregationService.chooseSource(jan1, feb29, List.of(CATEGORY, MONTH)));
+        assertEquals(AggregateSource.MONTHLY_ROLLUPS, AggregationService.chooseSource(jan1, feb29, List.of()));
+        assertEquals(AggregateSource.TRANSACTIONS_BY_MONTH,
+                AggregationService.chooseSource(jan1, feb28, List.of(CATEGORY, MONTH)));
+        assertEquals(AggregateSource.DAILY_BALANCES,
+                AggregationService.chooseSource(jan1, feb28, List.of(YEAR, MONTH)));
+        assertEquals(AggregateSource.DAILY_BALANCES,
+                AggregationService.chooseSource(jan1, feb29, List.of(WEEK, DAY_OF_WEEK)));
+        assertEquals(AggregateSource.TRANSACTIONS_BY_DAY,
+                AggregationService.chooseSource(jan1, feb29, List.of(TYPE, DAY_OF_WEEK)));
+    }
+
+    @Test
+    void aggregate_WholeMonths_GroupsRollups() {
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 3)).thenReturn(Arrays.asList(
+                new RollupTotal(2024, 1, TransactionType.EXPENSE, 1L, "Food", new BigDecimal("100.00"), 4L),
+                new RollupTotal(2024, 2, TransactionType.EXPENSE, 1L, "Food", new BigDecimal("50.25"), 2L),
+                new RollupTotal(2024, 2, TransactionType.INCOME, 2L, "Salary", new BigDecimal("3000.00"), 1L)));
+
+        Aggregation result = aggregationService.aggregate(user, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31),
+                List.of(CATEGORY));
+
+        assertEquals(AggregateSource.MONTHLY_ROLLUPS, result.getSource());
+        assertEquals(2, result.getGroups().size());
+        Aggregation.Group food = result.getGroups().get(0);
+        assertEquals("Food", food.key().get(CATEGORY));
+        assertEquals(15025L, food.expenses());
+        assertEquals(0L, food.income());
+        assertEquals(6L, food.count());
+        assertEquals(300000L, result.getGroups().get(1).income());
+        verifyNoInteractions(transactionRepository, dailyBalanceRepository);
+    }
+
+    @Test
+    void aggregate_WeekAndDayOfWeek_GroupsDays() {
+        // 2024-12-30 (Monday) is in ISO week 1 of 2025; 2024-12-29 (Sunday) in week 52 of 2024.
+        when(transactionRepository.sumByDayBetween(user, LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 7)))
+                .thenReturn(Arrays.asList(
+                        new DatedTotal(LocalDate.of(2024, 12, 29), TransactionType.EXPENSE, "Food",
+                                new BigDecimal("10.00"), 1L),
+                        new DatedTotal(LocalDate.of(2024, 12, 30), TransactionType.EXPENSE, "Food",
+                                new BigDecimal("20.00"), 1L),
+                        new DatedTotal(LocalDate.of(2025, 1, 6), TransactionType.EXPENSE, "Food",
+                                new BigDecimal("5.00"), 2L)));
+
+        Aggregation result = aggregationService.aggregate(user, LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 6),
+                List.of(CATEGORY, WEEK));
+
+        assertEquals(AggregateSource.TRANSACTIONS_BY_DAY, result.getSource());
+        assertEquals(Arrays.asList("2024-W52", "2025-W01", "2025-W02"), result.getGroups().stream()
+                .map(group -> group.key().get(WEEK)).toList());
+
+        Aggregation byWeekday = aggregationService.aggregate(user, LocalDate.of(2024, 12, 20),
+                LocalDate.of(2025, 1, 6), List.of(DAY_OF_WEEK, TYPE));
+
+        assertEquals(2, byWeekday.getGroups().size());
+        assertEquals(DayOfWeek.MONDAY, byWeekday.getGroups().get(0).key().get(DAY_OF_WEEK));
+        assertEquals(2500L, byWeekday.getGroups().get(0).expenses());
+        assertEquals(3L, byWeekday.getGroups().get(0).count());
+        assertEquals(DayOfWeek.SUNDAY, byWeekday.getGroups().get(1).key().get(DAY_OF_WEEK));
+    }
+
+    @Test
+    void aggregate_WithLedger_GroupsLedgerInsteadOfQuerying() {
+        when(ledgerStore.get(user)).thenReturn(new Ledger(Arrays.asList(
+                new LedgerRow(1L, LocalDate.of(2024, 12, 29), new BigDecimal("10.00"), 7L, "Food",
+                        TransactionType.EXPENSE),
+                new LedgerRow(2L, LocalDate.of(2024, 12, 30), new BigDecimal("20.00"), 7L, "Food",
+                        TransactionType.EXPENSE),
+                new LedgerRow(3L, LocalDate.of(2025, 1, 6), new BigDecimal("5.00"), 7L, "Food",
+                        TransactionType.EXPENSE),
+                new LedgerRow(4L, LocalDate.of(2025, 1, 7), new BigDecimal("99.00"), 7L, "Food",
+                        TransactionType.EXPENSE))));
+
+        Aggregation result = aggregationService.aggregate(user, LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 6),
+                List.of(CATEGORY, WEEK));
+
+        assertEquals(AggregateSource.TRANSACTIONS_BY_DAY, result.getSource());
+        assertEquals(Arrays.asList(1000L, 2000L, 500L), result.getGroups().stream()
+                .map(Aggregation.Group::expenses).toList());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void aggregate_WithoutCategory_ReadsDailyBalances() {
+        when(dailyBalanceRepository.findBetween(user, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 16)))
+                .thenReturn(Arrays.asList(
+                        day(LocalDate.of(2024, 1, 20), "1000.00", "200.00", 3),
+                        day(LocalDate.of(2024, 1, 21), "0.00", "0.00", 0),
+                        day(LocalDate.of(2024, 2, 1), "0.00", "75.50", 1)));
+
+        Aggregation result = aggregationService.aggregate(user, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 15),
+                List.of(MONTH));
+
+        assertEquals(AggregateSource.DAILY_BALANCES, result.getSource());
+        assertEquals(2, result.getGroups().size());
+        assertEquals(80000L, result.getGroups().get(0).net());
+        assertEquals(3L, result.getGroups().get(0).count());
+        assertEquals(-7550L, result.getGroups().get(1).net());
+    }
+
+    @Test
+    void aggregate_NoDimensions_ReturnsSingleTotal() {
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 12)).thenReturn(Arrays.asList(
+                new RollupTotal(2024, 1, TransactionType.EXPENSE, 1L, "Food", new BigDecimal("100.00"), 4L),
+                new RollupTotal(2024, 5, TransactionType.INCOME, 2L, "Salary", new BigDecimal("3000.00"), 1L)));
+
+        Aggregation result = aggregationService.aggregate(user, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31),
+                List.of());
+
+        assertEquals(1, result.getGroups().size());
+        assertTrue(result.getGroups().get(0).key().isEmpty());
+        assertEquals(290000L, result.getGroups().get(0).net());
+        assertEquals(5L, result.getGroups().get(0).count());
+    }
+
+    @Test
+    void of_ParallelAndSequential_GiveSameGroups() {
+        Random random = new Random(42);
+        String[] categories = {"Food", "Rent", "Salary", "Travel"};
+        List<Aggregation.Fact> facts = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDate date = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1500));
+            boolean income = random.nextInt(4) == 0;
+            long amount = 1 + random.nextInt(100_000);
+            facts.add(new Aggregation.Fact(date.getYear(), date.getMonthValue(), date,
+                    income ? TransactionType.INCOME : TransactionType.EXPENSE, categories[random.nextInt(4)],
+                    income ? amount : 0L, income ? 0L : amount, 1L));
+        }
+        List<AggregateDimension> dimensions = List.of(YEAR, CATEGORY, DAY_OF_WEEK);
+
+        Aggregation sequential = Aggregation.of(dimensions, AggregateSource.TRANSACTIONS_BY_DAY, facts, Integer.MAX_VALUE);
+        Aggregation parallel = Aggregation.of(dimensions, AggregateSource.TRANSACTIONS_BY_DAY, facts, 0);
+
+        assertEquals(sequential.getGroups(), parallel.getGroups());
+        assertEquals(facts.size(), parallel.getGroups().stream().mapToLong(Aggregation.Group::count).sum());
+    }
+
+    private static DailyBalance day(LocalDate date, String income, String expenses, long count) {
+        return DailyBalance.builder()
+                .date(date)
+                .income(new BigDecimal(income))
+                .expenses(new BigDecimal(expenses))
+                .count(count)
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.projection.DailyTotal;
+import com.finance.manager.dto.response.BalancePoint;
+import com.finance.manager.dto.response.BalanceSeriesResponse;
+import com.finance.manager.entity.User;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.repository.DailyBalanceRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceServiceTest {
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @InjectMocks
+    private BalanceService balanceService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("test@example.com").build();
+        ReflectionTestUtils.setField(balanceService, "maxPoints", 1000);
+    }
+
+    @Test
+    void getBalanceSeries_Daily_FillsEmptyDaysAndRunsBalance() {
+        when(monthlyRollupRepository.sumNetBefore(user, 2024, 3)).thenReturn(new BigDecimal("1000.00"));
+        when(dailyBalanceRepository.findTotalsBetween(user, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 5)))
+                .thenReturn(List.of(
+                        total("2024-03-01", "500.00", "100.00"),
+                        total("2024-03-03", "0.00", "50.25")));
+
+        BalanceSeriesResponse response = balanceService.getBalanceSeries(user, "2024-03-01", "2024-03-04", "day");
+
+        assertEquals(new BigDecimal("1000.00"), response.getOpeningBalance());
+        assertEquals(new BigDecimal("1349.75"), response.getClosingBalance());
+        assertEquals("day", response.getGranularity());
+        List<BalancePoint> points = response.getPoints();
+        assertEquals(4, points.size());
+        assertEquals(new BigDecimal("1400.00"), points.get(0).getBalance());
+        assertEquals(new BigDecimal("400.00"), points.get(0).getNet());
+        assertEquals(new BigDecimal("0.00"), points.get(1).getNet());
+        assertEquals(new BigDecimal("1400.00"), points.get(1).getBalance());
+        assertEquals(new BigDecimal("1349.75"), points.get(2).getBalance());
+        assertEquals("2024-03-04", points.get(3).getStart());
+        verify(dailyBalanceRepository, never()).sumNetBetween(any(), any(), any());
+    }
+
+    @Test
+    void getBalanceSeries_MidMonthStart_AddsMonthToDateOpening() {
+        when(monthlyRollupRepository.sumNetBefore(user, 2024, 3)).thenReturn(new BigDecimal("1000.00"));
+        when(dailyBalanceRepository.sumNetBetween(user, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15)))
+                .thenReturn(new BigDecimal("-200.00"));
+        when(dailyBalanceRepository.findTotalsBetween(any(), any(), any())).thenReturn(List.of());
+
+        BalanceSeriesResponse response = balanceService.getBalanceSeries(user, "2024-03-15", "2024-03-15", "day");
+
+        assertEquals(new BigDecimal("800.00"), response.getOpeningBalance());
+        assertEquals(new BigDecimal("800.00"), response.getClosingBalance());
+    }
+
+    @Test
+    void getBalanceSeries_Weekly_ClipsFirstAndLastBuckets() {
+        when(monthlyRollupRepository.sumNetBefore(any(), anyInt(), anyInt())).thenReturn(BigDecimal.ZERO);
+        when(dailyBalanceRepository.sumNetBetween(any(), any(), any())).thenReturn(BigDecimal.ZERO);
+        // 2024-03-06 is a Wednesday
+        when(dailyBalanceRepository.findTotalsBetween(user, LocalDate.of(2024, 3, 6), LocalDate.of(2024, 3, 20)))
+                .thenReturn(List.of(
+                        total("2024-03-06", "10.00", "0.00"),
+                        total("2024-03-10", "5.00", "0.00"),
+                        total("2024-03-11", "0.00", "3.00"),
+                        total("2024-03-19", "1.00", "0.00")));
+
+        BalanceSeriesResponse response = balanceService.getBalanceSeries(user, "2024-03-06", "2024-03-19", "WEEK");
+
+        List<BalancePoint> points = response.getPoints();
+        assertEquals(3, points.size());
+        assertEquals("2024-03-06", points.get(0).getStart());
+        assertEquals("2024-03-10", points.get(0).getEnd());
+        assertEquals(new BigDecimal("15.00"), points.get(0).getIncome());
+        assertEquals("2024-03-11", points.get(1).getStart());
+        assertEquals("2024-03-17", points.get(1).getEnd());
+        assertEquals(new BigDecimal("3.00"), points.get(1).getExpenses());
+        assertEquals("2024-03-18", points.get(2).getStart());
+        assertEquals("2024-03-19", points.get(2).getEnd());
+        assertEquals(new BigDecimal("13.00"), response.getClosingBalance());
+    }
+
+    @Test
+    void getBalanceSeries_Monthly_OneBucketPerMonth() {
+        when(monthlyRollupRepository.sumNetBefore(user, 2024, 1)).thenReturn(BigDecimal.ZERO);
+        when(dailyBalanceRepository.findTotalsBetween(any(), any(), any())).thenReturn(List.of(
+                total("2024-01-31", "100.00", "0.00"),
+                total("2024-02-01", "0.00", "40.00"),
+                total("2024-03-31", "0.00", "10.00")));
+
+        BalanceSeriesResponse response = balanceService.getBalanceSeries(user, "2024-01-01", "2024-03-31", "month");
+
+        List<BalancePoint> points = response.getPoints();
+        assertEquals(3, points.size());
+        assertEquals("2024-02-29", points.get(1).getEnd());
+        assertEquals(new BigDecimal("100.00"), points.get(0).getBalance());
+        assertEquals(new BigDecimal("60.00"), points.get(1).getBalance());
+        assertEquals(new BigDecimal("50.00"), points.get(2).getBalance());
+    }
+
+    @Test
+    void getBalanceSeries_MissingDates_ThrowsException() {
+        assertThrows(InvalidRequestException.class,
+                () -> balanceService.getBalanceSeries(user, null, "2024-03-01", "day"));
+    }
+
+    @Test
+    void getBalanceSeries_FromAfterTo_ThrowsException() {
+        assertThrows(InvalidRequestException.class,
+                () -> balanceService.getBalanceSeries(user, "2024-03-02", "2024-03-01", "day"));
+    }
+
+    @Test
+    void getBalanceSeries_InvalidGranularity_ThrowsException() {
+        assertThrows(InvalidRequestException.class,
+                () -> balanceService.getBalanceSeries(user, "2024-03-01", "2024-03-02", "year"));
+    }
+
+    @Test
+    void validateBalanceSeries_InvalidParameters_ThrowWithoutQuerying() {
+        assertThrows(InvalidRequestException.class,
+                () -> balanceService.validateBalanceSeries("2024-03-01", "31-03-2024", "day"));
+        assertThrows(InvalidRequestException.class,
+                () -> balanceService.validateBalanceSeries("2024-03-01", "2024-03-31", "year"));
+        balanceService.validateBalanceSeries("2024-03-01", "2024-03-31", "week");
+
+        verifyNoInteractions(dailyBalanceRepository, monthlyRollupRepository);
+    }
+
+    @Test
+    void getBalanceSeries_TooManyPoints_ThrowsException() {
+        ReflectionTestUtils.setField(balanceService, "maxPoints", 31);
+
+        assertThrows(InvalidRequestException.class,
+                () -> balanceService.getBalanceSeries(user, "2024-01-01", "2024-02-01", "day"));
+        verifyNoInteractions(dailyBalanceRepository, monthlyRollupRepository);
+    }
+
+    private static DailyTotal total(String date, String income, String expenses) {
+        return new DailyTotal(LocalDate.parse(date), new BigDecimal(income), new BigDecimal(expenses));
+    }
+}
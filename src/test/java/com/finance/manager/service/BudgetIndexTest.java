@@ -0,0 +1,77 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.projection.BudgetPeriod;
+import com.finance.manager.entity.User;
+import com.finance.manager.repository.BudgetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetIndexTest {
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("test@example.com").build();
+    }
+
+    @Test
+    void contains_LoadsUserOnce() {
+        when(budgetRepository.findPeriodsByUser(user)).thenReturn(List.of(new BudgetPeriod(5L, 2024, 3)));
+        BudgetIndex index = new BudgetIndex(budgetRepository, 10);
+
+        assertTrue(index.contains(user, 5L, 2024, 3));
+        assertFalse(index.contains(user, 5L, 2024, 4));
+        assertFalse(index.contains(user, 6L, 2024, 3));
+        verify(budgetRepository, times(1)).findPeriodsByUser(user);
+    }
+
+    @Test
+    void addedAndRemoved_UpdateLoadedUser() {
+        when(budgetRepository.findPeriodsByUser(user)).thenReturn(List.of(new BudgetPeriod(5L, 2024, 3)));
+        BudgetIndex index = new BudgetIndex(budgetRepository, 10);
+        index.contains(user, 5L, 2024, 3);
+
+        index.addedAfterCommit(1L, 6L, 2024, 3);
+        index.removedAfterCommit(1L, 5L, 2024, 3);
+
+        assertTrue(index.contains(user, 6L, 2024, 3));
+        assertFalse(index.contains(user, 5L, 2024, 3));
+        verify(budgetRepository, times(1)).findPeriodsByUser(user);
+    }
+
+    @Test
+    void contains_ChangedWhileLoading_DoesNotStoreStaleSet() {
+        BudgetIndex index = new BudgetIndex(budgetRepository, 10);
+        when(budgetRepository.findPeriodsByUser(user)).thenAnswer(invocation -> {
+            index.addedAfterCommit(1L, 6L, 2024, 3);
+            return List.of();
+        }).thenReturn(List.of(new BudgetPeriod(6L, 2024, 3)));
+
+        assertFalse(index.contains(user, 6L, 2024, 3));
+        assertTrue(index.contains(user, 6L, 2024, 3));
+    }
+
+    @Test
+    void contains_FullCache_EvictsLeastRecentlyUsedUser() {
+        User other = User.builder().id(2L).username("other@example.com").build();
+        when(budgetRepository.findPeriodsByUser(any())).thenReturn(List.of());
+        BudgetIndex index = new BudgetIndex(budgetRepository, 1);
+
+        index.contains(user, 5L, 2024, 3);
+        index.contains(other, 5L, 2024, 3);
+        index.contains(user, 5L, 2024, 3);
+
+        verify(budgetRepository, times(2)).findPeriodsByUser(user);
+    }
+}
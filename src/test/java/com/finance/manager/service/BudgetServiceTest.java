@@ -0,0 +1,258 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.projection.BudgetUsage;
+import com.finance.manager.dto.request.BudgetRequest;
+import com.finance.manager.dto.request.BudgetUpdateRequest;
+import com.finance.manager.dto.response.BudgetListResponse;
+import com.finance.manager.dto.response.BudgetResponse;
+import com.finance.manager.dto.response.BudgetStatusResponse;
+import com.finance.manager.dto.response.MessageResponse;
+import com.finance.manager.entity.Budget;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.exception.DuplicateResourceException;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.exception.ResourceNotFoundException;
+import com.finance.manager.repository.BudgetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetServiceTest {
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private BudgetIndex budgetIndex;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @InjectMocks
+    private BudgetService budgetService;
+
+    private User user;
+    private Category food;
+    private Category salary;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("test@example.com").build();
+        food = Category.builder().id(1L).name("Food").type(TransactionType.EXPENSE).build();
+        salary = Category.builder().id(2L).name("Salary").type(TransactionType.INCOME).build();
+    }
+
+    @Test
+    void createBudget_Success() {
+        when(categoryService.findCategoryByName("Food", user)).thenReturn(food);
+        when(budgetRepository.save(any(Budget.class))).thenAnswer(invocation -> {
+            Budget budget = invocation.getArgument(0);
+            budget.setId(7L);
+            return budget;
+        });
+        when(budgetRepository.findUsageByIdAndUser(7L, user)).thenReturn(Optional.of(
+                new BudgetUsage(7L, "Food", 2024, 3, new BigDecimal("400.00"), new BigDecimal("150.50"))));
+
+        BudgetResponse response = budgetService.createBudget(request("Food", 2024, 3, "400.00"), user);
+
+        ArgumentCaptor<Budget> saved = ArgumentCaptor.forClass(Budget.class);
+        verify(budgetRepository).save(saved.capture());
+        assertSame(food, saved.getValue().getCategory());
+        assertEquals(2024, saved.getValue().getYear());
+        assertEquals(3, saved.getValue().getMonth());
+        assertEquals(new BigDecimal("150.50"), response.getSpent());
+        assertEquals(new BigDecimal("249.50"), response.getRemaining());
+        assertFalse(response.isOverBudget());
+        verify(budgetIndex).addedAfterCommit(1L, 1L, 2024, 3);
+        verify(dataVersions).bumpAfterCommit(1L);
+    }
+
+    @Test
+    void createBudget_IncomeCategory_ThrowsException() {
+        when(categoryService.findCategoryByName("Salary", user)).thenReturn(salary);
+
+        assertThrows(InvalidRequestException.class,
+                () -> budgetService.createBudget(request("Salary", 2024, 3, "400.00"), user));
+        verify(budgetRepository, never()).save(any());
+    }
+
+    @Test
+    void createBudget_Duplicate_ThrowsException() {
+        when(categoryService.findCategoryByName("Food", user)).thenReturn(food);
+        when(budgetRepository.existsByUserAndCategoryAndYearAndMonth(user, food, 2024, 3)).thenReturn(true);
+
+        assertThrows(DuplicateResourceException.class,
+                () -> budgetService.createBudget(request("Food", 2024, 3, "400.00"), user));
+        verify(budgetRepository, never()).save(any());
+    }
+
+    @Test
+    void getBudgets_WithoutPeriod_ListsAll() {
+        when(budgetRepository.findUsageByUser(user)).thenReturn(Arrays.asList(
+                new BudgetUsage(1L, "Food", 2024, 3, new BigDecimal("400.00"), BigDecimal.ZERO),
+                new BudgetUsage(2L, "Food", 2024, 2, new BigDecimal("400.00"), new BigDecimal("410.00"))));
+
+        BudgetListResponse response = budgetService.getBudgets(null, null, user);
+
+        assertEquals(2, response.getBudgets().size());
+        assertTrue(response.getBudgets().get(1).isOverBudget());
+        assertEquals(new BigDecimal("-10.00"), response.getBudgets().get(1).getRemaining());
+    }
+
+    @Test
+    void getBudgets_YearWithoutMonth_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> budgetService.getBudgets(2024, null, user));
+    }
+
+    @Test
+    void getStatus_SumsBudgetsOfMonth() {
+        when(budgetRepository.findUsageForMonth(user, 2024, 3)).thenReturn(Arrays.asList(
+                new BudgetUsage(1L, "Food", 2024, 3, new BigDecimal("400.00"), new BigDecimal("450.25")),
+                new BudgetUsage(2L, "Transport", 2024, 3, new BigDecimal("100.00"), new BigDecimal("20.00"))));
+
+        BudgetStatusResponse status = budgetService.getStatus(2024, 3, user);
+
+        assertEquals(new BigDecimal("500.00"), status.getTotalBudgeted());
+        assertEquals(new BigDecimal("470.25"), status.getTotalSpent());
+        assertEquals(new BigDecimal("29.75"), status.getTotalRemaining());
+        assertEquals(1, status.getOverBudgetCount());
+        assertEquals(2, status.getBudgets().size());
+    }
+
+    @Test
+    void getStatus_WithoutPeriod_UsesCurrentMonth() {
+        YearMonth now = YearMonth.now();
+        when(budgetRepository.findUsageForMonth(user, now.getYear(), now.getMonthValue()))
+                .thenReturn(Arrays.asList());
+
+        BudgetStatusResponse status = budgetService.getStatus(null, null, user);
+
+        assertEquals(now.getMonthValue(), status.getMonth());
+        assertEquals(new BigDecimal("0.00"), status.getTotalBudgeted());
+    }
+
+    @Test
+    void getStatus_InvalidMonth_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> budgetService.getStatus(2024, 13, user));
+    }
+
+    @Test
+    void getStatus_YearOutOfRange_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> budgetService.getStatus(1899, 3, user));
+        assertThrows(InvalidRequestException.class, () -> budgetService.getStatus(1_000_000_000, 3, user));
+        assertThrows(InvalidRequestException.class, () -> budgetService.validateBudgetQuery(10000, 1));
+        verifyNoInteractions(budgetRepository);
+    }
+
+    @Test
+    void statusPeriod_ResolvesGivenOrCurrentMonth() {
+        assertEquals(YearMonth.of(2024, 3), budgetService.statusPeriod(2024, 3));
+        assertEquals(YearMonth.now(), budgetService.statusPeriod(null, null));
+        assertThrows(InvalidRequestException.class, () -> budgetService.statusPeriod(2024, null));
+    }
+
+    @Test
+    void validateBudgetQuery_AcceptsNoPeriodOrAFullOne() {
+        budgetService.validateBudgetQuery(null, null);
+        budgetService.validateBudgetQuery(2024, 3);
+        assertThrows(InvalidRequestException.class, () -> budgetService.validateBudgetQuery(2024, 13));
+        assertThrows(InvalidRequestException.class, () -> budgetService.validateBudgetQuery(null, 3));
+    }
+
+    @Test
+    void updateBudget_Success() {
+        Budget budget = Budget.builder().id(7L).user(user).category(food).year(2024).month(3)
+                .amount(new BigDecimal("400.00")).build();
+        when(budgetRepository.findByIdAndUser(7L, user)).thenReturn(Optional.of(budget));
+        when(budgetRepository.findUsageByIdAndUser(7L, user)).thenReturn(Optional.of(
+                new BudgetUsage(7L, "Food", 2024, 3, new BigDecimal("100.00"), new BigDecimal("150.00"))));
+
+        BudgetResponse response = budgetService.updateBudget(7L, new BudgetUpdateRequest(new BigDecimal("100.00")), user);
+
+        assertEquals(new BigDecimal("100.00"), budget.getAmount());
+        assertTrue(response.isOverBudget());
+        verify(dataVersions).bumpAfterCommit(1L);
+    }
+
+    @Test
+    void deleteBudget_NotFound_ThrowsException() {
+        when(budgetRepository.findByIdAndUser(9L, user)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> budgetService.deleteBudget(9L, user));
+        verify(budgetRepository, never()).delete(any());
+    }
+
+    @Test
+    void deleteBudget_Success() {
+        Budget budget = Budget.builder().id(7L).user(user).category(food).year(2024).month(3).build();
+        when(budgetRepository.findByIdAndUser(7L, user)).thenReturn(Optional.of(budget));
+
+        MessageResponse response = budgetService.deleteBudget(7L, user);
+
+        assertEquals("Budget deleted successfully", response.getMessage());
+        verify(budgetRepository).delete(budget);
+        verify(budgetIndex).removedAfterCommit(1L, 1L, 2024, 3);
+        verify(dataVersions).bumpAfterCommit(1L);
+    }
+
+    @Test
+    void statusAfterCreate_ExpenseWithBudget_ReturnsStatus() {
+        when(budgetIndex.contains(user, 1L, 2024, 3)).thenReturn(true);
+        when(budgetRepository.findUsage(user, food, 2024, 3)).thenReturn(Optional.of(
+                new BudgetUsage(7L, "Food", 2024, 3, new BigDecimal("400.00"), new BigDecimal("400.00"))));
+
+        BudgetResponse status = budgetService.statusAfterCreate(user, food, LocalDate.of(2024, 3, 31));
+
+        assertEquals(new BigDecimal("0.00"), status.getRemaining());
+        assertFalse(status.isOverBudget());
+    }
+
+    @Test
+    void statusAfterCreate_WithoutBudget_SkipsQuery() {
+        when(budgetIndex.contains(user, 1L, 2024, 3)).thenReturn(false);
+
+        assertNull(budgetService.statusAfterCreate(user, food, LocalDate.of(2024, 3, 1)));
+        verifyNoInteractions(budgetRepository);
+    }
+
+    @Test
+    void statusAfterCreate_BudgetDeletedConcurrently_ReturnsNull() {
+        when(budgetIndex.contains(user, 1L, 2024, 3)).thenReturn(true);
+        when(budgetRepository.findUsage(user, food, 2024, 3)).thenReturn(Optional.empty());
+
+        assertNull(budgetService.statusAfterCreate(user, food, LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    void statusAfterCreate_Income_SkipsQuery() {
+        assertNull(budgetService.statusAfterCreate(user, salary, LocalDate.of(2024, 3, 1)));
+        verifyNoInteractions(budgetIndex, budgetRepository);
+    }
+
+    private BudgetRequest request(String category, int year, int month, String amount) {
+        return BudgetRequest.builder()
+                .category(category)
+                .year(year)
+                .month(month)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
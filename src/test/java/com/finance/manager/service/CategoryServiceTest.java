@@ -1,5 +1,6 @@
 package com.finance.manager.service;
 
+import com.finance.manager.archive.ArchiveStore;
 import com.finance.manager.dto.request.CategoryRequest;
 import com.finance.manager.dto.response.CategoryListResponse;
 import com.finance.manager.dto.response.CategoryResponse;
@@ -11,12 +12,16 @@ import com.finance.manager.exception.DuplicateResourceException;
 import com.finance.manager.exception.ForbiddenException;
 import com.finance.manager.exception.InvalidRequestException;
 import com.finance.manager.exception.ResourceNotFoundException;
+import com.finance.manager.journal.TransactionJournal;
+import com.finance.manager.repository.BudgetRepository;
 import com.finance.manager.repository.CategoryRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
 import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Arrays;
@@ -35,7 +40,24 @@ class CategoryServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
-    @InjectMocks
+    @Mock
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Mock
+    private DataVersions dataVersions;
+
     private CategoryService categoryService;
 
     private User user;
@@ -64,13 +86,17 @@ class CategoryServiceTest {
                 .custom(true)
                 .user(user)
                 .build();
+
+        lenient().when(categoryRepository.findByUserIsNull()).thenReturn(Arrays.asList(defaultCategory));
+        lenient().when(categoryRepository.findByUser(user)).thenReturn(Arrays.asList(customCategory));
+
+        categoryService = new CategoryService(categoryRepository, transactionRepository, monthlyRollupRepository, budgetRepository,
+                userRepository, new CategoryDictionary(categoryRepository, 100), archiveStore, transactionJournal,
+                dataVersions);
     }
 
     @Test
     void getAllCategories_Success() {
-        when(categoryRepository.findByUserIsNull()).thenReturn(Arrays.asList(defaultCategory));
-        when(categoryRepository.findByUser(user)).thenReturn(Arrays.asList(customCategory));
-
         CategoryListResponse response = categoryService.getAllCategories(user);
 
         assertNotNull(response);
@@ -84,13 +110,13 @@ class CategoryServiceTest {
                 .type("INCOME")
                 .build();
 
-        when(categoryRepository.existsByNameForUser(anyString(), any(User.class))).thenReturn(false);
         when(categoryRepository.save(any(Category.class))).thenReturn(customCategory);
 
         CategoryResponse response = categoryService.createCategory(request, user);
 
         assertNotNull(response);
         verify(categoryRepository).save(any(Category.class));
+        verify(dataVersions).bumpAfterCommit(1L);
     }
 
     @Test
@@ -100,34 +126,34 @@ class CategoryServiceTest {
                 .type("INCOME")
                 .build();
 
-        when(categoryRepository.existsByNameForUser(anyString(), any(User.class))).thenReturn(true);
-
         assertThrows(DuplicateResourceException.class, () -> categoryService.createCategory(request, user));
     }
 
     @Test
     void deleteCategory_Success() {
-        when(categoryRepository.findByNameAndUserIsNull("Freelance")).thenReturn(Optional.empty());
         when(categoryRepository.findByNameAndUser("Freelance", user)).thenReturn(Optional.of(customCategory));
-        when(transactionRepository.existsByUserAndCategory(user, "Freelance")).thenReturn(false);
+        when(transactionRepository.existsByUserAndCategory(user, customCategory)).thenReturn(false);
 
         MessageResponse response = categoryService.deleteCategory("Freelance", user);
 
         assertNotNull(response);
         assertEquals("Category deleted successfully", response.getMessage());
+        InOrder order = inOrder(userRepository, transactionRepository, monthlyRollupRepository);
+        order.verify(userRepository).lockById(1L);
+        order.verify(transactionRepository).existsByUserAndCategory(user, customCategory);
+        order.verify(monthlyRollupRepository).deleteByCategory(customCategory);
+        verify(budgetRepository).deleteByCategory(customCategory);
         verify(categoryRepository).delete(customCategory);
     }
 
     @Test
     void deleteCategory_DefaultCategory_ThrowsException() {
-        when(categoryRepository.findByNameAndUserIsNull("Salary")).thenReturn(Optional.of(defaultCategory));
-
         assertThrows(ForbiddenException.class, () -> categoryService.deleteCategory("Salary", user));
+        verify(categoryRepository, never()).delete(any());
     }
 
     @Test
     void deleteCategory_NotFound_ThrowsException() {
-        when(categoryRepository.findByNameAndUserIsNull("Unknown")).thenReturn(Optional.empty());
         when(categoryRepository.findByNameAndUser("Unknown", user)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> categoryService.deleteCategory("Unknown", user));
@@ -135,17 +161,28 @@ class CategoryServiceTest {
 
     @Test
     void deleteCategory_InUse_ThrowsException() {
-        when(categoryRepository.findByNameAndUserIsNull("Freelance")).thenReturn(Optional.empty());
         when(categoryRepository.findByNameAndUser("Freelance", user)).thenReturn(Optional.of(customCategory));
-        when(transactionRepository.existsByUserAndCategory(user, "Freelance")).thenReturn(true);
+        when(transactionRepository.existsByUserAndCategory(user, customCategory)).thenReturn(true);
 
         assertThrows(InvalidRequestException.class, () -> categoryService.deleteCategory("Freelance", user));
+        InOrder order = inOrder(transactionJournal, userRepository, transactionRepository);
+        order.verify(transactionJournal).awaitProjected();
+        order.verify(userRepository).lockById(1L);
+        order.verify(transactionRepository).existsByUserAndCategory(user, customCategory);
     }
 
     @Test
-    void findCategoryByName_Success() {
-        when(categoryRepository.findByNameAndUser("Salary", user)).thenReturn(Optional.of(defaultCategory));
+    void deleteCategory_UsedOnlyByArchivedTransactions_ThrowsException() {
+        when(categoryRepository.findByNameAndUser("Freelance", user)).thenReturn(Optional.of(customCategory));
+        when(archiveStore.usesCategory(1L, customCategory.getId())).thenReturn(true);
 
+        assertThrows(InvalidRequestException.class, () -> categoryService.deleteCategory("Freelance", user));
+        verify(monthlyRollupRepository, never()).deleteByCategory(any());
+        verify(categoryRepository, never()).delete(any());
+    }
+
+    @Test
+    void findCategoryByName_Success() {
         Category result = categoryService.findCategoryByName("Salary", user);
 
         assertNotNull(result);
@@ -154,23 +191,62 @@ class CategoryServiceTest {
 
     @Test
     void findCategoryByName_NotFound_ThrowsException() {
-        when(categoryRepository.findByNameAndUser("Unknown", user)).thenReturn(Optional.empty());
-
         assertThrows(ResourceNotFoundException.class, () -> categoryService.findCategoryByName("Unknown", user));
     }
 
     @Test
     void categoryExistsForUser_ReturnsTrue() {
-        when(categoryRepository.existsByNameForUser("Salary", user)).thenReturn(true);
-
         assertTrue(categoryService.categoryExistsForUser("Salary", user));
     }
 
     @Test
     void categoryExistsForUser_ReturnsFalse() {
-        when(categoryRepository.existsByNameForUser("Unknown", user)).thenReturn(false);
-
         assertFalse(categoryService.categoryExistsForUser("Unknown", user));
     }
-}
 
+    @Test
+    void findCategoryByName_RepeatedLookups_LoadOnce() {
+        categoryService.findCategoryByName("Salary", user);
+        categoryService.findCategoryByName("Freelance", user);
+        Category result = categoryService.findCategoryByName("Freelance", user);
+
+        assertEquals(TransactionType.INCOME, result.getType());
+        verify(categoryRepository, times(1)).findByUserIsNull();
+        verify(categoryRepository, times(1)).findByUser(user);
+        verify(categoryRepository, never()).findByNameAndUser(any(), any());
+    }
+
+    @Test
+    void createCategory_VisibleToLaterLookups() {
+        CategoryRequest request = CategoryRequest.builder()
+                .name("Investment")
+                .type("INCOME")
+                .build();
+        Category investment = Category.builder()
+                .id(3L)
+                .name("Investment")
+                .type(TransactionType.INCOME)
+                .custom(true)
+                .user(user)
+                .build();
+        when(categoryRepository.save(any(Category.class))).thenReturn(investment);
+
+        categoryService.getAllCategories(user);
+        categoryService.createCategory(request, user);
+
+        assertEquals(3L, categoryService.findCategoryByName("Investment", user).getId());
+        assertEquals(3, categoryService.getAllCategories(user).getCategories().size());
+        verify(categoryRepository, times(1)).findByUser(user);
+    }
+
+    @Test
+    void deleteCategory_RemovedFromLaterLookups() {
+        when(categoryRepository.findByNameAndUser("Freelance", user)).thenReturn(Optional.of(customCategory));
+        when(transactionRepository.existsByUserAndCategory(user, customCategory)).thenReturn(false);
+        assertTrue(categoryService.categoryExistsForUser("Freelance", user));
+
+        categoryService.deleteCategory("Freelance", user);
+
+        assertFalse(categoryService.categoryExistsForUser("Freelance", user));
+    }
+}
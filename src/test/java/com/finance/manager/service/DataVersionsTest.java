@@ -0,0 +1,73 @@
+package com.finance.manager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataVersionsTest {
+
+    private final DataVersions dataVersions = new DataVersions();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bump_IncrementsOnlyThatUser() {
+        dataVersions.bump(1L);
+        dataVersions.bump(1L);
+
+        assertEquals(2, dataVersions.current(1L));
+        assertEquals(0, dataVersions.current(2L));
+    }
+
+    @Test
+    void etag_ChangesWithVersionAndDiffersPerUser() {
+        String before = dataVersions.etag(1L);
+
+        assertNotEquals(before, dataVersions.etag(2L));
+        assertEquals(before, dataVersions.etag(1L));
+
+        dataVersions.bump(1L);
+
+        assertNotEquals(before, dataVersions.etag(1L));
+        assertTrue(before.startsWith("\"") && before.endsWith("\""));
+    }
+
+    @Test
+    void etag_WithScope_DiffersPerScope() {
+        assertNotEquals(dataVersions.etag(1L, "2024-03"), dataVersions.etag(1L, "2024-04"));
+        assertNotEquals(dataVersions.etag(1L), dataVersions.etag(1L, "2024-03"));
+        assertEquals(dataVersions.etag(1L, "2024-03"), dataVersions.etag(1L, "2024-03"));
+    }
+
+    @Test
+    void etag_DiffersBetweenProcesses() {
+        assertNotEquals(new DataVersions().etag(1L), dataVersions.etag(1L));
+    }
+
+    @Test
+    void bumpAfterCommit_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        dataVersions.bumpAfterCommit(1L);
+        assertEquals(0, dataVersions.current(1L));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1, dataVersions.current(1L));
+    }
+
+    @Test
+    void bumpAfterCommit_WithoutTransaction_BumpsImmediately() {
+        dataVersions.bumpAfterCommit(1L);
+
+        assertEquals(1, dataVersions.current(1L));
+    }
+}
@@ -1,5 +1,9 @@
 package com.finance.manager.service;
 
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.dto.projection.DailyNet;
+import com.finance.manager.dto.projection.GoalView;
+import com.finance.manager.dto.projection.LedgerRow;
 import com.finance.manager.dto.request.GoalRequest;
 import com.finance.manager.dto.request.GoalUpdateRequest;
 import com.finance.manager.dto.response.GoalListResponse;
@@ -17,10 +21,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,6 +41,18 @@ class GoalServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private LedgerStore ledgerStore;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight();
+
+    @Mock
+    private DataVersions dataVersions;
+
     @InjectMocks
     private GoalService goalService;
 
@@ -69,16 +87,18 @@ class GoalServiceTest {
     @Test
     void createGoal_Success() {
         when(goalRepository.save(any(Goal.class))).thenReturn(goal);
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(eq(user), eq(TransactionType.INCOME), any()))
-                .thenReturn(new BigDecimal("5000.00"));
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(eq(user), eq(TransactionType.EXPENSE), any()))
-                .thenReturn(new BigDecimal("2000.00"));
+        when(transactionRepository.sumNetByDaySince(user, LocalDate.of(2024, 1, 1)))
+                .thenReturn(Arrays.asList(
+                        new DailyNet(LocalDate.of(2024, 1, 15), new BigDecimal("5000.00")),
+                        new DailyNet(LocalDate.of(2024, 1, 20), new BigDecimal("-2000.00"))));
 
         GoalResponse response = goalService.createGoal(goalRequest, user);
 
         assertNotNull(response);
         assertEquals("Emergency Fund", response.getGoalName());
+        assertEquals(new BigDecimal("3000.00"), response.getCurrentProgress());
         verify(goalRepository).save(any(Goal.class));
+        verify(dataVersions).bumpAfterCommit(1L);
     }
 
     @Test
@@ -90,8 +110,6 @@ class GoalServiceTest {
                 .build();
 
         when(goalRepository.save(any(Goal.class))).thenReturn(goal);
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
 
         GoalResponse response = goalService.createGoal(requestWithoutStart, user);
 
@@ -123,9 +141,7 @@ class GoalServiceTest {
 
     @Test
     void getAllGoals_Success() {
-        when(goalRepository.findByUserOrderByCreatedAtDesc(user)).thenReturn(Arrays.asList(goal));
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+        when(goalRepository.findViewsByUser(user)).thenReturn(Arrays.asList(view(goal)));
 
         GoalListResponse response = goalService.getAllGoals(user);
 
@@ -135,9 +151,7 @@ class GoalServiceTest {
 
     @Test
     void getGoal_Success() {
-        when(goalRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(goal));
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+        when(goalRepository.findViewByIdAndUser(1L, user)).thenReturn(Optional.of(view(goal)));
 
         GoalResponse response = goalService.getGoal(1L, user);
 
@@ -147,7 +161,7 @@ class GoalServiceTest {
 
     @Test
     void getGoal_NotFound_ThrowsException() {
-        when(goalRepository.findByIdAndUser(999L, user)).thenReturn(Optional.empty());
+        when(goalRepository.findViewByIdAndUser(999L, user)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> goalService.getGoal(999L, user));
     }
@@ -160,8 +174,6 @@ class GoalServiceTest {
 
         when(goalRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(goal));
         when(goalRepository.save(any(Goal.class))).thenReturn(goal);
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
 
         GoalResponse response = goalService.updateGoal(1L, updateRequest, user);
 
@@ -177,8 +189,6 @@ class GoalServiceTest {
 
         when(goalRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(goal));
         when(goalRepository.save(any(Goal.class))).thenReturn(goal);
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
 
         GoalResponse response = goalService.updateGoal(1L, updateRequest, user);
 
@@ -228,17 +238,90 @@ class GoalServiceTest {
     }
 
     @Test
-    void progressCalculation_WithNullValues() {
-        when(goalRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(goal));
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(eq(user), eq(TransactionType.INCOME), any()))
-                .thenReturn(null);
-        when(transactionRepository.sumAmountByUserAndTypeAndDateAfter(eq(user), eq(TransactionType.EXPENSE), any()))
-                .thenReturn(null);
+    void progressCalculation_NoTransactions_ReturnsZero() {
+        when(goalRepository.findViewByIdAndUser(1L, user)).thenReturn(Optional.of(view(goal)));
+        when(transactionRepository.sumNetByDaySince(user, LocalDate.of(2024, 1, 1)))
+                .thenReturn(Collections.emptyList());
 
         GoalResponse response = goalService.getGoal(1L, user);
 
         assertNotNull(response);
         assertEquals(BigDecimal.ZERO, response.getCurrentProgress());
     }
-}
 
+    @Test
+    void progressCalculation_NegativeNet_ClampedToZero() {
+        when(goalRepository.findViewByIdAndUser(1L, user)).thenReturn(Optional.of(view(goal)));
+        when(transactionRepository.sumNetByDaySince(user, LocalDate.of(2024, 1, 1)))
+                .thenReturn(Arrays.asList(new DailyNet(LocalDate.of(2024, 2, 1), new BigDecimal("-500.00"))));
+
+        GoalResponse response = goalService.getGoal(1L, user);
+
+        assertEquals(BigDecimal.ZERO, response.getCurrentProgress());
+    }
+
+    @Test
+    void getAllGoals_ManyGoals_SingleProgressQuery() {
+        Goal februaryGoal = Goal.builder()
+                .id(2L)
+                .goalName("Vacation")
+                .targetAmount(new BigDecimal("2000.00"))
+                .targetDate(LocalDate.of(2027, 6, 1))
+                .startDate(LocalDate.of(2024, 2, 1))
+                .user(user)
+                .build();
+        Goal marchGoal = Goal.builder()
+                .id(3L)
+                .goalName("Laptop")
+                .targetAmount(new BigDecimal("1000.00"))
+                .targetDate(LocalDate.of(2027, 6, 1))
+                .startDate(LocalDate.of(2024, 3, 15))
+                .user(user)
+                .build();
+
+        when(goalRepository.findViewsByUser(user))
+                .thenReturn(Arrays.asList(view(goal), view(februaryGoal), view(marchGoal)));
+        when(transactionRepository.sumNetByDaySince(user, LocalDate.of(2024, 1, 1)))
+                .thenReturn(Arrays.asList(
+                        new DailyNet(LocalDate.of(2024, 1, 10), new BigDecimal("1000.00")),
+                        new DailyNet(LocalDate.of(2024, 2, 1), new BigDecimal("500.00")),
+                        new DailyNet(LocalDate.of(2024, 3, 1), new BigDecimal("-200.00")),
+                        new DailyNet(LocalDate.of(2024, 4, 1), new BigDecimal("50.00"))));
+
+        GoalListResponse response = goalService.getAllGoals(user);
+
+        assertEquals(new BigDecimal("1350.00"), response.getGoals().get(0).getCurrentProgress());
+        assertEquals(new BigDecimal("350.00"), response.getGoals().get(1).getCurrentProgress());
+        assertEquals(new BigDecimal("50.00"), response.getGoals().get(2).getCurrentProgress());
+        verify(transactionRepository, times(1)).sumNetByDaySince(any(), any());
+    }
+
+    @Test
+    void getAllGoals_WithLedger_AnswersWithoutQuery() {
+        Goal marchGoal = Goal.builder()
+                .id(3L)
+                .goalName("Laptop")
+                .targetAmount(new BigDecimal("1000.00"))
+                .targetDate(LocalDate.of(2027, 6, 1))
+                .startDate(LocalDate.of(2024, 3, 15))
+                .user(user)
+                .build();
+        when(goalRepository.findViewsByUser(user)).thenReturn(Arrays.asList(view(goal), view(marchGoal)));
+        when(ledgerStore.get(user)).thenReturn(new Ledger(Arrays.asList(
+                new LedgerRow(1L, LocalDate.of(2024, 1, 10), new BigDecimal("1000.00"), 1L, "Salary",
+                        TransactionType.INCOME),
+                new LedgerRow(2L, LocalDate.of(2024, 3, 20), new BigDecimal("300.00"), 2L, "Food",
+                        TransactionType.EXPENSE))));
+
+        GoalListResponse response = goalService.getAllGoals(user);
+
+        assertEquals(new BigDecimal("700.00"), response.getGoals().get(0).getCurrentProgress());
+        assertEquals(BigDecimal.ZERO, response.getGoals().get(1).getCurrentProgress());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private static GoalView view(Goal goal) {
+        return new GoalView(goal.getId(), goal.getGoalName(), goal.getTargetAmount(),
+                goal.getTargetDate(), goal.getStartDate());
+    }
+}
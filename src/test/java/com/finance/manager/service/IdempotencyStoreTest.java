@@ -0,0 +1,244 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.request.TransactionRequest;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.exception.ResourceNotFoundException;
+import com.finance.manager.exception.UnprocessableRequestException;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final IdempotencyStore store = new IdempotencyStore(3, Duration.ofMinutes(10), clock);
+
+    @Test
+    void execute_SameKey_ReplaysFirstResult() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = store.execute(1L, "transactions", "k1", "body", () -> "created-" + calls.incrementAndGet());
+        String replay = store.execute(1L, "transactions", "k1", "body", () -> "created-" + calls.incrementAndGet());
+
+        assertEquals("created-1", first);
+        assertEquals("created-1", replay);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_KeyIsScopedByUserAndEndpoint() {
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute(1L, "transactions", "k1", "body", calls::incrementAndGet);
+        store.execute(2L, "transactions", "k1", "body", calls::incrementAndGet);
+        store.execute(1L, "goals", "k1", "body", calls::incrementAndGet);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_NoKey_AlwaysRuns() {
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute(1L, "transactions", null, "body", calls::incrementAndGet);
+        store.execute(1L, "transactions", null, "body", calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void execute_InvalidKey_Throws() {
+        assertThrows(InvalidRequestException.class, () -> store.execute(1L, "goals", "", "body", () -> "x"));
+        assertThrows(InvalidRequestException.class,
+                () -> store.execute(1L, "goals", "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), "body", () -> "x"));
+    }
+
+    @Test
+    void execute_Failure_IsNotStored() {
+        assertThrows(ResourceNotFoundException.class, () -> store.execute(1L, "transactions", "k1", "body", () -> {
+            throw new ResourceNotFoundException("Category", "name", "Nope");
+        }));
+
+        assertEquals("retried", store.execute(1L, "transactions", "k1", "body", () -> "retried"));
+    }
+
+    @Test
+    void execute_AfterTtl_RunsAgain() {
+        store.execute(1L, "transactions", "k1", "body", () -> "first");
+        clock.advance(Duration.ofMinutes(11));
+
+        assertEquals("second", store.execute(1L, "transactions", "k1", "body", () -> "second"));
+    }
+
+    @Test
+    void execute_OverCapacity_EvictsLeastRecentlyUsed() {
+        store.execute(1L, "transactions", "k1", "body", () -> "1");
+        store.execute(1L, "transactions", "k2", "body", () -> "2");
+        store.execute(1L, "transactions", "k3", "body", () -> "3");
+        store.execute(1L, "transactions", "k1", "body", () -> "ignored");
+        store.execute(1L, "transactions", "k4", "body", () -> "4");
+
+        assertEquals(3, store.size());
+        assertEquals("1", store.execute(1L, "transactions", "k1", "body", () -> "ignored"));
+        assertEquals("2-again", store.execute(1L, "transactions", "k2", "body", () -> "2-again"));
+    }
+
+    @Test
+    void execute_SameKeyDifferentBody_IsRejected() {
+        AtomicInteger calls = new AtomicInteger();
+        store.execute(1L, "transactions", "k1", "body", calls::incrementAndGet);
+
+        assertThrows(UnprocessableRequestException.class,
+                () -> store.execute(1L, "transactions", "k1", "other body", calls::incrementAndGet));
+        assertEquals(1, store.execute(1L, "transactions", "k1", "body", calls::incrementAndGet));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_SameAmountWithOtherScale_Replays() {
+        AtomicInteger calls = new AtomicInteger();
+        TransactionRequest first = TransactionRequest.builder()
+                .amount(new BigDecimal("10.00")).date("2024-03-15").category("Food").build();
+        TransactionRequest retry = TransactionRequest.builder()
+                .amount(new BigDecimal("10.0")).date("2024-03-15").category("Food").build();
+        TransactionRequest other = TransactionRequest.builder()
+                .amount(new BigDecimal("10.01")).date("2024-03-15").category("Food").build();
+
+        store.execute(1L, "transactions", "k1", first, calls::incrementAndGet);
+
+        assertEquals(1, store.execute(1L, "transactions", "k1", retry, calls::incrementAndGet));
+        assertThrows(UnprocessableRequestException.class,
+                () -> store.execute(1L, "transactions", "k1", other, calls::incrementAndGet));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_OverCapacity_KeepsInFlightEntries() throws Exception {
+        IdempotencyStore small = new IdempotencyStore(1, Duration.ofMinutes(10), clock);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> original = executor.submit(() -> small.execute(1L, "transactions", "k1", "body", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "created";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            small.execute(1L, "transactions", "k2", "body", () -> "2");
+            small.execute(1L, "transactions", "k3", "body", () -> "3");
+
+            Future<String> duplicate = executor.submit(() -> small.execute(1L, "transactions", "k1", "body", () -> {
+                calls.incrementAndGet();
+                return "duplicate";
+            }));
+            release.countDown();
+            assertEquals("created", original.get(5, TimeUnit.SECONDS));
+            assertEquals("created", duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ConcurrentDuplicate_WaitsForInFlightResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> original = executor.submit(() -> store.execute(1L, "transactions", "k1", "body", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "created";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<String> duplicate = executor.submit(() -> store.execute(1L, "transactions", "k1", "body", () -> {
+                calls.incrementAndGet();
+                return "duplicate";
+            }));
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+
+            release.countDown();
+            assertEquals("created", original.get(5, TimeUnit.SECONDS));
+            assertEquals("created", duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ConcurrentDuplicate_SeesInFlightFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> original = executor.submit(() -> store.execute(1L, "transactions", "k1", "body", () -> {
+                started.countDown();
+                await(release);
+                throw new InvalidRequestException("Transaction date cannot be in the future");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> duplicate = executor.submit(() -> store.execute(1L, "transactions", "k1", "body", () -> "duplicate"));
+            Thread.sleep(50);
+
+            release.countDown();
+            Exception failure = assertThrows(Exception.class, () -> duplicate.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InvalidRequestException.class, failure.getCause());
+            assertThrows(Exception.class, () -> original.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.finance.manager.service;
+
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.dto.projection.LedgerRow;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    private User user;
+    private Category food;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("test@example.com").build();
+        food = Category.builder().id(700L).name("Food").type(TransactionType.EXPENSE).build();
+    }
+
+    @Test
+    void get_LoadsUserOnceAndAppliesCommittedChanges() {
+        when(transactionRepository.findLedgerRowsByUser(user)).thenReturn(List.of(row(1L, "10.00")));
+        LedgerStore store = new LedgerStore(transactionRepository, archiveStore, DataSize.ofMegabytes(1));
+        store.get(user);
+
+        store.addedAfterCommit(1L, List.of(transaction(2L, "5.00"), transaction(3L, "1.00")));
+        store.updatedAfterCommit(1L, transaction(2L, "7.00"));
+        store.removedAfterCommit(1L, transaction(3L, "1.00"));
+
+        Ledger ledger = store.get(user);
+        assertEquals(2, ledger.size());
+        assertEquals(-1700L, ledger.netSince(Set.of(DAY)).get(DAY));
+        verify(transactionRepository, times(1)).findLedgerRowsByUser(user);
+    }
+
+    @Test
+    void get_ChangedWhileLoading_DoesNotStoreStaleLedger() {
+        LedgerStore store = new LedgerStore(transactionRepository, archiveStore, DataSize.ofMegabytes(1));
+        when(transactionRepository.findLedgerRowsByUser(user)).thenAnswer(invocation -> {
+            store.removedAfterCommit(1L, transaction(1L, "10.00"));
+            return List.of(row(1L, "10.00"));
+        }).thenReturn(List.of());
+
+        assertEquals(1, store.get(user).size());
+        assertEquals(0, store.get(user).size());
+        verify(transactionRepository, times(2)).findLedgerRowsByUser(user);
+    }
+
+    @Test
+    void removedAfterCommit_UnknownRow_DropsLedger() {
+        when(transactionRepository.findLedgerRowsByUser(user)).thenReturn(List.of(row(1L, "10.00")));
+        LedgerStore store = new LedgerStore(transactionRepository, archiveStore, DataSize.ofMegabytes(1));
+        store.get(user);
+
+        store.removedAfterCommit(1L, transaction(9L, "1.00"));
+
+        assertEquals(0L, store.bytes());
+        store.get(user);
+        verify(transactionRepository, times(2)).findLedgerRowsByUser(user);
+    }
+
+    @Test
+    void get_OverByteBudget_EvictsLeastRecentlyUsed() {
+        User other = User.builder().id(2L).username("other@example.com").build();
+        when(transactionRepository.findLedgerRowsByUser(any(User.class))).thenReturn(List.of(row(1L, "10.00")));
+        long oneLedger = new Ledger(List.of(row(1L, "10.00"))).bytes();
+        LedgerStore store = new LedgerStore(transactionRepository, archiveStore, DataSize.ofBytes(oneLedger * 3 / 2));
+
+        store.get(user);
+        store.get(other);
+        store.get(other);
+        store.get(user);
+
+        assertEquals(oneLedger, store.bytes());
+        verify(transactionRepository, times(2)).findLedgerRowsByUser(user);
+        verify(transactionRepository, times(1)).findLedgerRowsByUser(other);
+    }
+
+    @Test
+    void get_Disabled_ReturnsNullWithoutLoading() {
+        LedgerStore store = new LedgerStore(transactionRepository, archiveStore, DataSize.ofBytes(0));
+
+        assertNull(store.get(user));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private LedgerRow row(Long id, String amount) {
+        return new LedgerRow(id, DAY, new BigDecimal(amount), food.getId(), food.getName(), food.getType());
+    }
+
+    private Transaction transaction(Long id, String amount) {
+        return Transaction.builder()
+                .id(id)
+                .date(DAY)
+                .amount(new BigDecimal(amount))
+                .category(food)
+                .type(food.getType())
+                .user(user)
+                .build();
+    }
+}
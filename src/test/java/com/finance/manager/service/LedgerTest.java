@@ -0,0 +1,145 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.projection.LedgerRow;
+import com.finance.manager.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void facts_GroupsPerDayAndCategoryWithinRange() {
+        Ledger ledger = new Ledger(List.of(
+                food(1L, JAN_1, "10.00"),
+                food(2L, JAN_1, "5.50"),
+                salary(3L, JAN_1, "3000.00"),
+                food(4L, JAN_1.plusDays(1), "7.25"),
+                food(5L, LocalDate.of(2024, 2, 1), "1.00")));
+
+        List<Aggregation.Fact> days = ledger.facts(JAN_1, LocalDate.of(2024, 1, 31), false);
+
+        assertEquals(List.of(
+                new Aggregation.Fact(2024, 1, JAN_1, TransactionType.EXPENSE, "Food", 0L, 1550L, 2L),
+                new Aggregation.Fact(2024, 1, JAN_1, TransactionType.INCOME, "Salary", 300000L, 0L, 1L),
+                new Aggregation.Fact(2024, 1, JAN_1.plusDays(1), TransactionType.EXPENSE, "Food", 0L, 725L, 1L)),
+                days);
+
+        List<Aggregation.Fact> months = ledger.facts(JAN_1.plusDays(1), LocalDate.of(2024, 12, 31), true);
+
+        assertEquals(List.of(
+                new Aggregation.Fact(2024, 1, null, TransactionType.EXPENSE, "Food", 0L, 725L, 1L),
+                new Aggregation.Fact(2024, 2, null, TransactionType.EXPENSE, "Food", 0L, 100L, 1L)),
+                months);
+        assertTrue(ledger.facts(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), true).isEmpty());
+    }
+
+    @Test
+    void netSince_SumsIncomeMinusExpensesFromEachStartDate() {
+        Ledger ledger = new Ledger(List.of(
+                salary(1L, JAN_1, "1000.00"),
+                food(2L, JAN_1.plusDays(10), "200.00"),
+                salary(3L, JAN_1.plusDays(20), "50.00")));
+
+        Map<LocalDate, Long> net = ledger.netSince(Set.of(
+                JAN_1.minusYears(1), JAN_1.plusDays(5), JAN_1.plusDays(20), JAN_1.plusDays(21)));
+
+        assertEquals(85000L, net.get(JAN_1.minusYears(1)));
+        assertEquals(-15000L, net.get(JAN_1.plusDays(5)));
+        assertEquals(5000L, net.get(JAN_1.plusDays(20)));
+        assertEquals(0L, net.get(JAN_1.plusDays(21)));
+    }
+
+    @Test
+    void addAll_MergesRowsInDateOrderAndSkipsKnownIds() {
+        Ledger ledger = new Ledger(List.of(food(1L, JAN_1, "1.00"), food(2L, JAN_1.plusDays(10), "2.00")));
+
+        ledger.addAll(List.of(
+                food(4L, JAN_1.plusDays(20), "4.00"),
+                food(3L, JAN_1.plusDays(5), "3.00"),
+                food(2L, JAN_1.plusDays(10), "2.00")));
+
+        assertEquals(4, ledger.size());
+        assertEquals(List.of(100L, 300L, 200L, 400L), ledger.facts(JAN_1, JAN_1.plusDays(30), false).stream()
+                .map(Aggregation.Fact::expenses).toList());
+    }
+
+    @Test
+    void updateAndRemove_FindRowsByIdAndDate() {
+        Ledger ledger = new Ledger(List.of(food(1L, JAN_1, "1.00"), food(2L, JAN_1, "2.00")));
+
+        assertTrue(ledger.update(salary(2L, JAN_1, "9.00")));
+        assertTrue(ledger.remove(1L, JAN_1));
+        assertFalse(ledger.remove(1L, JAN_1));
+        assertFalse(ledger.update(food(2L, JAN_1.plusDays(1), "2.00")));
+
+        assertEquals(List.of(new Aggregation.Fact(2024, 1, JAN_1, TransactionType.INCOME, "Salary", 900L, 0L, 1L)),
+                ledger.facts(JAN_1, JAN_1, false));
+    }
+
+    @Test
+    void randomChanges_MatchRecomputingFromRows() {
+        Random random = new Random(7);
+        Map<Long, LedgerRow> expected = new HashMap<>();
+        Ledger ledger = new Ledger(List.of());
+        long nextId = 1;
+
+        for (int step = 0; step < 2_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 6 || expected.isEmpty()) {
+                List<LedgerRow> batch = new ArrayList<>();
+                for (int i = random.nextInt(5); i >= 0; i--) {
+                    LocalDate date = JAN_1.plusDays(random.nextInt(400));
+                    String amount = (1 + random.nextInt(10_000)) + ".25";
+                    LedgerRow row = random.nextBoolean()
+                            ? food(nextId++, date, amount)
+                            : salary(nextId++, date, amount);
+                    batch.add(row);
+                    expected.put(row.getId(), row);
+                }
+                ledger.addAll(batch);
+            } else {
+                LedgerRow existing = new ArrayList<>(expected.values()).get(random.nextInt(expected.size()));
+                if (action < 8) {
+                    assertTrue(ledger.remove(existing.getId(), existing.getDate()));
+                    expected.remove(existing.getId());
+                } else {
+                    LedgerRow changed = food(existing.getId(), existing.getDate(), random.nextInt(500) + ".00");
+                    assertTrue(ledger.update(changed));
+                    expected.put(changed.getId(), changed);
+                }
+            }
+        }
+
+        List<LedgerRow> rows = new ArrayList<>(expected.values());
+        rows.sort(Comparator.comparing(LedgerRow::getDate).thenComparing(LedgerRow::getId));
+        Ledger reloaded = new Ledger(rows);
+        LocalDate from = JAN_1.plusDays(30);
+        LocalDate to = JAN_1.plusDays(300);
+
+        assertEquals(expected.size(), ledger.size());
+        // Category codes are handed out in a different order, and facts within a day follow them.
+        assertEquals(new HashSet<>(reloaded.facts(from, to, false)), new HashSet<>(ledger.facts(from, to, false)));
+        assertEquals(new HashSet<>(reloaded.facts(from, to, true)), new HashSet<>(ledger.facts(from, to, true)));
+        assertEquals(reloaded.netSince(Set.of(from, to)), ledger.netSince(Set.of(from, to)));
+    }
+
+    private static LedgerRow food(Long id, LocalDate date, String amount) {
+        return new LedgerRow(id, date, new BigDecimal(amount), 700L, "Food", TransactionType.EXPENSE);
+    }
+
+    private static LedgerRow salary(Long id, LocalDate date, String amount) {
+        return new LedgerRow(id, date, new BigDecimal(amount), 40_000L, "Salary", TransactionType.INCOME);
+    }
+}
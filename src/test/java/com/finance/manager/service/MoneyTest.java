@@ -0,0 +1,58 @@
+package com.finance.manager.service;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void toCents_ScaleTwo_UsesUnscaledValue() {
+        assertEquals(12345L, Money.toCents(new BigDecimal("123.45")));
+        assertEquals(-500L, Money.toCents(new BigDecimal("-5.00")));
+    }
+
+    @Test
+    void toCents_OtherScales_RoundHalfUp() {
+        assertEquals(1000L, Money.toCents(BigDecimal.TEN));
+        assertEquals(101L, Money.toCents(new BigDecimal("1.005")));
+        assertEquals(100L, Money.toCents(new BigDecimal("1.004")));
+        assertEquals(0L, Money.toCents(null));
+    }
+
+    @Test
+    void toCents_TooLarge_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1e20")));
+    }
+
+    @Test
+    void toBigDecimal_HasScaleTwo() {
+        assertEquals(new BigDecimal("123.45"), Money.toBigDecimal(12345L));
+        assertEquals(new BigDecimal("0.00"), Money.toBigDecimal(0L));
+    }
+
+    @Test
+    void add_Overflow_Throws() {
+        assertEquals(300L, Money.add(100L, 200L));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1L));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1L));
+    }
+
+    @Test
+    void percentageBasisPoints_RoundsHalfUp() {
+        assertEquals(3333L, Money.percentageBasisPoints(1L, 3L));
+        assertEquals(6667L, Money.percentageBasisPoints(2L, 3L));
+        assertEquals(5000L, Money.percentageBasisPoints(50000L, 100000L));
+        assertEquals(-6667L, Money.percentageBasisPoints(-2L, 3L));
+        assertThrows(ArithmeticException.class, () -> Money.percentageBasisPoints(Long.MAX_VALUE, 1L));
+    }
+
+    @Test
+    void percentageBasisPoints_PartTooLargeToScale_DividesExactly() {
+        assertEquals(10000L, Money.percentageBasisPoints(1_000_000_000_000_000L, 1_000_000_000_000_000L));
+        assertEquals(5000L, Money.percentageBasisPoints(1_000_000_000_000_000L, 2_000_000_000_000_000L));
+        assertEquals(-6667L, Money.percentageBasisPoints(-2_000_000_000_000_000L, 3_000_000_000_000_000L));
+        assertEquals(20000L, Money.percentageBasisPoints(Long.MAX_VALUE - 1, Long.MAX_VALUE / 2));
+        assertEquals(-10000L, Money.percentageBasisPoints(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,61 @@
+package com.finance.manager.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCacheTest {
+
+    @Test
+    void get_FullCache_EvictsLeastRecentlyUsed() {
+        ReportCache cache = new ReportCache(2, new SingleFlight());
+
+        cache.get(1L, 2024, 1, () -> "jan");
+        cache.get(1L, 2024, 2, () -> "feb");
+        cache.get(1L, 2024, 1, () -> "reloaded");
+        cache.get(1L, 2024, 3, () -> "mar");
+
+        assertEquals("jan", cache.get(1L, 2024, 1, () -> "reloaded"));
+        assertEquals("feb-reloaded", cache.get(1L, 2024, 2, () -> "feb-reloaded"));
+        assertTrue(cache.stats().getEvictions() >= 1);
+        assertEquals(2, cache.stats().getSize());
+    }
+
+    @Test
+    void invalidate_RemovesMonthAndYearButNotOtherUsers() {
+        ReportCache cache = new ReportCache(10, new SingleFlight());
+        cache.get(1L, 2024, 5, () -> "may");
+        cache.get(1L, 2024, ReportCache.YEARLY, () -> "year");
+        cache.get(2L, 2024, 5, () -> "other");
+
+        cache.invalidate(1L, 2024, 5);
+
+        assertEquals("may-new", cache.get(1L, 2024, 5, () -> "may-new"));
+        assertEquals("year-new", cache.get(1L, 2024, ReportCache.YEARLY, () -> "year-new"));
+        assertEquals("other", cache.get(2L, 2024, 5, () -> "unused"));
+        assertEquals(2, cache.stats().getInvalidations());
+    }
+
+    @Test
+    void get_InvalidatedWhileLoading_DoesNotStoreStaleValue() {
+        ReportCache cache = new ReportCache(10, new SingleFlight());
+
+        cache.get(1L, 2024, 5, () -> {
+            cache.invalidate(1L, 2024, 5);
+            return "stale";
+        });
+
+        assertEquals("fresh", cache.get(1L, 2024, 5, () -> "fresh"));
+    }
+
+    @Test
+    void invalidateUser_RemovesAllEntriesForUser() {
+        ReportCache cache = new ReportCache(10, new SingleFlight());
+        cache.get(1L, 2023, 1, () -> "a");
+        cache.get(1L, 2024, ReportCache.YEARLY, () -> "b");
+        cache.get(2L, 2024, 1, () -> "c");
+
+        cache.invalidateUser(1L);
+
+        assertEquals(1, cache.stats().getSize());
+    }
+}
@@ -1,20 +1,26 @@
 package com.finance.manager.service;
 
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.dto.response.AggregateResponse;
 import com.finance.manager.dto.response.MonthlyReportResponse;
 import com.finance.manager.dto.response.YearlyReportResponse;
-import com.finance.manager.entity.Transaction;
 import com.finance.manager.entity.User;
 import com.finance.manager.enums.TransactionType;
 import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.repository.DailyBalanceRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
 import com.finance.manager.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.Year;
 import java.util.Arrays;
 import java.util.Collections;
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,15 +30,29 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ReportServiceTest {
 
+    @Mock
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
     @Mock
     private TransactionRepository transactionRepository;
 
-    @InjectMocks
+    @Mock
+    private LedgerStore ledgerStore;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Spy
+    private ReportCache reportCache = new ReportCache(100, new SingleFlight());
+
     private ReportService reportService;
 
     private User user;
-    private Transaction incomeTransaction;
-    private Transaction expenseTransaction;
+    private RollupTotal salaryTotal;
+    private RollupTotal rentTotal;
 
     @BeforeEach
     void setUp() {
@@ -41,29 +61,20 @@ class ReportServiceTest {
                 .username("test@example.com")
                 .build();
 
-        incomeTransaction = Transaction.builder()
-                .id(1L)
-                .amount(new BigDecimal("5000.00"))
-                .date(LocalDate.of(2024, 1, 15))
-                .category("Salary")
-                .type(TransactionType.INCOME)
-                .user(user)
-                .build();
+        salaryTotal = total(TransactionType.INCOME, "Salary", "5000.00");
+        rentTotal = total(TransactionType.EXPENSE, "Rent", "1500.00");
 
-        expenseTransaction = Transaction.builder()
-                .id(2L)
-                .amount(new BigDecimal("1500.00"))
-                .date(LocalDate.of(2024, 1, 20))
-                .category("Rent")
-                .type(TransactionType.EXPENSE)
-                .user(user)
-                .build();
+        AggregationService aggregationService = new AggregationService(
+                monthlyRollupRepository, dailyBalanceRepository, transactionRepository, ledgerStore,
+                archiveStore);
+        ReflectionTestUtils.setField(aggregationService, "parallelThreshold", 50_000);
+        reportService = new ReportService(aggregationService, reportCache);
     }
 
     @Test
     void getMonthlyReport_Success() {
-        when(transactionRepository.findByUserAndMonth(user, 2024, 1))
-                .thenReturn(Arrays.asList(incomeTransaction, expenseTransaction));
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 1))
+                .thenReturn(Arrays.asList(salaryTotal, rentTotal));
 
         MonthlyReportResponse response = reportService.getMonthlyReport(2024, 1, user);
 
@@ -77,7 +88,7 @@ class ReportServiceTest {
 
     @Test
     void getMonthlyReport_NoTransactions_ReturnsZero() {
-        when(transactionRepository.findByUserAndMonth(user, 2024, 12))
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 12, 2024, 12))
                 .thenReturn(Collections.emptyList());
 
         MonthlyReportResponse response = reportService.getMonthlyReport(2024, 12, user);
@@ -110,8 +121,8 @@ class ReportServiceTest {
 
     @Test
     void getYearlyReport_Success() {
-        when(transactionRepository.findByUserAndYear(user, 2024))
-                .thenReturn(Arrays.asList(incomeTransaction, expenseTransaction));
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 12))
+                .thenReturn(Arrays.asList(salaryTotal, rentTotal));
 
         YearlyReportResponse response = reportService.getYearlyReport(2024, user);
 
@@ -124,7 +135,7 @@ class ReportServiceTest {
 
     @Test
     void getYearlyReport_NoTransactions_ReturnsZero() {
-        when(transactionRepository.findByUserAndYear(user, 2023))
+        when(monthlyRollupRepository.findTotalsBetween(user, 2023, 1, 2023, 12))
                 .thenReturn(Collections.emptyList());
 
         YearlyReportResponse response = reportService.getYearlyReport(2023, user);
@@ -137,39 +148,25 @@ class ReportServiceTest {
     }
 
     @Test
-    void getMonthlyReport_MultipleTransactionsSameCategory() {
-        Transaction anotherIncome = Transaction.builder()
-                .id(3L)
-                .amount(new BigDecimal("2000.00"))
-                .date(LocalDate.of(2024, 1, 25))
-                .category("Salary")
-                .type(TransactionType.INCOME)
-                .user(user)
-                .build();
+    void getMonthlyReport_UnscaledTotals_AreFormatted() {
+        RollupTotal bonusTotal = total(TransactionType.INCOME, "Bonus", "2000");
 
-        when(transactionRepository.findByUserAndMonth(user, 2024, 1))
-                .thenReturn(Arrays.asList(incomeTransaction, anotherIncome, expenseTransaction));
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 1))
+                .thenReturn(Arrays.asList(salaryTotal, bonusTotal, rentTotal));
 
         MonthlyReportResponse response = reportService.getMonthlyReport(2024, 1, user);
 
         assertNotNull(response);
-        assertEquals(new BigDecimal("7000.00"), response.getTotalIncome().get("Salary"));
+        assertEquals(new BigDecimal("2000.00"), response.getTotalIncome().get("Bonus"));
         assertEquals(new BigDecimal("5500.00"), response.getNetSavings());
     }
 
     @Test
     void getYearlyReport_MultipleCategories() {
-        Transaction foodExpense = Transaction.builder()
-                .id(3L)
-                .amount(new BigDecimal("500.00"))
-                .date(LocalDate.of(2024, 1, 25))
-                .category("Food")
-                .type(TransactionType.EXPENSE)
-                .user(user)
-                .build();
+        RollupTotal foodTotal = total(TransactionType.EXPENSE, "Food", "500.00");
 
-        when(transactionRepository.findByUserAndYear(user, 2024))
-                .thenReturn(Arrays.asList(incomeTransaction, expenseTransaction, foodExpense));
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 12))
+                .thenReturn(Arrays.asList(salaryTotal, rentTotal, foodTotal));
 
         YearlyReportResponse response = reportService.getYearlyReport(2024, user);
 
@@ -179,5 +176,109 @@ class ReportServiceTest {
         assertEquals(new BigDecimal("500.00"), response.getTotalExpenses().get("Food"));
         assertEquals(new BigDecimal("3000.00"), response.getNetSavings());
     }
-}
 
+    @Test
+    void getMonthlyReport_ReadsOnlyRollups() {
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 1))
+                .thenReturn(Arrays.asList(salaryTotal, rentTotal));
+
+        reportService.getMonthlyReport(2024, 1, user);
+
+        verify(monthlyRollupRepository).findTotalsBetween(user, 2024, 1, 2024, 1);
+        verifyNoMoreInteractions(monthlyRollupRepository);
+        verifyNoInteractions(dailyBalanceRepository, transactionRepository);
+    }
+
+    @Test
+    void getMonthlyReport_RepeatedCall_ServedFromCache() {
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 1))
+                .thenReturn(Arrays.asList(salaryTotal, rentTotal));
+
+        MonthlyReportResponse first = reportService.getMonthlyReport(2024, 1, user);
+        MonthlyReportResponse second = reportService.getMonthlyReport(2024, 1, user);
+
+        assertSame(first, second);
+        verify(monthlyRollupRepository, times(1)).findTotalsBetween(user, 2024, 1, 2024, 1);
+        assertEquals(1, reportCache.stats().getHits());
+        assertEquals(1, reportCache.stats().getMisses());
+    }
+
+    @Test
+    void getYearlyReport_InvalidatedByWriteInThatYear_Reloads() {
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 12))
+                .thenReturn(Arrays.asList(salaryTotal))
+                .thenReturn(Arrays.asList(salaryTotal, rentTotal));
+
+        reportService.getYearlyReport(2024, user);
+        reportCache.invalidate(1L, 2024, 7);
+        YearlyReportResponse response = reportService.getYearlyReport(2024, user);
+
+        assertEquals(new BigDecimal("1500.00"), response.getTotalExpenses().get("Rent"));
+        verify(monthlyRollupRepository, times(2)).findTotalsBetween(user, 2024, 1, 2024, 12);
+    }
+
+    @Test
+    void getMonthlyReport_WriteToOtherMonth_KeepsCachedReport() {
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 1))
+                .thenReturn(Arrays.asList(salaryTotal, rentTotal));
+
+        reportService.getMonthlyReport(2024, 1, user);
+        reportCache.invalidate(1L, 2024, 2);
+        reportService.getMonthlyReport(2024, 1, user);
+
+        verify(monthlyRollupRepository, times(1)).findTotalsBetween(user, 2024, 1, 2024, 1);
+    }
+
+    @Test
+    void getYearlyReport_SumsMonthsOfCategory() {
+        when(monthlyRollupRepository.findTotalsBetween(user, 2024, 1, 2024, 12)).thenReturn(Arrays.asList(
+                new RollupTotal(2024, 1, TransactionType.EXPENSE, 2L, "Rent", new BigDecimal("1500.00"), 1L),
+                new RollupTotal(2024, 2, TransactionType.EXPENSE, 2L, "Rent", new BigDecimal("1550.00"), 1L)));
+
+        YearlyReportResponse response = reportService.getYearlyReport(2024, user);
+
+        assertEquals(new BigDecimal("3050.00"), response.getTotalExpenses().get("Rent"));
+        assertEquals(new BigDecimal("-3050.00"), response.getNetSavings());
+    }
+
+    @Test
+    void getAggregate_ParsesAndDeduplicatesDimensions() {
+        when(transactionRepository.sumByMonthBetween(user, LocalDate.of(2024, 1, 10), LocalDate.of(2024, 2, 21)))
+                .thenReturn(Arrays.asList(salaryTotal, rentTotal));
+
+        AggregateResponse response = reportService.getAggregate("2024-01-10", "2024-02-20",
+                Arrays.asList("Type", " category", "type"), user);
+
+        assertEquals(Arrays.asList("type", "category"), response.getGroupBy());
+        assertEquals("transactionsByMonth", response.getSource());
+        assertEquals(2, response.getGroups().size());
+        assertEquals(new BigDecimal("3500.00"), response.getNet());
+    }
+
+    @Test
+    void getAggregate_InvalidRequests_ThrowException() {
+        assertThrows(InvalidRequestException.class,
+                () -> reportService.getAggregate(null, "2024-01-31", null, user));
+        assertThrows(InvalidRequestException.class,
+                () -> reportService.getAggregate("2024-02-01", "2024-01-31", null, user));
+        assertThrows(InvalidRequestException.class,
+                () -> reportService.getAggregate("2024-01-01", "2024-01-31", Arrays.asList("quarter"), user));
+    }
+
+    @Test
+    void validate_InvalidParameters_ThrowWithoutLoading() {
+        assertThrows(InvalidRequestException.class, () -> reportService.validateMonthlyReport(2024, 13));
+        assertThrows(InvalidRequestException.class, () -> reportService.validateYearlyReport(Year.MAX_VALUE + 1));
+        assertThrows(InvalidRequestException.class,
+                () -> reportService.validateAggregate("2024-01-01", "2024-13-31", null));
+        assertThrows(InvalidRequestException.class,
+                () -> reportService.validateAggregate("2024-01-01", "2024-01-31", Arrays.asList("quarter")));
+        reportService.validateAggregate("2024-01-01", "2024-01-31", Arrays.asList("category", "month"));
+
+        verifyNoInteractions(monthlyRollupRepository, dailyBalanceRepository, transactionRepository);
+    }
+
+    private static RollupTotal total(TransactionType type, String category, String amount) {
+        return new RollupTotal(2024, 1, type, (long) category.hashCode(), category, new BigDecimal(amount), 1L);
+    }
+}
@@ -0,0 +1,190 @@
+package com.finance.manager.service;
+
+import com.finance.manager.dto.request.RegisterRequest;
+import com.finance.manager.dto.request.TransactionRequest;
+import com.finance.manager.dto.response.RollupVerificationResponse;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.repository.CategoryRepository;
+import com.finance.manager.repository.DailyBalanceRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
+import com.finance.manager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Writers that add the first row for the same month or day at the same time must not trip over each
+// other's insert, nor lose each other's amounts, and a rollup rebuild must not lose a concurrent write.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rollup_concurrency;DB_CLOSE_DELAY=-1")
+class RollupConcurrencyTest {
+
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 15;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Autowired
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentCreates_ForNewPeriods_AllApplied() throws Exception {
+        User user = register("concurrent@example.com");
+        LocalDate first = LocalDate.of(2020, 1, 1);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        barrier.await();
+                        transactionService.createTransaction(request(first.plusMonths(round)), user);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        RollupVerificationResponse verification = rollupService.verify(false);
+        assertTrue(verification.getDrift().isEmpty());
+        assertTrue(verification.getDailyDrift().isEmpty());
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDate day = first.plusMonths(round);
+            var balances = dailyBalanceRepository.findBetween(user, day, day.plusDays(1));
+            assertEquals(1, balances.size());
+            assertEquals(THREADS, balances.get(0).getCount());
+            assertEquals(0, new BigDecimal("10.00").multiply(BigDecimal.valueOf(THREADS))
+                    .compareTo(balances.get(0).getExpenses()));
+        }
+    }
+
+    @Test
+    void concurrentBatches_ForNewDays_AllApplied() throws Exception {
+        User user = register("batches@example.com");
+        LocalDate first = LocalDate.of(2021, 1, 1);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        LocalDate day = first.plusDays(round * 2L);
+                        barrier.await();
+                        transactionService.createTransactions(List.of(request(day), request(day.plusDays(1))),
+                                user);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        RollupVerificationResponse verification = rollupService.verify(false);
+        assertTrue(verification.getDrift().isEmpty());
+        assertTrue(verification.getDailyDrift().isEmpty());
+        var balances = dailyBalanceRepository.findBetween(user, first, first.plusDays(ROUNDS * 2L));
+        assertEquals(ROUNDS * 2, balances.size());
+        assertTrue(balances.stream().allMatch(balance -> balance.getCount() == THREADS));
+        // The end of the range is exclusive.
+        assertEquals(ROUNDS * 2 - 1, dailyBalanceRepository.findBetween(user, first, first.plusDays(ROUNDS * 2L - 1))
+                .size());
+    }
+
+    @Test
+    void rebuild_WhileCreatesRun_KeepsTheirDeltas() throws Exception {
+        User user = register("rebuild@example.com");
+        LocalDate day = LocalDate.of(2022, 5, 1);
+        transactionService.createTransaction(request(day), user);
+        // Drift to repair: the rollup of May and the balance of its first day claim one transaction too many.
+        Category food = categoryRepository.findByUserIsNull().stream()
+                .filter(category -> category.getName().equals("Food")).findFirst().orElseThrow();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            monthlyRollupRepository.applyDelta(user, 2022, 5, TransactionType.EXPENSE, food, BigDecimal.ONE, 1);
+            dailyBalanceRepository.applyDelta(user, day, BigDecimal.ZERO, BigDecimal.ONE, 1);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        transactionService.createTransaction(request(day), user);
+                    }
+                    return null;
+                }));
+            }
+            while (!rollupService.verify(true).isRepaired()) {
+                Thread.onSpinWait();
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        RollupVerificationResponse verification = rollupService.verify(false);
+        assertTrue(verification.getDrift().isEmpty());
+        assertTrue(verification.getDailyDrift().isEmpty());
+    }
+
+    private User register(String username) {
+        Long userId = userService.register(RegisterRequest.builder()
+                .username(username)
+                .password("password123")
+                .fullName("Concurrent User")
+                .phoneNumber("+1234567890")
+                .build()).getUserId();
+        return userRepository.findById(userId).orElseThrow();
+    }
+
+    private static TransactionRequest request(LocalDate date) {
+        return TransactionRequest.builder()
+                .amount(new BigDecimal("10.00"))
+                .date(date.toString())
+                .category("Food")
+                .build();
+    }
+}
@@ -0,0 +1,478 @@
+package com.finance.manager.service;
+
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.finance.manager.dto.projection.DatedTotal;
+import com.finance.manager.dto.projection.RollupTotal;
+import com.finance.manager.dto.response.DailyBalanceDrift;
+import com.finance.manager.dto.response.RollupVerificationResponse;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.DailyBalance;
+import com.finance.manager.entity.MonthlyRollup;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.repository.CategoryRepository;
+import com.finance.manager.repository.DailyBalanceRepository;
+import com.finance.manager.repository.MonthlyRollupRepository;
+import com.finance.manager.repository.TransactionRepository;
+import com.finance.manager.repository.UserRepository;
+import com.finance.manager.shard.Shards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RollupServiceTest {
+
+    @Mock
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Shards shards;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReportCache reportCache;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @InjectMocks
+    private RollupService rollupService;
+
+    private User user;
+    private Category food;
+    private Category salary;
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("test@example.com").build();
+        food = Category.builder().id(10L).name("Food").type(TransactionType.EXPENSE).custom(false).build();
+        salary = Category.builder().id(20L).name("Salary").type(TransactionType.INCOME).custom(false).build();
+
+        transaction = Transaction.builder()
+                .id(1L)
+                .amount(new BigDecimal("100.00"))
+                .date(LocalDate.of(2024, 3, 10))
+                .category(food)
+                .type(TransactionType.EXPENSE)
+                .user(user)
+                .build();
+
+        // No archive unless a test says otherwise.
+        lenient().when(archiveStore.years(anyLong())).thenReturn(new TreeSet<>());
+    }
+
+    @Test
+    void recordCreated_ExistingRollup_AppliesDelta() {
+        when(monthlyRollupRepository.applyDelta(user, 2024, 3, TransactionType.EXPENSE, food,
+                new BigDecimal("100.00"), 1)).thenReturn(1);
+
+        rollupService.recordCreated(transaction);
+
+        verify(monthlyRollupRepository, never()).save(any());
+    }
+
+    @Test
+    void recordCreated_NoRollup_InsertsRow() {
+        when(monthlyRollupRepository.applyDelta(any(), anyInt(), anyInt(), any(), any(), any(), anyLong()))
+                .thenReturn(0);
+
+        rollupService.recordCreated(transaction);
+
+        ArgumentCaptor<MonthlyRollup> captor = ArgumentCaptor.forClass(MonthlyRollup.class);
+        verify(monthlyRollupRepository).save(captor.capture());
+        assertEquals(2024, captor.getValue().getYear());
+        assertEquals(3, captor.getValue().getMonth());
+        assertEquals(new BigDecimal("100.00"), captor.getValue().getTotal());
+        assertEquals(1, captor.getValue().getCount());
+        verify(reportCache).invalidateAfterCommit(1L, 2024, 3);
+    }
+
+    @Test
+    void recordCreated_LocksTheUserBeforeTouchingRollups() {
+        when(monthlyRollupRepository.applyDelta(any(), anyInt(), anyInt(), any(), any(), any(), anyLong()))
+                .thenReturn(1);
+
+        rollupService.recordCreated(transaction);
+
+        InOrder inOrder = inOrder(userRepository, monthlyRollupRepository);
+        inOrder.verify(userRepository).lockById(1L);
+        inOrder.verify(monthlyRollupRepository).applyDelta(any(), anyInt(), anyInt(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void recordDeleted_SubtractsAmountAndCount() {
+        when(monthlyRollupRepository.applyDelta(user, 2024, 3, TransactionType.EXPENSE, food,
+                new BigDecimal("-100.00"), -1)).thenReturn(1);
+
+        rollupService.recordDeleted(transaction);
+
+        verify(monthlyRollupRepository).applyDelta(user, 2024, 3, TransactionType.EXPENSE, food,
+                new BigDecimal("-100.00"), -1);
+    }
+
+    @Test
+    void recordUpdated_SameCategory_AppliesAmountDifferenceOnly() {
+        Transaction after = Transaction.builder()
+                .amount(new BigDecimal("150.00"))
+                .date(LocalDate.of(2024, 3, 10))
+                .category(food)
+                .type(TransactionType.EXPENSE)
+                .user(user)
+                .build();
+        when(monthlyRollupRepository.applyDelta(any(), anyInt(), anyInt(), any(), any(), any(), anyLong()))
+                .thenReturn(1);
+
+        rollupService.recordUpdated(transaction, after);
+
+        verify(monthlyRollupRepository).applyDelta(user, 2024, 3, TransactionType.EXPENSE, food,
+                new BigDecimal("50.00"), 0);
+        verifyNoMoreInteractions(monthlyRollupRepository);
+    }
+
+    @Test
+    void recordUpdated_CategoryChange_MovesAmount() {
+        Transaction after = Transaction.builder()
+                .amount(new BigDecimal("100.00"))
+                .date(LocalDate.of(2024, 3, 10))
+                .category(salary)
+                .type(TransactionType.INCOME)
+                .user(user)
+                .build();
+        when(monthlyRollupRepository.applyDelta(any(), anyInt(), anyInt(), any(), any(), any(), anyLong()))
+                .thenReturn(1);
+
+        rollupService.recordUpdated(transaction, after);
+
+        verify(monthlyRollupRepository).applyDelta(user, 2024, 3, TransactionType.EXPENSE, food,
+                new BigDecimal("-100.00"), -1);
+        verify(monthlyRollupRepository).applyDelta(user, 2024, 3, TransactionType.INCOME, salary,
+                new BigDecimal("100.00"), 1);
+    }
+
+    @Test
+    void verify_ReportsDriftWithoutRepairing() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(transactionRepository.sumByMonthForUser(1L)).thenReturn(List.of(
+                new RollupTotal(2024, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("100.00"), 1L)));
+        when(monthlyRollupRepository.findAllByUserId(1L)).thenReturn(List.of(
+                new RollupTotal(2024, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("80.00"), 1L)));
+        when(transactionRepository.sumByMonthForUser(2L)).thenReturn(List.of());
+        when(monthlyRollupRepository.findAllByUserId(2L)).thenReturn(List.of(
+                new RollupTotal(2024, 1, TransactionType.INCOME, 20L, "Salary", BigDecimal.ZERO, 0L)));
+
+        RollupVerificationResponse response = rollupService.verify(false);
+
+        assertEquals(2, response.getUsersChecked());
+        assertEquals(1, response.getUsersWithDrift());
+        assertFalse(response.isRepaired());
+        assertEquals(1, response.getDrift().size());
+        assertEquals(new BigDecimal("100.00"), response.getDrift().get(0).getExpectedTotal());
+        assertEquals(new BigDecimal("80.00"), response.getDrift().get(0).getActualTotal());
+        verify(monthlyRollupRepository, never()).deleteByUserId(any());
+    }
+
+    @Test
+    void verify_ArchivedMonths_CountTowardsExpectedTotals() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(transactionRepository.sumByMonthForUser(1L)).thenReturn(List.of(
+                new RollupTotal(2021, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("30.00"), 1L)));
+        when(archiveStore.totals(1L, Set.of())).thenReturn(List.of(
+                new RollupTotal(2021, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("70.00"), 2L),
+                new RollupTotal(2020, 1, TransactionType.INCOME, 20L, "Salary", new BigDecimal("500.00"), 1L)));
+        when(monthlyRollupRepository.findAllByUserId(1L)).thenReturn(List.of(
+                new RollupTotal(2021, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("100.00"), 3L),
+                new RollupTotal(2020, 1, TransactionType.INCOME, 20L, "Salary", new BigDecimal("500.00"), 1L)));
+
+        RollupVerificationResponse response = rollupService.verify(false);
+
+        assertEquals(0, response.getUsersWithDrift());
+        assertTrue(response.getDrift().isEmpty());
+    }
+
+    @Test
+    void verify_RowBothLiveAndArchived_CountedOnce() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(archiveStore.years(1L)).thenReturn(new TreeSet<>(List.of(2020, 2021)));
+        // Row 5 was archived, but the run stopped before its delete committed.
+        when(transactionRepository.findIdsBefore(1L, LocalDate.of(2022, 1, 1))).thenReturn(List.of(5L));
+        when(transactionRepository.sumByMonthForUser(1L)).thenReturn(List.of(
+                new RollupTotal(2021, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("30.00"), 1L)));
+        when(archiveStore.totals(1L, Set.of(5L))).thenReturn(List.of(
+                new RollupTotal(2021, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("70.00"), 2L)));
+        when(monthlyRollupRepository.findAllByUserId(1L)).thenReturn(List.of(
+                new RollupTotal(2021, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("100.00"), 3L)));
+
+        RollupVerificationResponse response = rollupService.verify(false);
+
+        assertTrue(response.getDrift().isEmpty());
+    }
+
+    @Test
+    void verify_DailyBalanceDrift_ReportedWithoutRepairing() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(transactionRepository.sumByMonthForUser(1L)).thenReturn(List.of(
+                new RollupTotal(2024, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("100.00"), 1L)));
+        when(monthlyRollupRepository.findAllByUserId(1L)).thenReturn(List.of(
+                new RollupTotal(2024, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("100.00"), 1L)));
+        when(transactionRepository.sumByDayBetween(user, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1)))
+                .thenReturn(List.of(new DatedTotal(LocalDate.of(2024, 3, 10), TransactionType.EXPENSE, "Food",
+                        new BigDecimal("100.00"), 1L)));
+        when(dailyBalanceRepository.findByUserId(1L)).thenReturn(List.of(
+                dailyBalance(LocalDate.of(2024, 3, 10), "0.00", "80.00", 1),
+                dailyBalance(LocalDate.of(2024, 3, 11), "0.00", "0.00", 0)));
+
+        RollupVerificationResponse response = rollupService.verify(false);
+
+        assertEquals(1, response.getUsersWithDrift());
+        assertTrue(response.getDrift().isEmpty());
+        assertEquals(1, response.getDailyDrift().size());
+        DailyBalanceDrift drift = response.getDailyDrift().get(0);
+        assertEquals("2024-03-10", drift.getDate());
+        assertEquals(new BigDecimal("100.00"), drift.getExpectedExpenses());
+        assertEquals(new BigDecimal("80.00"), drift.getActualExpenses());
+        verify(dailyBalanceRepository, never()).deleteByUserId(any());
+    }
+
+    @Test
+    void verify_Repair_RewritesDriftedDailyBalancesWithArchivedDays() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(archiveStore.years(1L)).thenReturn(new TreeSet<>(List.of(2021)));
+        when(transactionRepository.sumByMonthForUser(1L)).thenReturn(List.of(
+                new RollupTotal(2024, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("100.00"), 1L)));
+        when(archiveStore.totals(1L, Set.of())).thenReturn(List.of(
+                new RollupTotal(2021, 3, TransactionType.INCOME, 20L, "Salary", new BigDecimal("500.00"), 1L)));
+        when(monthlyRollupRepository.findAllByUserId(1L)).thenReturn(List.of(
+                new RollupTotal(2024, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("100.00"), 1L),
+                new RollupTotal(2021, 3, TransactionType.INCOME, 20L, "Salary", new BigDecimal("500.00"), 1L)));
+        when(transactionRepository.sumByDayBetween(user, LocalDate.of(2021, 3, 1), LocalDate.of(2024, 4, 1)))
+                .thenReturn(List.of(new DatedTotal(LocalDate.of(2024, 3, 10), TransactionType.EXPENSE, "Food",
+                        new BigDecimal("100.00"), 1L)));
+        when(archiveStore.find(1L, null, null)).thenReturn(List.of(new ArchivedTransaction(7L,
+                LocalDate.of(2021, 3, 5), 50_000, 20L, "Salary", TransactionType.INCOME, "Pay", null)));
+        when(dailyBalanceRepository.findByUserId(1L)).thenReturn(List.of(
+                dailyBalance(LocalDate.of(2024, 3, 10), "0.00", "100.00", 1)));
+
+        RollupVerificationResponse response = rollupService.verify(true);
+
+        assertTrue(response.isRepaired());
+        assertEquals(1, response.getDailyDrift().size());
+        assertEquals("2021-03-05", response.getDailyDrift().get(0).getDate());
+        verify(monthlyRollupRepository, never()).deleteByUserId(any());
+        InOrder inOrder = inOrder(userRepository, dailyBalanceRepository);
+        inOrder.verify(userRepository).lockById(1L);
+        inOrder.verify(dailyBalanceRepository).deleteByUserId(1L);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DailyBalance>> captor = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(dailyBalanceRepository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().stream().anyMatch(row -> row.getDate().equals(LocalDate.of(2021, 3, 5))
+                && row.getIncome().compareTo(new BigDecimal("500.00")) == 0 && row.getCount() == 1));
+        verify(dataVersions).bumpAfterCommit(1L);
+    }
+
+    @Test
+    void verify_Repair_RewritesDriftedUser() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(categoryRepository.getReferenceById(10L)).thenReturn(food);
+        when(transactionRepository.sumByMonthForUser(1L)).thenReturn(List.of(
+                new RollupTotal(2024, 3, TransactionType.EXPENSE, 10L, "Food", new BigDecimal("100.00"), 1L)));
+        when(monthlyRollupRepository.findAllByUserId(1L)).thenReturn(List.of());
+
+        RollupVerificationResponse response = rollupService.verify(true);
+
+        assertTrue(response.isRepaired());
+        InOrder inOrder = inOrder(userRepository, transactionRepository, monthlyRollupRepository);
+        inOrder.verify(userRepository).lockById(1L);
+        inOrder.verify(transactionRepository).sumByMonthForUser(1L);
+        inOrder.verify(monthlyRollupRepository).deleteByUserId(1L);
+        verify(monthlyRollupRepository).saveAll(argThat(rollups ->
+                ((List<MonthlyRollup>) rollups).size() == 1
+                        && ((List<MonthlyRollup>) rollups).get(0).getCategory() == food));
+    }
+
+    @Test
+    void recordCreatedAll_GroupsByMonthTypeAndCategory() {
+        Transaction sameMonth = Transaction.builder()
+                .amount(new BigDecimal("50.00"))
+                .date(LocalDate.of(2024, 3, 20))
+                .category(food)
+                .type(TransactionType.EXPENSE)
+                .user(user)
+                .build();
+        Transaction otherMonth = Transaction.builder()
+                .amount(new BigDecimal("30.00"))
+                .date(LocalDate.of(2024, 4, 1))
+                .category(food)
+                .type(TransactionType.EXPENSE)
+                .user(user)
+                .build();
+        when(monthlyRollupRepository.applyDelta(any(), anyInt(), anyInt(), any(), any(), any(), anyLong()))
+                .thenReturn(1);
+
+        rollupService.recordCreatedAll(List.of(transaction, sameMonth, otherMonth));
+
+        verify(monthlyRollupRepository).applyDelta(user, 2024, 3, TransactionType.EXPENSE, food,
+                new BigDecimal("150.00"), 2);
+        verify(monthlyRollupRepository).applyDelta(user, 2024, 4, TransactionType.EXPENSE, food,
+                new BigDecimal("30.00"), 1);
+        verifyNoMoreInteractions(monthlyRollupRepository);
+    }
+
+    @Test
+    void recordCreated_AppliesDailyDelta() {
+        when(dailyBalanceRepository.applyDelta(user, LocalDate.of(2024, 3, 10), new BigDecimal("0.00"),
+                new BigDecimal("100.00"), 1)).thenReturn(1);
+
+        rollupService.recordCreated(transaction);
+
+        verify(dailyBalanceRepository, never()).save(any());
+    }
+
+    @Test
+    void recordCreated_NoDailyRow_InsertsRow() {
+        rollupService.recordCreated(transaction);
+
+        ArgumentCaptor<DailyBalance> captor = ArgumentCaptor.forClass(DailyBalance.class);
+        verify(dailyBalanceRepository).save(captor.capture());
+        assertEquals(LocalDate.of(2024, 3, 10), captor.getValue().getDate());
+        assertEquals(new BigDecimal("0.00"), captor.getValue().getIncome());
+        assertEquals(new BigDecimal("100.00"), captor.getValue().getExpenses());
+        assertEquals(1, captor.getValue().getCount());
+    }
+
+    @Test
+    void recordUpdated_SameDay_AppliesDailyDifference() {
+        Transaction after = Transaction.builder()
+                .amount(new BigDecimal("80.00"))
+                .date(LocalDate.of(2024, 3, 10))
+                .category(food)
+                .type(TransactionType.EXPENSE)
+                .user(user)
+                .build();
+        when(dailyBalanceRepository.applyDelta(any(), any(), any(), any(), anyLong())).thenReturn(1);
+
+        rollupService.recordUpdated(transaction, after);
+
+        verify(dailyBalanceRepository).applyDelta(user, LocalDate.of(2024, 3, 10), new BigDecimal("0.00"),
+                new BigDecimal("-20.00"), 0);
+        verifyNoMoreInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    void recordUpdated_TypeChange_MovesAmountBetweenIncomeAndExpenses() {
+        Transaction after = Transaction.builder()
+                .amount(new BigDecimal("100.00"))
+                .date(LocalDate.of(2024, 3, 10))
+                .category(salary)
+                .type(TransactionType.INCOME)
+                .user(user)
+                .build();
+        when(dailyBalanceRepository.applyDelta(any(), any(), any(), any(), anyLong())).thenReturn(1);
+
+        rollupService.recordUpdated(transaction, after);
+
+        LocalDate day = LocalDate.of(2024, 3, 10);
+        verify(dailyBalanceRepository).applyDelta(user, day, new BigDecimal("0.00"), new BigDecimal("-100.00"), -1);
+        verify(dailyBalanceRepository).applyDelta(user, day, new BigDecimal("100.00"), new BigDecimal("0.00"), 1);
+    }
+
+    @Test
+    void recordCreatedAll_UpdatesExistingDaysAndInsertsNewOnes() {
+        Transaction sameDayIncome = Transaction.builder()
+                .amount(new BigDecimal("500.00"))
+                .date(LocalDate.of(2024, 3, 10))
+                .category(salary)
+                .type(TransactionType.INCOME)
+                .user(user)
+                .build();
+        Transaction otherDay = Transaction.builder()
+                .amount(new BigDecimal("30.00"))
+                .date(LocalDate.of(2024, 3, 11))
+                .category(food)
+                .type(TransactionType.EXPENSE)
+                .user(user)
+                .build();
+        DailyBalance existing = DailyBalance.builder()
+                .user(user)
+                .date(LocalDate.of(2024, 3, 10))
+                .income(new BigDecimal("1.00"))
+                .expenses(new BigDecimal("2.00"))
+                .count(2)
+                .build();
+        when(monthlyRollupRepository.applyDelta(any(), anyInt(), anyInt(), any(), any(), any(), anyLong()))
+                .thenReturn(1);
+        when(dailyBalanceRepository.findBetween(user, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 12))).thenReturn(List.of(existing));
+
+        rollupService.recordCreatedAll(List.of(transaction, sameDayIncome, otherDay));
+
+        assertEquals(new BigDecimal("501.00"), existing.getIncome());
+        assertEquals(new BigDecimal("102.00"), existing.getExpenses());
+        assertEquals(4, existing.getCount());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DailyBalance>> captor = ArgumentCaptor.forClass(List.class);
+        verify(dailyBalanceRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        DailyBalance created = captor.getValue().get(0);
+        assertEquals(LocalDate.of(2024, 3, 11), created.getDate());
+        assertEquals(new BigDecimal("0.00"), created.getIncome());
+        assertEquals(new BigDecimal("30.00"), created.getExpenses());
+        assertEquals(1, created.getCount());
+        verify(dailyBalanceRepository, never()).applyDelta(any(), any(), any(), any(), anyLong());
+    }
+
+    private DailyBalance dailyBalance(LocalDate date, String income, String expenses, long count) {
+        return DailyBalance.builder()
+                .user(user)
+                .date(date)
+                .income(new BigDecimal(income))
+                .expenses(new BigDecimal(expenses))
+                .count(count)
+                .build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.finance.manager.service;
+
+import com.finance.manager.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    void execute_ConcurrentIdenticalCalls_ShareOneComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute(1L, "year-2024", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "report";
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(1L, "year-2024", () -> {
+                    computations.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            waitForCoalesced(4);
+
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("report", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(1, singleFlight.stats().getExecutions());
+            assertEquals(4, singleFlight.stats().getCoalesced());
+            assertEquals(0, singleFlight.stats().getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_SequentialCalls_RunEachTime() {
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute(1L, "year-2024", computations::incrementAndGet);
+        singleFlight.execute(1L, "year-2024", computations::incrementAndGet);
+
+        assertEquals(2, computations.get());
+        assertEquals(0, singleFlight.stats().getCoalesced());
+    }
+
+    @Test
+    void execute_DifferentUsersOrKeys_DoNotShare() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute(1L, "year-2024", () -> {
+                await(release);
+                return "user-1";
+            }));
+            waitForInFlight(1);
+
+            assertEquals("user-2", singleFlight.execute(2L, "year-2024", () -> "user-2"));
+            assertEquals("other-year", singleFlight.execute(1L, "year-2023", () -> "other-year"));
+
+            release.countDown();
+            assertEquals("user-1", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_Failure_PropagatesToWaitersAndIsNotKept() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, "year-2024", () -> {
+                started.countDown();
+                await(release);
+                throw new InvalidRequestException("boom");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute(1L, "year-2024", () -> "unused"));
+            waitForCoalesced(1);
+
+            release.countDown();
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InvalidRequestException.class, failure.getCause());
+            assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertEquals("retry", singleFlight.execute(1L, "year-2024", () -> "retry"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void forgetUser_LaterCallersStartFreshComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> stale = executor.submit(() -> singleFlight.execute(1L, "year-2024", () -> {
+                await(release);
+                return "before-write";
+            }));
+            waitForInFlight(1);
+
+            singleFlight.forgetUser(1L);
+
+            assertEquals("after-write", singleFlight.execute(1L, "year-2024", () -> "after-write"));
+            release.countDown();
+            assertEquals("before-write", stale.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void waitForCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.stats().getCoalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, singleFlight.stats().getCoalesced());
+    }
+
+    private void waitForInFlight(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.stats().getInFlight() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, singleFlight.stats().getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.finance.manager.service;
+
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.manager.entity.Category;
+import com.finance.manager.entity.Transaction;
+import com.finance.manager.entity.User;
+import com.finance.manager.enums.ExportFormat;
+import com.finance.manager.enums.TransactionType;
+import com.finance.manager.exception.InvalidRequestException;
+import com.finance.manager.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CategoryDictionary categoryDictionary;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TransactionExportService transactionExportService;
+
+    private User user;
+    private Category salaryCategory;
+    private Transaction salary;
+    private Transaction dinner;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("test@example.com").build();
+        salaryCategory = Category.builder().id(7L).name("Salary").type(TransactionType.INCOME).custom(false).build();
+
+        salary = Transaction.builder()
+                .id(2L)
+                .amount(new BigDecimal("5000"))
+                .date(LocalDate.of(2024, 1, 31))
+                .category(salaryCategory)
+                .type(TransactionType.INCOME)
+                .user(user)
+                .build();
+
+        dinner = Transaction.builder()
+                .id(1L)
+                .amount(new BigDecimal("42.50"))
+                .date(LocalDate.of(2024, 1, 15))
+                .category(Category.builder().id(8L).name("Food").type(TransactionType.EXPENSE).build())
+                .type(TransactionType.EXPENSE)
+                .description("Dinner, \"downtown\"")
+                .user(user)
+                .build();
+    }
+
+    @Test
+    void exportTransactions_Csv_WritesHeaderAndEscapedRows() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(transactionRepository.streamByUserWithFilters(user, LocalDate.of(2024, 1, 1), null, null))
+                .thenReturn(Stream.of(salary, dinner));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportTransactions(user, "2024-01-01", null, null, ExportFormat.CSV)
+                .writeTo(out);
+
+        assertEquals("id,date,type,category,amount,description\n" +
+                "2,2024-01-31,INCOME,Salary,5000.00,\n" +
+                "1,2024-01-15,EXPENSE,Food,42.50,\"Dinner, \"\"downtown\"\"\"\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(salary);
+        verify(entityManager).detach(dinner);
+    }
+
+    @Test
+    void exportTransactions_Ndjson_WritesOneObjectPerLine() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(categoryDictionary.find("Salary", user)).thenReturn(CategoryDictionary.Entry.of(salaryCategory));
+        when(transactionRepository.streamByUserWithFilters(user, null, null, 7L))
+                .thenReturn(Stream.of(salary));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportTransactions(user, null, null, "Salary", ExportFormat.NDJSON)
+                .writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertEquals("Salary", objectMapper.readTree(lines[0]).get("category").asText());
+        assertEquals(5000.00, objectMapper.readTree(lines[0]).get("amount").asDouble());
+    }
+
+    @Test
+    void exportTransactions_UnknownCategory_WritesHeaderOnly() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportTransactions(user, null, null, "Unknown", ExportFormat.CSV)
+                .writeTo(out);
+
+        assertEquals("id,date,type,category,amount,description\n", out.toString(StandardCharsets.UTF_8));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void exportTransactions_RowStillLiveAndArchived_WrittenOnce() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2024, 2, 1, 12, 0);
+        salary.setCreatedAt(created);
+        dinner.setCreatedAt(created);
+        ArchivedTransaction older = new ArchivedTransaction(3L, LocalDate.of(2023, 12, 24), 1999L, 8L, "Food",
+                TransactionType.EXPENSE, "Gifts", created);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(transactionRepository.streamByUserWithFilters(user, null, null, null))
+                .thenReturn(Stream.of(salary, dinner));
+        when(archiveStore.hasArchive(1L)).thenReturn(true);
+        when(archiveStore.find(1L, null, null)).thenReturn(List.of(older, ArchivedTransaction.of(dinner)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportTransactions(user, null, null, null, ExportFormat.CSV)
+                .writeTo(out);
+
+        assertEquals("id,date,type,category,amount,description\n" +
+                "2,2024-01-31,INCOME,Salary,5000.00,\n" +
+                "1,2024-01-15,EXPENSE,Food,42.50,\"Dinner, \"\"downtown\"\"\"\n" +
+                "3,2023-12-24,EXPENSE,Food,19.99,Gifts\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportTransactions_InvalidDate_FailsBeforeStreaming() {
+        assertThrows(InvalidRequestException.class, () -> transactionExportService.exportTransactions(
+                user, "01-01-2024", null, null, ExportFormat.CSV));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void exportFormat_Unknown_ThrowsException() {
+        assertEquals(ExportFormat.NDJSON, ExportFormat.from("NDJSON"));
+        assertThrows(InvalidRequestException.class, () -> ExportFormat.from("xml"));
+    }
+}
@@ -1,8 +1,14 @@
 package com.finance.manager.service;
 
+import com.finance.manager.archive.ArchiveStore;
+import com.finance.manager.archive.ArchivedTransaction;
+import com.finance.manager.dto.projection.TransactionView;
 import com.finance.manager.dto.request.TransactionRequest;
 import com.finance.manager.dto.request.TransactionUpdateRequest;
+import com.finance.manager.dto.response.BudgetResponse;
 import com.finance.manager.dto.response.MessageResponse;
+import com.finance.manager.dto.response.TransactionBatchItemResult;
+import com.finance.manager.dto.response.TransactionBatchResponse;
 import com.finance.manager.dto.response.TransactionListResponse;
 import com.finance.manager.dto.response.TransactionResponse;
 import com.finance.manager.entity.Category;
@@ -11,16 +17,28 @@ import com.finance.manager.entity.User;
 import com.finance.manager.enums.TransactionType;
 import com.finance.manager.exception.InvalidRequestException;
 import com.finance.manager.exception.ResourceNotFoundException;
+import com.finance.manager.journal.JournalEntry;
+import com.finance.manager.journal.TransactionJournal;
 import com.finance.manager.repository.TransactionRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,12 +53,34 @@ class TransactionServiceTest {
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private LedgerStore ledgerStore;
+
+    @Mock
+    private TransactionJournal transactionJournal;
+
+    @Mock
+    private ArchiveStore archiveStore;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private TransactionService transactionService;
 
     private User user;
     private Category category;
     private Transaction transaction;
+    private TransactionView transactionView;
     private TransactionRequest transactionRequest;
 
     @BeforeEach
@@ -60,12 +100,15 @@ class TransactionServiceTest {
                 .id(1L)
                 .amount(new BigDecimal("5000.00"))
                 .date(LocalDate.of(2024, 1, 15))
-                .category("Salary")
+                .category(category)
                 .type(TransactionType.INCOME)
                 .description("Monthly salary")
                 .user(user)
                 .build();
 
+        transactionView = new TransactionView(1L, new BigDecimal("5000.00"), LocalDate.of(2024, 1, 15),
+                "Salary", "Monthly salary", TransactionType.INCOME, LocalDateTime.of(2024, 1, 15, 10, 30));
+
         transactionRequest = TransactionRequest.builder()
                 .amount(new BigDecimal("5000.00"))
                 .date("2024-01-15")
@@ -84,6 +127,59 @@ class TransactionServiceTest {
         assertNotNull(response);
         assertEquals(new BigDecimal("5000.00"), response.getAmount());
         assertEquals("Salary", response.getCategory());
+        verify(rollupService).recordCreated(transaction);
+        verify(ledgerStore).addedAfterCommit(1L, List.of(transaction));
+        verify(dataVersions).bumpAfterCommit(1L);
+    }
+
+    @Test
+    void createTransaction_WithBudget_ReportsBudgetStatus() {
+        Category food = Category.builder().id(2L).name("Food").type(TransactionType.EXPENSE).build();
+        Transaction expense = Transaction.builder()
+                .id(2L)
+                .amount(new BigDecimal("80.00"))
+                .date(LocalDate.of(2024, 1, 15))
+                .category(food)
+                .type(TransactionType.EXPENSE)
+                .user(user)
+                .build();
+        BudgetResponse budget = BudgetResponse.builder()
+                .category("Food").year(2024).month(1)
+                .amount(new BigDecimal("100.00")).spent(new BigDecimal("120.00"))
+                .remaining(new BigDecimal("-20.00")).overBudget(true)
+                .build();
+        when(categoryService.findCategoryByName("Food", user)).thenReturn(food);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(expense);
+        when(budgetService.statusAfterCreate(user, food, LocalDate.of(2024, 1, 15))).thenReturn(budget);
+
+        TransactionResponse response = transactionService.createTransaction(TransactionRequest.builder()
+                .amount(new BigDecimal("80.00")).date("2024-01-15").category("Food").build(), user);
+
+        assertSame(budget, response.getBudget());
+        assertTrue(response.getBudget().isOverBudget());
+        assertEquals(new BigDecimal("-20.00"), response.getBudget().getRemaining());
+        InOrder order = inOrder(rollupService, budgetService);
+        order.verify(rollupService).recordCreated(expense);
+        order.verify(budgetService).statusAfterCreate(user, food, LocalDate.of(2024, 1, 15));
+    }
+
+    @Test
+    void createTransaction_JournalEnabled_AppendsInsteadOfSaving() {
+        JournalEntry entry = new JournalEntry(51L, 1L, 1L, "Salary", TransactionType.INCOME,
+                LocalDate.of(2024, 1, 15), 500_000L, "Monthly salary", LocalDateTime.of(2024, 1, 15, 9, 0));
+        when(categoryService.findCategoryByName("Salary", user)).thenReturn(category);
+        when(transactionJournal.isEnabled()).thenReturn(true);
+        when(transactionJournal.append(user, category, new BigDecimal("5000.00"), LocalDate.of(2024, 1, 15),
+                "Monthly salary")).thenReturn(entry);
+
+        TransactionResponse response = transactionService.createTransaction(transactionRequest, user);
+
+        assertEquals(51L, response.getId());
+        assertEquals(new BigDecimal("5000.00"), response.getAmount());
+        assertEquals("Salary", response.getCategory());
+        assertNull(response.getBudget());
+        verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(rollupService, ledgerStore, budgetService, dataVersions);
     }
 
     @Test
@@ -112,40 +208,175 @@ class TransactionServiceTest {
 
     @Test
     void getAllTransactions_Success() {
-        when(transactionRepository.findByUserWithFilters(eq(user), isNull(), isNull(), isNull()))
-                .thenReturn(Arrays.asList(transaction));
+        when(transactionRepository.findByUserWithFilters(eq(user), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(Arrays.asList(transactionView));
 
-        TransactionListResponse response = transactionService.getAllTransactions(user, null, null, null);
+        TransactionListResponse response = transactionService.getAllTransactions(user, null, null, null, null, null);
 
         assertNotNull(response);
         assertEquals(1, response.getTransactions().size());
+        assertNull(response.getNextCursor());
     }
 
     @Test
     void getAllTransactions_WithFilters_Success() {
-        when(transactionRepository.findByUserWithFilters(eq(user), any(), any(), eq("Salary")))
-                .thenReturn(Arrays.asList(transaction));
+        when(categoryService.findCategoryByName("Salary", user)).thenReturn(category);
+        when(transactionRepository.findByUserWithFilters(eq(user), any(), any(), eq(1L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(transactionView));
 
         TransactionListResponse response = transactionService.getAllTransactions(
-                user, "2024-01-01", "2024-01-31", "Salary");
+                user, "2024-01-01", "2024-01-31", "Salary", null, null);
 
         assertNotNull(response);
         assertEquals(1, response.getTransactions().size());
     }
 
+    @Test
+    void getAllTransactions_UnknownCategory_ReturnsEmptyWithoutQuery() {
+        when(categoryService.findCategoryByName("Unknown", user))
+                .thenThrow(new ResourceNotFoundException("Category", "name", "Unknown"));
+
+        TransactionListResponse response = transactionService.getAllTransactions(
+                user, null, null, "Unknown", null, null);
+
+        assertTrue(response.getTransactions().isEmpty());
+        assertNull(response.getNextCursor());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getAllTransactions_MoreRowsThanLimit_ReturnsNextCursor() {
+        TransactionView older = new TransactionView(2L, new BigDecimal("100.00"), LocalDate.of(2024, 1, 10),
+                "Salary", null, TransactionType.INCOME, LocalDateTime.of(2024, 1, 10, 9, 0));
+
+        when(transactionRepository.findByUserWithFilters(eq(user), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 2))))
+                .thenReturn(Arrays.asList(transactionView, older));
+
+        TransactionListResponse response = transactionService.getAllTransactions(user, null, null, null, 1, null);
+
+        assertEquals(1, response.getTransactions().size());
+        assertNotNull(response.getNextCursor());
+
+        TransactionCursor cursor = TransactionCursor.decode(response.getNextCursor());
+        assertEquals(LocalDate.of(2024, 1, 15), cursor.getDate());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30), cursor.getCreatedAt());
+        assertEquals(1L, cursor.getId());
+    }
+
+    @Test
+    void getAllTransactions_WithCursor_QueriesAfterCursor() {
+        String cursor = new TransactionCursor(
+                LocalDate.of(2024, 1, 15), LocalDateTime.of(2024, 1, 15, 10, 30), 5L).encode();
+
+        when(transactionRepository.findByUserWithFiltersAfter(eq(user), isNull(), isNull(), isNull(),
+                eq(LocalDate.of(2024, 1, 15)), eq(LocalDateTime.of(2024, 1, 15, 10, 30)), eq(5L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(transactionView));
+
+        TransactionListResponse response = transactionService.getAllTransactions(user, null, null, null, 10, cursor);
+
+        assertEquals(1, response.getTransactions().size());
+        assertNull(response.getNextCursor());
+        verify(transactionRepository, never()).findByUserWithFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getAllTransactions_InvalidCursor_ThrowsException() {
+        assertThrows(InvalidRequestException.class,
+                () -> transactionService.getAllTransactions(user, null, null, null, null, "not-a-cursor"));
+    }
+
+    @Test
+    void getAllTransactions_LimitOutOfRange_ThrowsException() {
+        assertThrows(InvalidRequestException.class,
+                () -> transactionService.getAllTransactions(user, null, null, null, 0, null));
+        assertThrows(InvalidRequestException.class,
+                () -> transactionService.getAllTransactions(user, null, null, null, 501, null));
+    }
+
+    @Test
+    void validateListQuery_InvalidParameters_ThrowWithoutQuerying() {
+        assertThrows(InvalidRequestException.class,
+                () -> transactionService.validateListQuery("2024-13-01", null, null, null));
+        assertThrows(InvalidRequestException.class,
+                () -> transactionService.validateListQuery(null, null, 0, null));
+        assertThrows(InvalidRequestException.class,
+                () -> transactionService.validateListQuery(null, null, null, "not-a-cursor"));
+        transactionService.validateListQuery("2024-01-01", "2024-01-31", 50, null);
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getAllTransactions_WithArchive_MergesArchivedRowsNewestFirst() {
+        ArchivedTransaction june = archived(8L, LocalDate.of(2021, 6, 1));
+        ArchivedTransaction may = archived(9L, LocalDate.of(2021, 5, 1));
+        when(archiveStore.hasArchive(1L)).thenReturn(true);
+        when(transactionRepository.findByUserWithFilters(eq(user), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(transactionView));
+        when(archiveStore.find(1L, null, null)).thenReturn(List.of(may, june));
+
+        TransactionListResponse response = transactionService.getAllTransactions(user, null, null, null, 2, null);
+
+        assertEquals(List.of(1L, 8L), response.getTransactions().stream().map(TransactionResponse::getId).toList());
+        TransactionCursor cursor = TransactionCursor.decode(response.getNextCursor());
+        assertEquals(8L, cursor.getId());
+    }
+
+    @Test
+    void getAllTransactions_CursorIntoArchive_ReturnsOnlyOlderArchivedRows() {
+        ArchivedTransaction june = archived(8L, LocalDate.of(2021, 6, 1));
+        ArchivedTransaction may = archived(9L, LocalDate.of(2021, 5, 1));
+        String cursor = TransactionCursor.of(june.toView()).encode();
+        when(archiveStore.hasArchive(1L)).thenReturn(true);
+        when(transactionRepository.findByUserWithFiltersAfter(eq(user), isNull(), isNull(), isNull(),
+                eq(june.date()), eq(june.createdAt()), eq(8L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(archiveStore.find(1L, null, june.date())).thenReturn(List.of(may, june));
+
+        TransactionListResponse response = transactionService.getAllTransactions(user, null, null, null, 10, cursor);
+
+        assertEquals(List.of(9L), response.getTransactions().stream().map(TransactionResponse::getId).toList());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void getTransaction_Archived_ReadsFromArchive() {
+        when(transactionRepository.findViewByIdAndUser(8L, user)).thenReturn(Optional.empty());
+        when(archiveStore.findById(1L, 8L)).thenReturn(Optional.of(archived(8L, LocalDate.of(2021, 6, 1))));
+
+        TransactionResponse response = transactionService.getTransaction(8L, user);
+
+        assertEquals(8L, response.getId());
+        assertEquals("2021-06-01", response.getDate());
+    }
+
+    @Test
+    void updateAndDelete_Archived_Rejected() {
+        when(transactionRepository.findByIdAndUser(8L, user)).thenReturn(Optional.empty());
+        when(archiveStore.findById(1L, 8L)).thenReturn(Optional.of(archived(8L, LocalDate.of(2021, 6, 1))));
+
+        assertThrows(InvalidRequestException.class, () -> transactionService.updateTransaction(8L,
+                TransactionUpdateRequest.builder().amount(new BigDecimal("1.00")).build(), user));
+        assertThrows(InvalidRequestException.class, () -> transactionService.deleteTransaction(8L, user));
+        verify(transactionRepository, never()).save(any());
+        verify(transactionRepository, never()).delete(any());
+    }
+
     @Test
     void getTransaction_Success() {
-        when(transactionRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.findViewByIdAndUser(1L, user)).thenReturn(Optional.of(transactionView));
 
         TransactionResponse response = transactionService.getTransaction(1L, user);
 
         assertNotNull(response);
         assertEquals(1L, response.getId());
+        assertEquals("Monthly salary", response.getDescription());
+        verify(transactionRepository, never()).findByIdAndUser(any(), any());
     }
 
     @Test
     void getTransaction_NotFound_ThrowsException() {
-        when(transactionRepository.findByIdAndUser(999L, user)).thenReturn(Optional.empty());
+        when(transactionRepository.findViewByIdAndUser(999L, user)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, 
                 () -> transactionService.getTransaction(999L, user));
@@ -170,6 +401,7 @@ class TransactionServiceTest {
     @Test
     void updateTransaction_WithCategory_Success() {
         Category newCategory = Category.builder()
+                .id(2L)
                 .name("Bonus")
                 .type(TransactionType.INCOME)
                 .build();
@@ -185,6 +417,11 @@ class TransactionServiceTest {
         TransactionResponse response = transactionService.updateTransaction(1L, updateRequest, user);
 
         assertNotNull(response);
+        ArgumentCaptor<Transaction> previous = ArgumentCaptor.forClass(Transaction.class);
+        verify(rollupService).recordUpdated(previous.capture(), eq(transaction));
+        assertEquals("Salary", previous.getValue().getCategory().getName());
+        assertEquals("Bonus", transaction.getCategory().getName());
+        verify(ledgerStore).updatedAfterCommit(1L, transaction);
     }
 
     @Test
@@ -208,6 +445,8 @@ class TransactionServiceTest {
         assertNotNull(response);
         assertEquals("Transaction deleted successfully", response.getMessage());
         verify(transactionRepository).delete(transaction);
+        verify(rollupService).recordDeleted(transaction);
+        verify(ledgerStore).removedAfterCommit(1L, transaction);
     }
 
     @Test
@@ -217,5 +456,73 @@ class TransactionServiceTest {
         assertThrows(ResourceNotFoundException.class, 
                 () -> transactionService.deleteTransaction(999L, user));
     }
-}
 
+    @Test
+    void createTransactions_MixedItems_InsertsValidAndReportsRejected() {
+        ReflectionTestUtils.setField(transactionService, "maxBatchSize", 10);
+        List<TransactionRequest> requests = Arrays.asList(
+                transactionRequest,
+                TransactionRequest.builder().amount(new BigDecimal("-1")).date("2024-01-15").category("Salary").build(),
+                TransactionRequest.builder().amount(BigDecimal.TEN).date(LocalDate.now().plusDays(1).toString())
+                        .category("Salary").build(),
+                TransactionRequest.builder().amount(BigDecimal.TEN).date("2024-01-16").category("Unknown").build(),
+                TransactionRequest.builder().amount(new BigDecimal("25.50")).date("2024-02-01").category("Salary").build());
+
+        when(categoryService.findCategoryByName("Salary", user)).thenReturn(category);
+        when(categoryService.findCategoryByName("Unknown", user))
+                .thenThrow(new ResourceNotFoundException("Category", "name", "Unknown"));
+        doAnswer(invocation -> {
+            List<Transaction> inserted = invocation.getArgument(0);
+            for (int i = 0; i < inserted.size(); i++) {
+                inserted.get(i).setId(100L + i);
+            }
+            return inserted;
+        }).when(transactionRepository).saveAll(anyList());
+
+        TransactionBatchResponse response = transactionService.createTransactions(requests, user);
+
+        assertEquals(2, response.getCreated());
+        assertEquals(3, response.getRejected());
+        List<TransactionBatchItemResult> results = response.getResults();
+        assertEquals(TransactionBatchItemResult.CREATED, results.get(0).getStatus());
+        assertEquals(100L, results.get(0).getTransaction().getId());
+        assertEquals("Amount must be greater than 0", results.get(1).getError());
+        assertEquals("Transaction date cannot be in the future", results.get(2).getError());
+        assertEquals("Category not found with name: 'Unknown'", results.get(3).getError());
+        assertEquals(101L, results.get(4).getTransaction().getId());
+        assertEquals(4, results.get(4).getIndex());
+
+        verify(categoryService, times(1)).findCategoryByName("Salary", user);
+        verify(rollupService).recordCreatedAll(argThat(list -> list.size() == 2));
+        verify(ledgerStore).addedAfterCommit(eq(1L), argThat(list -> list.size() == 2));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void createTransactions_AllRejected_SkipsInsert() {
+        ReflectionTestUtils.setField(transactionService, "maxBatchSize", 10);
+        TransactionRequest invalid = TransactionRequest.builder().amount(BigDecimal.ONE).date("2024-13-45")
+                .category("Salary").build();
+
+        TransactionBatchResponse response = transactionService.createTransactions(List.of(invalid), user);
+
+        assertEquals(0, response.getCreated());
+        assertEquals("Invalid date format. Use YYYY-MM-DD", response.getResults().get(0).getError());
+        verify(transactionRepository, never()).saveAll(any());
+        verifyNoInteractions(rollupService);
+    }
+
+    @Test
+    void createTransactions_TooManyItems_ThrowsException() {
+        ReflectionTestUtils.setField(transactionService, "maxBatchSize", 1);
+
+        assertThrows(InvalidRequestException.class, () -> transactionService.createTransactions(
+                List.of(transactionRequest, transactionRequest), user));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private static ArchivedTransaction archived(long id, LocalDate date) {
+        return new ArchivedTransaction(id, date, 1000L, 1L, "Salary", TransactionType.INCOME, null,
+                date.atTime(9, 0));
+    }
+}
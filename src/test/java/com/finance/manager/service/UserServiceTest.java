@@ -8,12 +8,14 @@ import com.finance.manager.entity.User;
 import com.finance.manager.exception.DuplicateResourceException;
 import com.finance.manager.exception.UnauthorizedException;
 import com.finance.manager.repository.UserRepository;
+import com.finance.manager.shard.Shards;
 import jakarta.servlet.http.HttpSession;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import java.util.Optional;
@@ -33,6 +35,12 @@ class UserServiceTest {
     @Mock
     private HttpSession session;
 
+    @Mock
+    private Shards shards;
+
+    @Spy
+    private PrincipalCache principalCache = new PrincipalCache(100);
+
     @InjectMocks
     private UserService userService;
 
@@ -147,6 +155,44 @@ class UserServiceTest {
         assertThrows(UnauthorizedException.class, () -> userService.getAuthenticatedUser(session));
     }
 
+    @Test
+    void getAuthenticatedUser_Cached_SkipsRepository() {
+        when(session.getAttribute("authenticatedUser")).thenReturn(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.getAuthenticatedUser(session);
+        User result = userService.getAuthenticatedUser(session);
+
+        assertEquals(1L, result.getId());
+        assertEquals("test@example.com", result.getUsername());
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getAuthenticatedUser_AfterLogin_NoLookup() {
+        when(userRepository.findByUsername("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        userService.login(loginRequest, session);
+        when(session.getAttribute("authenticatedUser")).thenReturn(1L);
+
+        User result = userService.getAuthenticatedUser(session);
+
+        assertEquals(1L, result.getId());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void invalidatePrincipal_ReloadsUser() {
+        when(session.getAttribute("authenticatedUser")).thenReturn(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.getAuthenticatedUser(session);
+        userService.invalidatePrincipal(1L);
+        userService.getAuthenticatedUser(session);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
     @Test
     void isAuthenticated_ReturnsTrue() {
         when(session.getAttribute("authenticatedUser")).thenReturn(1L);
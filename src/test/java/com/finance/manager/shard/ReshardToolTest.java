@@ -0,0 +1,106 @@
+package com.finance.manager.shard;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReshardToolTest {
+
+    private static final int USERS = 60;
+    private static final long DEFAULT_CATEGORY = 1L;
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String name = UUID.randomUUID().toString();
+        for (int shard = 0; shard < 3; shard++) {
+            dataSources.add(new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + shard + ";DB_CLOSE_DELAY=-1",
+                    "sa", ""));
+        }
+        Flyway.configure().dataSource(dataSources.get(0)).locations("classpath:db/migration").load().migrate();
+        JdbcTemplate directory = jdbc(0);
+        directory.update("INSERT INTO categories (id, name, type, custom, user_id) VALUES (?, 'Food', 'EXPENSE', " +
+                "FALSE, NULL)", DEFAULT_CATEGORY);
+        for (long userId = 1; userId <= USERS; userId++) {
+            directory.update("INSERT INTO users (id, username, password, full_name, phone_number, created_at) " +
+                    "VALUES (?, ?, 'x', 'User', '+1', CURRENT_TIMESTAMP)", userId, "user" + userId + "@example.com");
+            directory.update("INSERT INTO categories (id, name, type, custom, user_id) VALUES (?, 'Side job', " +
+                    "'INCOME', TRUE, ?)", 1000 + userId, userId);
+            directory.update("INSERT INTO goals (id, goal_name, target_amount, target_date, start_date, user_id, " +
+                    "created_at) VALUES (?, 'Car', 5000, DATE '2030-01-01', DATE '2024-01-01', ?, " +
+                    "CURRENT_TIMESTAMP)", 2000 + userId, userId);
+            for (long n = 0; n < 3; n++) {
+                directory.update("INSERT INTO transactions (id, amount, date, type, user_id, created_at, " +
+                        "category_id) VALUES (?, 10, DATE '2024-03-01', 'EXPENSE', ?, CURRENT_TIMESTAMP, ?)",
+                        3000 + userId * 10 + n, userId, n == 0 ? 1000 + userId : DEFAULT_CATEGORY);
+            }
+        }
+    }
+
+    @Test
+    void run_MovesEveryUsersRowsToItsShard() {
+        long moved = new ReshardTool(dataSources, 1, 3, 7).run();
+
+        long expectedMoved = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            int shard = Shards.shardOf(userId, 3);
+            expectedMoved += shard != 0 ? 1 : 0;
+            for (int other = 0; other < 3; other++) {
+                int expected = other == shard ? 1 : 0;
+                assertEquals(expected, count(other, "goals", userId), "goals of user " + userId);
+                assertEquals(expected, count(other, "categories", userId), "categories of user " + userId);
+                assertEquals(expected * 3, count(other, "transactions", userId), "transactions of user " + userId);
+            }
+            // The directory keeps every user; the user's shard holds a copy for the foreign keys.
+            assertEquals(1, jdbc(0).queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, userId));
+            assertEquals(1, jdbc(shard).queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class,
+                    userId));
+        }
+        assertEquals(expectedMoved, moved);
+        assertTrue(moved > 0 && moved < USERS);
+        for (int shard = 1; shard < 3; shard++) {
+            assertEquals(1, jdbc(shard).queryForObject("SELECT COUNT(*) FROM categories WHERE user_id IS NULL",
+                    Long.class));
+        }
+    }
+
+    @Test
+    void run_NewShardsAllocateIdsFromTheirOwnRange() {
+        new ReshardTool(dataSources, 1, 3, 100).run();
+
+        long next = jdbc(2).queryForObject("SELECT NEXT VALUE FOR transactions_seq", Long.class);
+        assertEquals((2L << ShardSchema.ID_RANGE_BITS) + 1, next);
+    }
+
+    @Test
+    void run_AgainOrBackToFewerShards_LeavesNothingBehind() {
+        new ReshardTool(dataSources, 1, 3, 100).run();
+        assertEquals(0, new ReshardTool(dataSources, 3, 3, 100).run());
+
+        new ReshardTool(dataSources, 3, 1, 100).run();
+
+        for (int shard = 1; shard < 3; shard++) {
+            assertEquals(0, jdbc(shard).queryForObject("SELECT COUNT(*) FROM transactions", Long.class));
+            assertEquals(0, jdbc(shard).queryForObject("SELECT COUNT(*) FROM users", Long.class));
+        }
+        assertEquals(USERS * 3L, jdbc(0).queryForObject("SELECT COUNT(*) FROM transactions", Long.class));
+        assertEquals(USERS, jdbc(0).queryForObject("SELECT COUNT(*) FROM goals", Long.class));
+    }
+
+    private long count(int shard, String table, long userId) {
+        return jdbc(shard).queryForObject("SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Long.class,
+                userId);
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(dataSources.get(shard));
+    }
+}
@@ -0,0 +1,168 @@
+package com.finance.manager.shard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.manager.dto.request.CategoryRequest;
+import com.finance.manager.dto.request.LoginRequest;
+import com.finance.manager.dto.request.RegisterRequest;
+import com.finance.manager.dto.request.TransactionRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.math.BigDecimal;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Runs requests through the full stack against three in-memory shards: the filter and the session
+// lookup bind the user's shard, the open session acquires its connection only once that binding is
+// made, and the asynchronous export writes from another thread on the shard the request captured.
+@SpringBootTest(properties = {
+        "app.shards.count=3",
+        "spring.datasource.url=jdbc:h2:mem:shard_routing_0;DB_CLOSE_DELAY=-1",
+        "app.shards.url-template=jdbc:h2:mem:shard_routing_%d;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class ShardRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Shards shards;
+
+    @Test
+    void userOnAnotherShard_RequestsUseOnlyThatShard() throws Exception {
+        // Ids are handed out in order, so some user among the first few lands away from shard 0.
+        Long userId = null;
+        String username = null;
+        for (int i = 0; userId == null || shards.shardOf(userId) == 0; i++) {
+            username = "shard" + i + "@example.com";
+            userId = register(username);
+        }
+        int home = shards.shardOf(userId);
+        MockHttpSession session = login(username);
+
+        mockMvc.perform(post("/api/categories").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(CategoryRequest.builder().name("Hobbies").type("EXPENSE").build())))
+                .andExpect(status().isCreated());
+        createTransaction(session, "2500.00", "Salary", "Pay");
+        createTransaction(session, "40.00", "Food", "Groceries");
+        createTransaction(session, "60.00", "Hobbies", "Paint");
+
+        mockMvc.perform(get("/api/transactions").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions.length()").value(3));
+
+        MvcResult export = mockMvc.perform(get("/api/transactions/export").session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(4, csv.lines().count());
+        assertTrue(csv.contains("Groceries") && csv.contains("Paint") && csv.contains("Pay"));
+
+        mockMvc.perform(get("/api/reports/monthly/2024/3").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.netSavings").value(2400.00));
+
+        for (int shard = 0; shard < shards.count(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shards.dataSource(shard));
+            int expected = shard == home ? 3 : 0;
+            assertEquals(expected, count(jdbc, "transactions", "user_id", userId), "transactions on shard " + shard);
+            assertEquals(shard == home ? 1 : 0, count(jdbc, "categories", "user_id", userId),
+                    "custom categories on shard " + shard);
+            assertEquals(shard == 0 || shard == home ? 1 : 0, count(jdbc, "users", "id", userId),
+                    "user row on shard " + shard);
+            assertEquals(defaults(new JdbcTemplate(shards.dataSource(0))), defaults(jdbc),
+                    "default categories on shard " + shard);
+        }
+    }
+
+    @Test
+    void copyToShardFails_LoginCopiesTheUser() throws Exception {
+        // The copy made after registration fails on every other shard.
+        for (int shard = 1; shard < shards.count(); shard++) {
+            new JdbcTemplate(shards.dataSource(shard)).execute("ALTER TABLE users RENAME TO users_unavailable");
+        }
+        Long userId = null;
+        String username = null;
+        try {
+            for (int i = 0; userId == null || shards.shardOf(userId) == 0; i++) {
+                username = "unreplicated" + i + "@example.com";
+                userId = register(username);
+            }
+        } finally {
+            for (int shard = 1; shard < shards.count(); shard++) {
+                new JdbcTemplate(shards.dataSource(shard)).execute("ALTER TABLE users_unavailable RENAME TO users");
+            }
+        }
+        JdbcTemplate home = new JdbcTemplate(shards.dataSource(shards.shardOf(userId)));
+        assertEquals(0, count(home, "users", "id", userId));
+
+        MockHttpSession session = login(username);
+        assertEquals(1, count(home, "users", "id", userId));
+        createTransaction(session, "40.00", "Food", "Groceries");
+        assertEquals(1, count(home, "transactions", "user_id", userId));
+    }
+
+    private Long register(String username) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(RegisterRequest.builder()
+                                .username(username)
+                                .password("password123")
+                                .fullName("Shard User")
+                                .phoneNumber("+1234567890")
+                                .build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("userId").asLong();
+    }
+
+    private MockHttpSession login(String username) throws Exception {
+        return (MockHttpSession) mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(LoginRequest.builder().username(username).password("password123").build())))
+                .andExpect(status().isOk())
+                .andReturn().getRequest().getSession();
+    }
+
+    private void createTransaction(MockHttpSession session, String amount, String category, String description)
+            throws Exception {
+        mockMvc.perform(post("/api/transactions").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(TransactionRequest.builder()
+                                .amount(new BigDecimal(amount))
+                                .date("2024-03-15")
+                                .category(category)
+                                .description(description)
+                                .build())))
+                .andExpect(status().isCreated());
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static int count(JdbcTemplate jdbc, String table, String column, Long userId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?", Integer.class,
+                userId);
+    }
+
+    private static List<String> defaults(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT id || ':' || name FROM categories WHERE user_id IS NULL ORDER BY id",
+                String.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.finance.manager.shard;
+
+import org.junit.jupiter.api.Test;
+import javax.sql.DataSource;
+import java.util.Collections;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ShardsTest {
+
+    @Test
+    void shardOf_OneShard_AlwaysShardZero() {
+        for (long userId = 1; userId <= 1000; userId++) {
+            assertEquals(0, Shards.shardOf(userId, 1));
+        }
+    }
+
+    @Test
+    void shardOf_SpreadsUsersEvenly() {
+        int[] users = new int[4];
+        for (long userId = 1; userId <= 40_000; userId++) {
+            users[Shards.shardOf(userId, 4)]++;
+        }
+        for (int count : users) {
+            assertTrue(count > 9_000 && count < 11_000, "shard holds " + count + " of 40000 users");
+        }
+    }
+
+    @Test
+    void shardOf_AddingAShard_OnlyMovesUsersOntoTheNewShard() {
+        int moved = 0;
+        for (long userId = 1; userId <= 40_000; userId++) {
+            int before = Shards.shardOf(userId, 4);
+            int after = Shards.shardOf(userId, 5);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+        assertTrue(moved > 7_000 && moved < 9_000, moved + " of 40000 users moved");
+    }
+
+    @Test
+    void shardOf_UsesTheConfiguredCount() {
+        Shards shards = new Shards(Collections.nCopies(3, mock(DataSource.class)));
+
+        assertEquals(3, shards.count());
+        for (long userId = 1; userId <= 100; userId++) {
+            assertEquals(Shards.shardOf(userId, 3), shards.shardOf(userId));
+        }
+    }
+}